@@ -31,8 +31,11 @@ CREATE TABLE IF NOT EXISTS trades (
     created_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
     );
 
-CREATE INDEX IF NOT EXISTS idx_trades_mode_symbol_ts
-    ON trades(mode, symbol, purchased_at);
+-- Every read is scoped to one account, so the account leads the index
+DROP INDEX IF EXISTS idx_trades_mode_symbol_ts;
+
+CREATE INDEX IF NOT EXISTS idx_trades_account_mode_symbol_ts
+    ON trades(account_id, mode, symbol, purchased_at);
 
 CREATE TABLE IF NOT EXISTS portfolio_snapshots (
     id              BIGSERIAL PRIMARY KEY,
@@ -46,8 +49,16 @@ CREATE TABLE IF NOT EXISTS portfolio_snapshots (
     total_value     NUMERIC(18,8) NOT NULL
     );
 
-CREATE INDEX IF NOT EXISTS idx_snapshots_mode_symbol_purchased_at
-    ON portfolio_snapshots(mode, symbol, purchased_at);
+DROP INDEX IF EXISTS idx_snapshots_mode_symbol_purchased_at;
+
+CREATE INDEX IF NOT EXISTS idx_snapshots_account_mode_symbol_purchased_at
+    ON portfolio_snapshots(account_id, mode, symbol, purchased_at);
+
+-- How far into each node's ledger journal the accounts, positions, trades and snapshots tables are
+CREATE TABLE IF NOT EXISTS ledger_projection (
+    journal         VARCHAR(64) PRIMARY KEY,
+    seq             BIGINT NOT NULL
+    );
 
 CREATE TABLE IF NOT EXISTS candles (
     symbol          VARCHAR(20) NOT NULL,
@@ -60,6 +71,82 @@ CREATE TABLE IF NOT EXISTS candles (
     volume          NUMERIC(18,8) NOT NULL,
     PRIMARY KEY(symbol, time_interval, open_time)
     );
+
+CREATE TABLE IF NOT EXISTS live_indicator_state (
+    account_id      BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    symbol          VARCHAR(20) NOT NULL,
+    time_interval   VARCHAR(10) NOT NULL,
+    closes          NUMERIC(18,8)[] NOT NULL,
+    prev_fast       NUMERIC(18,8),
+    prev_slow       NUMERIC(18,8),
+    updated_at      TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY(account_id, symbol, time_interval)
+    );
+
+-- Where the streamed backtest whose rows are in the TRAIN tables stopped, so a later request over the same
+-- start and parameters only runs the candles after it
+CREATE TABLE IF NOT EXISTS backtest_checkpoints (
+    account_id          BIGINT NOT NULL REFERENCES accounts(id) ON DELETE CASCADE,
+    symbol              VARCHAR(20) NOT NULL,
+    time_interval       VARCHAR(10) NOT NULL,
+    start_ms            BIGINT NOT NULL,
+    initial_balance     NUMERIC(18,8) NOT NULL,
+    risk_pct            NUMERIC(18,8) NOT NULL,
+    strategy            VARCHAR(128) NOT NULL,
+    last_open_ms        BIGINT NOT NULL,
+    closes              NUMERIC(18,8)[] NOT NULL,
+    prev_fast           NUMERIC(18,8),
+    prev_slow           NUMERIC(18,8),
+    cash_balance        NUMERIC(18,8) NOT NULL,
+    position_qty        NUMERIC(18,8) NOT NULL,
+    position_avg_entry  NUMERIC(18,8) NOT NULL,
+    realized_pnl        NUMERIC(18,8) NOT NULL,
+    trade_count         INT NOT NULL,
+    peak_value          NUMERIC(18,8) NOT NULL,
+    max_drawdown        NUMERIC(18,8) NOT NULL,
+    last_value          NUMERIC(18,8) NOT NULL,
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    PRIMARY KEY(account_id, symbol)
+    );
+
+CREATE TABLE IF NOT EXISTS backtest_jobs (
+    id              BIGSERIAL PRIMARY KEY,
+    created_at      TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    );
+
+-- One row per backtest of a job; workers claim PENDING rows (or RUNNING rows whose lease ran out)
+-- with FOR UPDATE SKIP LOCKED and keep lease_until moving while they work
+CREATE TABLE IF NOT EXISTS backtest_tasks (
+    id                  BIGSERIAL PRIMARY KEY,
+    job_id              BIGINT NOT NULL REFERENCES backtest_jobs(id) ON DELETE CASCADE,
+    symbol              VARCHAR(20) NOT NULL,
+    time_interval       VARCHAR(10) NOT NULL,
+    start_ms            BIGINT,
+    end_ms              BIGINT,
+    initial_balance     NUMERIC(18,8) NOT NULL,
+    risk_pct            NUMERIC(18,8) NOT NULL,
+    status              VARCHAR(10) NOT NULL DEFAULT 'PENDING',
+    worker              VARCHAR(128),
+    lease_until         TIMESTAMPTZ,
+    attempts            INT NOT NULL DEFAULT 0,
+    final_cash          NUMERIC(18,8),
+    position_qty        NUMERIC(18,8),
+    position_avg_entry  NUMERIC(18,8),
+    final_value         NUMERIC(18,8),
+    realized_pnl        NUMERIC(18,8),
+    trade_count         INT,
+    return_pct          NUMERIC(18,8),
+    max_drawdown_pct    NUMERIC(18,8),
+    error               TEXT,
+    updated_at          TIMESTAMPTZ NOT NULL DEFAULT NOW()
+    );
+
+CREATE INDEX IF NOT EXISTS idx_backtest_tasks_claimable
+    ON backtest_tasks(id) WHERE status IN ('PENDING', 'RUNNING');
+
+CREATE INDEX IF NOT EXISTS idx_backtest_tasks_job
+    ON backtest_tasks(job_id);
+
     INSERT INTO accounts (symbol, cash_balance, created_at)
     SELECT 'USDT', 10000, TIMESTAMPTZ '2026-01-01 00:00:00+02'
         WHERE NOT EXISTS (SELECT 1 FROM accounts);
\ No newline at end of file
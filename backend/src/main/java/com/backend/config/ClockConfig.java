@@ -0,0 +1,16 @@
+package com.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    // Single time source so replays and tests can substitute their own
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
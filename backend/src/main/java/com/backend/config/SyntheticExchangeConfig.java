@@ -0,0 +1,25 @@
+package com.backend.config;
+
+import com.backend.controller.SyntheticStreamHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@Profile("exchange")
+public class SyntheticExchangeConfig implements WebSocketConfigurer {
+
+    private final SyntheticStreamHandler streams;
+
+    public SyntheticExchangeConfig(SyntheticStreamHandler streams) {
+        this.streams = streams;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(streams, "/ws/*").setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,33 @@
+package com.backend.controller;
+
+import com.backend.dto.AccountDTO;
+import com.backend.dto.CreateAccountRequest;
+import com.backend.repository.AccountRepository;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Accounts sharing this instance; the other endpoints take ?accountId= and default to the oldest account
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountController {
+
+    private final AccountRepository accounts;
+
+    public AccountController(AccountRepository accounts) {
+        this.accounts = accounts;
+    }
+
+    @GetMapping
+    public List<AccountDTO> list() {
+        return accounts.listAccounts();
+    }
+
+    @PostMapping
+    public AccountDTO create(@Valid @RequestBody CreateAccountRequest req) {
+        BigDecimal cash = BigDecimal.valueOf(req.initialBalance());
+        return new AccountDTO(accounts.createAccount(cash), cash);
+    }
+}
@@ -0,0 +1,39 @@
+package com.backend.controller;
+
+import com.backend.dto.BacktestJobDTO;
+import com.backend.dto.BacktestJobRequest;
+import com.backend.services.BacktestJobService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/api/backtests/jobs")
+public class BacktestJobController {
+
+    private final BacktestJobService jobs;
+
+    public BacktestJobController(BacktestJobService jobs) {
+        this.jobs = jobs;
+    }
+
+    // Queues the sweep for the worker nodes and returns the job, all tasks PENDING
+    @PostMapping
+    public BacktestJobDTO submit(@Valid @RequestBody BacktestJobRequest req) {
+        long id = jobs.submit(
+                req.symbols(),
+                req.intervals(),
+                req.riskPcts().stream().map(BigDecimal::valueOf).toList(),
+                BigDecimal.valueOf(req.initialBalance()),
+                BotController.parseIsoToMs(req.startTime()),
+                BotController.parseIsoToMs(req.endTime()));
+        return jobs.job(id).orElseThrow();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<BacktestJobDTO> job(@PathVariable long id) {
+        return ResponseEntity.of(jobs.job(id));
+    }
+}
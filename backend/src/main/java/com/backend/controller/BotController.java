@@ -2,18 +2,27 @@ package com.backend.controller;
 
 import com.backend.dto.BotMode;
 import com.backend.dto.BotStatusDTO;
+import com.backend.dto.LatencyStatsDTO;
+import com.backend.dto.PipelineStageDTO;
 import com.backend.dto.StartBotRequest;
+import com.backend.services.AccountBusyException;
 import com.backend.services.BotEngine;
+import com.backend.services.LatencyTracker;
 import com.backend.services.LiveBotRunner;
+import com.backend.services.LivePipeline;
 import com.backend.models.Candles;
+import com.backend.repository.AccountRepository;
 import com.backend.services.MarketDataService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bot")
@@ -22,65 +31,126 @@ public class BotController {
     private final BotEngine engine;
     private final MarketDataService market;
     private final LiveBotRunner liveRunner;
+    private final LatencyTracker latency;
+    private final LivePipeline pipeline;
+    private final AccountRepository accounts;
 
-    public BotController(BotEngine engine, MarketDataService market, LiveBotRunner liveRunner) {
+    public BotController(BotEngine engine, MarketDataService market, LiveBotRunner liveRunner,
+                         LatencyTracker latency, LivePipeline pipeline, AccountRepository accounts) {
         this.engine = engine;
         this.market = market;
         this.liveRunner = liveRunner;
+        this.latency = latency;
+        this.pipeline = pipeline;
+        this.accounts = accounts;
     }
 
     @GetMapping("/status")
     public BotStatusDTO status() {
-        return new BotStatusDTO(engine.isRunning(), engine.getMode(), engine.getSymbol(), engine.getInterval());
+        return new BotStatusDTO(engine.isRunning(), engine.getMode(), engine.getSymbol(), engine.getInterval(),
+                engine.getAccountId());
     }
 
+    // Live tick latency per stage in microseconds: fetch, indicators, signal, ledger, persistence and total
+    @GetMapping("/latency")
+    public Map<String, LatencyStatsDTO> latency() {
+        return latency.snapshot();
+    }
+
+    @DeleteMapping("/latency")
+    public void resetLatency() {
+        latency.reset();
+    }
+
+    // Live pipeline stages in order: ticks handled, batch sizes, ring fill and backpressure stalls
+    @GetMapping("/pipeline")
+    public List<PipelineStageDTO> pipeline() {
+        return pipeline.stats();
+    }
+
+    // Without an account, whatever session runs is stopped
     @PostMapping("/pause")
-    public void pause() {
-        engine.stop();
+    public void pause(@RequestParam(required = false) Long accountId) {
+        if (accountId == null) engine.stop();
+        else engine.stop(accounts.resolve(accountId));
     }
 
     @PostMapping("/reset")
-    public void reset(@RequestParam BotMode mode, @RequestParam String symbol) {
-        engine.reset(mode, symbol);
+    public void reset(@RequestParam(required = false) Long accountId,
+                      @RequestParam BotMode mode, @RequestParam String symbol) {
+        engine.reset(accounts.resolve(accountId), mode, symbol);
     }
 
     @PostMapping("/start")
     public void start(@Valid @RequestBody StartBotRequest req) {
-        // Prevent overlapping sessions
-        engine.stop();
+        long accountId = accounts.resolve(req.accountId());
+        Long startMs = req.mode() == BotMode.TRAIN ? parseIsoToMs(req.startTime()) : null;
+        Long endMs = req.mode() == BotMode.TRAIN ? parseIsoToMs(req.endTime()) : null;
+
+        // Replaces the account's own session; another account's is left running and the start refused
+        long claim = engine.claim(accountId);
 
         if (req.mode() == BotMode.TRAIN) {
-            Long startMs = parseIsoToMs(req.startTime());
-            Long endMs = parseIsoToMs(req.endTime());
-
-            List<Candles> candles = market.candles(
-                    req.symbol(),
-                    req.interval(),
-                    startMs,
-                    endMs,
-                    1000
-            );
+            try {
+                // A range runs in full, however long, continuing the last run over it when it can;
+                // without a start, the latest candles are backtested
+                if (startMs != null) {
+                    engine.rangeBacktest(
+                            accountId,
+                            req.symbol(),
+                            req.interval(),
+                            startMs,
+                            endMs,
+                            BigDecimal.valueOf(req.initialBalance()),
+                            BigDecimal.valueOf(req.riskPct())
+                    );
+                } else {
+                    List<Candles> candles = market.candles(
+                            req.symbol(),
+                            req.interval(),
+                            null,
+                            endMs,
+                            1000
+                    );
 
-            engine.runBacktest(
-                    req.symbol(),
-                    req.interval(),
-                    candles,
-                    BigDecimal.valueOf(req.initialBalance()),
-                    BigDecimal.valueOf(req.riskPct())
-            );
+                    engine.runBacktest(
+                            accountId,
+                            req.symbol(),
+                            req.interval(),
+                            candles,
+                            BigDecimal.valueOf(req.initialBalance()),
+                            BigDecimal.valueOf(req.riskPct())
+                    );
+                }
+            } finally {
+                engine.release(claim);
+            }
 
         } else {
-            engine.startLive(
-                    req.symbol(),
-                    req.interval(),
-                    BigDecimal.valueOf(req.initialBalance())
-            );
+            // A live session keeps the claim until it is paused or stops
+            try {
+                engine.startLive(
+                        accountId,
+                        req.symbol(),
+                        req.interval(),
+                        BigDecimal.valueOf(req.initialBalance())
+                );
 
-            liveRunner.setRiskPct(BigDecimal.valueOf(req.riskPct()));
+                liveRunner.setRiskPct(BigDecimal.valueOf(req.riskPct()));
+                liveRunner.start();
+            } catch (RuntimeException e) {
+                engine.release(claim);
+                throw e;
+            }
         }
     }
 
-    private static Long parseIsoToMs(String iso) {
+    @ExceptionHandler(AccountBusyException.class)
+    public ResponseEntity<Map<String, String>> conflict(AccountBusyException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+
+    static Long parseIsoToMs(String iso) {
         if (iso == null || iso.isBlank()) return null;
         try {
             return OffsetDateTime.parse(iso).toInstant().toEpochMilli();
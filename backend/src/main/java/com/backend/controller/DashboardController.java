@@ -0,0 +1,58 @@
+package com.backend.controller;
+
+import com.backend.dto.BotStatusDTO;
+import com.backend.dto.DashboardDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.repository.AccountRepository;
+import com.backend.services.BotEngine;
+import com.backend.services.RecentActivity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One poll for the dashboard: status, the newest equity point, trades since the client's cursor and trade totals,
+// all answered from RecentActivity's in-memory state once it is warm
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final BotEngine engine;
+    private final RecentActivity recent;
+    private final AccountRepository accounts;
+
+    public DashboardController(BotEngine engine, RecentActivity recent, AccountRepository accounts) {
+        this.engine = engine;
+        this.recent = recent;
+        this.accounts = accounts;
+    }
+
+    // Without sinceMs, the newest `limit` trades; with it, those at or after it. The cursor's own millisecond is
+    // sent again because a trade can land in it after the previous poll: the client replaces its rows from there.
+    @GetMapping
+    public DashboardDTO dashboard(@RequestParam(required = false) Long accountId,
+                                  @RequestParam String mode, @RequestParam String symbol,
+                                  @RequestParam(required = false) Long sinceMs,
+                                  @RequestParam(defaultValue = "300") int limit) {
+        long account = accounts.resolve(accountId);
+
+        List<TradeDTO> newest = recent.trades(account, mode, symbol, limit);
+        List<TradeDTO> delta = new ArrayList<>();
+        for (TradeDTO t : newest) {
+            if (sinceMs != null && t.purchasedAt().toInstant().toEpochMilli() < sinceMs) break;
+            delta.add(t);
+        }
+        boolean truncated = sinceMs != null && !newest.isEmpty() && delta.size() == newest.size() && newest.size() >= limit;
+        Long cursor = delta.isEmpty() ? sinceMs : Long.valueOf(delta.get(0).purchasedAt().toInstant().toEpochMilli());
+
+        return new DashboardDTO(status(account), recent.latestSnapshot(account, mode, symbol), delta, truncated, cursor,
+                recent.tradeStats(account, mode, symbol));
+    }
+
+    // The engine runs one session at a time; another account's session shows as idle here
+    private BotStatusDTO status(long account) {
+        long owner = engine.getAccountId();
+        if (owner != account) return new BotStatusDTO(false, null, null, null, account);
+        return new BotStatusDTO(engine.isRunning(), engine.getMode(), engine.getSymbol(), engine.getInterval(), owner);
+    }
+}
@@ -2,10 +2,13 @@ package com.backend.controller;
 
 import com.backend.dto.SnapshotDTO;
 import com.backend.dto.TradeDTO;
+import com.backend.models.CandlePage;
 import com.backend.models.Candles;
+import com.backend.repository.AccountRepository;
 import com.backend.services.MarketDataService;
-import com.backend.repository.SnapshotRepository;
-import com.backend.repository.TradeRepository;
+import com.backend.services.RecentActivity;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,33 +17,43 @@ import java.util.List;
 @RequestMapping("/api")
 public class DataController {
 
-    private final TradeRepository trades;
-    private final SnapshotRepository snapshots;
+    private final RecentActivity recent;
     private final MarketDataService market;
+    private final AccountRepository accounts;
 
-    public DataController(TradeRepository trades, SnapshotRepository snapshots, MarketDataService market) {
-        this.trades = trades;
-        this.snapshots = snapshots;
+    public DataController(RecentActivity recent, MarketDataService market, AccountRepository accounts) {
+        this.recent = recent;
         this.market = market;
+        this.accounts = accounts;
     }
 
+    // Without an accountId, the default account's rows
     @GetMapping("/trades")
-    public List<TradeDTO> trades(@RequestParam String mode, @RequestParam String symbol,
+    public List<TradeDTO> trades(@RequestParam(required = false) Long accountId,
+                                 @RequestParam String mode, @RequestParam String symbol,
                                  @RequestParam(defaultValue = "500") int limit) {
-        return trades.listTrades(mode, symbol, limit);
+        return recent.trades(accounts.resolve(accountId), mode, symbol, limit);
     }
 
     @GetMapping("/portfolio/snapshots")
-    public List<SnapshotDTO> snapshots(@RequestParam String mode, @RequestParam String symbol,
+    public List<SnapshotDTO> snapshots(@RequestParam(required = false) Long accountId,
+                                       @RequestParam String mode, @RequestParam String symbol,
                                        @RequestParam(defaultValue = "2000") int limit) {
-        return snapshots.list(mode, symbol, limit);
+        return recent.snapshots(accounts.resolve(accountId), mode, symbol, limit);
     }
 
     @GetMapping("/market/candles")
-    public List<Candles> candles(@RequestParam String symbol, @RequestParam String interval,
-                                    @RequestParam(required = false) Long startMs,
-                                    @RequestParam(required = false) Long endMs,
-                                    @RequestParam(defaultValue = "500") int limit) {
-        return market.candles(symbol, interval, startMs, endMs, Math.min(limit, 1000));
+    public ResponseEntity<List<Candles>> candles(@RequestParam String symbol, @RequestParam String interval,
+                                                 @RequestParam(required = false) Long startMs,
+                                                 @RequestParam(required = false) Long endMs,
+                                                 @RequestParam(defaultValue = "500") int limit) {
+        CandlePage page = market.candlePage(symbol, interval, startMs, endMs, Math.min(limit, 1000));
+
+        // Spring answers 304 itself when If-None-Match / If-Modified-Since match these headers
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(page.etag())
+                .lastModified(page.lastModifiedMs())
+                .body(page.candles());
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.backend.controller;
+
+import com.backend.repository.AccountRepository;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+import com.backend.services.CsvWriter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
+    private final TradeRepository trades;
+    private final SnapshotRepository snapshots;
+    private final AccountRepository accounts;
+
+    public ExportController(TradeRepository trades, SnapshotRepository snapshots, AccountRepository accounts) {
+        this.trades = trades;
+        this.snapshots = snapshots;
+        this.accounts = accounts;
+    }
+
+    // Whole run, oldest first; rows are written as they come off the cursor, never collected
+    @GetMapping("/trades")
+    public ResponseEntity<StreamingResponseBody> trades(@RequestParam(required = false) Long accountId,
+                                                        @RequestParam String mode, @RequestParam String symbol) {
+        long account = accounts.resolve(accountId);
+        StreamingResponseBody body = out -> {
+            CsvWriter csv = new CsvWriter(out);
+            csv.row("id", "mode", "symbol", "side", "quantity", "price", "fee", "realized_pnl", "purchased_at");
+            trades.forEachTrade(account, mode, symbol, t -> csv.row(
+                    t.id(), t.mode(), t.symbol(), t.side(),
+                    t.quantity(), t.price(), t.fee(), t.realizedPnl(), t.purchasedAt()));
+            csv.flush();
+        };
+        return csv("trades-" + mode + "-" + symbol + ".csv", body);
+    }
+
+    @GetMapping("/snapshots")
+    public ResponseEntity<StreamingResponseBody> snapshots(@RequestParam(required = false) Long accountId,
+                                                           @RequestParam String mode, @RequestParam String symbol) {
+        long account = accounts.resolve(accountId);
+        StreamingResponseBody body = out -> {
+            CsvWriter csv = new CsvWriter(out);
+            csv.row("id", "mode", "symbol", "purchased_at", "cash_balance", "position_qty", "position_value", "total_value");
+            snapshots.forEach(account, mode, symbol, s -> csv.row(
+                    s.id(), s.mode(), s.symbol(), s.purchasedAt(),
+                    s.cashBalance(), s.positionQty(), s.positionValue(), s.totalValue()));
+            csv.flush();
+        };
+        return csv("snapshots-" + mode + "-" + symbol + ".csv", body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> csv(String filename, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,83 @@
+package com.backend.controller;
+
+import com.backend.models.Candles;
+import com.backend.services.MarketDataService;
+import com.backend.services.SyntheticMarket;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Binance-compatible REST for the "exchange" profile: the endpoints the bot calls, answered from SyntheticMarket
+@RestController
+@Profile("exchange")
+@RequestMapping("/api/v3")
+public class SyntheticExchangeController {
+
+    private final SyntheticMarket market;
+    private final Clock clock;
+
+    public SyntheticExchangeController(SyntheticMarket market, Clock clock) {
+        this.market = market;
+        this.clock = clock;
+    }
+
+    @GetMapping("/time")
+    public MarketDataService.ServerTimeResponse time() {
+        return new MarketDataService.ServerTimeResponse(clock.millis());
+    }
+
+    // One symbol gives an object, a symbols=["A","B"] list (or neither, for all) an array
+    @GetMapping("/ticker/price")
+    public Object price(@RequestParam(required = false) String symbol,
+                        @RequestParam(required = false) String symbols) {
+        if (symbol != null) return new MarketDataService.PriceResponse(symbol, market.price(symbol).toPlainString());
+
+        List<String> wanted = symbols == null ? market.symbols() : parseSymbols(symbols);
+        List<MarketDataService.PriceResponse> out = new ArrayList<>(wanted.size());
+        for (String s : wanted) out.add(new MarketDataService.PriceResponse(s, market.price(s).toPlainString()));
+        return out;
+    }
+
+    // Rows as Binance sends them: open time, OHLCV as strings, close time, then fields the bot ignores
+    @GetMapping("/klines")
+    public List<Object[]> klines(@RequestParam String symbol, @RequestParam String interval,
+                                 @RequestParam(required = false) Long startTime,
+                                 @RequestParam(required = false) Long endTime,
+                                 @RequestParam(defaultValue = "500") int limit) {
+        if (limit < 1 || limit > 1000) throw new IllegalArgumentException("limit must be in [1, 1000]");
+        long intervalMs = SyntheticMarket.intervalMs(interval);
+
+        List<Candles> candles = market.klines(symbol, interval, startTime, endTime, limit);
+        List<Object[]> rows = new ArrayList<>(candles.size());
+        for (Candles c : candles) {
+            long open = c.openTime().toInstant().toEpochMilli();
+            rows.add(new Object[]{open, c.open().toPlainString(), c.high().toPlainString(), c.low().toPlainString(),
+                    c.close().toPlainString(), c.volume().toPlainString(), open + intervalMs - 1,
+                    "0", 0, "0", "0", "0"});
+        }
+        return rows;
+    }
+
+    // Binance's shape for a rejected request; -1121 is its code for an unknown symbol
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> rejected(IllegalArgumentException e) {
+        int code = e.getMessage() != null && e.getMessage().startsWith("Unknown symbol") ? -1121 : -1100;
+        return ResponseEntity.badRequest().body(Map.of("code", code, "msg", String.valueOf(e.getMessage())));
+    }
+
+    static List<String> parseSymbols(String json) {
+        String body = json.trim();
+        if (!body.startsWith("[") || !body.endsWith("]")) throw new IllegalArgumentException("symbols must be a JSON array");
+        List<String> out = new ArrayList<>();
+        for (String s : body.substring(1, body.length() - 1).split(",")) {
+            String symbol = s.trim().replace("\"", "");
+            if (!symbol.isEmpty()) out.add(symbol);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,124 @@
+package com.backend.controller;
+
+import com.backend.models.Candles;
+import com.backend.services.SyntheticMarket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Binance-style raw streams for the "exchange" profile: ws://host/ws/btcusdt@trade pushes every
+ * synthetic trade, ws://host/ws/btcusdt@kline_1m the symbol's current 1m candle once a second
+ * ("x": true on the update that closes it). A client that cannot keep up is disconnected.
+ */
+@Component
+@Profile("exchange")
+public class SyntheticStreamHandler extends TextWebSocketHandler implements SyntheticMarket.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticStreamHandler.class);
+
+    // Per client: how long a send may block and how much may queue up behind it
+    private static final int SEND_TIME_LIMIT_MS = 5_000;
+    private static final int BUFFER_LIMIT_BYTES = 1 << 20;
+
+    // interval is null for the trade stream
+    private record Subscriber(WebSocketSession session, String interval) {}
+
+    private final SyntheticMarket market;
+    private final Map<String, List<Subscriber>> trades = new ConcurrentHashMap<>();
+    private final Map<String, List<Subscriber>> klines = new ConcurrentHashMap<>();
+
+    public SyntheticStreamHandler(SyntheticMarket market) {
+        this.market = market;
+        market.addListener(this);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        String path = session.getUri() == null ? "" : session.getUri().getPath();
+        String stream = path.substring(path.lastIndexOf('/') + 1);
+        int at = stream.indexOf('@');
+        String symbol = at < 0 ? "" : stream.substring(0, at).toUpperCase();
+        String type = at < 0 ? "" : stream.substring(at + 1);
+
+        if (!market.hasSymbol(symbol)) {
+            session.close(CloseStatus.BAD_DATA.withReason("Unknown stream " + stream));
+            return;
+        }
+        WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_LIMIT_BYTES);
+        if (type.equals("trade")) {
+            trades.computeIfAbsent(symbol, k -> new CopyOnWriteArrayList<>()).add(new Subscriber(out, null));
+        } else if (type.startsWith("kline_")) {
+            String interval = type.substring("kline_".length());
+            try {
+                SyntheticMarket.intervalMs(interval);
+            } catch (IllegalArgumentException e) {
+                session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+                return;
+            }
+            klines.computeIfAbsent(symbol, k -> new CopyOnWriteArrayList<>()).add(new Subscriber(out, interval));
+        } else {
+            session.close(CloseStatus.BAD_DATA.withReason("Unknown stream " + stream));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        trades.values().forEach(list -> list.removeIf(s -> s.session().getId().equals(session.getId())));
+        klines.values().forEach(list -> list.removeIf(s -> s.session().getId().equals(session.getId())));
+    }
+
+    @Override
+    public void onTrade(String symbol, long tradeId, long timeMs, BigDecimal price, BigDecimal quantity) {
+        List<Subscriber> subscribers = trades.get(symbol);
+        if (subscribers == null || subscribers.isEmpty()) return;
+        String json = "{\"e\":\"trade\",\"E\":" + timeMs + ",\"s\":\"" + symbol + "\",\"t\":" + tradeId
+                + ",\"p\":\"" + price.toPlainString() + "\",\"q\":\"" + quantity.toPlainString()
+                + "\",\"T\":" + timeMs + ",\"m\":false}";
+        send(subscribers, new TextMessage(json));
+    }
+
+    @Override
+    public void onSecond(String symbol, long secondMs) {
+        List<Subscriber> subscribers = klines.get(symbol);
+        if (subscribers == null || subscribers.isEmpty()) return;
+        long now = secondMs + 1000;
+        for (Subscriber s : subscribers) {
+            Candles c = market.kline(symbol, s.interval(), secondMs);
+            if (c == null) continue;
+            long open = c.openTime().toInstant().toEpochMilli();
+            long close = open + SyntheticMarket.intervalMs(s.interval());
+            String json = "{\"e\":\"kline\",\"E\":" + now + ",\"s\":\"" + symbol + "\",\"k\":{\"t\":" + open
+                    + ",\"T\":" + (close - 1) + ",\"s\":\"" + symbol + "\",\"i\":\"" + s.interval()
+                    + "\",\"o\":\"" + c.open().toPlainString() + "\",\"c\":\"" + c.close().toPlainString()
+                    + "\",\"h\":\"" + c.high().toPlainString() + "\",\"l\":\"" + c.low().toPlainString()
+                    + "\",\"v\":\"" + c.volume().toPlainString() + "\",\"x\":" + (now >= close) + "}}";
+            send(List.of(s), new TextMessage(json));
+        }
+    }
+
+    private void send(List<Subscriber> subscribers, TextMessage message) {
+        for (Subscriber s : subscribers) {
+            try {
+                s.session().sendMessage(message);
+            } catch (IOException | RuntimeException e) {
+                // The decorator closes sessions that fall too far behind
+                log.debug("Dropping stream client {}", s.session().getId(), e);
+                afterConnectionClosed(s.session(), CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+    }
+}
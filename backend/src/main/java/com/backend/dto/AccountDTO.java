@@ -0,0 +1,6 @@
+package com.backend.dto;
+
+import java.math.BigDecimal;
+
+public record AccountDTO(long id,
+                         BigDecimal cashBalance) {}
@@ -0,0 +1,14 @@
+package com.backend.dto;
+
+import java.util.List;
+
+public record BacktestJobDTO(
+        long id,
+        int total,
+        int pending,
+        int running,
+        int done,
+        int failed,
+        BacktestTaskDTO best, // highest return among finished tasks, null until one finishes
+        List<BacktestTaskDTO> tasks // finished first, best return first
+) {}
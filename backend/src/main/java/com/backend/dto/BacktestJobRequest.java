@@ -0,0 +1,16 @@
+package com.backend.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+// A parameter sweep: one backtest per (symbol, interval, riskPct) combination
+public record BacktestJobRequest(
+        @NotEmpty List<String> symbols,
+        @NotEmpty List<String> intervals,
+        @NotEmpty List<Double> riskPcts,
+        String startTime,
+        String endTime,
+        @NotNull Double initialBalance
+) {}
@@ -0,0 +1,17 @@
+package com.backend.dto;
+
+import com.backend.models.BacktestSummary;
+
+import java.math.BigDecimal;
+
+public record BacktestTaskDTO(
+        long id,
+        String symbol,
+        String interval,
+        BigDecimal riskPct,
+        BacktestTaskStatus status,
+        String worker,
+        int attempts,
+        BacktestSummary summary, // null until DONE
+        String error
+) {}
@@ -0,0 +1,8 @@
+package com.backend.dto;
+
+public enum BacktestTaskStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -3,4 +3,5 @@ package com.backend.dto;
 public record BotStatusDTO(boolean running,
                            BotMode mode,
                            String symbol,
-                           String interval) {}
\ No newline at end of file
+                           String interval,
+                           long accountId) {}
\ No newline at end of file
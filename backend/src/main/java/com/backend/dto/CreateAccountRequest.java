@@ -0,0 +1,7 @@
+package com.backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record CreateAccountRequest(
+        @NotNull Double initialBalance
+) {}
@@ -0,0 +1,17 @@
+package com.backend.dto;
+
+import java.util.List;
+
+public record DashboardDTO(
+        // The requested account's session; idle while the engine runs another account
+        BotStatusDTO status,
+        // Null before the pair has any
+        SnapshotDTO latestSnapshot,
+        // At or after the client's cursor, most recent first; replace the rows from the cursor on with these
+        List<TradeDTO> trades,
+        // More trades than the limit are newer than the cursor: reload the list instead of merging
+        boolean tradesTruncated,
+        // Pass back as sinceMs; null until the pair has a trade
+        Long tradeCursorMs,
+        TradeStatsDTO tradeStats
+) {}
@@ -0,0 +1,8 @@
+package com.backend.dto;
+
+// Microseconds
+public record LatencyStatsDTO(long count,
+                              double p50,
+                              double p99,
+                              double p999,
+                              double max) {}
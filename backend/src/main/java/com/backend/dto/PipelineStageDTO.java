@@ -0,0 +1,11 @@
+package com.backend.dto;
+
+// One stage of the live pipeline and the ring feeding it. stalls counts the times the
+// upstream stage found that ring full and had to wait (backpressure).
+public record PipelineStageDTO(String stage,
+                               long processed,
+                               long batches,
+                               int maxBatch,
+                               int queued,
+                               int capacity,
+                               long stalls) {}
@@ -12,4 +12,9 @@ public record SnapshotDTO(
         BigDecimal positionQty,
         BigDecimal positionValue,
         BigDecimal totalValue
-) {}
+) {
+
+    public SnapshotDTO withId(long id) {
+        return new SnapshotDTO(id, mode, symbol, purchasedAt, cashBalance, positionQty, positionValue, totalValue);
+    }
+}
@@ -11,5 +11,7 @@ public record StartBotRequest(
         String startTime,
         String endTime,
         @NotNull Double initialBalance,
-        @NotNull Double riskPct
+        @NotNull Double riskPct,
+        // The default account when null
+        Long accountId
 ) {}
\ No newline at end of file
@@ -13,4 +13,9 @@ public record TradeDTO(
         BigDecimal fee,
         BigDecimal realizedPnl,
         OffsetDateTime purchasedAt
-) {}
\ No newline at end of file
+) {
+
+    public TradeDTO withId(long id) {
+        return new TradeDTO(id, mode, symbol, side, quantity, price, fee, realizedPnl, purchasedAt);
+    }
+}
\ No newline at end of file
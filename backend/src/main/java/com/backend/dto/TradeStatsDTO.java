@@ -0,0 +1,12 @@
+package com.backend.dto;
+
+import java.math.BigDecimal;
+
+// Totals over every trade of an (account, mode, symbol); winners and losers are trades with a realized PnL
+public record TradeStatsDTO(
+        long tradeCount,
+        long winningTrades,
+        long losingTrades,
+        BigDecimal realizedPnl,
+        BigDecimal fees
+) {}
@@ -0,0 +1,25 @@
+package com.backend.models;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Everything a streamed backtest needs to carry on after lastOpenMs: the run it belongs to, the engine's
+// indicator window and ledger, and the summary accumulated so far
+public record BacktestCheckpoint(
+        String interval,
+        long startMs,
+        BigDecimal initialBalance,
+        BigDecimal riskPct,
+        String strategy,
+        long lastOpenMs,
+        List<BigDecimal> closes,
+        BigDecimal prevFast,
+        BigDecimal prevSlow,
+        BigDecimal cash,
+        PositionRow position,
+        BigDecimal realizedPnl,
+        int tradeCount,
+        BigDecimal peakValue,
+        BigDecimal maxDrawdown,
+        BigDecimal lastValue
+) {}
@@ -0,0 +1,13 @@
+package com.backend.models;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+
+import java.util.List;
+
+public record BacktestResult(List<TradeDTO> trades, List<SnapshotDTO> equity, BacktestSummary summary) {
+
+    public int rows() {
+        return trades.size() + equity.size();
+    }
+}
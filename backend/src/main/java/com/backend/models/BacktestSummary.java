@@ -0,0 +1,15 @@
+package com.backend.models;
+
+import java.math.BigDecimal;
+
+public record BacktestSummary(
+        BigDecimal initialBalance,
+        BigDecimal finalCash,
+        BigDecimal positionQty,
+        BigDecimal positionAvgEntry,
+        BigDecimal finalValue,
+        BigDecimal realizedPnl,
+        int tradeCount,
+        BigDecimal returnPct,
+        BigDecimal maxDrawdownPct
+) {}
@@ -0,0 +1,16 @@
+package com.backend.models;
+
+import java.math.BigDecimal;
+
+// One unit of farm work: a single backtest. id/jobId are 0 until the task is stored.
+public record BacktestTask(
+        long id,
+        long jobId,
+        String symbol,
+        String interval,
+        Long startMs,
+        Long endMs,
+        BigDecimal initialBalance,
+        BigDecimal riskPct,
+        int attempts
+) {}
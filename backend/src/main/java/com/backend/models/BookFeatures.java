@@ -0,0 +1,9 @@
+package com.backend.models;
+
+// Order book features for the strategy, in price and quantity units: spread is best ask minus best bid,
+// imbalance is in [-1, 1] over the top levels, and the liquidities sum the top levels' quantities per side.
+// Every value is NaN without a book.
+public record BookFeatures(double spread, double imbalance, double bidLiquidity, double askLiquidity) {
+
+    public static final BookFeatures NONE = new BookFeatures(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+}
@@ -0,0 +1,5 @@
+package com.backend.models;
+
+import java.util.List;
+
+public record CandlePage(List<Candles> candles, String etag, long lastModifiedMs) {}
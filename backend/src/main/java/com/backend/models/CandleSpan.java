@@ -0,0 +1,5 @@
+package com.backend.models;
+
+import java.time.OffsetDateTime;
+
+public record CandleSpan(OffsetDateTime firstOpenTime, OffsetDateTime lastOpenTime) {}
@@ -0,0 +1,6 @@
+package com.backend.models;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+public record Fill(String side, BigDecimal quantity, BigDecimal price, OffsetDateTime ts) {}
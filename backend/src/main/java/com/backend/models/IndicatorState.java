@@ -0,0 +1,7 @@
+package com.backend.models;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public record IndicatorState(List<BigDecimal> closes, BigDecimal prevFast, BigDecimal prevSlow, OffsetDateTime updatedAt) {}
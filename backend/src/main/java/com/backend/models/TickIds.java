@@ -0,0 +1,3 @@
+package com.backend.models;
+
+public record TickIds(long tradeId, long snapshotId) {}
@@ -0,0 +1,54 @@
+package com.backend.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks over account ids, taken around every update of an account's ledger: updates of one account
+ * run one at a time and in order, while different accounts almost always land on different stripes and
+ * run in parallel. The number of stripes is fixed, so memory does not grow with the number of accounts.
+ */
+@Component
+public class AccountLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public AccountLocks(@Value("${bot.accounts.lock-stripes:64}") int stripes) {
+        if (stripes < 1) throw new IllegalArgumentException("lock-stripes must be positive");
+        // Rounded up to a power of two, so a stripe is a mask of the mixed id
+        int n = 1;
+        while (n < stripes) n <<= 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < this.stripes.length; i++) this.stripes[i] = new ReentrantLock();
+    }
+
+    public <T> T withAccount(long accountId, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripe(accountId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withAccount(long accountId, Runnable action) {
+        withAccount(accountId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int stripes() {
+        return stripes.length;
+    }
+
+    // Ids are mostly sequential; mixing spreads neighbours over stripes without relying on that
+    int stripe(long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & (stripes.length - 1);
+    }
+}
@@ -1,27 +1,30 @@
 package com.backend.repository;
 
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.stereotype.Repository;
+import com.backend.dto.AccountDTO;
 
 import java.math.BigDecimal;
+import java.util.List;
 
-@Repository
-public class AccountRepository {
-    private final JdbcTemplate jdbc;
+public interface AccountRepository {
 
-    public AccountRepository(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
+    // The oldest account, used when a request names none
+    long getDefaultAccountId();
 
-    public long getDefaultAccountId() {
-        return jdbc.queryForObject("SELECT id FROM accounts ORDER BY id ASC LIMIT 1", Long.class);
-    }
+    long createAccount(BigDecimal cash);
 
-    public BigDecimal getCash(long accountId) {
-        return jdbc.queryForObject("SELECT cash_balance FROM accounts WHERE id=?", BigDecimal.class, accountId);
-    }
+    boolean exists(long accountId);
+
+    // Oldest first
+    List<AccountDTO> listAccounts();
+
+    BigDecimal getCash(long accountId);
+
+    void setCash(long accountId, BigDecimal cash);
 
-    public void setCash(long accountId, BigDecimal cash) {
-        jdbc.update("UPDATE accounts SET cash_balance=? WHERE id=?", cash, accountId);
+    // The given account, or the default one when null
+    default long resolve(Long accountId) {
+        if (accountId == null) return getDefaultAccountId();
+        if (!exists(accountId)) throw new IllegalArgumentException("Unknown account " + accountId);
+        return accountId;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.backend.repository;
+
+import com.backend.models.BacktestCheckpoint;
+
+import java.util.Optional;
+
+// One checkpoint per account and symbol: the streamed backtest whose rows are in the TRAIN tables
+public interface BacktestCheckpointRepository {
+
+    Optional<BacktestCheckpoint> find(long accountId, String symbol);
+
+    void save(long accountId, String symbol, BacktestCheckpoint checkpoint);
+
+    void delete(long accountId, String symbol);
+}
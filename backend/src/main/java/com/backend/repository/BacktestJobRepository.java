@@ -0,0 +1,32 @@
+package com.backend.repository;
+
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+
+import java.util.List;
+import java.util.Optional;
+
+// Work queue of the backtest farm; every update after a claim is conditional on the caller still holding the lease
+public interface BacktestJobRepository {
+
+    // Stores a job with its tasks, all PENDING; returns the job id
+    long createJob(List<BacktestTask> tasks);
+
+    // Takes the oldest PENDING task, or a RUNNING one whose lease expired with attempts left, and leases it
+    // to the worker; an expired last attempt is left for failExpired
+    Optional<BacktestTask> claim(String worker, long leaseMs, int maxAttempts);
+
+    // Extends the lease; false once the task is no longer this worker's
+    boolean heartbeat(long taskId, String worker, long leaseMs);
+
+    boolean complete(long taskId, String worker, BacktestSummary summary);
+
+    // Puts the task back to PENDING, or FAILED once it has been attempted maxAttempts times
+    void fail(long taskId, String worker, String error, int maxAttempts);
+
+    // Fails tasks whose lease expired on their last attempt (their workers crashed); returns how many
+    int failExpired(int maxAttempts);
+
+    List<BacktestTaskDTO> tasks(long jobId);
+}
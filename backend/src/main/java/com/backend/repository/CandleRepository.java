@@ -0,0 +1,35 @@
+package com.backend.repository;
+
+import com.backend.models.CandleSpan;
+import com.backend.models.Candles;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface CandleRepository {
+
+    // Inserts candles, overwriting any already stored for the same open time
+    void upsertCandles(String symbol, String interval, List<Candles> rows);
+
+    // Loads a stream of candles, overwriting any already stored for the same open time; returns the rows read
+    long bulkLoad(String symbol, String interval, KlineCursor rows);
+
+    // Oldest first, open time in [from, to)
+    List<Candles> range(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, int limit);
+
+    // Oldest first, open time in [from, to), handed over one at a time without loading the range
+    void stream(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, Consumer<Candles> sink);
+
+    // The newest `limit` candles opened before `to`, oldest first
+    List<Candles> latest(String symbol, String interval, OffsetDateTime to, int limit);
+
+    Optional<CandleSpan> span(String symbol, String interval);
+
+    // Rows with open time in [from, to); a full run of `interval` candles there has (to - from) / interval of them
+    long count(String symbol, String interval, OffsetDateTime from, OffsetDateTime to);
+
+    // Runs of missing open times between rows opened in [from, to), as first and last missing open time
+    List<CandleSpan> gaps(String symbol, String interval, long intervalMs, OffsetDateTime from, OffsetDateTime to);
+}
@@ -0,0 +1,62 @@
+package com.backend.repository;
+
+import com.backend.dto.AccountDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryAccountRepository implements AccountRepository {
+
+    // Same starting account as db/init.sql
+    private static final long DEFAULT_ACCOUNT_ID = 1L;
+    private static final BigDecimal DEFAULT_CASH = new BigDecimal("10000");
+
+    private final ConcurrentSkipListMap<Long, BigDecimal> cash = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong(DEFAULT_ACCOUNT_ID);
+
+    public InMemoryAccountRepository() {
+        cash.put(DEFAULT_ACCOUNT_ID, DEFAULT_CASH);
+    }
+
+    @Override
+    public long getDefaultAccountId() {
+        return cash.firstKey();
+    }
+
+    @Override
+    public long createAccount(BigDecimal cash) {
+        long id = ids.incrementAndGet();
+        this.cash.put(id, cash);
+        return id;
+    }
+
+    @Override
+    public boolean exists(long accountId) {
+        return cash.containsKey(accountId);
+    }
+
+    @Override
+    public List<AccountDTO> listAccounts() {
+        return cash.entrySet().stream().map(e -> new AccountDTO(e.getKey(), e.getValue())).toList();
+    }
+
+    @Override
+    public BigDecimal getCash(long accountId) {
+        BigDecimal balance = cash.get(accountId);
+        if (balance == null) throw new EmptyResultDataAccessException(1);
+        return balance;
+    }
+
+    @Override
+    public void setCash(long accountId, BigDecimal cash) {
+        // Like UPDATE, an unknown account is left alone
+        this.cash.computeIfPresent(accountId, (id, old) -> cash);
+    }
+}
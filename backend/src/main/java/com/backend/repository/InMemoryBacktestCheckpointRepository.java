@@ -0,0 +1,33 @@
+package com.backend.repository;
+
+import com.backend.models.BacktestCheckpoint;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryBacktestCheckpointRepository implements BacktestCheckpointRepository {
+
+    private record Key(long accountId, String symbol) {}
+
+    private final Map<Key, BacktestCheckpoint> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<BacktestCheckpoint> find(long accountId, String symbol) {
+        return Optional.ofNullable(checkpoints.get(new Key(accountId, symbol)));
+    }
+
+    @Override
+    public void save(long accountId, String symbol, BacktestCheckpoint checkpoint) {
+        checkpoints.put(new Key(accountId, symbol), checkpoint);
+    }
+
+    @Override
+    public void delete(long accountId, String symbol) {
+        checkpoints.remove(new Key(accountId, symbol));
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.repository;
+
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Single-node stand-in for the job table: one lock plays the role of the row locks
+@Repository
+@Profile("inmemory")
+public class InMemoryBacktestJobRepository implements BacktestJobRepository {
+
+    private static class Row {
+        BacktestTask task;
+        BacktestTaskStatus status = BacktestTaskStatus.PENDING;
+        String worker;
+        long leaseUntil;
+        BacktestSummary summary;
+        String error;
+
+        Row(BacktestTask task) {
+            this.task = task;
+        }
+    }
+
+    private final Clock clock;
+    private final TreeMap<Long, Row> rows = new TreeMap<>();
+    private long jobIds = 0;
+    private long taskIds = 0;
+
+    public InMemoryBacktestJobRepository(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized long createJob(List<BacktestTask> tasks) {
+        long jobId = ++jobIds;
+        for (BacktestTask t : tasks) {
+            long id = ++taskIds;
+            rows.put(id, new Row(new BacktestTask(id, jobId, t.symbol(), t.interval(), t.startMs(), t.endMs(),
+                    t.initialBalance(), t.riskPct(), 0)));
+        }
+        return jobId;
+    }
+
+    @Override
+    public synchronized Optional<BacktestTask> claim(String worker, long leaseMs, int maxAttempts) {
+        long now = clock.millis();
+        for (Row r : rows.values()) {
+            boolean expired = r.status == BacktestTaskStatus.RUNNING && r.leaseUntil < now && r.task.attempts() < maxAttempts;
+            if (r.status != BacktestTaskStatus.PENDING && !expired) continue;
+
+            BacktestTask t = r.task;
+            r.task = new BacktestTask(t.id(), t.jobId(), t.symbol(), t.interval(), t.startMs(), t.endMs(),
+                    t.initialBalance(), t.riskPct(), t.attempts() + 1);
+            r.status = BacktestTaskStatus.RUNNING;
+            r.worker = worker;
+            r.leaseUntil = now + leaseMs;
+            return Optional.of(r.task);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized boolean heartbeat(long taskId, String worker, long leaseMs) {
+        Row r = owned(taskId, worker);
+        if (r == null) return false;
+        r.leaseUntil = clock.millis() + leaseMs;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean complete(long taskId, String worker, BacktestSummary summary) {
+        Row r = owned(taskId, worker);
+        if (r == null) return false;
+        r.status = BacktestTaskStatus.DONE;
+        r.summary = summary;
+        r.error = null;
+        return true;
+    }
+
+    @Override
+    public synchronized void fail(long taskId, String worker, String error, int maxAttempts) {
+        Row r = owned(taskId, worker);
+        if (r == null) return;
+        r.status = r.task.attempts() >= maxAttempts ? BacktestTaskStatus.FAILED : BacktestTaskStatus.PENDING;
+        r.worker = null;
+        r.error = error;
+    }
+
+    @Override
+    public synchronized int failExpired(int maxAttempts) {
+        long now = clock.millis();
+        int failed = 0;
+        for (Row r : rows.values()) {
+            if (r.status == BacktestTaskStatus.RUNNING && r.leaseUntil < now && r.task.attempts() >= maxAttempts) {
+                r.status = BacktestTaskStatus.FAILED;
+                r.error = "Lease expired on the last attempt";
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public synchronized List<BacktestTaskDTO> tasks(long jobId) {
+        List<BacktestTaskDTO> out = new ArrayList<>();
+        for (Row r : rows.values()) {
+            if (r.task.jobId() != jobId) continue;
+            out.add(new BacktestTaskDTO(r.task.id(), r.task.symbol(), r.task.interval(), r.task.riskPct(),
+                    r.status, r.worker, r.task.attempts(), r.summary, r.error));
+        }
+        return out;
+    }
+
+    private Row owned(long taskId, String worker) {
+        Row r = rows.get(taskId);
+        if (r == null || r.status != BacktestTaskStatus.RUNNING || !worker.equals(r.worker)) return null;
+        return r;
+    }
+}
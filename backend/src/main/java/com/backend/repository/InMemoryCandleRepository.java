@@ -0,0 +1,116 @@
+package com.backend.repository;
+
+import com.backend.models.CandleSpan;
+import com.backend.models.Candles;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryCandleRepository implements CandleRepository {
+
+    private record Key(String symbol, String interval) {}
+
+    // Keyed by open time in epoch millis
+    private final Map<Key, NavigableMap<Long, Candles>> candles = new ConcurrentHashMap<>();
+
+    @Override
+    public void upsertCandles(String symbol, String interval, List<Candles> rows) {
+        NavigableMap<Long, Candles> series = candles.computeIfAbsent(new Key(symbol, interval), k -> new ConcurrentSkipListMap<>());
+        for (Candles c : rows) series.put(millis(c.openTime()), c);
+    }
+
+    @Override
+    public long bulkLoad(String symbol, String interval, KlineCursor rows) {
+        List<Candles> batch = new ArrayList<>();
+        long n = 0;
+        while (rows.next()) {
+            batch.add(new Candles(OffsetDateTime.ofInstant(Instant.ofEpochMilli(rows.openTimeMs()), ZoneOffset.UTC),
+                    rows.decimal(KlineCursor.OPEN), rows.decimal(KlineCursor.HIGH), rows.decimal(KlineCursor.LOW),
+                    rows.decimal(KlineCursor.CLOSE), rows.decimal(KlineCursor.VOLUME)));
+            n++;
+        }
+        upsertCandles(symbol, interval, batch);
+        return n;
+    }
+
+    @Override
+    public List<Candles> range(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, int limit) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null) return List.of();
+        return take(series.subMap(millis(from), true, millis(to), false).values(), limit);
+    }
+
+    @Override
+    public void stream(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, Consumer<Candles> sink) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null) return;
+        series.subMap(millis(from), true, millis(to), false).values().forEach(sink);
+    }
+
+    @Override
+    public List<Candles> latest(String symbol, String interval, OffsetDateTime to, int limit) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null) return List.of();
+        List<Candles> newestFirst = take(series.headMap(millis(to), false).descendingMap().values(), limit);
+        return newestFirst.reversed();
+    }
+
+    @Override
+    public Optional<CandleSpan> span(String symbol, String interval) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null || series.isEmpty()) return Optional.empty();
+        return Optional.of(new CandleSpan(series.firstEntry().getValue().openTime(), series.lastEntry().getValue().openTime()));
+    }
+
+    @Override
+    public long count(String symbol, String interval, OffsetDateTime from, OffsetDateTime to) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null) return 0;
+        return series.subMap(millis(from), true, millis(to), false).size();
+    }
+
+    @Override
+    public List<CandleSpan> gaps(String symbol, String interval, long intervalMs, OffsetDateTime from, OffsetDateTime to) {
+        NavigableMap<Long, Candles> series = candles.get(new Key(symbol, interval));
+        if (series == null) return List.of();
+        List<CandleSpan> out = new ArrayList<>();
+        Long prev = null;
+        for (long open : series.subMap(millis(from), true, millis(to), false).keySet()) {
+            if (prev != null && open - prev > intervalMs) {
+                out.add(new CandleSpan(toTime(prev + intervalMs), toTime(open - intervalMs)));
+            }
+            prev = open;
+        }
+        return out;
+    }
+
+    private static List<Candles> take(Iterable<Candles> values, int limit) {
+        List<Candles> out = new ArrayList<>();
+        for (Candles c : values) {
+            if (out.size() >= limit) break;
+            out.add(c);
+        }
+        return out;
+    }
+
+    private static long millis(OffsetDateTime ts) {
+        return ts.toInstant().toEpochMilli();
+    }
+
+    private static OffsetDateTime toTime(long ms) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(ms), ZoneOffset.UTC);
+    }
+}
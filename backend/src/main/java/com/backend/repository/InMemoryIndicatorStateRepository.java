@@ -0,0 +1,44 @@
+package com.backend.repository;
+
+import com.backend.models.IndicatorState;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryIndicatorStateRepository implements IndicatorStateRepository {
+
+    private record Key(long accountId, String symbol, String interval) {}
+
+    private final Map<Key, IndicatorState> states = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public InMemoryIndicatorStateRepository(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IndicatorState> find(long accountId, String symbol, String interval) {
+        return Optional.ofNullable(states.get(new Key(accountId, symbol, interval)));
+    }
+
+    @Override
+    public void save(long accountId, String symbol, String interval,
+                     List<BigDecimal> closes, BigDecimal prevFast, BigDecimal prevSlow) {
+        states.put(new Key(accountId, symbol, interval),
+                new IndicatorState(List.copyOf(closes), prevFast, prevSlow, OffsetDateTime.now(clock)));
+    }
+
+    @Override
+    public void deleteBySymbol(long accountId, String symbol) {
+        states.keySet().removeIf(k -> k.accountId() == accountId && k.symbol().equals(symbol));
+    }
+}
@@ -0,0 +1,52 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.models.TickIds;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryLedgerRepository implements LedgerRepository {
+
+    private final AccountRepository accounts;
+    private final PositionRepository positions;
+    private final TradeRepository trades;
+    private final SnapshotRepository snapshots;
+    private final AccountLocks locks;
+
+    public InMemoryLedgerRepository(AccountRepository accounts,
+                                    PositionRepository positions,
+                                    TradeRepository trades,
+                                    SnapshotRepository snapshots,
+                                    AccountLocks locks) {
+        this.accounts = accounts;
+        this.positions = positions;
+        this.trades = trades;
+        this.snapshots = snapshots;
+        this.locks = locks;
+    }
+
+    @Override
+    public TickIds recordTrade(long accountId, BigDecimal cash, PositionRow position,
+                               TradeDTO trade, SnapshotDTO snapshot) {
+        return locks.withAccount(accountId, () -> {
+            accounts.setCash(accountId, cash);
+            positions.upsertPosition(accountId, trade.symbol(), position.quantity(), position.avgEntry());
+            long tradeId = trades.insertTrade(accountId, trade.mode(), trade.symbol(), trade.side(), trade.quantity(),
+                    trade.price(), trade.fee(), trade.realizedPnl(), trade.purchasedAt());
+            long snapshotId = snapshots.insertSnapshot(accountId, snapshot.mode(), snapshot.symbol(), snapshot.purchasedAt(),
+                    snapshot.cashBalance(), snapshot.positionQty(), snapshot.positionValue(), snapshot.totalValue());
+            return new TickIds(tradeId, snapshotId);
+        });
+    }
+
+    @Override
+    public void update(long accountId, Runnable writes) {
+        locks.withAccount(accountId, writes);
+    }
+}
@@ -0,0 +1,30 @@
+package com.backend.repository;
+
+import com.backend.models.PositionRow;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryPositionRepository implements PositionRepository {
+
+    private static final PositionRow FLAT = new PositionRow(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    private record Key(long accountId, String symbol) {}
+
+    private final Map<Key, PositionRow> positions = new ConcurrentHashMap<>();
+
+    @Override
+    public PositionRow getPosition(long accountId, String symbol) {
+        return positions.getOrDefault(new Key(accountId, symbol), FLAT);
+    }
+
+    @Override
+    public void upsertPosition(long accountId, String symbol, BigDecimal quantity, BigDecimal avgEntry) {
+        positions.put(new Key(accountId, symbol), new PositionRow(quantity, avgEntry));
+    }
+}
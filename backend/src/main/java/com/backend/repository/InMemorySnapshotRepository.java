@@ -0,0 +1,61 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("inmemory")
+public class InMemorySnapshotRepository implements SnapshotRepository {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final InMemoryTimeline<SnapshotDTO> snapshots = new InMemoryTimeline<>();
+
+    @Override
+    public long insertSnapshot(long accountId, String mode, String symbol, OffsetDateTime purchased_at,
+                               BigDecimal cash, BigDecimal posQty, BigDecimal posValue, BigDecimal total) {
+        long id = ids.incrementAndGet();
+        snapshots.add(accountId, mode, symbol, purchased_at,
+                new SnapshotDTO(id, mode, symbol, purchased_at, cash, posQty, posValue, total));
+        return id;
+    }
+
+    @Override
+    public void insertSnapshots(long accountId, List<SnapshotDTO> rows) {
+        for (SnapshotDTO s : rows) {
+            insertSnapshot(accountId, s.mode(), s.symbol(), s.purchasedAt(),
+                    s.cashBalance(), s.positionQty(), s.positionValue(), s.totalValue());
+        }
+    }
+
+    @Override
+    public List<SnapshotDTO> list(long accountId, String mode, String symbol, int limit) {
+        return snapshots.oldest(accountId, mode, symbol, limit);
+    }
+
+    @Override
+    public List<SnapshotDTO> listNewest(long accountId, String mode, String symbol, int limit) {
+        return snapshots.newest(accountId, mode, symbol, limit);
+    }
+
+    @Override
+    public void forEach(long accountId, String mode, String symbol, Consumer<SnapshotDTO> sink) {
+        snapshots.oldest(accountId, mode, symbol, Integer.MAX_VALUE).forEach(sink);
+    }
+
+    @Override
+    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        snapshots.remove(accountId, mode, symbol);
+    }
+
+    @Override
+    public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        snapshots.removeAfter(accountId, mode, symbol, after);
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Rows per (account, mode, symbol) kept in timestamp order, shared by the in-memory trade and snapshot stores
+class InMemoryTimeline<T> {
+
+    private record Row<T>(OffsetDateTime ts, T value) {}
+
+    private record Key(long accountId, String mode, String symbol) {}
+
+    private final Map<Key, List<Row<T>>> rows = new ConcurrentHashMap<>();
+
+    void add(long accountId, String mode, String symbol, OffsetDateTime ts, T value) {
+        List<Row<T>> list = rows.computeIfAbsent(new Key(accountId, mode, symbol), k -> new ArrayList<>());
+        synchronized (list) {
+            // Rows almost always arrive in time order, so this is an append; equal timestamps keep insertion order
+            int i = list.size();
+            while (i > 0 && list.get(i - 1).ts().isAfter(ts)) i--;
+            list.add(i, new Row<>(ts, value));
+        }
+    }
+
+    List<T> oldest(long accountId, String mode, String symbol, int limit) {
+        List<Row<T>> list = rows.get(new Key(accountId, mode, symbol));
+        if (list == null) return List.of();
+        synchronized (list) {
+            int n = Math.min(Math.max(limit, 0), list.size());
+            List<T> out = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) out.add(list.get(i).value());
+            return out;
+        }
+    }
+
+    List<T> newest(long accountId, String mode, String symbol, int limit) {
+        List<Row<T>> list = rows.get(new Key(accountId, mode, symbol));
+        if (list == null) return List.of();
+        synchronized (list) {
+            int n = Math.min(Math.max(limit, 0), list.size());
+            List<T> out = new ArrayList<>(n);
+            for (int i = list.size() - 1; i >= list.size() - n; i--) out.add(list.get(i).value());
+            return out;
+        }
+    }
+
+    void removeAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        List<Row<T>> list = rows.get(new Key(accountId, mode, symbol));
+        if (list == null) return;
+        synchronized (list) {
+            while (!list.isEmpty() && list.get(list.size() - 1).ts().isAfter(after)) list.remove(list.size() - 1);
+        }
+    }
+
+    void remove(long accountId, String mode, String symbol) {
+        List<Row<T>> list = rows.get(new Key(accountId, mode, symbol));
+        if (list == null) return;
+        synchronized (list) {
+            list.clear();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.repository;
+
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("inmemory")
+public class InMemoryTradeRepository implements TradeRepository {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final InMemoryTimeline<TradeDTO> trades = new InMemoryTimeline<>();
+
+    @Override
+    public long insertTrade(long accountId, String mode, String symbol, String transaction_type,
+                            BigDecimal qty, BigDecimal price,
+                            BigDecimal fee, BigDecimal realizedPnl,
+                            OffsetDateTime purchasedAt) {
+        long id = ids.incrementAndGet();
+        trades.add(accountId, mode, symbol, purchasedAt,
+                new TradeDTO(id, mode, symbol, transaction_type, qty, price, fee, realizedPnl, purchasedAt));
+        return id;
+    }
+
+    @Override
+    public void insertTrades(long accountId, List<TradeDTO> rows) {
+        for (TradeDTO t : rows) {
+            insertTrade(accountId, t.mode(), t.symbol(), t.side(), t.quantity(), t.price(), t.fee(), t.realizedPnl(), t.purchasedAt());
+        }
+    }
+
+    @Override
+    public List<TradeDTO> listTrades(long accountId, String mode, String symbol, int limit) {
+        return trades.newest(accountId, mode, symbol, limit);
+    }
+
+    @Override
+    public TradeStatsDTO stats(long accountId, String mode, String symbol) {
+        long count = 0, wins = 0, losses = 0;
+        BigDecimal realized = BigDecimal.ZERO;
+        BigDecimal fees = BigDecimal.ZERO;
+        for (TradeDTO t : trades.oldest(accountId, mode, symbol, Integer.MAX_VALUE)) {
+            count++;
+            if (t.realizedPnl() != null) {
+                if (t.realizedPnl().signum() > 0) wins++;
+                if (t.realizedPnl().signum() < 0) losses++;
+                realized = realized.add(t.realizedPnl());
+            }
+            if (t.fee() != null) fees = fees.add(t.fee());
+        }
+        return new TradeStatsDTO(count, wins, losses, realized, fees);
+    }
+
+    @Override
+    public void forEachTrade(long accountId, String mode, String symbol, Consumer<TradeDTO> sink) {
+        trades.oldest(accountId, mode, symbol, Integer.MAX_VALUE).forEach(sink);
+    }
+
+    @Override
+    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        trades.remove(accountId, mode, symbol);
+    }
+
+    @Override
+    public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        trades.removeAfter(accountId, mode, symbol, after);
+    }
+}
@@ -0,0 +1,17 @@
+package com.backend.repository;
+
+import com.backend.models.IndicatorState;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface IndicatorStateRepository {
+
+    Optional<IndicatorState> find(long accountId, String symbol, String interval);
+
+    void save(long accountId, String symbol, String interval,
+              List<BigDecimal> closes, BigDecimal prevFast, BigDecimal prevSlow);
+
+    void deleteBySymbol(long accountId, String symbol);
+}
@@ -0,0 +1,50 @@
+package com.backend.repository;
+
+import com.backend.dto.AccountDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcAccountRepository implements AccountRepository {
+    private final JdbcTemplate jdbc;
+
+    public JdbcAccountRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public long getDefaultAccountId() {
+        return jdbc.queryForObject("SELECT id FROM accounts ORDER BY id ASC LIMIT 1", Long.class);
+    }
+
+    @Override
+    public long createAccount(BigDecimal cash) {
+        return jdbc.queryForObject("INSERT INTO accounts (cash_balance) VALUES (?) RETURNING id", Long.class, cash);
+    }
+
+    @Override
+    public boolean exists(long accountId) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT EXISTS (SELECT 1 FROM accounts WHERE id=?)", Boolean.class, accountId));
+    }
+
+    @Override
+    public List<AccountDTO> listAccounts() {
+        return jdbc.query("SELECT id, cash_balance FROM accounts ORDER BY id ASC",
+                (rs, i) -> new AccountDTO(rs.getLong("id"), rs.getBigDecimal("cash_balance")));
+    }
+
+    @Override
+    public BigDecimal getCash(long accountId) {
+        return jdbc.queryForObject("SELECT cash_balance FROM accounts WHERE id=?", BigDecimal.class, accountId);
+    }
+
+    @Override
+    public void setCash(long accountId, BigDecimal cash) {
+        jdbc.update("UPDATE accounts SET cash_balance=? WHERE id=?", cash, accountId);
+    }
+}
\ No newline at end of file
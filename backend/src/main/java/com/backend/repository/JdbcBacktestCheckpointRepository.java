@@ -0,0 +1,83 @@
+package com.backend.repository;
+
+import com.backend.models.BacktestCheckpoint;
+import com.backend.models.PositionRow;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcBacktestCheckpointRepository implements BacktestCheckpointRepository {
+    private final JdbcTemplate jdbc;
+
+    public JdbcBacktestCheckpointRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Optional<BacktestCheckpoint> find(long accountId, String symbol) {
+        return jdbc.query("""
+                        SELECT time_interval, start_ms, initial_balance, risk_pct, strategy, last_open_ms,
+                               closes, prev_fast, prev_slow, cash_balance, position_qty, position_avg_entry,
+                               realized_pnl, trade_count, peak_value, max_drawdown, last_value
+                        FROM backtest_checkpoints
+                        WHERE account_id=? AND symbol=?
+                        """,
+                rs -> {
+                    if (!rs.next()) return Optional.empty();
+                    BigDecimal[] closes = (BigDecimal[]) rs.getArray("closes").getArray();
+                    return Optional.of(new BacktestCheckpoint(
+                            rs.getString("time_interval"),
+                            rs.getLong("start_ms"),
+                            rs.getBigDecimal("initial_balance"),
+                            rs.getBigDecimal("risk_pct"),
+                            rs.getString("strategy"),
+                            rs.getLong("last_open_ms"),
+                            List.of(closes),
+                            rs.getBigDecimal("prev_fast"),
+                            rs.getBigDecimal("prev_slow"),
+                            rs.getBigDecimal("cash_balance"),
+                            new PositionRow(rs.getBigDecimal("position_qty"), rs.getBigDecimal("position_avg_entry")),
+                            rs.getBigDecimal("realized_pnl"),
+                            rs.getInt("trade_count"),
+                            rs.getBigDecimal("peak_value"),
+                            rs.getBigDecimal("max_drawdown"),
+                            rs.getBigDecimal("last_value")
+                    ));
+                },
+                accountId, symbol
+        );
+    }
+
+    @Override
+    public void save(long accountId, String symbol, BacktestCheckpoint c) {
+        jdbc.update("""
+                INSERT INTO backtest_checkpoints (account_id, symbol, time_interval, start_ms, initial_balance, risk_pct,
+                    strategy, last_open_ms, closes, prev_fast, prev_slow, cash_balance, position_qty, position_avg_entry,
+                    realized_pnl, trade_count, peak_value, max_drawdown, last_value, updated_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::numeric[], ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
+                ON CONFLICT (account_id, symbol)
+                DO UPDATE SET time_interval=EXCLUDED.time_interval, start_ms=EXCLUDED.start_ms,
+                    initial_balance=EXCLUDED.initial_balance, risk_pct=EXCLUDED.risk_pct, strategy=EXCLUDED.strategy,
+                    last_open_ms=EXCLUDED.last_open_ms, closes=EXCLUDED.closes, prev_fast=EXCLUDED.prev_fast,
+                    prev_slow=EXCLUDED.prev_slow, cash_balance=EXCLUDED.cash_balance, position_qty=EXCLUDED.position_qty,
+                    position_avg_entry=EXCLUDED.position_avg_entry, realized_pnl=EXCLUDED.realized_pnl,
+                    trade_count=EXCLUDED.trade_count, peak_value=EXCLUDED.peak_value,
+                    max_drawdown=EXCLUDED.max_drawdown, last_value=EXCLUDED.last_value, updated_at=NOW()
+                """,
+                accountId, symbol, c.interval(), c.startMs(), c.initialBalance(), c.riskPct(),
+                c.strategy(), c.lastOpenMs(), JdbcIndicatorStateRepository.toArrayLiteral(c.closes()), c.prevFast(), c.prevSlow(),
+                c.cash(), c.position().quantity(), c.position().avgEntry(),
+                c.realizedPnl(), c.tradeCount(), c.peakValue(), c.maxDrawdown(), c.lastValue());
+    }
+
+    @Override
+    public void delete(long accountId, String symbol) {
+        jdbc.update("DELETE FROM backtest_checkpoints WHERE account_id=? AND symbol=?", accountId, symbol);
+    }
+}
@@ -0,0 +1,156 @@
+package com.backend.repository;
+
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcBacktestJobRepository implements BacktestJobRepository {
+    private final JdbcTemplate jdbc;
+
+    public JdbcBacktestJobRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    @Transactional
+    public long createJob(List<BacktestTask> tasks) {
+        long jobId = jdbc.queryForObject("INSERT INTO backtest_jobs DEFAULT VALUES RETURNING id", Long.class);
+        jdbc.batchUpdate("""
+                        INSERT INTO backtest_tasks (job_id, symbol, time_interval, start_ms, end_ms, initial_balance, risk_pct)
+                        VALUES (?, ?, ?, ?, ?, ?, ?)
+                        """,
+                tasks, 1000,
+                (ps, t) -> {
+                    ps.setLong(1, jobId);
+                    ps.setString(2, t.symbol());
+                    ps.setString(3, t.interval());
+                    ps.setObject(4, t.startMs());
+                    ps.setObject(5, t.endMs());
+                    ps.setBigDecimal(6, t.initialBalance());
+                    ps.setBigDecimal(7, t.riskPct());
+                });
+        return jobId;
+    }
+
+    // SKIP LOCKED lets concurrent workers each take a different row instead of queueing on the same one
+    @Override
+    public Optional<BacktestTask> claim(String worker, long leaseMs, int maxAttempts) {
+        List<BacktestTask> claimed = jdbc.query("""
+                        UPDATE backtest_tasks t
+                        SET status='RUNNING', worker=?, lease_until=NOW() + ? * INTERVAL '1 millisecond',
+                            attempts=t.attempts + 1, updated_at=NOW()
+                        WHERE t.id = (
+                            SELECT id FROM backtest_tasks
+                            WHERE status='PENDING' OR (status='RUNNING' AND lease_until < NOW() AND attempts < ?)
+                            ORDER BY id
+                            LIMIT 1
+                            FOR UPDATE SKIP LOCKED
+                        )
+                        RETURNING t.id, t.job_id, t.symbol, t.time_interval, t.start_ms, t.end_ms,
+                                  t.initial_balance, t.risk_pct, t.attempts
+                        """,
+                (rs, i) -> new BacktestTask(
+                        rs.getLong("id"),
+                        rs.getLong("job_id"),
+                        rs.getString("symbol"),
+                        rs.getString("time_interval"),
+                        rs.getObject("start_ms", Long.class),
+                        rs.getObject("end_ms", Long.class),
+                        rs.getBigDecimal("initial_balance"),
+                        rs.getBigDecimal("risk_pct"),
+                        rs.getInt("attempts")
+                ),
+                worker, leaseMs, maxAttempts
+        );
+        return claimed.stream().findFirst();
+    }
+
+    @Override
+    public boolean heartbeat(long taskId, String worker, long leaseMs) {
+        return jdbc.update("""
+                UPDATE backtest_tasks
+                SET lease_until=NOW() + ? * INTERVAL '1 millisecond', updated_at=NOW()
+                WHERE id=? AND worker=? AND status='RUNNING'
+                """, leaseMs, taskId, worker) == 1;
+    }
+
+    @Override
+    public boolean complete(long taskId, String worker, BacktestSummary s) {
+        return jdbc.update("""
+                UPDATE backtest_tasks
+                SET status='DONE', lease_until=NULL, error=NULL, updated_at=NOW(),
+                    final_cash=?, position_qty=?, position_avg_entry=?, final_value=?,
+                    realized_pnl=?, trade_count=?, return_pct=?, max_drawdown_pct=?
+                WHERE id=? AND worker=? AND status='RUNNING'
+                """,
+                s.finalCash(), s.positionQty(), s.positionAvgEntry(), s.finalValue(),
+                s.realizedPnl(), s.tradeCount(), s.returnPct(), s.maxDrawdownPct(),
+                taskId, worker) == 1;
+    }
+
+    @Override
+    public void fail(long taskId, String worker, String error, int maxAttempts) {
+        jdbc.update("""
+                UPDATE backtest_tasks
+                SET status=CASE WHEN attempts >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                    worker=NULL, lease_until=NULL, error=?, updated_at=NOW()
+                WHERE id=? AND worker=? AND status='RUNNING'
+                """, maxAttempts, error, taskId, worker);
+    }
+
+    @Override
+    public int failExpired(int maxAttempts) {
+        return jdbc.update("""
+                UPDATE backtest_tasks
+                SET status='FAILED', lease_until=NULL, error='Lease expired on the last attempt', updated_at=NOW()
+                WHERE status='RUNNING' AND lease_until < NOW() AND attempts >= ?
+                """, maxAttempts);
+    }
+
+    @Override
+    public List<BacktestTaskDTO> tasks(long jobId) {
+        return jdbc.query("""
+                        SELECT id, symbol, time_interval, initial_balance, risk_pct, status, worker, attempts,
+                               final_cash, position_qty, position_avg_entry, final_value,
+                               realized_pnl, trade_count, return_pct, max_drawdown_pct, error
+                        FROM backtest_tasks
+                        WHERE job_id=?
+                        ORDER BY id
+                        """,
+                (rs, i) -> {
+                    BacktestTaskStatus status = BacktestTaskStatus.valueOf(rs.getString("status"));
+                    BacktestSummary summary = status != BacktestTaskStatus.DONE ? null : new BacktestSummary(
+                            rs.getBigDecimal("initial_balance"),
+                            rs.getBigDecimal("final_cash"),
+                            rs.getBigDecimal("position_qty"),
+                            rs.getBigDecimal("position_avg_entry"),
+                            rs.getBigDecimal("final_value"),
+                            rs.getBigDecimal("realized_pnl"),
+                            rs.getInt("trade_count"),
+                            rs.getBigDecimal("return_pct"),
+                            rs.getBigDecimal("max_drawdown_pct"));
+                    return new BacktestTaskDTO(
+                            rs.getLong("id"),
+                            rs.getString("symbol"),
+                            rs.getString("time_interval"),
+                            rs.getBigDecimal("risk_pct"),
+                            status,
+                            rs.getString("worker"),
+                            rs.getInt("attempts"),
+                            summary,
+                            rs.getString("error"));
+                },
+                jobId
+        );
+    }
+}
@@ -0,0 +1,242 @@
+package com.backend.repository;
+
+import com.backend.models.CandleSpan;
+import com.backend.models.Candles;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcCandleRepository implements CandleRepository {
+
+    private static final RowMapper<Candles> CANDLE_ROW = (rs, i) -> new Candles(
+            rs.getObject("open_time", OffsetDateTime.class),
+            rs.getBigDecimal("open_pice"),
+            rs.getBigDecimal("high"),
+            rs.getBigDecimal("low"),
+            rs.getBigDecimal("close_price"),
+            rs.getBigDecimal("volume")
+    );
+
+    // Bytes handed to the driver per COPY write, and the most a single COPY row can take
+    private static final int COPY_BUFFER = 1 << 16;
+    private static final int MAX_COPY_ROW = 20 + KlineCursor.DECIMALS * (1 + KlineCursor.MAX_DECIMAL_BYTES) + 1;
+
+    // Rows per round trip of a streamed range
+    private static final int STREAM_FETCH = 5000;
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcCandleRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void upsertCandles(String symbol, String interval, List<Candles> rows) {
+        jdbc.batchUpdate("""
+                        INSERT INTO candles (symbol, time_interval, open_time, open_pice, high, low, close_price, volume)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        ON CONFLICT (symbol, time_interval, open_time)
+                        DO UPDATE SET open_pice=EXCLUDED.open_pice, high=EXCLUDED.high, low=EXCLUDED.low,
+                                      close_price=EXCLUDED.close_price, volume=EXCLUDED.volume
+                        """,
+                rows, 1000,
+                (ps, c) -> {
+                    ps.setString(1, symbol);
+                    ps.setString(2, interval);
+                    ps.setObject(3, c.openTime());
+                    ps.setBigDecimal(4, c.open());
+                    ps.setBigDecimal(5, c.high());
+                    ps.setBigDecimal(6, c.low());
+                    ps.setBigDecimal(7, c.close());
+                    ps.setBigDecimal(8, c.volume());
+                });
+    }
+
+    // COPY into a staging table that lives until commit, then one merge into candles, so loading the
+    // same archive again is harmless. open_ms is epoch millis, copied as digits straight from the cursor.
+    @Override
+    @Transactional
+    public long bulkLoad(String symbol, String interval, KlineCursor rows) {
+        Long loaded = jdbc.execute((ConnectionCallback<Long>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("""
+                        CREATE TEMP TABLE candles_import (
+                            open_ms BIGINT NOT NULL, open_pice NUMERIC NOT NULL, high NUMERIC NOT NULL,
+                            low NUMERIC NOT NULL, close_price NUMERIC NOT NULL, volume NUMERIC NOT NULL
+                        ) ON COMMIT DROP
+                        """);
+            }
+
+            CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI().copyIn("COPY candles_import FROM STDIN");
+            long n = 0;
+            try {
+                byte[] buf = new byte[COPY_BUFFER];
+                int pos = 0;
+                while (rows.next()) {
+                    if (pos > COPY_BUFFER - MAX_COPY_ROW) {
+                        copy.writeToCopy(buf, 0, pos);
+                        pos = 0;
+                    }
+                    pos = copyRow(rows, buf, pos);
+                    n++;
+                }
+                if (pos > 0) copy.writeToCopy(buf, 0, pos);
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) copy.cancelCopy();
+            }
+
+            try (PreparedStatement ps = con.prepareStatement("""
+                    INSERT INTO candles (symbol, time_interval, open_time, open_pice, high, low, close_price, volume)
+                    SELECT DISTINCT ON (open_ms) ?, ?, TIMESTAMPTZ 'epoch' + open_ms * INTERVAL '1 millisecond',
+                           open_pice, high, low, close_price, volume
+                    FROM candles_import
+                    ORDER BY open_ms
+                    ON CONFLICT (symbol, time_interval, open_time)
+                    DO UPDATE SET open_pice=EXCLUDED.open_pice, high=EXCLUDED.high, low=EXCLUDED.low,
+                                  close_price=EXCLUDED.close_price, volume=EXCLUDED.volume
+                    """)) {
+                ps.setString(1, symbol);
+                ps.setString(2, interval);
+                ps.executeUpdate();
+            }
+            return n;
+        });
+        return loaded == null ? 0 : loaded;
+    }
+
+    // One row in COPY text format: open_ms, then the five decimals, tab separated
+    static int copyRow(KlineCursor rows, byte[] buf, int pos) {
+        pos = writeLong(rows.openTimeMs(), buf, pos);
+        for (int column = 0; column < KlineCursor.DECIMALS; column++) {
+            buf[pos++] = '\t';
+            pos = rows.copyDecimal(column, buf, pos);
+        }
+        buf[pos++] = '\n';
+        return pos;
+    }
+
+    private static int writeLong(long v, byte[] buf, int pos) {
+        if (v < 0) throw new IllegalArgumentException("open time before the epoch: " + v);
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        for (int i = pos + digits - 1; i >= pos; i--) {
+            buf[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        return pos + digits;
+    }
+
+    @Override
+    public List<Candles> range(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, int limit) {
+        return jdbc.query("""
+                        SELECT open_time, open_pice, high, low, close_price, volume
+                        FROM candles
+                        WHERE symbol=? AND time_interval=? AND open_time >= ? AND open_time < ?
+                        ORDER BY open_time ASC
+                        LIMIT ?
+                        """,
+                CANDLE_ROW,
+                symbol, interval, from, to, limit
+        );
+    }
+
+    // The driver only uses a server-side cursor (honouring the fetch size) inside a transaction
+    @Override
+    @Transactional(readOnly = true)
+    public void stream(String symbol, String interval, OffsetDateTime from, OffsetDateTime to, Consumer<Candles> sink) {
+        jdbc.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("""
+                            SELECT open_time, open_pice, high, low, close_price, volume
+                            FROM candles
+                            WHERE symbol=? AND time_interval=? AND open_time >= ? AND open_time < ?
+                            ORDER BY open_time ASC
+                            """, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(STREAM_FETCH);
+                    ps.setString(1, symbol);
+                    ps.setString(2, interval);
+                    ps.setObject(3, from);
+                    ps.setObject(4, to);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> sink.accept(CANDLE_ROW.mapRow(rs, 0)));
+    }
+
+    @Override
+    public List<Candles> latest(String symbol, String interval, OffsetDateTime to, int limit) {
+        return jdbc.query("""
+                        SELECT * FROM (
+                            SELECT open_time, open_pice, high, low, close_price, volume
+                            FROM candles
+                            WHERE symbol=? AND time_interval=? AND open_time < ?
+                            ORDER BY open_time DESC
+                            LIMIT ?
+                        ) newest
+                        ORDER BY open_time ASC
+                        """,
+                CANDLE_ROW,
+                symbol, interval, to, limit
+        );
+    }
+
+    @Override
+    public Optional<CandleSpan> span(String symbol, String interval) {
+        return jdbc.query("""
+                        SELECT MIN(open_time) AS first_open, MAX(open_time) AS last_open
+                        FROM candles
+                        WHERE symbol=? AND time_interval=?
+                        """,
+                rs -> {
+                    if (!rs.next()) return Optional.empty();
+                    OffsetDateTime first = rs.getObject("first_open", OffsetDateTime.class);
+                    OffsetDateTime last = rs.getObject("last_open", OffsetDateTime.class);
+                    return first == null ? Optional.empty() : Optional.of(new CandleSpan(first, last));
+                },
+                symbol, interval
+        );
+    }
+
+    @Override
+    public long count(String symbol, String interval, OffsetDateTime from, OffsetDateTime to) {
+        Long n = jdbc.queryForObject("""
+                        SELECT COUNT(*) FROM candles
+                        WHERE symbol=? AND time_interval=? AND open_time >= ? AND open_time < ?
+                        """,
+                Long.class, symbol, interval, from, to);
+        return n == null ? 0 : n;
+    }
+
+    @Override
+    public List<CandleSpan> gaps(String symbol, String interval, long intervalMs, OffsetDateTime from, OffsetDateTime to) {
+        return jdbc.query("""
+                        SELECT prev_open + ? * INTERVAL '1 millisecond' AS first_missing,
+                               open_time - ? * INTERVAL '1 millisecond' AS last_missing
+                        FROM (
+                            SELECT open_time, LAG(open_time) OVER (ORDER BY open_time) AS prev_open
+                            FROM candles
+                            WHERE symbol=? AND time_interval=? AND open_time >= ? AND open_time < ?
+                        ) t
+                        WHERE open_time - prev_open > ? * INTERVAL '1 millisecond'
+                        ORDER BY open_time
+                        """,
+                (rs, i) -> new CandleSpan(rs.getObject("first_missing", OffsetDateTime.class),
+                        rs.getObject("last_missing", OffsetDateTime.class)),
+                intervalMs, intervalMs, symbol, interval, from, to, intervalMs);
+    }
+}
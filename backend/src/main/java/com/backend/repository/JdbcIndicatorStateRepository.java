@@ -0,0 +1,63 @@
+package com.backend.repository;
+
+import com.backend.models.IndicatorState;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcIndicatorStateRepository implements IndicatorStateRepository {
+    private final JdbcTemplate jdbc;
+
+    public JdbcIndicatorStateRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public Optional<IndicatorState> find(long accountId, String symbol, String interval) {
+        return jdbc.query("""
+                        SELECT closes, prev_fast, prev_slow, updated_at
+                        FROM live_indicator_state
+                        WHERE account_id=? AND symbol=? AND time_interval=?
+                        """,
+                rs -> {
+                    if (!rs.next()) return Optional.empty();
+                    BigDecimal[] closes = (BigDecimal[]) rs.getArray("closes").getArray();
+                    return Optional.of(new IndicatorState(
+                            List.of(closes),
+                            rs.getBigDecimal("prev_fast"),
+                            rs.getBigDecimal("prev_slow"),
+                            rs.getObject("updated_at", OffsetDateTime.class)
+                    ));
+                },
+                accountId, symbol, interval
+        );
+    }
+
+    @Override
+    public void save(long accountId, String symbol, String interval,
+                     List<BigDecimal> closes, BigDecimal prevFast, BigDecimal prevSlow) {
+        jdbc.update("""
+                INSERT INTO live_indicator_state (account_id, symbol, time_interval, closes, prev_fast, prev_slow, updated_at)
+                VALUES (?, ?, ?, ?::numeric[], ?, ?, NOW())
+                ON CONFLICT (account_id, symbol, time_interval)
+                DO UPDATE SET closes=EXCLUDED.closes, prev_fast=EXCLUDED.prev_fast, prev_slow=EXCLUDED.prev_slow, updated_at=NOW()
+                """, accountId, symbol, interval, toArrayLiteral(closes), prevFast, prevSlow);
+    }
+
+    @Override
+    public void deleteBySymbol(long accountId, String symbol) {
+        jdbc.update("DELETE FROM live_indicator_state WHERE account_id=? AND symbol=?", accountId, symbol);
+    }
+
+    static String toArrayLiteral(List<BigDecimal> values) {
+        return values.stream().map(BigDecimal::toPlainString).collect(Collectors.joining(",", "{", "}"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.models.TickIds;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcLedgerRepository implements LedgerRepository {
+
+    // Cash, position, trade and snapshot of one trade; data-modifying CTEs all run even when not selected from
+    private static final String RECORD_TRADE = """
+            WITH cash AS (
+                UPDATE accounts SET cash_balance=? WHERE id=?
+            ),
+            pos AS (
+                INSERT INTO positions (account_id, symbol, quantity, avg_entry_price, updated_at)
+                VALUES (?, ?, ?, ?, NOW())
+                ON CONFLICT (account_id, symbol)
+                DO UPDATE SET quantity=EXCLUDED.quantity, avg_entry_price=EXCLUDED.avg_entry_price, updated_at=NOW()
+            ),
+            trade AS (
+                INSERT INTO trades (account_id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                RETURNING id
+            ),
+            snap AS (
+                INSERT INTO portfolio_snapshots (account_id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                RETURNING id
+            )
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final LedgerJournal journal;
+    private final AccountLocks locks;
+
+    public JdbcLedgerRepository(JdbcTemplate jdbc, LedgerJournal journal, AccountLocks locks) {
+        this.jdbc = jdbc;
+        this.journal = journal;
+        this.locks = locks;
+    }
+
+    // With the journal on, the trade is durable once it is in the journal and reaches the tables shortly
+    // after, through LedgerProjector; ids are not known by then, so the rows come back with id 0.
+    // Without it: one statement = one round trip and one commit.
+    // The account's stripe is held until then; other accounts append meanwhile and share the fsync.
+    @Override
+    public TickIds recordTrade(long accountId, BigDecimal cash, PositionRow position, TradeDTO trade, SnapshotDTO snapshot) {
+        return locks.withAccount(accountId, () -> {
+            if (journal.enabled()) {
+                journal.sync(journal.append(accountId, cash, position, trade, snapshot));
+                return new TickIds(0, 0);
+            }
+            return jdbc.queryForObject(RECORD_TRADE + "SELECT (SELECT id FROM trade) AS trade_id, (SELECT id FROM snap) AS snapshot_id",
+                    (rs, i) -> new TickIds(rs.getLong("trade_id"), rs.getLong("snapshot_id")),
+                    params(accountId, cash, position, trade, snapshot));
+        });
+    }
+
+    @Override
+    public void awaitProjection() {
+        journal.awaitProjected();
+    }
+
+    @Override
+    public void update(long accountId, Runnable writes) {
+        locks.withAccount(accountId, () -> {
+            awaitProjection();
+            writes.run();
+        });
+    }
+
+    // Journal position the tables reflect, starting this node's row at 0 on its first run
+    public long projectedSeq() {
+        jdbc.update("INSERT INTO ledger_projection (journal, seq) VALUES (?, 0) ON CONFLICT (journal) DO NOTHING", journal.node());
+        Long seq = jdbc.queryForObject("SELECT seq FROM ledger_projection WHERE journal=?", Long.class, journal.node());
+        return seq == null ? 0 : seq;
+    }
+
+    // Applies journaled trades in order, each statement also moving this journal's position past its trade,
+    // all in one transaction. The row lock and the seq check make it apply each trade exactly once however
+    // often a batch is retried: what the tables already hold is skipped, and since the trade CTEs run even
+    // when the position update matches nothing, a position that moved anyway rolls the whole batch back.
+    @Transactional
+    public void project(List<LedgerJournal.Record> records) {
+        if (records.isEmpty()) return;
+        String node = journal.node();
+        Long stored = jdbc.queryForObject("SELECT seq FROM ledger_projection WHERE journal=? FOR UPDATE", Long.class, node);
+        if (stored == null) throw new IllegalStateException("No ledger_projection row for journal " + node);
+        List<LedgerJournal.Record> pending = records.stream().filter(r -> r.seq() > stored).toList();
+        if (pending.isEmpty()) return;
+
+        int[][] counts = jdbc.batchUpdate(RECORD_TRADE + "UPDATE ledger_projection SET seq=? WHERE journal=? AND seq < ?",
+                pending, pending.size(), (ps, r) -> {
+                    Object[] params = params(r.accountId(), r.cash(), r.position(), r.trade(), r.snapshot());
+                    for (int i = 0; i < params.length; i++) ps.setObject(i + 1, params[i]);
+                    ps.setLong(params.length + 1, r.seq());
+                    ps.setString(params.length + 2, node);
+                    ps.setLong(params.length + 3, r.seq());
+                });
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 1) {
+                    throw new IllegalStateException("Ledger projection of journal " + node + " was already past seq " + pending.get(i).seq());
+                }
+                i++;
+            }
+        }
+    }
+
+    private static Object[] params(long accountId, BigDecimal cash, PositionRow position, TradeDTO trade, SnapshotDTO snapshot) {
+        return new Object[]{
+                cash, accountId,
+                accountId, trade.symbol(), position.quantity(), position.avgEntry(),
+                accountId, trade.mode(), trade.symbol(), trade.side(), trade.quantity(), trade.price(),
+                trade.fee(), trade.realizedPnl(), trade.purchasedAt(),
+                accountId, snapshot.mode(), snapshot.symbol(), snapshot.purchasedAt(), snapshot.cashBalance(),
+                snapshot.positionQty(), snapshot.positionValue(), snapshot.totalValue()};
+    }
+}
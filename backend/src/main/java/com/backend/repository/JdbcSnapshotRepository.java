@@ -0,0 +1,131 @@
+package com.backend.repository;
+
+
+import com.backend.dto.SnapshotDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcSnapshotRepository implements SnapshotRepository {
+
+    // Rows fetched per round trip when streaming a whole run
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final RowMapper<SnapshotDTO> SNAPSHOT_ROW = (rs, i) -> new SnapshotDTO(
+            rs.getLong("id"),
+            rs.getString("mode"),
+            rs.getString("symbol"),
+            rs.getObject("purchased_at", OffsetDateTime.class),
+            rs.getBigDecimal("cash_balance"),
+            rs.getBigDecimal("position_qty"),
+            rs.getBigDecimal("position_value"),
+            rs.getBigDecimal("total_value")
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcSnapshotRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public long insertSnapshot(long accountId, String mode, String symbol, OffsetDateTime purchased_at,
+                               BigDecimal cash, BigDecimal posQty, BigDecimal posValue, BigDecimal total) {
+        return jdbc.queryForObject("""
+                INSERT INTO portfolio_snapshots (account_id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                RETURNING id
+                """, Long.class, accountId, mode, symbol, purchased_at, cash, posQty, posValue, total);
+    }
+
+    @Override
+    public void insertSnapshots(long accountId, List<SnapshotDTO> rows) {
+        jdbc.batchUpdate("""
+                        INSERT INTO portfolio_snapshots (account_id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                rows, 1000,
+                (ps, s) -> {
+                    ps.setLong(1, accountId);
+                    ps.setString(2, s.mode());
+                    ps.setString(3, s.symbol());
+                    ps.setObject(4, s.purchasedAt());
+                    ps.setBigDecimal(5, s.cashBalance());
+                    ps.setBigDecimal(6, s.positionQty());
+                    ps.setBigDecimal(7, s.positionValue());
+                    ps.setBigDecimal(8, s.totalValue());
+                });
+    }
+
+    @Override
+    public List<SnapshotDTO> list(long accountId, String mode, String symbol, int limit) {
+        return jdbc.query("""
+                        SELECT id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value
+                        FROM portfolio_snapshots
+                        WHERE account_id=? AND mode=? AND symbol=?
+                        ORDER BY purchased_at ASC
+                        LIMIT ?
+                        """,
+                SNAPSHOT_ROW,
+                accountId, mode, symbol, limit
+        );
+    }
+
+    @Override
+    public List<SnapshotDTO> listNewest(long accountId, String mode, String symbol, int limit) {
+        return jdbc.query("""
+                        SELECT id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value
+                        FROM portfolio_snapshots
+                        WHERE account_id=? AND mode=? AND symbol=?
+                        ORDER BY purchased_at DESC
+                        LIMIT ?
+                        """,
+                SNAPSHOT_ROW,
+                accountId, mode, symbol, limit
+        );
+    }
+
+    // See JdbcTradeRepository.forEachTrade: the transaction is what makes the fetch size stream
+    @Override
+    @Transactional(readOnly = true)
+    public void forEach(long accountId, String mode, String symbol, Consumer<SnapshotDTO> sink) {
+        jdbc.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("""
+                                    SELECT id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value
+                                    FROM portfolio_snapshots
+                                    WHERE account_id=? AND mode=? AND symbol=?
+                                    ORDER BY purchased_at ASC, id ASC
+                                    """,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                    ps.setLong(1, accountId);
+                    ps.setString(2, mode);
+                    ps.setString(3, symbol);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> sink.accept(SNAPSHOT_ROW.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        jdbc.update("DELETE FROM portfolio_snapshots WHERE account_id=? AND mode=? AND symbol=?", accountId, mode, symbol);
+    }
+
+    @Override
+    public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        jdbc.update("DELETE FROM portfolio_snapshots WHERE account_id=? AND mode=? AND symbol=? AND purchased_at > ?",
+                accountId, mode, symbol, after);
+    }
+}
\ No newline at end of file
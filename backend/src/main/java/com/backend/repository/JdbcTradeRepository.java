@@ -0,0 +1,144 @@
+package com.backend.repository;
+
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@Profile("!inmemory")
+public class JdbcTradeRepository implements TradeRepository {
+
+    // Rows fetched per round trip when streaming a whole run
+    static final int EXPORT_FETCH_SIZE = 1000;
+
+    private static final RowMapper<TradeDTO> TRADE_ROW = (rs, i) -> new TradeDTO(
+            rs.getLong("id"),
+            rs.getString("mode"),
+            rs.getString("symbol"),
+            rs.getString("transaction_type"),
+            rs.getBigDecimal("quantity"),
+            rs.getBigDecimal("price"),
+            rs.getBigDecimal("fee"),
+            rs.getBigDecimal("realized_pnl"),
+            rs.getObject("purchased_at", OffsetDateTime.class)
+    );
+
+    private final JdbcTemplate jdbc;
+
+    public JdbcTradeRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public long insertTrade(long accountId, String mode, String symbol, String transaction_type,
+                            BigDecimal qty, BigDecimal price,
+                            BigDecimal fee, BigDecimal realizedPnl,
+                            OffsetDateTime purchasedAt) {
+        return jdbc.queryForObject("""
+                INSERT INTO trades (account_id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                RETURNING id
+                """, Long.class, accountId, mode, symbol, transaction_type, qty, price, fee, realizedPnl, purchasedAt);
+    }
+
+    @Override
+    public void insertTrades(long accountId, List<TradeDTO> rows) {
+        jdbc.batchUpdate("""
+                        INSERT INTO trades (account_id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at)
+                        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                        """,
+                rows, 1000,
+                (ps, t) -> {
+                    ps.setLong(1, accountId);
+                    ps.setString(2, t.mode());
+                    ps.setString(3, t.symbol());
+                    ps.setString(4, t.side());
+                    ps.setBigDecimal(5, t.quantity());
+                    ps.setBigDecimal(6, t.price());
+                    ps.setBigDecimal(7, t.fee());
+                    ps.setBigDecimal(8, t.realizedPnl());
+                    ps.setObject(9, t.purchasedAt());
+                });
+    }
+
+    @Override
+    public List<TradeDTO> listTrades(long accountId, String mode, String symbol, int limit) {
+        return jdbc.query("""
+                        SELECT id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at
+                        FROM trades
+                        WHERE account_id=? AND mode=? AND symbol=?
+                        ORDER BY purchased_at DESC
+                        LIMIT ?
+                        """,
+                TRADE_ROW,
+                accountId, mode, symbol, limit
+        );
+    }
+
+    @Override
+    public TradeStatsDTO stats(long accountId, String mode, String symbol) {
+        return jdbc.queryForObject("""
+                        SELECT COUNT(*) AS trade_count,
+                               COUNT(*) FILTER (WHERE realized_pnl > 0) AS winning,
+                               COUNT(*) FILTER (WHERE realized_pnl < 0) AS losing,
+                               COALESCE(SUM(realized_pnl), 0) AS realized_pnl,
+                               COALESCE(SUM(fee), 0) AS fees
+                        FROM trades
+                        WHERE account_id=? AND mode=? AND symbol=?
+                        """,
+                (rs, i) -> new TradeStatsDTO(
+                        rs.getLong("trade_count"),
+                        rs.getLong("winning"),
+                        rs.getLong("losing"),
+                        rs.getBigDecimal("realized_pnl"),
+                        rs.getBigDecimal("fees")
+                ),
+                accountId, mode, symbol
+        );
+    }
+
+    // PostgreSQL only uses a server-side cursor for a fetch size inside a transaction,
+    // otherwise the driver buffers the whole result set
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachTrade(long accountId, String mode, String symbol, Consumer<TradeDTO> sink) {
+        jdbc.query(con -> {
+                    PreparedStatement ps = con.prepareStatement("""
+                                    SELECT id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at
+                                    FROM trades
+                                    WHERE account_id=? AND mode=? AND symbol=?
+                                    ORDER BY purchased_at ASC, id ASC
+                                    """,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(EXPORT_FETCH_SIZE);
+                    ps.setLong(1, accountId);
+                    ps.setString(2, mode);
+                    ps.setString(3, symbol);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> sink.accept(TRADE_ROW.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        jdbc.update("DELETE FROM trades WHERE account_id=? AND mode=? AND symbol=?", accountId, mode, symbol);
+    }
+
+    @Override
+    public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        jdbc.update("DELETE FROM trades WHERE account_id=? AND mode=? AND symbol=? AND purchased_at > ?",
+                accountId, mode, symbol, after);
+    }
+}
\ No newline at end of file
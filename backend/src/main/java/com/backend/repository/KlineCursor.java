@@ -0,0 +1,28 @@
+package com.backend.repository;
+
+import java.math.BigDecimal;
+
+// Forward-only view over parsed klines: next() replaces the current row, which the accessors read
+public interface KlineCursor {
+
+    // Decimal columns, in file order
+    int OPEN = 0;
+    int HIGH = 1;
+    int LOW = 2;
+    int CLOSE = 3;
+    int VOLUME = 4;
+    int DECIMALS = 5;
+
+    // Longest decimal a row may carry, so callers can size their buffers
+    int MAX_DECIMAL_BYTES = 40;
+
+    // False at the end; malformed rows throw IllegalArgumentException, read failures UncheckedIOException
+    boolean next();
+
+    long openTimeMs();
+
+    // Copies the column as written in the file (ASCII digits and '.') into dest at pos; returns the position after it
+    int copyDecimal(int column, byte[] dest, int pos);
+
+    BigDecimal decimal(int column);
+}
@@ -0,0 +1,422 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of recorded trades, the durable copy of the ledger that the accounts, positions,
+ * trades and portfolio_snapshots tables are projected from. Each record is framed as length, CRC32C
+ * and payload (sequence number, cash, position, trade and snapshot) and lives in a segment file named
+ * after its first sequence number.
+ * <p>
+ * Group commit: appends only buffer; sync(seq) writes and fsyncs everything buffered so far, so writers
+ * waiting on a sync in progress are covered by the next one together. A record is handed to the
+ * projection once it is durable, and segments are deleted once the projection has applied all of them.
+ * On open, a torn or corrupt record at the end of the last segment (a crash mid-write) is cut off.
+ * Each node keeps its journal in its own subdirectory and its own ledger_projection row.
+ */
+@Component
+@Profile("!inmemory")
+public class LedgerJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerJournal.class);
+
+    private static final String SUFFIX = ".ledger";
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final byte WIDE_DECIMAL = Byte.MIN_VALUE;
+
+    public record Record(long seq, long accountId, BigDecimal cash, PositionRow position, TradeDTO trade, SnapshotDTO snapshot) {}
+
+    private record Segment(long firstSeq, Path file) {}
+
+    private final Path dir;
+    private final String node;
+    private final boolean enabled;
+    private final long segmentBytes;
+    private final long awaitMs;
+
+    // Guarded by this: appended but not yet written, durable but not yet taken by the projection
+    private final ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+    private final List<Record> bufferedRecords = new ArrayList<>();
+    private final ArrayDeque<Record> durable = new ArrayDeque<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private boolean open = false;
+    private IllegalStateException failure;
+    private long appendedSeq = 0;
+    private long durableSeq = 0;
+    private long projectedSeq = 0;
+    private long fsyncs = 0;
+
+    // Guards the channel; held across a write and its fsync
+    private final Object io = new Object();
+    private FileChannel channel;
+
+    public LedgerJournal(@Value("${bot.ledger.journal.dir:ledger}") String dir,
+                         @Value("${bot.ledger.journal.node:local}") String node,
+                         @Value("${bot.ledger.journal.enabled:false}") boolean enabled,
+                         @Value("${bot.ledger.journal.segment-bytes:67108864}") long segmentBytes,
+                         @Value("${bot.ledger.journal.await-ms:30000}") long awaitMs) {
+        if (segmentBytes < 1) throw new IllegalArgumentException("segment-bytes must be positive");
+        if (node.isBlank()) throw new IllegalArgumentException("node must not be blank");
+        this.dir = Path.of(dir).resolve(node);
+        this.node = node;
+        this.enabled = enabled;
+        this.segmentBytes = segmentBytes;
+        this.awaitMs = awaitMs;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    // Names this journal's row in ledger_projection; sequence numbers are only comparable within one node
+    public String node() {
+        return node;
+    }
+
+    /**
+     * Recovery: reads the journal, cuts off a torn tail, queues every record after projectedSeq for the
+     * projection and deletes segments it has fully applied. New records continue after both.
+     */
+    public void open(long projectedSeq) {
+        if (!enabled) return;
+        synchronized (io) {
+            synchronized (this) {
+                if (open) throw new IllegalStateException("Ledger journal is already open");
+            }
+            try {
+                Files.createDirectories(dir);
+                List<Segment> found = listSegments();
+                long lastSeq = 0;
+                List<Record> unprojected = new ArrayList<>();
+                for (int i = 0; i < found.size(); i++) {
+                    lastSeq = Math.max(lastSeq, scan(found.get(i), i == found.size() - 1, projectedSeq, unprojected));
+                }
+
+                long next = Math.max(lastSeq, projectedSeq) + 1;
+                Segment current = found.isEmpty() ? null : found.get(found.size() - 1);
+                if (current == null || Files.size(current.file()) >= segmentBytes) {
+                    current = new Segment(next, dir.resolve(name(next)));
+                    found.add(current);
+                }
+                channel = FileChannel.open(current.file(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+
+                synchronized (this) {
+                    segments.addAll(found);
+                    durable.addAll(unprojected);
+                    appendedSeq = durableSeq = next - 1;
+                    this.projectedSeq = projectedSeq;
+                    open = true;
+                    release();
+                }
+                if (!unprojected.isEmpty()) log.info("Ledger journal holds {} trades not yet projected", unprojected.size());
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not open the ledger journal in " + dir, e);
+            }
+        }
+    }
+
+    // Buffers a record; it is durable once sync returns for its sequence number
+    public synchronized long append(long accountId, BigDecimal cash, PositionRow position, TradeDTO trade, SnapshotDTO snapshot) {
+        if (!open) throw new IllegalStateException("Ledger journal is not open");
+        if (failure != null) throw failure;
+
+        Record record = new Record(appendedSeq + 1, accountId, cash, position, trade, snapshot);
+        byte[] payload = encode(record);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue());
+        buffered.write(header.array(), 0, FRAME_HEADER_BYTES);
+        buffered.write(payload, 0, payload.length);
+        bufferedRecords.add(record);
+        return ++appendedSeq;
+    }
+
+    // Returns once seq is on disk, writing and fsyncing whatever has been appended by then
+    public void sync(long seq) {
+        synchronized (io) {
+            byte[] bytes;
+            List<Record> batch;
+            long upTo;
+            synchronized (this) {
+                if (failure != null) throw failure;
+                if (durableSeq >= seq) return;
+                bytes = buffered.toByteArray();
+                buffered.reset();
+                batch = List.copyOf(bufferedRecords);
+                bufferedRecords.clear();
+                upTo = appendedSeq;
+            }
+
+            try {
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) channel.write(buf);
+                channel.force(false);
+                if (channel.size() >= segmentBytes) roll(upTo + 1);
+            } catch (IOException e) {
+                // After a failed fsync nothing can be assumed about what reached the disk
+                synchronized (this) {
+                    failure = new IllegalStateException("Ledger journal write failed, trades are not being recorded", e);
+                    throw failure;
+                }
+            }
+
+            synchronized (this) {
+                durableSeq = upTo;
+                durable.addAll(batch);
+                fsyncs++;
+                notifyAll();
+            }
+        }
+    }
+
+    // Up to max durable records in journal order, waiting up to waitMs for the first; empty if none came
+    public synchronized List<Record> takeDurable(int max, long waitMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (durable.isEmpty()) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return List.of();
+            wait(left);
+        }
+        List<Record> out = new ArrayList<>(Math.min(max, durable.size()));
+        while (out.size() < max && !durable.isEmpty()) out.add(durable.poll());
+        return out;
+    }
+
+    // The projection has applied every record up to seq
+    public synchronized void projected(long seq) {
+        projectedSeq = Math.max(projectedSeq, seq);
+        release();
+        notifyAll();
+    }
+
+    // Returns once everything appended so far has been projected, so the tables can be written directly
+    public synchronized void awaitProjected() {
+        if (!enabled || !open) return;
+        long target = appendedSeq;
+        long deadline = System.currentTimeMillis() + awaitMs;
+        try {
+            while (projectedSeq < target) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) {
+                    throw new IllegalStateException("Ledger projection is " + (target - projectedSeq) + " trades behind the journal");
+                }
+                wait(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the ledger projection", e);
+        }
+    }
+
+    public void close() {
+        synchronized (io) {
+            synchronized (this) {
+                open = false;
+            }
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close the ledger journal", e);
+            }
+            channel = null;
+        }
+    }
+
+    // fsyncs done so far; below the number of synced appends when commits were grouped
+    public synchronized long fsyncs() {
+        return fsyncs;
+    }
+
+    synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    // Called with io held
+    private void roll(long firstSeq) throws IOException {
+        channel.close();
+        Path file = dir.resolve(name(firstSeq));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        synchronized (this) {
+            segments.add(new Segment(firstSeq, file));
+        }
+    }
+
+    // Deletes segments whose every record has been projected; the segment being written is kept
+    private void release() {
+        while (segments.size() > 1 && segments.get(1).firstSeq() <= projectedSeq + 1) {
+            Segment done = segments.remove(0);
+            try {
+                Files.deleteIfExists(done.file());
+            } catch (IOException e) {
+                log.warn("Could not delete projected ledger segment {}", done.file(), e);
+            }
+        }
+    }
+
+    private List<Segment> listSegments() throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                String n = f.getFileName().toString();
+                if (n.endsWith(SUFFIX)) found.add(new Segment(Long.parseLong(n.substring(0, n.length() - SUFFIX.length())), f));
+            }
+        }
+        found.sort((a, b) -> Long.compare(a.firstSeq(), b.firstSeq()));
+        return found;
+    }
+
+    // Reads a segment, collecting records after projectedSeq; returns the last sequence number in it
+    private long scan(Segment segment, boolean last, long projectedSeq, List<Record> into) throws IOException {
+        long lastSeq = segment.firstSeq() - 1;
+        try (FileChannel ch = FileChannel.open(segment.file(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            long pos = 0;
+            ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+            while (pos < size) {
+                String bad = null;
+                Record record = null;
+                header.clear();
+                if (ch.read(header, pos) < FRAME_HEADER_BYTES) {
+                    bad = "torn frame header";
+                } else {
+                    int length = header.getInt(0);
+                    if (length <= 0 || length > MAX_RECORD_BYTES || pos + FRAME_HEADER_BYTES + length > size) {
+                        bad = "torn record";
+                    } else {
+                        ByteBuffer payload = ByteBuffer.allocate(length);
+                        while (payload.hasRemaining()) {
+                            if (ch.read(payload, pos + FRAME_HEADER_BYTES + payload.position()) < 0) break;
+                        }
+                        CRC32C crc = new CRC32C();
+                        crc.update(payload.array());
+                        if ((int) crc.getValue() != header.getInt(4)) bad = "checksum mismatch";
+                        else record = decode(payload.array());
+                        if (record != null && record.seq() != lastSeq + 1) bad = "sequence gap after " + lastSeq;
+                    }
+                }
+
+                if (bad != null) {
+                    if (!last) throw new IllegalStateException("Ledger journal segment " + segment.file() + " is corrupt at " + pos + ": " + bad);
+                    log.warn("Cutting the ledger journal at {} of {} ({}), the tail of an interrupted write", pos, segment.file(), bad);
+                    ch.truncate(pos);
+                    ch.force(true);
+                    break;
+                }
+                lastSeq = record.seq();
+                if (record.seq() > projectedSeq) into.add(record);
+                pos += FRAME_HEADER_BYTES + header.getInt(0);
+            }
+        }
+        return lastSeq;
+    }
+
+    private static String name(long firstSeq) {
+        return String.format("%020d%s", firstSeq, SUFFIX);
+    }
+
+    static byte[] encode(Record r) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(160);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(r.seq());
+            out.writeLong(r.accountId());
+            writeDecimal(out, r.cash());
+            writeDecimal(out, r.position().quantity());
+            writeDecimal(out, r.position().avgEntry());
+
+            TradeDTO t = r.trade();
+            out.writeUTF(t.mode());
+            out.writeUTF(t.symbol());
+            out.writeUTF(t.side());
+            writeDecimal(out, t.quantity());
+            writeDecimal(out, t.price());
+            writeDecimal(out, t.fee());
+            writeDecimal(out, t.realizedPnl());
+            out.writeLong(micros(t.purchasedAt()));
+
+            SnapshotDTO s = r.snapshot();
+            out.writeUTF(s.mode());
+            out.writeUTF(s.symbol());
+            out.writeLong(micros(s.purchasedAt()));
+            writeDecimal(out, s.cashBalance());
+            writeDecimal(out, s.positionQty());
+            writeDecimal(out, s.positionValue());
+            writeDecimal(out, s.totalValue());
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Record decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        long seq = in.readLong();
+        long accountId = in.readLong();
+        BigDecimal cash = readDecimal(in);
+        PositionRow position = new PositionRow(readDecimal(in), readDecimal(in));
+
+        TradeDTO trade = new TradeDTO(0, in.readUTF(), in.readUTF(), in.readUTF(),
+                readDecimal(in), readDecimal(in), readDecimal(in), readDecimal(in), time(in.readLong()));
+        SnapshotDTO snapshot = new SnapshotDTO(0, in.readUTF(), in.readUTF(), time(in.readLong()),
+                readDecimal(in), readDecimal(in), readDecimal(in), readDecimal(in));
+        return new Record(seq, accountId, cash, position, trade, snapshot);
+    }
+
+    private static long micros(OffsetDateTime ts) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, ts.toInstant());
+    }
+
+    private static OffsetDateTime time(long micros) {
+        return OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+    }
+
+    // Same encoding as the tick journal: scale and unscaled long, or the text when it does not fit
+    private static void writeDecimal(DataOutputStream out, BigDecimal v) throws IOException {
+        BigInteger unscaled = v.unscaledValue();
+        if (unscaled.bitLength() < 64 && v.scale() > WIDE_DECIMAL && v.scale() <= Byte.MAX_VALUE) {
+            out.writeByte(v.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            out.writeByte(WIDE_DECIMAL);
+            out.writeUTF(v.toString());
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        byte scale = in.readByte();
+        if (scale == WIDE_DECIMAL) return new BigDecimal(in.readUTF());
+        return BigDecimal.valueOf(in.readLong(), scale);
+    }
+}
@@ -0,0 +1,24 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.models.TickIds;
+
+import java.math.BigDecimal;
+
+public interface LedgerRepository {
+
+    // Applies a trade's cash and position update, the trade row and the tick's snapshot atomically.
+    // Ids on the given trade/snapshot are ignored; the generated ones are returned, or 0 for both while
+    // the ledger journal is on, as the rows only reach the tables later. Rows carrying 0 must not be told
+    // apart or looked up by id.
+    TickIds recordTrade(long accountId, BigDecimal cash, PositionRow position, TradeDTO trade, SnapshotDTO snapshot);
+
+    // Returns once every trade recorded so far shows in the tables, before they are written to directly
+    default void awaitProjection() {}
+
+    // Runs direct writes to an account's ledger tables, e.g. a reset, in order with the account's recorded
+    // trades and once they show in the tables
+    void update(long accountId, Runnable writes);
+}
@@ -1,54 +1,31 @@
 package com.backend.repository;
 
-
 import com.backend.dto.SnapshotDTO;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+
+public interface SnapshotRepository {
+
+    long insertSnapshot(long accountId, String mode, String symbol, OffsetDateTime purchased_at,
+                        BigDecimal cash, BigDecimal posQty, BigDecimal posValue, BigDecimal total);
+
+    // Re-inserts a previously computed equity curve in one batch
+    void insertSnapshots(long accountId, List<SnapshotDTO> rows);
+
+    // Oldest first
+    List<SnapshotDTO> list(long accountId, String mode, String symbol, int limit);
+
+    // Most recent first
+    List<SnapshotDTO> listNewest(long accountId, String mode, String symbol, int limit);
+
+    // Every snapshot of a run, oldest first, handed to the sink one row at a time
+    void forEach(long accountId, String mode, String symbol, Consumer<SnapshotDTO> sink);
+
+    void deleteByModeAndSymbol(long accountId, String mode, String symbol);
 
-@Repository
-public class SnapshotRepository {
-    private final JdbcTemplate jdbc;
-
-    public SnapshotRepository(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public long insertSnapshot(long accountId, String mode, String symbol, OffsetDateTime purchased_at,
-                               BigDecimal cash, BigDecimal posQty, BigDecimal posValue, BigDecimal total) {
-        return jdbc.queryForObject("""
-                INSERT INTO portfolio_snapshots (account_id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
-                RETURNING id
-                """, Long.class, accountId, mode, symbol, purchased_at, cash, posQty, posValue, total);
-    }
-
-    public List<SnapshotDTO> list(String mode, String symbol, int limit) {
-        return jdbc.query("""
-                        SELECT id, mode, symbol, purchased_at, cash_balance, position_qty, position_value, total_value
-                        FROM portfolio_snapshots
-                        WHERE mode=? AND symbol=?
-                        ORDER BY purchased_at ASC
-                        LIMIT ?
-                        """,
-                (rs, i) -> new SnapshotDTO(
-                        rs.getLong("id"),
-                        rs.getString("mode"),
-                        rs.getString("symbol"),
-                        rs.getObject("purchased_at", OffsetDateTime.class),
-                        rs.getBigDecimal("cash_balance"),
-                        rs.getBigDecimal("position_qty"),
-                        rs.getBigDecimal("position_value"),
-                        rs.getBigDecimal("total_value")
-                ),
-                mode, symbol, limit
-        );
-    }
-
-    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
-        jdbc.update("DELETE FROM portfolio_snapshots WHERE account_id=? AND mode=? AND symbol=?", accountId, mode, symbol);
-    }
-}
\ No newline at end of file
+    // Drops the snapshots of the pair stamped after `after`
+    void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after);
+}
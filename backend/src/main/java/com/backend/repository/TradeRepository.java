@@ -1,56 +1,34 @@
 package com.backend.repository;
 
 import com.backend.dto.TradeDTO;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.stereotype.Repository;
+import com.backend.dto.TradeStatsDTO;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
-@Repository
-public class TradeRepository {
-    private final JdbcTemplate jdbc;
-
-    public TradeRepository(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public long insertTrade(long accountId, String mode, String symbol, String transaction_type,
-                            BigDecimal qty, BigDecimal price,
-                            BigDecimal fee, BigDecimal realizedPnl,
-                            OffsetDateTime purchasedAt) {
-        return jdbc.queryForObject("""
-                INSERT INTO trades (account_id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at)
-                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
-                RETURNING id
-                """, Long.class, accountId, mode, symbol, transaction_type, qty, price, fee, realizedPnl, purchasedAt);
-    }
-
-    public List<TradeDTO> listTrades(String mode, String symbol, int limit) {
-        return jdbc.query("""
-                        SELECT id, mode, symbol, transaction_type, quantity, price, fee, realized_pnl, purchased_at
-                        FROM trades
-                        WHERE mode=? AND symbol=?
-                        ORDER BY purchased_at DESC
-                        LIMIT ?
-                        """,
-                (rs, i) -> new TradeDTO(
-                        rs.getLong("id"),
-                        rs.getString("mode"),
-                        rs.getString("symbol"),
-                        rs.getString("transaction_type"),
-                        rs.getBigDecimal("quantity"),
-                        rs.getBigDecimal("price"),
-                        rs.getBigDecimal("fee"),
-                        rs.getBigDecimal("realized_pnl"),
-                        rs.getObject("purchased_at", java.time.OffsetDateTime.class)
-                ),
-                mode, symbol, limit
-        );
-    }
-
-    public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
-        jdbc.update("DELETE FROM trades WHERE account_id=? AND mode=? AND symbol=?", accountId, mode, symbol);
-    }
-}
\ No newline at end of file
+public interface TradeRepository {
+
+    long insertTrade(long accountId, String mode, String symbol, String transaction_type,
+                     BigDecimal qty, BigDecimal price,
+                     BigDecimal fee, BigDecimal realizedPnl,
+                     OffsetDateTime purchasedAt);
+
+    // Re-inserts previously computed trades in one batch, keeping their mode/symbol/timestamps
+    void insertTrades(long accountId, List<TradeDTO> rows);
+
+    // Most recent first
+    List<TradeDTO> listTrades(long accountId, String mode, String symbol, int limit);
+
+    // Count, winners, losers, realized PnL and fees over every trade of the pair, in one aggregate
+    TradeStatsDTO stats(long accountId, String mode, String symbol);
+
+    // Every trade of a run, oldest first, handed to the sink one row at a time
+    void forEachTrade(long accountId, String mode, String symbol, Consumer<TradeDTO> sink);
+
+    void deleteByModeAndSymbol(long accountId, String mode, String symbol);
+
+    // Drops the trades of the pair stamped after `after`, e.g. those of a run that failed past its checkpoint
+    void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after);
+}
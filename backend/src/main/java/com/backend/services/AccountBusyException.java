@@ -0,0 +1,9 @@
+package com.backend.services;
+
+// Another account owns the engine's session; the caller has to wait for it to be paused
+public class AccountBusyException extends IllegalStateException {
+
+    public AccountBusyException(long owner) {
+        super("Account " + owner + " has a session running; pause it first");
+    }
+}
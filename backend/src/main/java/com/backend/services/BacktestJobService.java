@@ -0,0 +1,126 @@
+package com.backend.services;
+
+import com.backend.dto.BacktestJobDTO;
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import com.backend.models.Candles;
+import com.backend.repository.BacktestJobRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+// Backtest farm: sweeps are split into one task per backtest, run by any node in the "worker" profile
+@Service
+public class BacktestJobService {
+
+    // Same page the single-node backtest endpoint fetches when no start is given
+    private static final int CANDLE_LIMIT = 1000;
+
+    private final BacktestJobRepository jobs;
+    private final MarketDataService market;
+    private final BacktestResultCache backtestResults;
+    private final IndicatorSeriesCache indicatorSeries;
+    private final Clock clock;
+
+    public BacktestJobService(BacktestJobRepository jobs, MarketDataService market,
+                              BacktestResultCache backtestResults, IndicatorSeriesCache indicatorSeries, Clock clock) {
+        this.jobs = jobs;
+        this.market = market;
+        this.backtestResults = backtestResults;
+        this.indicatorSeries = indicatorSeries;
+        this.clock = clock;
+    }
+
+    public long submit(List<String> symbols, List<String> intervals, List<BigDecimal> riskPcts,
+                       BigDecimal initialBalance, Long startMs, Long endMs) {
+        return jobs.createJob(expand(symbols, intervals, riskPcts, initialBalance, startMs, endMs));
+    }
+
+    public Optional<BacktestJobDTO> job(long jobId) {
+        List<BacktestTaskDTO> tasks = jobs.tasks(jobId);
+        if (tasks.isEmpty()) return Optional.empty();
+        return Optional.of(aggregate(jobId, tasks));
+    }
+
+    // Runs one task on a private engine over throwaway in-memory stores: the farm's output is the
+    // task's summary, and workers must not touch this node's trades, snapshots or live session.
+    // A task with a start streams its whole range; without one it takes the latest page of candles.
+    public BacktestSummary run(BacktestTask task) {
+        return run(task, () -> false);
+    }
+
+    // As above, giving up between candles once `abandoned` says the task is no longer this worker's
+    public BacktestSummary run(BacktestTask task, BooleanSupplier abandoned) {
+        BotEngine engine = ScratchEngines.create(market, backtestResults, indicatorSeries, clock);
+        if (task.startMs() != null) {
+            try (PrefetchedCandles candles = market.streamCandles(task.symbol(), task.interval(), task.startMs(), task.endMs())) {
+                return engine.streamBacktest(task.symbol(), task.interval(), abandonable(task, candles, abandoned),
+                        task.initialBalance(), task.riskPct());
+            }
+        }
+        var candles = market.candles(task.symbol(), task.interval(), null, task.endMs(), CANDLE_LIMIT);
+        return engine.runBacktest(task.symbol(), task.interval(), candles, task.initialBalance(), task.riskPct()).summary();
+    }
+
+    private static Iterator<Candles> abandonable(BacktestTask task, Iterator<Candles> candles, BooleanSupplier abandoned) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                if (abandoned.getAsBoolean()) throw new IllegalStateException("Backtest task " + task.id() + " was abandoned");
+                return candles.hasNext();
+            }
+
+            @Override
+            public Candles next() {
+                return candles.next();
+            }
+        };
+    }
+
+    static List<BacktestTask> expand(List<String> symbols, List<String> intervals, List<BigDecimal> riskPcts,
+                                     BigDecimal initialBalance, Long startMs, Long endMs) {
+        for (BigDecimal riskPct : riskPcts) {
+            if (riskPct.signum() <= 0 || riskPct.compareTo(BigDecimal.ONE) > 0) {
+                throw new IllegalArgumentException("riskPct must be in (0, 1]");
+            }
+        }
+        for (String interval : intervals) CandleIntervals.toMillis(interval);
+
+        List<BacktestTask> tasks = new ArrayList<>(symbols.size() * intervals.size() * riskPcts.size());
+        for (String symbol : symbols) {
+            for (String interval : intervals) {
+                for (BigDecimal riskPct : riskPcts) {
+                    tasks.add(new BacktestTask(0, 0, symbol, interval, startMs, endMs, initialBalance, riskPct, 0));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    static BacktestJobDTO aggregate(long jobId, List<BacktestTaskDTO> tasks) {
+        int[] counts = new int[BacktestTaskStatus.values().length];
+        for (BacktestTaskDTO t : tasks) counts[t.status().ordinal()]++;
+
+        Comparator<BacktestTaskDTO> byReturn = Comparator.comparing(
+                (BacktestTaskDTO t) -> t.summary() == null ? null : t.summary().returnPct(),
+                Comparator.nullsLast(Comparator.reverseOrder()));
+        List<BacktestTaskDTO> sorted = tasks.stream().sorted(byReturn.thenComparingLong(BacktestTaskDTO::id)).toList();
+        BacktestTaskDTO best = sorted.isEmpty() || sorted.get(0).summary() == null ? null : sorted.get(0);
+
+        return new BacktestJobDTO(jobId, tasks.size(),
+                counts[BacktestTaskStatus.PENDING.ordinal()],
+                counts[BacktestTaskStatus.RUNNING.ordinal()],
+                counts[BacktestTaskStatus.DONE.ordinal()],
+                counts[BacktestTaskStatus.FAILED.ordinal()],
+                best, sorted);
+    }
+}
@@ -0,0 +1,94 @@
+package com.backend.services;
+
+import com.backend.models.BacktestResult;
+import com.backend.models.Candles;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class BacktestResultCache {
+
+    // Bounds: total trade + snapshot rows held, and how long a result is kept
+    private static final int MAX_ROWS = 500_000;
+    private static final Duration MAX_AGE = Duration.ofHours(6);
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private int rows = 0;
+
+    private record Entry(BacktestResult result, long storedAt) {}
+
+    public synchronized BacktestResult get(String key, long nowMs) {
+        Entry e = entries.get(key);
+        if (e == null) return null;
+        if (nowMs - e.storedAt() > MAX_AGE.toMillis()) {
+            entries.remove(key);
+            rows -= e.result().rows();
+            return null;
+        }
+        return e.result();
+    }
+
+    public synchronized void put(String key, BacktestResult result, long nowMs) {
+        // A single oversized result would evict everything else for nothing
+        if (result.rows() > MAX_ROWS) return;
+
+        Entry previous = entries.put(key, new Entry(result, nowMs));
+        if (previous != null) rows -= previous.result().rows();
+        rows += result.rows();
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry e = it.next().getValue();
+            if (rows <= MAX_ROWS && nowMs - e.storedAt() <= MAX_AGE.toMillis()) break;
+            rows -= e.result().rows();
+            it.remove();
+        }
+    }
+
+    public synchronized int rows() {
+        return rows;
+    }
+
+    // Content address of a backtest: everything that determines its output, including the candle data itself
+    public static String key(String symbol, String interval, BigDecimal initialBalance, BigDecimal riskPct,
+                             String strategy, List<Candles> candles) {
+        MessageDigest sha = sha256();
+        update(sha, symbol);
+        update(sha, interval);
+        update(sha, initialBalance.stripTrailingZeros().toPlainString());
+        update(sha, riskPct.stripTrailingZeros().toPlainString());
+        update(sha, strategy);
+        for (Candles c : candles) {
+            update(sha, Long.toString(c.openTime().toInstant().toEpochMilli()));
+            update(sha, c.open().toPlainString());
+            update(sha, c.high().toPlainString());
+            update(sha, c.low().toPlainString());
+            update(sha, c.close().toPlainString());
+            update(sha, c.volume().toPlainString());
+        }
+        return HexFormat.of().formatHex(sha.digest());
+    }
+
+    private static void update(MessageDigest sha, String value) {
+        sha.update(value.getBytes(StandardCharsets.UTF_8));
+        sha.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.backend.services;
+
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import com.backend.repository.BacktestJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims farm tasks from the shared job table and runs them, one thread per core by default.
+ * Start any number of nodes with the "worker" profile against the same database; each claim skips
+ * rows other workers hold, and a lease that stops being renewed hands the task to someone else.
+ */
+@Component
+@Profile("worker")
+public class BacktestWorker implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BacktestWorker.class);
+
+    private final BacktestJobRepository jobs;
+    private final BacktestJobService service;
+    private final TaskScheduler scheduler;
+    private final int threads;
+    private final long leaseMs;
+    private final long pollMs;
+    private final int maxAttempts;
+
+    // "pid@host", unique per JVM
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private volatile boolean running = false;
+    private ExecutorService pool;
+
+    public BacktestWorker(BacktestJobRepository jobs, BacktestJobService service, TaskScheduler scheduler,
+                          @Value("${bot.farm.threads:0}") int threads,
+                          @Value("${bot.farm.lease-ms:30000}") long leaseMs,
+                          @Value("${bot.farm.poll-ms:1000}") long pollMs,
+                          @Value("${bot.farm.max-attempts:3}") int maxAttempts) {
+        this.jobs = jobs;
+        this.service = service;
+        this.scheduler = scheduler;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.leaseMs = leaseMs;
+        this.pollMs = pollMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        AtomicInteger n = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "backtest-worker-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 1; i <= threads; i++) {
+            String workerId = nodeId + "#" + i;
+            pool.submit(() -> loop(workerId));
+        }
+        log.info("Backtest worker {} started with {} threads", nodeId, threads);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        pool.shutdownNow();
+        try {
+            // An interrupted backtest is simply re-run elsewhere once its lease expires
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int completed() {
+        return completed.get();
+    }
+
+    private void loop(String workerId) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Optional<BacktestTask> task = jobs.claim(workerId, leaseMs, maxAttempts);
+                if (task.isPresent()) {
+                    execute(workerId, task.get());
+                } else {
+                    jobs.failExpired(maxAttempts);
+                    Thread.sleep(pollMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Backtest worker {} could not reach the job table", workerId, e);
+                sleepQuietly(pollMs);
+            }
+        }
+    }
+
+    void execute(String workerId, BacktestTask task) {
+        // Renew well before expiry so one slow heartbeat does not lose the task. A renewal the table refuses
+        // means the lease expired and the task is another worker's (or failed) now: the run is given up.
+        AtomicBoolean lost = new AtomicBoolean();
+        ScheduledFuture<?> heartbeat = scheduler.scheduleAtFixedRate(() -> {
+            if (lost.get()) return;
+            try {
+                if (!jobs.heartbeat(task.id(), workerId, leaseMs)) lost.set(true);
+            } catch (RuntimeException e) {
+                log.warn("Heartbeat for backtest task {} failed", task.id(), e);
+            }
+        }, Duration.ofMillis(Math.max(1, leaseMs / 3)));
+
+        try {
+            BacktestSummary summary = service.run(task, lost::get);
+            if (!lost.get() && jobs.complete(task.id(), workerId, summary)) {
+                completed.incrementAndGet();
+            } else {
+                log.warn("Backtest task {} finished after its lease moved to another worker", task.id());
+            }
+        } catch (RuntimeException e) {
+            if (lost.get()) {
+                log.warn("Backtest task {} abandoned: its lease moved to another worker", task.id());
+            } else {
+                log.warn("Backtest task {} failed on attempt {}", task.id(), task.attempts(), e);
+                jobs.fail(task.id(), workerId, String.valueOf(e), maxAttempts);
+            }
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private static void sleepQuietly(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
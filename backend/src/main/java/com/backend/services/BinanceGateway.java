@@ -0,0 +1,180 @@
+package com.backend.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class BinanceGateway {
+
+    // Lower ordinal = served first
+    public enum Priority { LIVE, BACKTEST, CHART }
+
+    // Share of the per-minute weight budget each priority may consume;
+    // the remainder is headroom kept for higher priorities
+    private static final double[] CEILING = {1.0, 0.85, 0.70};
+
+    private static final long WINDOW_MS = 60_000;
+    private static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+
+    private final RestClient client;
+    private final int weightLimit;
+
+    // Identical requests of one priority in flight share one HTTP call; a LIVE caller never waits on a CHART
+    // request that is still queued behind the ceiling
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // Weight accounting, guarded by this
+    private long windowStart = 0;
+    private int usedWeight = 0;
+    private long blockedUntil = 0;
+    private final int[] waiting = new int[Priority.values().length];
+
+    public BinanceGateway(@Value("${binance.base-url:https://api.binance.com}") String baseUrl,
+                          @Value("${binance.weight-limit:6000}") int weightLimit) {
+        this.client = RestClient.create(baseUrl);
+        this.weightLimit = weightLimit;
+    }
+
+    public <T> T get(String path, Map<String, Object> params, int weight, Priority priority, Class<T> type) {
+        String key = priority + " " + type.getName() + " " + path + "?" + params;
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) return type.cast(await(existing));
+
+        try {
+            T result = execute(path, params, weight, priority, type);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public synchronized int usedWeight() {
+        rollWindow(System.currentTimeMillis());
+        return usedWeight;
+    }
+
+    private <T> T execute(String path, Map<String, Object> params, int weight, Priority priority, Class<T> type) {
+        acquire(weight, priority);
+        try {
+            var response = client.get()
+                    .uri(uriBuilder -> {
+                        var b = uriBuilder.path(path);
+                        for (var p : params.entrySet()) b = b.queryParam(p.getKey(), p.getValue());
+                        return b.build();
+                    })
+                    .retrieve()
+                    .toEntity(type);
+            recordUsedWeight(response.getHeaders());
+            return response.getBody();
+        } catch (RestClientResponseException e) {
+            HttpHeaders headers = e.getResponseHeaders();
+            if (headers != null) recordUsedWeight(headers);
+            // 429 = slow down, 418 = IP banned; both carry Retry-After in seconds
+            if (e.getStatusCode().value() == 429 || e.getStatusCode().value() == 418) {
+                backOff(headers);
+            }
+            throw e;
+        }
+    }
+
+    private synchronized void acquire(int weight, Priority priority) {
+        waiting[priority.ordinal()]++;
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                rollWindow(now);
+                if (now >= blockedUntil && !higherPriorityWaiting(priority) && fits(weight, priority)) {
+                    usedWeight += weight;
+                    return;
+                }
+                long wakeAt = Math.max(blockedUntil, windowStart + WINDOW_MS);
+                wait(Math.max(1, Math.min(wakeAt - now, 250)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Binance request weight", e);
+        } finally {
+            waiting[priority.ordinal()]--;
+            notifyAll();
+        }
+    }
+
+    synchronized boolean fits(int weight, Priority priority) {
+        rollWindow(System.currentTimeMillis());
+        return usedWeight + weight <= (int) (weightLimit * CEILING[priority.ordinal()]);
+    }
+
+    private boolean higherPriorityWaiting(Priority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (waiting[i] > 0) return true;
+        }
+        return false;
+    }
+
+    private void rollWindow(long now) {
+        // Binance resets the 1m weight counter on minute boundaries
+        long start = now - (now % WINDOW_MS);
+        if (start != windowStart) {
+            windowStart = start;
+            usedWeight = 0;
+            notifyAll();
+        }
+    }
+
+    private synchronized void recordUsedWeight(HttpHeaders headers) {
+        String used = headers.getFirst(USED_WEIGHT_HEADER);
+        if (used == null) return;
+        try {
+            rollWindow(System.currentTimeMillis());
+            // The server count is authoritative, but our own reservations may not have reached it yet
+            usedWeight = Math.max(usedWeight, Integer.parseInt(used.trim()));
+        } catch (NumberFormatException ignored) {
+            // keep the local estimate
+        }
+    }
+
+    private synchronized void backOff(HttpHeaders headers) {
+        long retryAfterMs = WINDOW_MS;
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter != null) {
+            try {
+                retryAfterMs = Long.parseLong(retryAfter.trim()) * 1000;
+            } catch (NumberFormatException ignored) {
+                // fall back to a full window
+            }
+        }
+        blockedUntil = Math.max(blockedUntil, System.currentTimeMillis() + retryAfterMs);
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    static Map<String, Object> params(Object... keyValues) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) params.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return params;
+    }
+}
@@ -1,33 +1,81 @@
 package com.backend.services;
 
 import com.backend.dto.BotMode;
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.BacktestCheckpoint;
+import com.backend.models.BacktestResult;
+import com.backend.models.BacktestSummary;
 import com.backend.models.Candles;
+import com.backend.models.IndicatorState;
+import com.backend.models.PositionRow;
 import com.backend.models.Signal;
+import com.backend.models.TickIds;
 import com.backend.repository.AccountRepository;
+import com.backend.repository.BacktestCheckpointRepository;
+import com.backend.repository.IndicatorStateRepository;
+import com.backend.repository.LedgerRepository;
 import com.backend.repository.PositionRepository;
 import com.backend.repository.SnapshotRepository;
 import com.backend.repository.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class BotEngine {
 
+    private static final Logger log = LoggerFactory.getLogger(BotEngine.class);
+
     private final AccountRepository accounts;
     private final PositionRepository positions;
     private final TradeRepository trades;
     private final SnapshotRepository snapshots;
+    private final LedgerRepository ledger;
+    private final IndicatorStateRepository indicatorStates;
+    private final BacktestCheckpointRepository checkpoints;
+    private final MarketDataService market;
+    private final BacktestResultCache backtestResults;
+    private final IndicatorSeriesCache indicatorSeries;
+    private final RecentActivity recent;
+    private final double minBuyImbalance;
+    private final Clock clock;
 
     // session status (simple single-session design)
     private volatile boolean running = false;
     private volatile BotMode mode = BotMode.TRAIN;
     private volatile String symbol = "BTCUSDT";
     private volatile String interval = "1m";
+    private volatile long sessionId = 0;
+    private volatile BigDecimal initialBalance = BigDecimal.ZERO;
+
+    // The engine runs one session at a time, owned by the account that claimed it until it ends or is paused
+    private static final long NO_OWNER = -1;
+    private final Object ownership = new Object();
+    private long owner = NO_OWNER;
+    private long claims = 0;
+
+    // Ledger of the current session, mirrored in memory so a tick needs no reads. Cash and position are
+    // replaced together in one immutable value, so request threads never see one without the other.
+    private static final PositionRow FLAT = new PositionRow(BigDecimal.ZERO, BigDecimal.ZERO);
+    private record Mirror(BigDecimal cash, PositionRow position) {}
+    private long accountId;
+    private volatile Mirror mirror = new Mirror(BigDecimal.ZERO, FLAT);
 
     // Strategy params
     private static final int FAST = 12;
@@ -35,95 +83,582 @@ public class BotEngine {
     private static final int RSI_PERIOD = 14;
     private static final BigDecimal FEE_RATE = new BigDecimal("0.001"); // 0.1%
 
-    // Indicator state (used for LIVE; backtest uses local lists)
+    // Part of every backtest cache key: changing a parameter above must not serve stale results
+    private static final String STRATEGY = "sma-cross:" + FAST + "/" + SLOW + ",rsi:" + RSI_PERIOD + ",fee:" + FEE_RATE;
+
+    // Live warm start: closes needed before the first signal, and how often/how long indicator state is kept.
+    // Live ticks are candle closes, so every one is checkpointed.
+    private static final int WARMUP_CLOSES = SLOW + 2;
+    private static final int CHECKPOINT_EVERY_TICKS = 1;
+    private static final Duration CHECKPOINT_MAX_AGE = Duration.ofMinutes(10);
+
+    // Indicator state (used for LIVE; backtest uses local lists). Moved by the pipeline's indicator stage and
+    // copied from request threads (status, stop), so guarded by liveIndicators
+    private final Object liveIndicators = new Object();
     private List<BigDecimal> liveCloses = new ArrayList<>();
     private BigDecimal livePrevFast = null;
     private BigDecimal livePrevSlow = null;
+    private int ticksSinceCheckpoint = 0;
+
+    private record AccountSymbol(long accountId, String symbol) {}
+
+    // Cache key of the backtest whose trades/snapshots are currently in the database, per account and symbol
+    private final Map<AccountSymbol, String> persistedBacktests = new ConcurrentHashMap<>();
 
     public BotEngine(AccountRepository accounts,
                      PositionRepository positions,
                      TradeRepository trades,
-                     SnapshotRepository snapshots) {
+                     SnapshotRepository snapshots,
+                     LedgerRepository ledger,
+                     IndicatorStateRepository indicatorStates,
+                     BacktestCheckpointRepository checkpoints,
+                     MarketDataService market,
+                     BacktestResultCache backtestResults,
+                     IndicatorSeriesCache indicatorSeries,
+                     RecentActivity recent,
+                     @Value("${bot.depth.min-buy-imbalance:-1}") double minBuyImbalance,
+                     Clock clock) {
+        if (minBuyImbalance < -1 || minBuyImbalance > 1) throw new IllegalArgumentException("min-buy-imbalance must be in [-1, 1]");
         this.accounts = accounts;
         this.positions = positions;
         this.trades = trades;
         this.snapshots = snapshots;
+        this.ledger = ledger;
+        this.indicatorStates = indicatorStates;
+        this.checkpoints = checkpoints;
+        this.market = market;
+        this.backtestResults = backtestResults;
+        this.indicatorSeries = indicatorSeries;
+        this.recent = recent;
+        this.minBuyImbalance = minBuyImbalance;
+        this.clock = clock;
     }
 
     public boolean isRunning() { return running; }
     public BotMode getMode() { return mode; }
     public String getSymbol() { return symbol; }
     public String getInterval() { return interval; }
+    public long getAccountId() { return accountId; }
+    public long getSessionId() { return sessionId; }
+    public BigDecimal getInitialBalance() { return initialBalance; }
+
+    // Copy of the live indicator window, e.g. to record the state a session started from
+    public IndicatorState liveIndicatorState() {
+        synchronized (liveIndicators) {
+            return new IndicatorState(List.copyOf(liveCloses), livePrevFast, livePrevSlow, OffsetDateTime.now(clock));
+        }
+    }
+
+    public void stop() {
+        synchronized (ownership) {
+            if (running && mode == BotMode.LIVE) checkpointLiveIndicators();
+            this.running = false;
+            owner = NO_OWNER;
+        }
+    }
 
-    public void stop() { this.running = false; }
+    // Stops the session only when it is accountId's
+    public void stop(long accountId) {
+        synchronized (ownership) {
+            requireOwnerOrFree(accountId);
+            stop();
+        }
+    }
+
+    /**
+     * Makes the engine accountId's for a new session, stopping the one that account was running.
+     * Another account's session, also one still starting, is never stopped: the claim fails instead.
+     * Returns the claim to release once the session has ended.
+     */
+    public long claim(long accountId) {
+        synchronized (ownership) {
+            requireOwnerOrFree(accountId);
+            stop();
+            owner = accountId;
+            return ++claims;
+        }
+    }
+
+    // No-op when a later claim of the same account has taken over
+    public void release(long claim) {
+        synchronized (ownership) {
+            if (claims == claim) owner = NO_OWNER;
+        }
+    }
+
+    private void requireOwnerOrFree(long accountId) {
+        if (owner != NO_OWNER && owner != accountId) {
+            throw new AccountBusyException(owner);
+        }
+    }
 
     public void reset(BotMode mode, String symbol) {
-        long accountId = accounts.getDefaultAccountId();
-        trades.deleteByModeAndSymbol(accountId, mode.name(), symbol);
-        snapshots.deleteByModeAndSymbol(accountId, mode.name(), symbol);
-        positions.upsertPosition(accountId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+        reset(accounts.getDefaultAccountId(), mode, symbol);
     }
 
-    public void runBacktest(String symbol,
-                            String interval,
-                            List<Candles> candles,
-                            BigDecimal initialBalance,
-                            BigDecimal riskPct) {
+    public void reset(long accountId, BotMode mode, String symbol) {
+        ledger.update(accountId, () -> {
+            trades.deleteByModeAndSymbol(accountId, mode.name(), symbol);
+            snapshots.deleteByModeAndSymbol(accountId, mode.name(), symbol);
+            positions.upsertPosition(accountId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+            if (mode == BotMode.LIVE) indicatorStates.deleteBySymbol(accountId, symbol);
+            if (mode == BotMode.TRAIN) checkpoints.delete(accountId, symbol);
+        });
+        if (accountId == this.accountId && symbol.equals(this.symbol)) this.mirror = new Mirror(mirror.cash(), FLAT);
+        if (mode == BotMode.TRAIN) persistedBacktests.remove(new AccountSymbol(accountId, symbol));
+        recent.cleared(accountId, mode.name(), symbol);
+    }
 
-        long accountId = accounts.getDefaultAccountId();
-        initSession(BotMode.TRAIN, symbol, interval, accountId, initialBalance);
+    public BacktestResult runBacktest(String symbol,
+                                      String interval,
+                                      List<Candles> candles,
+                                      BigDecimal initialBalance,
+                                      BigDecimal riskPct) {
+        return runBacktest(accounts.getDefaultAccountId(), symbol, interval, candles, initialBalance, riskPct);
+    }
 
-        List<BigDecimal> closes = new ArrayList<>();
-        BigDecimal prevFast = null;
-        BigDecimal prevSlow = null;
+    public BacktestResult runBacktest(long accountId,
+                                      String symbol,
+                                      String interval,
+                                      List<Candles> candles,
+                                      BigDecimal initialBalance,
+                                      BigDecimal riskPct) {
+
+        String key = BacktestResultCache.key(symbol, interval, initialBalance, riskPct, STRATEGY, candles);
+        BacktestResult cached = backtestResults.get(key, clock.millis());
+        if (cached != null) {
+            restoreBacktest(accountId, symbol, interval, key, cached);
+            return cached;
+        }
 
-        for (Candles c : candles) {
-            if (!running) break;
+        List<TradeDTO> executed = new ArrayList<>();
+        List<SnapshotDTO> equity = new ArrayList<>(candles.size());
+        BacktestSummary summary = backtest(accountId, symbol, interval, candles.iterator(), cachedIndicators(symbol, interval, candles),
+                initialBalance, riskPct, executed, equity);
 
-            appendCloseAndTrim(closes, c.close());
+        // A paused run is partial and must not be served for the full request
+        boolean completed = running;
+        this.running = false;
 
-            if (!hasEnoughData(closes)) {
-                snapshot(accountId, BotMode.TRAIN, symbol, c.openTime(), c.close());
-                continue;
+        BacktestResult result = new BacktestResult(executed, equity, summary);
+
+        if (completed) {
+            backtestResults.put(key, result, clock.millis());
+            persistedBacktests.put(new AccountSymbol(accountId, symbol), key);
+        } else {
+            persistedBacktests.remove(new AccountSymbol(accountId, symbol));
+        }
+        return result;
+    }
+
+    // Runs over candles as they arrive and keeps none of them, nor the trades and snapshots it writes:
+    // heap use stays flat however long the range. Not cached, since the result is only the summary.
+    public BacktestSummary streamBacktest(String symbol,
+                                          String interval,
+                                          Iterator<Candles> candles,
+                                          BigDecimal initialBalance,
+                                          BigDecimal riskPct) {
+        return streamBacktest(accounts.getDefaultAccountId(), symbol, interval, candles, initialBalance, riskPct);
+    }
+
+    public BacktestSummary streamBacktest(long accountId,
+                                          String symbol,
+                                          String interval,
+                                          Iterator<Candles> candles,
+                                          BigDecimal initialBalance,
+                                          BigDecimal riskPct) {
+        BacktestSummary summary = backtest(accountId, symbol, interval, candles, null,
+                initialBalance, riskPct, null, null);
+        this.running = false;
+        persistedBacktests.remove(new AccountSymbol(accountId, symbol));
+        return summary;
+    }
+
+    /**
+     * A streamed backtest over [startMs, endMs], without the candle still forming. When the last streamed run
+     * of the account and symbol had the same start, interval and parameters and stopped before endMs, it is
+     * continued from its checkpoint over the candles after it only: its rows stay, new ones are added, and
+     * the summary covers the whole range. Otherwise the range runs from the start. Either way the run ends
+     * with a checkpoint, also when paused, so the next request can carry on from there.
+     */
+    public BacktestSummary rangeBacktest(long accountId,
+                                         String symbol,
+                                         String interval,
+                                         long startMs,
+                                         Long endMs,
+                                         BigDecimal initialBalance,
+                                         BigDecimal riskPct) {
+        BacktestCheckpoint checkpoint = checkpoints.find(accountId, symbol)
+                .filter(c -> continues(c, interval, startMs, endMs, initialBalance, riskPct))
+                .orElse(null);
+
+        BacktestRun run;
+        if (checkpoint == null) {
+            initSession(BotMode.TRAIN, symbol, interval, accountId, initialBalance);
+            run = new BacktestRun(initialBalance);
+        } else {
+            resumeSession(accountId, symbol, checkpoint);
+            run = new BacktestRun(checkpoint);
+        }
+
+        long from = checkpoint == null ? startMs : checkpoint.lastOpenMs() + 1;
+        try (PrefetchedCandles candles = market.streamCandles(symbol, interval, from, endMs)) {
+            backtest(symbol, closedCandles(candles, interval), run, null, riskPct, null, null);
+        }
+        this.running = false;
+        persistedBacktests.remove(new AccountSymbol(accountId, symbol));
+
+        if (run.lastOpenMs != NO_CANDLE) {
+            checkpoints.save(accountId, symbol, new BacktestCheckpoint(interval, startMs, initialBalance, riskPct, STRATEGY,
+                    run.lastOpenMs, List.copyOf(run.closes.subList(Math.max(0, run.closes.size() - WARMUP_CLOSES), run.closes.size())),
+                    run.prevFast, run.prevSlow, mirror.cash(), mirror.position(), run.summary.realized, run.summary.tradeCount,
+                    run.summary.peak, run.summary.maxDrawdown, run.summary.finalValue));
+        }
+        return run.summary.build(mirror.position().avgEntry());
+    }
+
+    private static boolean continues(BacktestCheckpoint c, String interval, long startMs, Long endMs,
+                                     BigDecimal initialBalance, BigDecimal riskPct) {
+        return c.interval().equals(interval)
+                && c.startMs() == startMs
+                && c.initialBalance().compareTo(initialBalance) == 0
+                && c.riskPct().compareTo(riskPct) == 0
+                && c.strategy().equals(STRATEGY)
+                && (endMs == null || endMs > c.lastOpenMs());
+    }
+
+    // Stops at the first candle that has not closed yet: a checkpoint must not hold one that will still change
+    private Iterator<Candles> closedCandles(Iterator<Candles> candles, String interval) {
+        long intervalMs = CandleIntervals.toMillis(interval);
+        long now = clock.millis();
+        return new Iterator<>() {
+            private Candles next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && candles.hasNext()) {
+                    Candles c = candles.next();
+                    if (c.openTime().toInstant().toEpochMilli() + intervalMs <= now) next = c;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Candles next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Candles c = next;
+                next = null;
+                return c;
+            }
+        };
+    }
+
+    // Indicator values at every index of a backtest's candles
+    private record CachedIndicators(IndicatorSeriesCache.Series fast, IndicatorSeriesCache.Series slow,
+                                    IndicatorSeriesCache.Series rsi) {}
+
+    private CachedIndicators cachedIndicators(String symbol, String interval, List<Candles> candles) {
+        var fast = indicatorSeries.series(symbol, interval, IndicatorSeriesCache.Indicator.SMA, FAST, candles);
+        var slow = indicatorSeries.series(symbol, interval, IndicatorSeriesCache.Indicator.SMA, SLOW, candles);
+        var rsi = indicatorSeries.series(symbol, interval, IndicatorSeriesCache.Indicator.RSI, RSI_PERIOD, candles);
+        return fast == null || slow == null || rsi == null ? null : new CachedIndicators(fast, slow, rsi);
+    }
+
+    private BacktestSummary backtest(long accountId, String symbol, String interval, Iterator<Candles> candles,
+                                     CachedIndicators cached, BigDecimal initialBalance, BigDecimal riskPct,
+                                     List<TradeDTO> executed, List<SnapshotDTO> equity) {
+        initSession(BotMode.TRAIN, symbol, interval, accountId, initialBalance);
+        BacktestRun run = new BacktestRun(initialBalance);
+        backtest(symbol, candles, run, cached, riskPct, executed, equity);
+        return run.summary.build(mirror.position().avgEntry());
+    }
+
+    // Advances run over candles. Indicators come from `cached` when given (fresh runs only), else are computed
+    // from the closes. executed and equity collect the run's rows when not null.
+    private void backtest(String symbol, Iterator<Candles> candles, BacktestRun run, CachedIndicators cached,
+                          BigDecimal riskPct, List<TradeDTO> executed, List<SnapshotDTO> equity) {
+        for (int i = 0; running && candles.hasNext(); i++) {
+            Candles c = candles.next();
+            appendCloseAndTrim(run.closes, c.close());
+
+            TickOutcome outcome;
+            if (!hasEnoughData(run.closes)) {
+                outcome = commitTick(BotMode.TRAIN, symbol, c.openTime(), c.close(), null);
+            } else {
+                Signal signal = cached == null
+                        ? computeSignal(run.closes, run.prevFast, run.prevSlow)
+                        : signal(cached.fast().get(i), cached.slow().get(i), cached.rsi().get(i), run.prevFast, run.prevSlow);
+                Order order = applySignal(BotMode.TRAIN, symbol, c.close(), c.openTime(), riskPct, signal);
+                outcome = commitTick(BotMode.TRAIN, symbol, c.openTime(), c.close(), order);
+                run.prevFast = signal.fast();
+                run.prevSlow = signal.slow();
             }
 
-            Signal signal = computeSignal(closes, prevFast, prevSlow);
-            applySignal(accountId, BotMode.TRAIN, symbol, c.close(), c.openTime(), riskPct, signal);
+            if (outcome.trade() != null) {
+                run.summary.trade(outcome.trade());
+                if (executed != null) executed.add(outcome.trade());
+            }
+            run.summary.snapshot(outcome.snapshot());
+            if (equity != null) equity.add(outcome.snapshot());
+            run.lastOpenMs = c.openTime().toInstant().toEpochMilli();
+        }
+    }
+
+    private static final long NO_CANDLE = Long.MIN_VALUE;
+
+    // A backtest's indicator window and summary so far
+    private static final class BacktestRun {
+        private final List<BigDecimal> closes;
+        private BigDecimal prevFast;
+        private BigDecimal prevSlow;
+        private final SummaryBuilder summary;
+        private long lastOpenMs = NO_CANDLE;
 
-            snapshot(accountId, BotMode.TRAIN, symbol, c.openTime(), c.close());
+        BacktestRun(BigDecimal initialBalance) {
+            this.closes = new ArrayList<>();
+            this.summary = new SummaryBuilder(initialBalance);
+        }
 
-            prevFast = signal.fast();
-            prevSlow = signal.slow();
+        BacktestRun(BacktestCheckpoint c) {
+            this.closes = new ArrayList<>(c.closes());
+            this.prevFast = c.prevFast();
+            this.prevSlow = c.prevSlow();
+            this.summary = new SummaryBuilder(c);
+            this.lastOpenMs = c.lastOpenMs();
         }
+    }
 
+    private void restoreBacktest(long accountId, String symbol, String interval, String key, BacktestResult result) {
+        this.mode = BotMode.TRAIN;
+        this.symbol = symbol;
+        this.interval = interval;
+        this.initialBalance = result.summary().initialBalance();
         this.running = false;
+
+        // The ledger ends where the original run ended.
+        // Rows are already in the database when this was the last backtest persisted for the account and symbol.
+        AccountSymbol persisted = new AccountSymbol(accountId, symbol);
+        boolean insert = !key.equals(persistedBacktests.get(persisted));
+        ledger.update(accountId, () -> {
+            checkpoints.delete(accountId, symbol);
+            accounts.setCash(accountId, result.summary().finalCash());
+            positions.upsertPosition(accountId, symbol, result.summary().positionQty(), result.summary().positionAvgEntry());
+            if (insert) {
+                trades.insertTrades(accountId, result.trades());
+                snapshots.insertSnapshots(accountId, result.equity());
+            }
+        });
+        this.accountId = accountId;
+        this.mirror = new Mirror(result.summary().finalCash(),
+                new PositionRow(result.summary().positionQty(), result.summary().positionAvgEntry()));
+
+        if (insert) {
+            // The rows got new ids, unlike the cached ones, so the tail is read back rather than fed
+            recent.forget(accountId, BotMode.TRAIN.name(), symbol);
+            persistedBacktests.put(persisted, key);
+        }
+    }
+
+    // Summary statistics, accumulated tick by tick
+    private static final class SummaryBuilder {
+        private final BigDecimal initialBalance;
+        private BigDecimal realized = BigDecimal.ZERO;
+        private int tradeCount = 0;
+        private BigDecimal peak;
+        private BigDecimal maxDrawdown = BigDecimal.ZERO;
+
+        // As of the last snapshot
+        private BigDecimal finalCash;
+        private BigDecimal positionQty = BigDecimal.ZERO;
+        private BigDecimal finalValue;
+
+        SummaryBuilder(BigDecimal initialBalance) {
+            this.initialBalance = initialBalance;
+            this.peak = initialBalance;
+            this.finalCash = initialBalance;
+            this.finalValue = initialBalance;
+        }
+
+        SummaryBuilder(BacktestCheckpoint c) {
+            this.initialBalance = c.initialBalance();
+            this.realized = c.realizedPnl();
+            this.tradeCount = c.tradeCount();
+            this.peak = c.peakValue();
+            this.maxDrawdown = c.maxDrawdown();
+            this.finalCash = c.cash();
+            this.positionQty = c.position().quantity();
+            this.finalValue = c.lastValue();
+        }
+
+        void trade(TradeDTO t) {
+            realized = realized.add(t.realizedPnl());
+            tradeCount++;
+        }
+
+        void snapshot(SnapshotDTO s) {
+            if (s.totalValue().compareTo(peak) > 0) peak = s.totalValue();
+            if (peak.signum() > 0) {
+                BigDecimal drawdown = peak.subtract(s.totalValue()).divide(peak, 8, RoundingMode.HALF_UP);
+                if (drawdown.compareTo(maxDrawdown) > 0) maxDrawdown = drawdown;
+            }
+            finalCash = s.cashBalance();
+            positionQty = s.positionQty();
+            finalValue = s.totalValue();
+        }
+
+        BacktestSummary build(BigDecimal avgEntry) {
+            BigDecimal returnPct = initialBalance.signum() == 0
+                    ? BigDecimal.ZERO
+                    : finalValue.subtract(initialBalance).multiply(BigDecimal.valueOf(100))
+                            .divide(initialBalance, 4, RoundingMode.HALF_UP);
+
+            return new BacktestSummary(initialBalance, finalCash, positionQty, avgEntry, finalValue, realized,
+                    tradeCount, returnPct, maxDrawdown.multiply(BigDecimal.valueOf(100)).setScale(4, RoundingMode.HALF_UP));
+        }
     }
 
     public void startLive(String symbol, String interval, BigDecimal initialBalance) {
+        startLive(accounts.getDefaultAccountId(), symbol, interval, initialBalance);
+    }
+
+    public void startLive(long accountId, String symbol, String interval, BigDecimal initialBalance) {
+        initSession(BotMode.LIVE, symbol, interval, accountId, initialBalance);
+        IndicatorState warm = warmUpLiveIndicators(accountId, symbol, interval);
+        setLiveIndicatorState(warm.closes(), warm.prevFast(), warm.prevSlow());
+    }
+
+    // Starts a live session from a known indicator state instead of warming up (used by replays)
+    public void startLive(String symbol, String interval, BigDecimal initialBalance, IndicatorState seed) {
         long accountId = accounts.getDefaultAccountId();
         initSession(BotMode.LIVE, symbol, interval, accountId, initialBalance);
-        resetLiveIndicatorState();
+        setLiveIndicatorState(seed.closes(), seed.prevFast(), seed.prevSlow());
     }
 
-    public void processLiveTick(BigDecimal price, OffsetDateTime ts, BigDecimal riskPct) {
-        if (!running || mode != BotMode.LIVE) return;
+    // Returns the trade executed on this tick, or null
+    public TradeDTO processLiveTick(BigDecimal price, OffsetDateTime ts, BigDecimal riskPct) {
+        return processLiveTick(price, ts, riskPct, TickTrace.NONE);
+    }
 
-        long accountId = accounts.getDefaultAccountId();
+    public TradeDTO processLiveTick(BigDecimal price, OffsetDateTime ts, BigDecimal riskPct, TickTrace trace) {
+        return processLiveTick(price, ts, riskPct, Double.NaN, trace);
+    }
+
+    // imbalance is the order book's at the tick (OrderBook.imbalance), NaN when there is none
+    public TradeDTO processLiveTick(BigDecimal price, OffsetDateTime ts, BigDecimal riskPct, double imbalance, TickTrace trace) {
+        if (!running || mode != BotMode.LIVE) return null;
+
+        LiveIndicators indicators = updateLiveIndicators(price, trace);
+        PendingTick tick = decideLiveTick(indicators.signal(), price, ts, riskPct, imbalance, trace);
+        TradeDTO trade = writeTick(tick).trade();
+        applyToMirror(tick);
+
+        if (indicators.checkpoint() != null) saveLiveCheckpoint(indicators.checkpoint());
+        trace.mark(TickTrace.Stage.PERSISTENCE);
+        return trade;
+    }
+
+    // Intra-candle risk check: sells the whole position once the price falls stopLossPct below the
+    // average entry. Leaves the indicators alone and writes nothing unless it trades.
+    public TradeDTO checkStopLoss(BigDecimal price, OffsetDateTime ts, BigDecimal stopLossPct) {
+        if (!running || mode != BotMode.LIVE) return null;
+
+        PendingTick tick = decideStopLoss(price, ts, stopLossPct);
+        if (tick == null) return null;
+        TradeDTO trade = writeTick(tick).trade();
+        applyToMirror(tick);
+        return trade;
+    }
 
-        appendCloseAndTrim(liveCloses, price);
+    // The live tick in stages, for LivePipeline (processLiveTick runs them inline): indicators, then the
+    // order decided on the mirrored ledger, then the write. Each stage must be called from one thread at
+    // a time, in tick order.
 
-        if (!hasEnoughData(liveCloses)) {
-            snapshot(accountId, BotMode.LIVE, symbol, ts, price);
-            return;
+    // signal is null while warming up; checkpoint is set when the indicator state is due to be saved
+    record LiveIndicators(Signal signal, IndicatorState checkpoint) {}
+
+    // A tick's ledger change and snapshot, decided but not yet written; trade is null when it did not trade
+    record PendingTick(long accountId, TradeDTO trade, BigDecimal cash, PositionRow position, SnapshotDTO snapshot) {}
+
+    boolean isLiveSession(long session) {
+        return running && mode == BotMode.LIVE && sessionId == session;
+    }
+
+    LiveIndicators updateLiveIndicators(BigDecimal price, TickTrace trace) {
+        Signal signal = null;
+        IndicatorState checkpoint = null;
+        synchronized (liveIndicators) {
+            appendCloseAndTrim(liveCloses, price);
+            if (hasEnoughData(liveCloses)) {
+                signal = computeSignal(liveCloses, livePrevFast, livePrevSlow);
+                livePrevFast = signal.fast();
+                livePrevSlow = signal.slow();
+                if (++ticksSinceCheckpoint >= CHECKPOINT_EVERY_TICKS) {
+                    ticksSinceCheckpoint = 0;
+                    checkpoint = liveCheckpoint();
+                }
+            }
         }
+        trace.mark(TickTrace.Stage.INDICATORS);
+        return new LiveIndicators(signal, checkpoint);
+    }
+
+    PendingTick decideLiveTick(Signal signal, BigDecimal price, OffsetDateTime ts, BigDecimal riskPct, double imbalance,
+                               TickTrace trace) {
+        String side = signal == null ? null : decide(signal, imbalance);
+        trace.mark(TickTrace.Stage.SIGNAL);
+
+        PendingTick tick = pendingTick(BotMode.LIVE, symbol, ts, price, placeOrder(side, BotMode.LIVE, symbol, price, ts, riskPct));
+        trace.mark(TickTrace.Stage.LEDGER);
+        return tick;
+    }
+
+    // Null unless the stop is hit
+    PendingTick decideStopLoss(BigDecimal price, OffsetDateTime ts, BigDecimal stopLossPct) {
+        PositionRow position = mirror.position();
+        if (position.quantity().compareTo(BigDecimal.ZERO) <= 0) return null;
 
-        Signal signal = computeSignal(liveCloses, livePrevFast, livePrevSlow);
-        applySignal(accountId, BotMode.LIVE, symbol, price, ts, riskPct, signal);
+        BigDecimal stop = position.avgEntry().multiply(BigDecimal.ONE.subtract(stopLossPct));
+        if (price.compareTo(stop) > 0) return null;
 
-        snapshot(accountId, BotMode.LIVE, symbol, ts, price);
+        return pendingTick(BotMode.LIVE, symbol, ts, price, trySellAll(BotMode.LIVE, symbol, price, ts));
+    }
+
+    // Later decisions see the tick's ledger change from here on, whether or not it has been written yet
+    void applyToMirror(PendingTick tick) {
+        if (tick.trade() == null) return;
+        this.mirror = new Mirror(tick.cash(), tick.position());
+    }
+
+    // Writes ticks in order; runs of snapshot-only ticks go in as one batch
+    void writeTicks(List<PendingTick> ticks) {
+        List<SnapshotDTO> run = new ArrayList<>();
+        for (PendingTick tick : ticks) {
+            if (tick.trade() == null) {
+                run.add(tick.snapshot());
+                continue;
+            }
+            if (!run.isEmpty()) {
+                writeSnapshots(tick.accountId(), run);
+                run = new ArrayList<>();
+            }
+            writeTick(tick);
+        }
+        if (!run.isEmpty()) writeSnapshots(ticks.get(0).accountId(), run);
+    }
 
-        livePrevFast = signal.fast();
-        livePrevSlow = signal.slow();
+    // Batched snapshots come back without ids, so they reach the recent tail with id 0
+    private void writeSnapshots(long accountId, List<SnapshotDTO> rows) {
+        snapshots.insertSnapshots(accountId, rows);
+        rows.forEach(row -> recent.snapshot(accountId, row));
+    }
+
+    void saveLiveCheckpoint(IndicatorState state) {
+        try {
+            indicatorStates.save(accountId, symbol, interval,
+                    new ArrayList<>(state.closes()), state.prevFast(), state.prevSlow());
+        } catch (RuntimeException e) {
+            log.warn("Could not checkpoint indicator state for {} {}", symbol, interval, e);
+        }
     }
 
     private void initSession(BotMode mode,
@@ -131,19 +666,105 @@ public class BotEngine {
                              String interval,
                              long accountId,
                              BigDecimal initialBalance) {
-        accounts.setCash(accountId, initialBalance);
-        positions.upsertPosition(accountId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+        // Journaled trades still on their way to the tables would land on top of the new session
+        ledger.update(accountId, () -> {
+            accounts.setCash(accountId, initialBalance);
+            positions.upsertPosition(accountId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+            if (mode == BotMode.TRAIN) checkpoints.delete(accountId, symbol);
+        });
+        this.accountId = accountId;
+        this.mirror = new Mirror(initialBalance, FLAT);
 
         this.mode = mode;
         this.symbol = symbol;
         this.interval = interval;
+        this.initialBalance = initialBalance;
+        this.sessionId = clock.millis();
+        this.running = true;
+    }
+
+    // Picks a streamed backtest up where its checkpoint left the ledger. Rows are committed tick by tick and the
+    // checkpoint only at the end, so a run that failed after it may have left rows past it: they are redone.
+    private void resumeSession(long accountId, String symbol, BacktestCheckpoint checkpoint) {
+        OffsetDateTime checkpointed = OffsetDateTime.ofInstant(Instant.ofEpochMilli(checkpoint.lastOpenMs()), ZoneOffset.UTC);
+        ledger.update(accountId, () -> {
+            trades.deleteAfter(accountId, BotMode.TRAIN.name(), symbol, checkpointed);
+            snapshots.deleteAfter(accountId, BotMode.TRAIN.name(), symbol, checkpointed);
+            accounts.setCash(accountId, checkpoint.cash());
+            positions.upsertPosition(accountId, symbol, checkpoint.position().quantity(), checkpoint.position().avgEntry());
+        });
+        recent.forget(accountId, BotMode.TRAIN.name(), symbol);
+        this.accountId = accountId;
+        this.mirror = new Mirror(checkpoint.cash(), checkpoint.position());
+
+        this.mode = BotMode.TRAIN;
+        this.symbol = symbol;
+        this.interval = checkpoint.interval();
+        this.initialBalance = checkpoint.initialBalance();
+        this.sessionId = clock.millis();
         this.running = true;
     }
 
-    private void resetLiveIndicatorState() {
-        this.liveCloses = new ArrayList<>();
-        this.livePrevFast = null;
-        this.livePrevSlow = null;
+    private void setLiveIndicatorState(List<BigDecimal> closes, BigDecimal prevFast, BigDecimal prevSlow) {
+        synchronized (liveIndicators) {
+            this.liveCloses = new ArrayList<>(closes);
+            this.livePrevFast = prevFast;
+            this.livePrevSlow = prevSlow;
+            this.ticksSinceCheckpoint = 0;
+        }
+    }
+
+    // The state a live session starts from; built aside and only then handed to the session
+    private IndicatorState warmUpLiveIndicators(long accountId, String symbol, String interval) {
+        // A recent checkpoint (e.g. from before a restart) wins over re-deriving from candles
+        try {
+            var saved = indicatorStates.find(accountId, symbol, interval);
+            if (saved.isPresent() && isRecent(saved.get(), interval)) return saved.get();
+        } catch (RuntimeException e) {
+            log.warn("Could not load indicator checkpoint for {} {}", symbol, interval, e);
+        }
+
+        List<BigDecimal> closes = new ArrayList<>();
+        try {
+            // One extra candle because Binance includes the still-forming one, which is skipped
+            long intervalMs = CandleIntervals.toMillis(interval);
+            long now = clock.millis();
+            for (Candles c : market.candles(symbol, interval, null, null, WARMUP_CLOSES + 1)) {
+                if (c.openTime().toInstant().toEpochMilli() + intervalMs > now) continue;
+                appendCloseAndTrim(closes, c.close());
+            }
+
+            // Seed prev fast/slow so the first live tick can already detect a cross
+            if (hasEnoughData(closes)) {
+                Signal seeded = computeSignal(closes, null, null);
+                return new IndicatorState(closes, seeded.fast(), seeded.slow(), OffsetDateTime.now(clock));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not seed live indicators for {} {}, starting cold", symbol, interval, e);
+        }
+        return new IndicatorState(closes, null, null, OffsetDateTime.now(clock));
+    }
+
+    private boolean isRecent(IndicatorState state, String interval) {
+        Duration maxAge = CHECKPOINT_MAX_AGE;
+        Duration twoCandles = Duration.ofMillis(2 * CandleIntervals.toMillis(interval));
+        if (twoCandles.compareTo(maxAge) > 0) maxAge = twoCandles;
+        return state.updatedAt().isAfter(OffsetDateTime.now(clock).minus(maxAge));
+    }
+
+    private void checkpointLiveIndicators() {
+        IndicatorState state;
+        synchronized (liveIndicators) {
+            ticksSinceCheckpoint = 0;
+            state = liveCheckpoint();
+        }
+        saveLiveCheckpoint(state);
+    }
+
+    // Called with liveIndicators held
+    private IndicatorState liveCheckpoint() {
+        List<BigDecimal> window = liveCloses.subList(Math.max(0, liveCloses.size() - WARMUP_CLOSES), liveCloses.size());
+        return new IndicatorState(List.copyOf(window), livePrevFast, livePrevSlow, OffsetDateTime.now(clock));
     }
 
     private boolean hasEnoughData(List<BigDecimal> closes) {
@@ -163,7 +784,11 @@ public class BotEngine {
         BigDecimal fast = TradingStrategy.simpleMovingAverage(closes.subList(closes.size() - FAST, closes.size()));
         BigDecimal slow = TradingStrategy.simpleMovingAverage(closes.subList(closes.size() - SLOW, closes.size()));
         BigDecimal relativeStrengthIndex  = TradingStrategy.relativeStrengthIndex(closes, RSI_PERIOD);
+        return signal(fast, slow, relativeStrengthIndex, prevFast, prevSlow);
+    }
 
+    private static Signal signal(BigDecimal fast, BigDecimal slow, BigDecimal relativeStrengthIndex,
+                                 BigDecimal prevFast, BigDecimal prevSlow) {
         boolean crossUp = prevFast != null && prevSlow != null
                 && prevFast.compareTo(prevSlow) <= 0 && fast.compareTo(slow) > 0;
 
@@ -173,78 +798,121 @@ public class BotEngine {
         return new Signal(fast, slow, relativeStrengthIndex, crossUp, crossDn);
     }
 
-    private void applySignal(long accountId,
-                             BotMode mode,
-                             String symbol,
-                             BigDecimal price,
-                             OffsetDateTime ts,
-                             BigDecimal riskPct,
-                             Signal signal) {
+    // A trade decided on the mirrored ledger, with the ledger as it will be once the trade is committed
+    private record Order(TradeDTO trade, BigDecimal cash, PositionRow position) {}
 
-        var pos = positions.getPosition(accountId, symbol);
-        boolean hasPosition = pos.quantity().compareTo(BigDecimal.ZERO) > 0;
+    private record TickOutcome(TradeDTO trade, SnapshotDTO snapshot) {}
 
-        boolean buyOk = signal.crossUp() && signal.relativeStrengthIndex().compareTo(new BigDecimal("70")) < 0;
+    private Order applySignal(BotMode mode,
+                              String symbol,
+                              BigDecimal price,
+                              OffsetDateTime ts,
+                              BigDecimal riskPct,
+                              Signal signal) {
+        return placeOrder(decide(signal, Double.NaN), mode, symbol, price, ts, riskPct);
+    }
+
+    // "BUY", "SELL" or null to hold; backtests have no order book, so their imbalance is NaN
+    private String decide(Signal signal, double imbalance) {
+        boolean hasPosition = mirror.position().quantity().compareTo(BigDecimal.ZERO) > 0;
+
+        boolean buyOk = signal.crossUp() && signal.relativeStrengthIndex().compareTo(new BigDecimal("70")) < 0
+                && TradingStrategy.bookSupportsBuy(imbalance, minBuyImbalance);
         boolean sellOk = signal.crossDn() || signal.relativeStrengthIndex().compareTo(new BigDecimal("75")) > 0;
 
-        if (!hasPosition && buyOk) {
-            tryBuy(accountId, mode, symbol, price, ts, riskPct);
-        } else if (hasPosition && sellOk) {
-            trySellAll(accountId, mode, symbol, price, ts);
-        }
+        if (!hasPosition && buyOk) return "BUY";
+        if (hasPosition && sellOk) return "SELL";
+        return null;
     }
 
-    private void tryBuy(long accountId, BotMode mode, String symbol, BigDecimal price, OffsetDateTime ts, BigDecimal riskPct) {
-        BigDecimal cash = accounts.getCash(accountId);
+    private Order placeOrder(String side, BotMode mode, String symbol, BigDecimal price, OffsetDateTime ts, BigDecimal riskPct) {
+        if ("BUY".equals(side)) return tryBuy(mode, symbol, price, ts, riskPct);
+        if ("SELL".equals(side)) return trySellAll(mode, symbol, price, ts);
+        return null;
+    }
+
+    private Order tryBuy(BotMode mode, String symbol, BigDecimal price, OffsetDateTime ts, BigDecimal riskPct) {
+        Mirror m = mirror;
+        BigDecimal cash = m.cash();
+        PositionRow position = m.position();
         BigDecimal spend = cash.multiply(riskPct).setScale(8, RoundingMode.HALF_UP);
-        if (spend.compareTo(BigDecimal.ZERO) <= 0) return;
+        if (spend.compareTo(BigDecimal.ZERO) <= 0) return null;
 
         BigDecimal quantity = spend.divide(price, 8, RoundingMode.HALF_UP);
-        if (quantity.compareTo(BigDecimal.ZERO) <= 0) return;
+        if (quantity.compareTo(BigDecimal.ZERO) <= 0) return null;
 
         BigDecimal fee = spend.multiply(FEE_RATE).setScale(8, RoundingMode.HALF_UP);
         BigDecimal totalCost = spend.add(fee);
 
-        if (cash.compareTo(totalCost) < 0) return;
+        if (cash.compareTo(totalCost) < 0) return null;
 
-        var pos = positions.getPosition(accountId, symbol);
-        BigDecimal newQuantity = pos.quantity().add(quantity);
+        BigDecimal newQuantity = position.quantity().add(quantity);
 
-        BigDecimal newAvg = (pos.avgEntry().multiply(pos.quantity()).add(price.multiply(quantity)))
+        BigDecimal newAvg = (position.avgEntry().multiply(position.quantity()).add(price.multiply(quantity)))
                 .divide(newQuantity, 8, RoundingMode.HALF_UP);
 
-        accounts.setCash(accountId, cash.subtract(totalCost));
-        positions.upsertPosition(accountId, symbol, newQuantity, newAvg);
-
-        trades.insertTrade(accountId, mode.name(), symbol, "BUY", quantity, price, fee, BigDecimal.ZERO, ts);
+        return new Order(
+                new TradeDTO(0, mode.name(), symbol, "BUY", quantity, price, fee, BigDecimal.ZERO, ts),
+                cash.subtract(totalCost),
+                new PositionRow(newQuantity, newAvg));
     }
 
-    private void trySellAll(long accountId, BotMode mode, String symbol, BigDecimal price, OffsetDateTime ts) {
-        var pos = positions.getPosition(accountId, symbol);
-        if (pos.quantity().compareTo(BigDecimal.ZERO) <= 0) return;
+    private Order trySellAll(BotMode mode, String symbol, BigDecimal price, OffsetDateTime ts) {
+        Mirror m = mirror;
+        BigDecimal cash = m.cash();
+        PositionRow position = m.position();
+        if (position.quantity().compareTo(BigDecimal.ZERO) <= 0) return null;
 
-        BigDecimal proceeds = pos.quantity().multiply(price).setScale(8, RoundingMode.HALF_UP);
+        BigDecimal proceeds = position.quantity().multiply(price).setScale(8, RoundingMode.HALF_UP);
         BigDecimal fee = proceeds.multiply(FEE_RATE).setScale(8, RoundingMode.HALF_UP);
 
-        BigDecimal realized = (price.subtract(pos.avgEntry()))
-                .multiply(pos.quantity())
+        BigDecimal realized = (price.subtract(position.avgEntry()))
+                .multiply(position.quantity())
                 .setScale(8, RoundingMode.HALF_UP);
 
-        BigDecimal cash = accounts.getCash(accountId);
-        accounts.setCash(accountId, cash.add(proceeds.subtract(fee)));
-
-        positions.upsertPosition(accountId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+        return new Order(
+                new TradeDTO(0, mode.name(), symbol, "SELL", position.quantity(), price, fee, realized, ts),
+                cash.add(proceeds.subtract(fee)),
+                FLAT);
+    }
 
-        trades.insertTrade(accountId, mode.name(), symbol, "SELL", pos.quantity(), price, fee, realized, ts);
+    // Persists the tick's snapshot, together with the order's ledger update and trade when there is one,
+    // as a single statement
+    private TickOutcome commitTick(BotMode mode, String symbol, OffsetDateTime ts, BigDecimal price, Order order) {
+        PendingTick tick = pendingTick(mode, symbol, ts, price, order);
+        TickOutcome outcome = writeTick(tick);
+        applyToMirror(tick);
+        return outcome;
     }
 
-    private void snapshot(long accountId, BotMode mode, String symbol, OffsetDateTime ts, BigDecimal price) {
-        BigDecimal cash = accounts.getCash(accountId);
-        var pos = positions.getPosition(accountId, symbol);
+    private PendingTick pendingTick(BotMode mode, String symbol, OffsetDateTime ts, BigDecimal price, Order order) {
+        Mirror m = mirror;
+        BigDecimal cashAfter = order == null ? m.cash() : order.cash();
+        PositionRow positionAfter = order == null ? m.position() : order.position();
 
-        BigDecimal posValue = pos.quantity().multiply(price).setScale(8, RoundingMode.HALF_UP);
-        BigDecimal total = cash.add(posValue).setScale(8, RoundingMode.HALF_UP);
+        BigDecimal posValue = positionAfter.quantity().multiply(price).setScale(8, RoundingMode.HALF_UP);
+        BigDecimal total = cashAfter.add(posValue).setScale(8, RoundingMode.HALF_UP);
 
-        snapshots.insertSnapshot(accountId, mode.name(), symbol, ts, cash, pos.quantity(), posValue, total);
+        return new PendingTick(accountId, order == null ? null : order.trade(), cashAfter, positionAfter,
+                new SnapshotDTO(0, mode.name(), symbol, ts, cashAfter, positionAfter.quantity(), posValue, total));
     }
+
+    private TickOutcome writeTick(PendingTick tick) {
+        SnapshotDTO s = tick.snapshot();
+        if (tick.trade() == null) {
+            long id = snapshots.insertSnapshot(tick.accountId(), s.mode(), s.symbol(), s.purchasedAt(),
+                    s.cashBalance(), s.positionQty(), s.positionValue(), s.totalValue());
+            SnapshotDTO snapshot = s.withId(id);
+            recent.snapshot(tick.accountId(), snapshot);
+            return new TickOutcome(null, snapshot);
+        }
+
+        TickIds ids = ledger.recordTrade(tick.accountId(), tick.cash(), tick.position(), tick.trade(), s);
+        TradeDTO trade = tick.trade().withId(ids.tradeId());
+        SnapshotDTO snapshot = s.withId(ids.snapshotId());
+        recent.trade(tick.accountId(), trade);
+        recent.snapshot(tick.accountId(), snapshot);
+        return new TickOutcome(trade, snapshot);
+    }
+
 }
@@ -0,0 +1,124 @@
+package com.backend.services;
+
+import com.backend.models.CandlePage;
+import com.backend.models.Candles;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class CandleCache {
+
+    // Bound on the total number of candles held across all entries
+    private static final int MAX_CANDLES = 200_000;
+
+    // The forming candle is refreshed at most this often (and at least once per interval)
+    private static final long MIN_FORMING_TTL_MS = 1_000;
+    private static final long MAX_FORMING_TTL_MS = 60_000;
+
+    // LRU order: the least recently read entry is evicted first
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private int size = 0;
+
+    public record Key(String symbol, String interval, Long startMs, Long endMs, int limit) {}
+
+    // The page's first closedCount candles never change. A forming tail, or a window that can still grow
+    // (no end time), carries an expiry; a window of closed candles that is already whole never expires.
+    public record Entry(CandlePage page, int closedCount, long expiresAt) {
+
+        public boolean isFresh(long nowMs) {
+            return nowMs < expiresAt;
+        }
+
+        public List<Candles> closed() {
+            return page.candles().subList(0, closedCount);
+        }
+
+        // Null when every candle is closed
+        public Candles forming() {
+            return closedCount < page.candles().size() ? page.candles().get(closedCount) : null;
+        }
+
+        // Where a refresh picks up: the forming candle, or the one after the last closed candle
+        public Long refreshFromMs(long intervalMs) {
+            Candles forming = forming();
+            if (forming != null) return forming.openTime().toInstant().toEpochMilli();
+            if (closedCount == 0) return null;
+            return page.candles().get(closedCount - 1).openTime().toInstant().toEpochMilli() + intervalMs;
+        }
+
+        int size() {
+            return page.candles().size();
+        }
+    }
+
+    public synchronized Entry get(Key key) {
+        return entries.get(key);
+    }
+
+    public synchronized Entry put(Key key, List<Candles> candles, long nowMs) {
+        Entry entry = toEntry(key, candles, nowMs);
+
+        Entry previous = entries.put(key, entry);
+        if (previous != null) size -= previous.size();
+        size += entry.size();
+
+        evict();
+        return entry;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (size > MAX_CANDLES && it.hasNext()) {
+            size -= it.next().getValue().size();
+            it.remove();
+        }
+    }
+
+    static Entry toEntry(Key key, List<Candles> candles, long nowMs) {
+        long intervalMs = CandleIntervals.toMillis(key.interval());
+        List<Candles> all = List.copyOf(candles);
+        int closedCount = all.size();
+        boolean forming = false;
+        long expiresAt = Long.MAX_VALUE;
+
+        if (!all.isEmpty()) {
+            Candles last = all.get(all.size() - 1);
+            long closeMs = last.openTime().toInstant().toEpochMilli() + intervalMs;
+            if (closeMs > nowMs) {
+                forming = true;
+                closedCount--;
+                long ttl = Math.max(MIN_FORMING_TTL_MS, Math.min(intervalMs / 60, MAX_FORMING_TTL_MS));
+                expiresAt = Math.min(nowMs + ttl, closeMs);
+            }
+        }
+        // Until its end time has passed, newer candles join the window; "latest N" moves and a short page fills up
+        boolean open = key.endMs() == null || key.endMs() > nowMs;
+        boolean growing = open && (key.startMs() == null || all.size() < key.limit());
+        if (!forming && growing) expiresAt = nowMs + intervalMs;
+
+        long lastModified = forming || all.isEmpty()
+                ? nowMs
+                : all.get(all.size() - 1).openTime().toInstant().toEpochMilli() + intervalMs;
+
+        return new Entry(new CandlePage(all, etag(key, all), lastModified), closedCount, expiresAt);
+    }
+
+    private static String etag(Key key, List<Candles> candles) {
+        int h = key.hashCode();
+        for (Candles c : candles) h = 31 * h + c.hashCode();
+        return "\"" + Integer.toHexString(h) + "-" + candles.size() + "\"";
+    }
+}
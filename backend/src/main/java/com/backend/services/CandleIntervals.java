@@ -0,0 +1,36 @@
+package com.backend.services;
+
+import java.util.Map;
+
+public class CandleIntervals {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    // Binance kline intervals; "1M" is approximated as 30 days
+    private static final Map<String, Long> MILLIS = Map.ofEntries(
+            Map.entry("1s", 1_000L),
+            Map.entry("1m", MINUTE),
+            Map.entry("3m", 3 * MINUTE),
+            Map.entry("5m", 5 * MINUTE),
+            Map.entry("15m", 15 * MINUTE),
+            Map.entry("30m", 30 * MINUTE),
+            Map.entry("1h", HOUR),
+            Map.entry("2h", 2 * HOUR),
+            Map.entry("4h", 4 * HOUR),
+            Map.entry("6h", 6 * HOUR),
+            Map.entry("8h", 8 * HOUR),
+            Map.entry("12h", 12 * HOUR),
+            Map.entry("1d", DAY),
+            Map.entry("3d", 3 * DAY),
+            Map.entry("1w", 7 * DAY),
+            Map.entry("1M", 30 * DAY)
+    );
+
+    public static long toMillis(String interval) {
+        Long ms = MILLIS.get(interval);
+        if (ms == null) throw new IllegalArgumentException("Unsupported interval: " + interval);
+        return ms;
+    }
+}
@@ -0,0 +1,250 @@
+package com.backend.services;
+
+import com.backend.models.CandleSpan;
+import com.backend.models.Candles;
+import com.backend.repository.CandleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * Keeps closed 1m candles of the configured symbols in the candles table and derives
+ * the higher intervals from them, so backtests over that history need no Binance calls.
+ * Only complete buckets are stored; the still-forming one is left to the live path.
+ */
+@Service
+public class CandleRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleRollupService.class);
+
+    static final String BASE = "1m";
+    static final List<String> ROLLUPS = List.of("5m", "15m", "1h", "4h", "1d");
+
+    private static final long BASE_MS = CandleIntervals.toMillis(BASE);
+    private static final long DAY_MS = CandleIntervals.toMillis("1d");
+
+    // Binance klines page size
+    private static final int PAGE = 1000;
+
+    private final CandleRepository candles;
+    private final BinanceGateway gateway;
+    private final Clock clock;
+    private final Set<String> symbols;
+    private final int backfillDays;
+
+    public CandleRollupService(CandleRepository candles, BinanceGateway gateway, Clock clock,
+                               @Value("${bot.candles.symbols:}") List<String> symbols,
+                               @Value("${bot.candles.backfill-days:30}") int backfillDays) {
+        this.candles = candles;
+        this.gateway = gateway;
+        this.clock = clock;
+        this.symbols = Set.copyOf(symbols.stream().map(String::trim).filter(s -> !s.isEmpty()).toList());
+        this.backfillDays = backfillDays;
+    }
+
+    @Scheduled(fixedDelayString = "${bot.candles.sync-ms:60000}")
+    public void syncAll() {
+        for (String symbol : symbols) {
+            try {
+                sync(symbol);
+            } catch (RuntimeException e) {
+                log.warn("Candle sync failed for {}", symbol, e);
+            }
+        }
+    }
+
+    // Pulls closed 1m candles newer than the stored ones, and any missing inside the synced history,
+    // and rolls each page up; returns the number stored
+    public int sync(String symbol) {
+        long now = clock.millis();
+        long closedUntil = now - now % BASE_MS;
+        Optional<CandleSpan> span = candles.span(symbol, BASE);
+        int stored = span.map(s -> repairGaps(symbol, s, closedUntil)).orElse(0);
+        long from = span
+                .map(s -> millis(s.lastOpenTime()) + BASE_MS)
+                // A fresh backfill starts at midnight so the first daily bucket is whole
+                .orElseGet(() -> {
+                    long start = closedUntil - backfillDays * DAY_MS;
+                    return start - Math.floorMod(start, DAY_MS);
+                });
+        return stored + fetch(symbol, from, closedUntil);
+    }
+
+    // Minutes missing between stored ones (a failed page, an import that did not join up) would keep
+    // requests over them on Binance; they are fetched again while within the backfill window
+    private int repairGaps(String symbol, CandleSpan span, long closedUntil) {
+        long from = Math.max(millis(span.firstOpenTime()), closedUntil - backfillDays * DAY_MS);
+        long to = millis(span.lastOpenTime()) + BASE_MS;
+        if (from >= to || candles.count(symbol, BASE, toTime(from), toTime(to)) >= (to - from) / BASE_MS) return 0;
+
+        List<CandleSpan> gaps = candles.gaps(symbol, BASE, BASE_MS, toTime(from), toTime(to));
+        int stored = 0;
+        for (CandleSpan gap : gaps) {
+            stored += fetch(symbol, millis(gap.firstOpenTime()), millis(gap.lastOpenTime()) + BASE_MS);
+        }
+        // Buckets around a gap close after it, past the pages fetched into it
+        if (stored > 0) rollUp(symbol, millis(gaps.get(0).firstOpenTime()), to);
+        return stored;
+    }
+
+    // Stores the closed 1m candles opened in [from, until) page by page
+    private int fetch(String symbol, long from, long until) {
+        int stored = 0;
+        while (from < until) {
+            var body = gateway.get("/api/v3/klines",
+                    BinanceGateway.params(
+                            "symbol", symbol,
+                            "interval", BASE,
+                            "limit", PAGE,
+                            "startTime", from,
+                            // endTime filters on open time, so this excludes the forming minute
+                            "endTime", until - 1),
+                    MarketDataService.KLINES_WEIGHT, BinanceGateway.Priority.BACKTEST, Object[][].class);
+            List<Candles> page = MarketDataService.toCandles(body);
+            if (page.isEmpty()) break;
+
+            candles.upsertCandles(symbol, BASE, page);
+            stored += page.size();
+
+            long lastOpen = millis(page.get(page.size() - 1).openTime());
+            rollUp(symbol, millis(page.get(0).openTime()), lastOpen + BASE_MS);
+            from = lastOpen + BASE_MS;
+            if (page.size() < PAGE) break;
+        }
+        return stored;
+    }
+
+    /**
+     * Candles for the request when the local store covers it, with Binance's klines semantics:
+     * with a start the first `limit` from there, otherwise the newest `limit` up to the end.
+     */
+    public Optional<List<Candles>> candles(String symbol, String interval, Long startMs, Long endMs, int limit) {
+        OptionalLong end = coveredEnd(symbol, interval, startMs, endMs, limit);
+        if (end.isEmpty()) return Optional.empty();
+
+        // Binance's endTime is inclusive of the open time
+        OffsetDateTime to = toTime(end.getAsLong() + 1);
+        return Optional.of(startMs == null
+                ? candles.latest(symbol, interval, to, limit)
+                : candles.range(symbol, interval, toTime(startMs), to, limit));
+    }
+
+    // The whole of [startMs, endMs] off a database cursor, when the local store covers it
+    public Optional<CandleSource> source(String symbol, String interval, long startMs, Long endMs) {
+        OptionalLong end = coveredEnd(symbol, interval, startMs, endMs, Integer.MAX_VALUE);
+        if (end.isEmpty()) return Optional.empty();
+
+        OffsetDateTime from = toTime(startMs);
+        OffsetDateTime to = toTime(end.getAsLong() + 1);
+        return Optional.of(page -> {
+            CandleSource.Pager pager = new CandleSource.Pager(page);
+            candles.stream(symbol, interval, from, to, pager);
+            pager.flush();
+        });
+    }
+
+    // The request's end, capped at now, if the stored 1m history reaches over the request - up to the newest
+    // candle closed by then, which Binance would include - and has every minute of the buckets it reads
+    private OptionalLong coveredEnd(String symbol, String interval, Long startMs, Long endMs, int limit) {
+        if (!symbols.contains(symbol)) return OptionalLong.empty();
+        if (!BASE.equals(interval) && !ROLLUPS.contains(interval)) return OptionalLong.empty();
+
+        Optional<CandleSpan> span = candles.span(symbol, BASE);
+        if (span.isEmpty()) return OptionalLong.empty();
+
+        long now = clock.millis();
+        long end = endMs == null ? now : Math.min(endMs, now);
+        long firstOpen = millis(span.get().firstOpenTime());
+        long storedUntil = millis(span.get().lastOpenTime()) + BASE_MS;
+        long intervalMs = CandleIntervals.toMillis(interval);
+
+        // Only the forming candle may be missing: a store lagging behind the newest closed one would shift
+        // every window that ends at it
+        long lastOpen = end - Math.floorMod(end, intervalMs);
+        long closedUntil = lastOpen + intervalMs <= now ? lastOpen + intervalMs : lastOpen;
+        if (storedUntil < closedUntil) return OptionalLong.empty();
+        if (startMs != null && startMs < firstOpen) return OptionalLong.empty();
+
+        // MIN and MAX say nothing about the minutes in between: count them over the buckets served
+        long from = startMs != null
+                ? startMs - Math.floorMod(startMs, intervalMs)
+                : Math.max(firstOpen, end - Math.floorMod(end, intervalMs) - limit * intervalMs);
+        long to = Math.min(storedUntil, startMs != null ? Math.min(end, from + limit * intervalMs) : end);
+        if (to > from && candles.count(symbol, BASE, toTime(from), toTime(to)) < (to - from) / BASE_MS) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(end);
+    }
+
+    // Re-derives every rollup bucket touched by 1m candles opened in [fromMs, closedUntilMs), e.g. after an import
+    public void rollUp(String symbol, long fromMs, long closedUntilMs) {
+        // One read from the start of the widest bucket serves every rollup
+        long readFrom = fromMs - Math.floorMod(fromMs, DAY_MS);
+        List<Candles> base = candles.range(symbol, BASE, toTime(readFrom), toTime(closedUntilMs), Integer.MAX_VALUE);
+
+        for (String interval : ROLLUPS) {
+            long bucketMs = CandleIntervals.toMillis(interval);
+            long firstBucket = fromMs - Math.floorMod(fromMs, bucketMs);
+            List<Candles> buckets = rollup(base, bucketMs, closedUntilMs).stream()
+                    .filter(c -> millis(c.openTime()) >= firstBucket)
+                    .toList();
+            if (!buckets.isEmpty()) candles.upsertCandles(symbol, interval, buckets);
+        }
+    }
+
+    // OHLCV buckets aligned to the epoch (so 1d starts at UTC midnight). Buckets not closed by closedUntilMs are
+    // dropped, and so are buckets missing 1m candles: they would pass for whole ones, and are derived once the
+    // minutes are there
+    static List<Candles> rollup(List<Candles> base, long bucketMs, long closedUntilMs) {
+        long minutes = bucketMs / BASE_MS;
+        List<Candles> out = new ArrayList<>();
+        long bucket = Long.MIN_VALUE;
+        long count = 0;
+        BigDecimal open = null, high = null, low = null, close = null, volume = null;
+
+        for (Candles c : base) {
+            long start = millis(c.openTime()) - Math.floorMod(millis(c.openTime()), bucketMs);
+            if (start != bucket) {
+                if (open != null && bucket + bucketMs <= closedUntilMs && count == minutes) {
+                    out.add(new Candles(toTime(bucket), open, high, low, close, volume));
+                }
+                bucket = start;
+                count = 0;
+                open = c.open();
+                high = c.high();
+                low = c.low();
+                volume = BigDecimal.ZERO;
+            }
+            count++;
+            high = high.max(c.high());
+            low = low.min(c.low());
+            close = c.close();
+            volume = volume.add(c.volume());
+        }
+        if (open != null && bucket + bucketMs <= closedUntilMs && count == minutes) {
+            out.add(new Candles(toTime(bucket), open, high, low, close, volume));
+        }
+        return out;
+    }
+
+    private static long millis(OffsetDateTime ts) {
+        return ts.toInstant().toEpochMilli();
+    }
+
+    private static OffsetDateTime toTime(long ms) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(ms), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,73 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import com.backend.repository.KlineCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Candles in open-time order, pushed a page at a time so a range of any length never has to be held
+ * at once. The consumer owns each page it is handed.
+ */
+@FunctionalInterface
+public interface CandleSource {
+
+    int PAGE = 1000;
+
+    void forEachPage(Consumer<List<Candles>> page);
+
+    static CandleSource of(List<Candles> candles) {
+        return page -> {
+            for (int i = 0; i < candles.size(); i += PAGE) {
+                page.accept(candles.subList(i, Math.min(i + PAGE, candles.size())));
+            }
+        };
+    }
+
+    // A Binance Vision kline archive on disk, see KlineArchiveReader
+    static CandleSource archive(Path file) {
+        return page -> {
+            try (KlineArchiveReader rows = KlineArchiveReader.open(file)) {
+                Pager pager = new Pager(page);
+                while (rows.next()) {
+                    pager.accept(new Candles(OffsetDateTime.ofInstant(Instant.ofEpochMilli(rows.openTimeMs()), ZoneOffset.UTC),
+                            rows.decimal(KlineCursor.OPEN), rows.decimal(KlineCursor.HIGH), rows.decimal(KlineCursor.LOW),
+                            rows.decimal(KlineCursor.CLOSE), rows.decimal(KlineCursor.VOLUME)));
+                }
+                pager.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    // Groups single candles (e.g. rows off a database cursor) into pages; flush() hands over the last one
+    final class Pager implements Consumer<Candles> {
+        private final Consumer<List<Candles>> page;
+        private List<Candles> current = new ArrayList<>(PAGE);
+
+        public Pager(Consumer<List<Candles>> page) {
+            this.page = page;
+        }
+
+        @Override
+        public void accept(Candles c) {
+            current.add(c);
+            if (current.size() == PAGE) flush();
+        }
+
+        public void flush() {
+            if (current.isEmpty()) return;
+            page.accept(current);
+            current = new ArrayList<>(PAGE);
+        }
+    }
+}
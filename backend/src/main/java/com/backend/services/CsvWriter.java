@@ -0,0 +1,54 @@
+package com.backend.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+// Minimal RFC 4180 writer; rows go straight to the underlying stream through a fixed buffer
+public class CsvWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+
+    public CsvWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public void row(Object... values) {
+        try {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                writeField(values[i]);
+            }
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) return;
+        String s = value instanceof BigDecimal d ? d.toPlainString() : value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
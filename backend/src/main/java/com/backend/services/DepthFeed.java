@@ -0,0 +1,361 @@
+package com.backend.services;
+
+import com.backend.models.BookFeatures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Keeps a local order book of the live symbol, following Binance's procedure for a diff depth stream:
+ * subscribe to <symbol>@depth@100ms, buffer updates while a /api/v3/depth snapshot loads, drop the updates
+ * it already covers, then apply each update in turn. A gap in update ids drops the book until a new
+ * snapshot is loaded. Snapshots load on their own thread, never on the stream's listener.
+ * Off unless bot.depth.enabled; while there is no synced book, imbalance() is NaN, features() is
+ * BookFeatures.NONE and the strategy trades on candles alone.
+ */
+@Component
+public class DepthFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(DepthFeed.class);
+
+    private static final long RECONNECT_MS = 5_000;
+
+    public record DepthResponse(long lastUpdateId, List<List<String>> bids, List<List<String>> asks) {}
+
+    private final BinanceGateway gateway;
+    private final String wsUrl;
+    private final boolean enabled;
+    private final int snapshotLevels;
+    private final int imbalanceLevels;
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final Executor snapshotLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "depth-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private Sync sync;
+    private WebSocket socket;
+
+    public DepthFeed(BinanceGateway gateway,
+                     @Value("${binance.ws-url:wss://stream.binance.com:9443}") String wsUrl,
+                     @Value("${bot.depth.enabled:false}") boolean enabled,
+                     @Value("${bot.depth.snapshot-levels:1000}") int snapshotLevels,
+                     @Value("${bot.depth.imbalance-levels:10}") int imbalanceLevels) {
+        if (snapshotLevels < 1 || snapshotLevels > 5000) throw new IllegalArgumentException("snapshot-levels must be in [1, 5000]");
+        this.gateway = gateway;
+        this.wsUrl = wsUrl;
+        this.enabled = enabled;
+        this.snapshotLevels = snapshotLevels;
+        this.imbalanceLevels = imbalanceLevels;
+    }
+
+    // Follows symbol's book from now on, replacing the one followed before
+    public synchronized void track(String symbol) {
+        if (!enabled || (sync != null && sync.symbol.equals(symbol))) return;
+        untrack();
+        sync = sync(symbol);
+        connect(sync);
+    }
+
+    public synchronized void untrack() {
+        if (socket != null) socket.abort();
+        socket = null;
+        sync = null;
+    }
+
+    // The symbol's book while it is in sync with the exchange, else null
+    public synchronized OrderBook book(String symbol) {
+        return sync != null && sync.symbol.equals(symbol) && sync.synced ? sync.book : null;
+    }
+
+    // Top-of-book imbalance in [-1, 1], or NaN without a synced book
+    public double imbalance(String symbol) {
+        OrderBook book = book(symbol);
+        return book == null ? Double.NaN : book.imbalance();
+    }
+
+    // Spread, imbalance and top-level liquidity, or BookFeatures.NONE without a synced book
+    public BookFeatures features(String symbol) {
+        OrderBook book = book(symbol);
+        return book == null ? BookFeatures.NONE : book.features();
+    }
+
+    Sync sync(String symbol) {
+        return new Sync(symbol, new OrderBook(imbalanceLevels), this::snapshot, snapshotLoader);
+    }
+
+    private DepthResponse snapshot(String symbol) {
+        return gateway.get("/api/v3/depth", BinanceGateway.params("symbol", symbol, "limit", snapshotLevels),
+                weight(snapshotLevels), BinanceGateway.Priority.LIVE, DepthResponse.class);
+    }
+
+    // Binance's request weight for a depth snapshot of `limit` levels
+    static int weight(int limit) {
+        if (limit <= 100) return 5;
+        if (limit <= 500) return 25;
+        if (limit <= 1000) return 50;
+        return 250;
+    }
+
+    private void connect(Sync target) {
+        URI uri = URI.create(wsUrl + "/ws/" + target.symbol.toLowerCase() + "@depth@100ms");
+        http.newWebSocketBuilder().buildAsync(uri, new Listener(target)).whenComplete((ws, e) -> {
+            if (e != null) {
+                log.warn("Could not open the depth stream of {}", target.symbol, e);
+                reconnect(target);
+                return;
+            }
+            synchronized (this) {
+                if (sync == target) socket = ws;
+                else ws.abort();
+            }
+        });
+    }
+
+    private void reconnect(Sync target) {
+        CompletableFuture.delayedExecutor(RECONNECT_MS, TimeUnit.MILLISECONDS).execute(() -> {
+            synchronized (this) {
+                if (sync != target) return;
+                target.requestResync();
+                connect(target);
+            }
+        });
+    }
+
+    private final class Listener implements WebSocket.Listener {
+        private final Sync target;
+        private final StringBuilder message = new StringBuilder(4096);
+
+        Listener(Sync target) {
+            this.target = target;
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket ws, CharSequence data, boolean last) {
+            message.append(data);
+            if (last) {
+                try {
+                    target.onEvent(message);
+                } catch (RuntimeException e) {
+                    log.warn("Bad depth update for {}, resyncing", target.symbol, e);
+                    target.requestResync();
+                }
+                message.setLength(0);
+            }
+            ws.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket ws, int statusCode, String reason) {
+            log.warn("Depth stream of {} closed ({} {})", target.symbol, statusCode, reason);
+            reconnect(target);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket ws, Throwable error) {
+            log.warn("Depth stream of {} failed", target.symbol, error);
+            reconnect(target);
+        }
+    }
+
+    /**
+     * One symbol's book and where it stands against the stream. Events arrive on one thread at a time and
+     * only that thread touches the book and the update ids; applying one parses its levels in place and
+     * allocates nothing. Snapshots are fetched on the loader and handed over, and other threads can only
+     * ask for a resync, which the next event carries out.
+     */
+    static final class Sync {
+        // 100 s of 100 ms updates; a snapshot slower than that is older than anything still buffered
+        private static final int MAX_BUFFERED = 1000;
+
+        private final String symbol;
+        private final OrderBook book;
+        private final Function<String, DepthResponse> snapshots;
+        private final Executor loader;
+
+        // Event thread only: update id the book is at (-1 before a snapshot is loaded), events waiting for it
+        private long bookId = -1;
+        private final ArrayDeque<String> buffered = new ArrayDeque<>();
+
+        // Handed over between the event thread, the loader and reconnects
+        private final AtomicReference<DepthResponse> loaded = new AtomicReference<>();
+        private volatile boolean loading = false;
+        private volatile boolean resyncRequested = false;
+        private volatile boolean synced = false;
+
+        Sync(String symbol, OrderBook book, Function<String, DepthResponse> snapshots, Executor loader) {
+            this.symbol = symbol;
+            this.book = book;
+            this.snapshots = snapshots;
+            this.loader = loader;
+        }
+
+        boolean synced() {
+            return synced;
+        }
+
+        OrderBook book() {
+            return book;
+        }
+
+        // Safe from any thread: the book is out of use at once and dropped on the next event
+        void requestResync() {
+            synced = false;
+            resyncRequested = true;
+        }
+
+        // A depthUpdate event: {"e":"depthUpdate","E":..,"s":..,"U":first,"u":last,"b":[[p,q],..],"a":[[p,q],..]}
+        void onEvent(CharSequence json) {
+            if (resyncRequested) {
+                resyncRequested = false;
+                resync();
+            }
+            long first = longField(json, "\"U\":");
+            long last = longField(json, "\"u\":");
+
+            if (bookId >= 0) {
+                apply(json, first, last);
+                return;
+            }
+
+            if (buffered.size() == MAX_BUFFERED) buffered.poll();
+            buffered.add(json.toString());
+            if (!loading && loaded.get() == null) loadSnapshot();
+            DepthResponse snapshot = loaded.getAndSet(null);
+            if (snapshot == null) return;
+
+            book.clear(snapshot.lastUpdateId());
+            for (List<String> level : snapshot.bids()) book.set(true, OrderBook.parse(level.get(0)), OrderBook.parse(level.get(1)));
+            for (List<String> level : snapshot.asks()) book.set(false, OrderBook.parse(level.get(0)), OrderBook.parse(level.get(1)));
+            bookId = snapshot.lastUpdateId();
+
+            while (bookId >= 0 && !buffered.isEmpty()) {
+                String event = buffered.poll();
+                apply(event, longField(event, "\"U\":"), longField(event, "\"u\":"));
+            }
+            buffered.clear();
+        }
+
+        private void apply(CharSequence json, long first, long last) {
+            // Already in the snapshot
+            if (last <= bookId) return;
+
+            if (first > bookId + 1) {
+                // A gap: updates were missed, or the snapshot is older than the stream
+                log.warn("Depth of {} has a gap ({} after {}), reloading the snapshot", symbol, first, bookId);
+                resync();
+                return;
+            }
+
+            applyLevels(json, "\"b\":", true);
+            applyLevels(json, "\"a\":", false);
+            bookId = last;
+            book.updated(last);
+            synced = true;
+        }
+
+        private void resync() {
+            synced = false;
+            bookId = -1;
+            buffered.clear();
+        }
+
+        // The next event after the snapshot arrives applies it; a failed load is retried on the next event
+        private void loadSnapshot() {
+            loading = true;
+            loader.execute(() -> {
+                try {
+                    DepthResponse snapshot = snapshots.apply(symbol);
+                    if (snapshot != null) loaded.set(snapshot);
+                } catch (RuntimeException e) {
+                    log.warn("Could not load the depth snapshot of {}", symbol, e);
+                } finally {
+                    loading = false;
+                }
+            });
+        }
+
+        // Levels of the [["price","qty"],...] array after key
+        private void applyLevels(CharSequence json, String key, boolean bid) {
+            int i = indexOf(json, key, 0);
+            if (i < 0) return;
+            i = expect(json, i + key.length(), '[');
+            while (true) {
+                i = skipSpaces(json, i);
+                char c = json.charAt(i);
+                if (c == ']') return;
+                if (c == ',') {
+                    i++;
+                    continue;
+                }
+                i = expect(json, i, '[');
+                int priceStart = expect(json, i, '"');
+                int priceEnd = indexOf(json, '"', priceStart);
+                int qtyStart = expect(json, expect(json, priceEnd + 1, ','), '"');
+                int qtyEnd = indexOf(json, '"', qtyStart);
+                book.set(bid, OrderBook.parse(json, priceStart, priceEnd), OrderBook.parse(json, qtyStart, qtyEnd));
+                i = expect(json, qtyEnd + 1, ']');
+            }
+        }
+
+        private static long longField(CharSequence json, String key) {
+            int i = indexOf(json, key, 0);
+            if (i < 0) throw new IllegalArgumentException("No " + key + " in depth update");
+            i = skipSpaces(json, i + key.length());
+            long v = 0;
+            int start = i;
+            for (; i < json.length() && Character.isDigit(json.charAt(i)); i++) v = v * 10 + (json.charAt(i) - '0');
+            if (i == start) throw new IllegalArgumentException("Bad " + key + " in depth update");
+            return v;
+        }
+
+        // Index just past `c`, after optional spaces
+        private static int expect(CharSequence json, int i, char c) {
+            i = skipSpaces(json, i);
+            if (i >= json.length() || json.charAt(i) != c) throw new IllegalArgumentException("Expected '" + c + "' at " + i + " of depth update");
+            return i + 1;
+        }
+
+        private static int skipSpaces(CharSequence json, int i) {
+            while (i < json.length() && Character.isWhitespace(json.charAt(i))) i++;
+            if (i >= json.length()) throw new IllegalArgumentException("Truncated depth update");
+            return i;
+        }
+
+        private static int indexOf(CharSequence json, char c, int from) {
+            for (int i = from; i < json.length(); i++) {
+                if (json.charAt(i) == c) return i;
+            }
+            throw new IllegalArgumentException("Truncated depth update");
+        }
+
+        private static int indexOf(CharSequence json, String key, int from) {
+            outer:
+            for (int i = from; i <= json.length() - key.length(); i++) {
+                for (int j = 0; j < key.length(); j++) {
+                    if (json.charAt(i + j) != key.charAt(j)) continue outer;
+                }
+                return i;
+            }
+            return -1;
+        }
+    }
+}
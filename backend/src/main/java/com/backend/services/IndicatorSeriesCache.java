@@ -0,0 +1,234 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indicator series over a candle list, computed once and shared by every backtest over the same data,
+ * e.g. all risk levels of a sweep. Values are TradingStrategy's 8-decimal results stored as unscaled
+ * longs, so a lookup gives back exactly what recomputing would. A series is keyed by (symbol, interval,
+ * indicator, period, first open time) and tagged with a running fingerprint of the candles it was built
+ * from: a longer run over the same start extends it, and changed candles rebuild it from where they differ.
+ * The total number of values held is bounded; least recently used series are evicted first.
+ */
+@Component
+public class IndicatorSeriesCache {
+
+    public enum Indicator { SMA, RSI }
+
+    // Before a series has enough closes
+    static final long UNDEFINED = Long.MIN_VALUE;
+
+    private static final int SCALE = 8;
+
+    private record Key(String symbol, String interval, Indicator indicator, int period, long firstOpenMs) {}
+
+    private final long maxValues;
+
+    // Access order; guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long held = 0;
+
+    public IndicatorSeriesCache(@Value("${bot.indicators.cache-values:4000000}") long maxValues) {
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * The indicator at every index of candles; null when caching is off or a value does not fit a long.
+     * The returned view stays valid however the cached series changes afterwards.
+     */
+    public Series series(String symbol, String interval, Indicator indicator, int period, List<Candles> candles) {
+        if (maxValues <= 0 || candles.isEmpty()) return null;
+
+        Key key = new Key(symbol, interval, indicator, period, candles.get(0).openTime().toInstant().toEpochMilli());
+        Entry entry;
+        synchronized (this) {
+            entry = entries.computeIfAbsent(key, k -> new Entry(indicator, period));
+        }
+
+        Series series;
+        long grew;
+        synchronized (entry) {
+            long before = entry.capacity();
+            try {
+                entry.extend(candles);
+                series = new Series(entry.values, candles.size());
+            } catch (ArithmeticException e) {
+                entry.clear();
+                series = null;
+            }
+            grew = entry.capacity() - before;
+        }
+        account(key, entry, grew);
+        return series;
+    }
+
+    // Values held across all series, counting spare capacity
+    public synchronized long size() {
+        return held;
+    }
+
+    private synchronized void account(Key key, Entry entry, long grew) {
+        held += grew;
+        if (entries.get(key) != entry) {
+            // Evicted while it was being extended
+            held -= entry.capacity();
+            return;
+        }
+
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (held > maxValues && it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            // Keep the series just asked for, even if it alone is over the bound
+            if (e.getKey().equals(key)) continue;
+            held -= e.getValue().capacity();
+            it.remove();
+        }
+    }
+
+    // Read-only view of the first `length` values of a series
+    public static final class Series {
+        private final long[] values;
+        private final int length;
+
+        Series(long[] values, int length) {
+            this.values = values;
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        // Null before the indicator has enough closes
+        public BigDecimal get(int i) {
+            if (i >= length) throw new IndexOutOfBoundsException(i);
+            long v = values[i];
+            return v == UNDEFINED ? null : BigDecimal.valueOf(v, SCALE);
+        }
+    }
+
+    // A series and the fingerprints of the candles below each index. Guarded by itself.
+    private static final class Entry {
+        private final Indicator indicator;
+        private final int period;
+
+        private long[] values = new long[0];
+        private long[] fingerprints = new long[0];
+        private int length = 0;
+
+        Entry(Indicator indicator, int period) {
+            this.indicator = indicator;
+            this.period = period;
+        }
+
+        long capacity() {
+            return values.length;
+        }
+
+        void clear() {
+            values = new long[0];
+            fingerprints = new long[0];
+            length = 0;
+        }
+
+        // Makes the series cover candles, reusing the longest prefix computed from the same data
+        void extend(List<Candles> candles) {
+            int n = candles.size();
+            int valid = 0;
+            long fp = 0;
+            while (valid < Math.min(n, length)) {
+                fp = fingerprint(fp, candles.get(valid));
+                if (fp != fingerprints[valid]) break;
+                valid++;
+            }
+            if (valid == n) return;
+
+            if (n > values.length) {
+                int capacity = Math.max(n, values.length + (values.length >> 1));
+                // New arrays, so views handed out earlier keep their values
+                values = Arrays.copyOf(values, capacity);
+                fingerprints = Arrays.copyOf(fingerprints, capacity);
+            } else if (valid < length) {
+                // Overwriting in place would change views handed out earlier
+                values = values.clone();
+                fingerprints = fingerprints.clone();
+            }
+
+            fp = valid == 0 ? 0 : fingerprints[valid - 1];
+            for (int i = valid; i < n; i++) {
+                fp = fingerprint(fp, candles.get(i));
+                fingerprints[i] = fp;
+            }
+            if (indicator == Indicator.SMA) sma(candles, valid, n);
+            else rsi(candles, valid, n);
+            length = n;
+        }
+
+        // Same result as TradingStrategy.simpleMovingAverage over the `period` closes ending at each index
+        private void sma(List<Candles> candles, int from, int to) {
+            BigDecimal divisor = BigDecimal.valueOf(period);
+            int start = Math.max(from, period - 1);
+            for (int i = from; i < start; i++) values[i] = UNDEFINED;
+            if (start >= to) return;
+
+            // Exact running sum, so every value equals a fresh sum over its window
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int j = start - period + 1; j <= start; j++) sum = sum.add(candles.get(j).close());
+            for (int i = start; i < to; i++) {
+                if (i > start) sum = sum.add(candles.get(i).close()).subtract(candles.get(i - period).close());
+                values[i] = unscaled(sum.divide(divisor, SCALE, RoundingMode.HALF_UP));
+            }
+        }
+
+        // Same result as TradingStrategy.relativeStrengthIndex over the closes ending at each index
+        private void rsi(List<Candles> candles, int from, int to) {
+            int start = Math.max(from, period);
+            for (int i = from; i < start; i++) values[i] = UNDEFINED;
+            if (start >= to) return;
+
+            BigDecimal gains = BigDecimal.ZERO;
+            BigDecimal losses = BigDecimal.ZERO;
+            for (int j = start - period + 1; j <= start; j++) {
+                BigDecimal diff = diff(candles, j);
+                if (diff.signum() > 0) gains = gains.add(diff);
+                else losses = losses.add(diff.abs());
+            }
+            for (int i = start; i < to; i++) {
+                if (i > start) {
+                    BigDecimal in = diff(candles, i);
+                    if (in.signum() > 0) gains = gains.add(in);
+                    else losses = losses.add(in.abs());
+                    BigDecimal out = diff(candles, i - period);
+                    if (out.signum() > 0) gains = gains.subtract(out);
+                    else losses = losses.subtract(out.abs());
+                }
+                values[i] = unscaled(TradingStrategy.relativeStrengthIndex(gains, losses, period));
+            }
+        }
+
+        private static BigDecimal diff(List<Candles> candles, int i) {
+            return candles.get(i).close().subtract(candles.get(i - 1).close());
+        }
+
+        // Throws ArithmeticException for values beyond a long at 8 decimals
+        private static long unscaled(BigDecimal v) {
+            return v.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        }
+
+        private static long fingerprint(long fp, Candles c) {
+            fp = (fp ^ c.openTime().toInstant().toEpochMilli()) * 0x9E3779B97F4A7C15L;
+            fp = (fp ^ c.close().hashCode()) * 0x9E3779B97F4A7C15L;
+            return fp ^ (fp >>> 29);
+        }
+    }
+}
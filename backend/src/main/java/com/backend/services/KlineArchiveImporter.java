@@ -0,0 +1,97 @@
+package com.backend.services;
+
+import com.backend.models.CandleSpan;
+import com.backend.repository.CandleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Loads locally downloaded Binance Vision kline archives into the candles table, e.g.
+ * BTCUSDT-1m-2024-01.zip (monthly) or BTCUSDT-1m-2024-01-15.zip (daily); symbol and interval
+ * come from the file name. Imported 1m history is rolled up like synced history.
+ * An archive that does not join the stored history leaves a gap; local reads over it fall back to
+ * Binance (see CandleRollupService) until the missing archives are imported too.
+ */
+@Service
+public class KlineArchiveImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(KlineArchiveImporter.class);
+
+    private static final Pattern ARCHIVE = Pattern.compile("([A-Z0-9]+)-(\\w+)-(\\d{4}-\\d{2}(?:-\\d{2})?)\\.(zip|csv)");
+
+    private final CandleRepository candles;
+    private final CandleRollupService rollups;
+
+    public record Result(Path file, String symbol, String interval, long rows, long elapsedMs) {
+
+        public double rowsPerSecond() {
+            return rows * 1000.0 / Math.max(1, elapsedMs);
+        }
+    }
+
+    public KlineArchiveImporter(CandleRepository candles, CandleRollupService rollups) {
+        this.candles = candles;
+        this.rollups = rollups;
+    }
+
+    // A single archive, or every archive in a directory, oldest period first
+    public List<Result> importPath(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> listing = Files.list(path)) {
+                files = listing.filter(p -> ARCHIVE.matcher(p.getFileName().toString()).matches()).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+
+        List<Result> results = new ArrayList<>(files.size());
+        for (Path file : files) results.add(importFile(file));
+        return results;
+    }
+
+    public Result importFile(Path file) throws IOException {
+        Matcher name = ARCHIVE.matcher(file.getFileName().toString());
+        if (!name.matches()) {
+            throw new IllegalArgumentException("Not a Binance Vision kline archive name (SYMBOL-interval-yyyy-MM[-dd].zip): " + file);
+        }
+        String symbol = name.group(1);
+        String interval = name.group(2);
+        long intervalMs = CandleIntervals.toMillis(interval);
+
+        Optional<CandleSpan> before = candles.span(symbol, interval);
+        long started = System.nanoTime();
+        long rows;
+        long first, last;
+        try (KlineArchiveReader reader = KlineArchiveReader.open(file)) {
+            rows = candles.bulkLoad(symbol, interval, reader);
+            first = reader.firstOpenTimeMs();
+            last = reader.lastOpenTimeMs();
+        }
+        if (rows > 0 && CandleRollupService.BASE.equals(interval)) rollups.rollUp(symbol, first, last + intervalMs);
+        if (rows > 0 && before.isPresent()) {
+            long storedFirst = before.get().firstOpenTime().toInstant().toEpochMilli();
+            long storedLast = before.get().lastOpenTime().toInstant().toEpochMilli();
+            if (last + intervalMs < storedFirst || first > storedLast + intervalMs) {
+                log.warn("{} does not join the stored {} {} history ({} to {}); import the archives in between to serve that range locally",
+                        file.getFileName(), symbol, interval, before.get().firstOpenTime(), before.get().lastOpenTime());
+            }
+        }
+
+        Result result = new Result(file, symbol, interval, rows, (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} {} {} candles from {} in {} ms ({} rows/s)", rows, symbol, interval,
+                file.getFileName(), result.elapsedMs(), String.format("%.0f", result.rowsPerSecond()));
+        return result;
+    }
+}
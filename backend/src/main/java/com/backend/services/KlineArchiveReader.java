@@ -0,0 +1,187 @@
+package com.backend.services;
+
+import com.backend.repository.KlineCursor;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Streams klines out of a Binance Vision archive (data.binance.vision): a monthly or daily ZIP holding
+ * one CSV, or that CSV on its own. The ZIP is inflated as it is read, never extracted. Lines are split in
+ * place in a reused byte buffer, so a row costs no allocation; decimals stay text unless asked for.
+ */
+public class KlineArchiveReader implements KlineCursor, AutoCloseable {
+
+    private static final int BUFFER = 1 << 16;
+
+    // open time, open, high, low, close, volume; the rest of each line (close time, trades, ...) is ignored
+    private static final int FIELDS = 6;
+
+    // Spot archives switched from millisecond to microsecond timestamps in 2025
+    private static final long FIRST_MICROS_VALUE = 100_000_000_000_000L;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[BUFFER];
+    private int pos = 0;
+    private int limit = 0;
+    private boolean eof = false;
+
+    private final int[] start = new int[FIELDS];
+    private final int[] end = new int[FIELDS];
+    private long line = 0;
+    private long openTimeMs;
+    private long firstOpenTimeMs = Long.MAX_VALUE;
+    private long lastOpenTimeMs = Long.MIN_VALUE;
+
+    KlineArchiveReader(InputStream in) {
+        this.in = in;
+    }
+
+    public static KlineArchiveReader open(Path file) throws IOException {
+        InputStream raw = new BufferedInputStream(Files.newInputStream(file), BUFFER);
+        if (!file.getFileName().toString().endsWith(".zip")) return new KlineArchiveReader(raw);
+
+        ZipInputStream zip = new ZipInputStream(raw);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory() && entry.getName().endsWith(".csv")) return new KlineArchiveReader(zip);
+        }
+        zip.close();
+        throw new IOException("No CSV inside " + file);
+    }
+
+    @Override
+    public boolean next() {
+        try {
+            while (true) {
+                int lineEnd = indexOfNewline();
+                if (lineEnd < 0) {
+                    if (fill()) continue;
+                    // Last line without a newline
+                    if (pos == limit) return false;
+                    lineEnd = limit;
+                }
+                int lineStart = pos;
+                pos = Math.min(lineEnd + 1, limit);
+                line++;
+
+                int contentEnd = lineEnd;
+                if (contentEnd > lineStart && buf[contentEnd - 1] == '\r') contentEnd--;
+                if (contentEnd == lineStart) continue;
+                // Some archives start with a column header
+                if (line == 1 && !isDigit(buf[lineStart])) continue;
+
+                parse(lineStart, contentEnd);
+                return true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long openTimeMs() {
+        return openTimeMs;
+    }
+
+    @Override
+    public int copyDecimal(int column, byte[] dest, int at) {
+        int s = start[column + 1];
+        int len = end[column + 1] - s;
+        System.arraycopy(buf, s, dest, at, len);
+        return at + len;
+    }
+
+    @Override
+    public BigDecimal decimal(int column) {
+        int s = start[column + 1];
+        return new BigDecimal(new String(buf, s, end[column + 1] - s, StandardCharsets.US_ASCII));
+    }
+
+    // Open times of the rows read so far, for rolling up what was loaded
+    public long firstOpenTimeMs() {
+        return firstOpenTimeMs;
+    }
+
+    public long lastOpenTimeMs() {
+        return lastOpenTimeMs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int indexOfNewline() {
+        for (int i = pos; i < limit; i++) {
+            if (buf[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    // Moves the unread tail to the front and reads more after it; false at the end of the stream
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) throw malformed("line longer than " + BUFFER + " bytes");
+        int n = in.read(buf, limit, buf.length - limit);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private void parse(int from, int to) {
+        int field = 0;
+        start[0] = from;
+        for (int i = from; i < to && field < FIELDS; i++) {
+            if (buf[i] == ',') {
+                end[field++] = i;
+                if (field < FIELDS) start[field] = i + 1;
+            }
+        }
+        if (field < FIELDS - 1) throw malformed("expected at least " + FIELDS + " columns");
+        if (field == FIELDS - 1) end[field] = to;
+
+        long ts = 0;
+        if (end[0] == start[0] || end[0] - start[0] > 18) throw malformed("bad open time");
+        for (int i = start[0]; i < end[0]; i++) {
+            if (!isDigit(buf[i])) throw malformed("bad open time");
+            ts = ts * 10 + (buf[i] - '0');
+        }
+        openTimeMs = ts >= FIRST_MICROS_VALUE ? ts / 1000 : ts;
+        firstOpenTimeMs = Math.min(firstOpenTimeMs, openTimeMs);
+        lastOpenTimeMs = Math.max(lastOpenTimeMs, openTimeMs);
+
+        // The text is handed on verbatim (e.g. into COPY), so only plain decimals get through
+        for (int f = 1; f < FIELDS; f++) {
+            int len = end[f] - start[f];
+            if (len == 0 || len > MAX_DECIMAL_BYTES) throw malformed("bad decimal in column " + f);
+            for (int i = start[f]; i < end[f]; i++) {
+                if (!isDigit(buf[i]) && buf[i] != '.') throw malformed("bad decimal in column " + f);
+            }
+        }
+    }
+
+    private IllegalArgumentException malformed(String reason) {
+        return new IllegalArgumentException("Malformed kline at line " + line + ": " + reason);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,54 @@
+package com.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Imports Binance Vision kline archives and exits: run with --spring.profiles.active=import --bot.import.path=<file or directory>
+@Component
+@Profile("import")
+public class KlineImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(KlineImportRunner.class);
+
+    private final KlineArchiveImporter importer;
+    private final ConfigurableApplicationContext context;
+    private final String path;
+
+    public KlineImportRunner(KlineArchiveImporter importer,
+                             ConfigurableApplicationContext context,
+                             @Value("${bot.import.path}") String path) {
+        this.importer = importer;
+        this.context = context;
+        this.path = path;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            long started = System.nanoTime();
+            long rows = 0;
+            var results = importer.importPath(Path.of(path));
+            for (var r : results) rows += r.rows();
+            long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+            log.info("Imported {} candles from {} archives in {} ms ({} rows/s)", rows, results.size(), elapsedMs,
+                    String.format("%.0f", rows * 1000.0 / elapsedMs));
+        } catch (Exception e) {
+            log.error("Kline import from {} failed", path, e);
+            exitCode = 1;
+        }
+
+        // The scheduler would otherwise keep the JVM alive
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
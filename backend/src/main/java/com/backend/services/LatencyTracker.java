@@ -0,0 +1,97 @@
+package com.backend.services;
+
+import com.backend.dto.LatencyStatsDTO;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tick-to-trade latency per stage, in nanoseconds, kept in HdrHistograms since startup (or the last reset).
+ * Ticks record into lock-free Recorders; readers fold the recorded intervals into the cumulative histograms.
+ */
+@Component
+public class LatencyTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LatencyTracker.class);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String TOTAL = "TOTAL";
+
+    private final long outlierNanos;
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+
+    // Guarded by this
+    private final Map<String, Histogram> cumulative = new LinkedHashMap<>();
+    private final Map<String, Histogram> recycled = new LinkedHashMap<>();
+
+    public LatencyTracker(@Value("${bot.latency.outlier-ms:0}") long outlierMs) {
+        this.outlierNanos = outlierMs > 0 ? outlierMs * 1_000_000 : Long.MAX_VALUE;
+        for (TickTrace.Stage stage : TickTrace.Stage.values()) register(stage.name());
+        register(TOTAL);
+    }
+
+    private void register(String name) {
+        recorders.put(name, new Recorder(SIGNIFICANT_DIGITS));
+        cumulative.put(name, new Histogram(SIGNIFICANT_DIGITS));
+    }
+
+    public void record(TickTrace trace) {
+        for (TickTrace.Stage stage : TickTrace.Stage.values()) {
+            recorders.get(stage.name()).recordValue(trace.nanos(stage));
+        }
+        recorders.get(TOTAL).recordValue(trace.totalNanos());
+
+        if (trace.totalNanos() >= outlierNanos) {
+            log.info("Slow tick: {} us total, {}", trace.totalNanos() / 1000, breakdown(trace));
+        }
+    }
+
+    // Stage name (and TOTAL) to its percentiles, in stage order
+    public synchronized Map<String, LatencyStatsDTO> snapshot() {
+        Map<String, LatencyStatsDTO> out = new LinkedHashMap<>();
+        for (var e : recorders.entrySet()) {
+            Histogram interval = e.getValue().getIntervalHistogram(recycled.get(e.getKey()));
+            Histogram total = cumulative.get(e.getKey());
+            total.add(interval);
+            recycled.put(e.getKey(), interval);
+            out.put(e.getKey(), toStats(total));
+        }
+        return out;
+    }
+
+    public synchronized void reset() {
+        for (var e : recorders.entrySet()) {
+            e.getValue().reset();
+            cumulative.get(e.getKey()).reset();
+        }
+    }
+
+    private static LatencyStatsDTO toStats(Histogram h) {
+        if (h.getTotalCount() == 0) return new LatencyStatsDTO(0, 0, 0, 0, 0);
+        return new LatencyStatsDTO(h.getTotalCount(),
+                micros(h.getValueAtPercentile(50)),
+                micros(h.getValueAtPercentile(99)),
+                micros(h.getValueAtPercentile(99.9)),
+                micros(h.getMaxValue()));
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+
+    private static String breakdown(TickTrace trace) {
+        StringBuilder sb = new StringBuilder();
+        for (TickTrace.Stage stage : TickTrace.Stage.values()) {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(stage.name().toLowerCase()).append('=').append(trace.nanos(stage) / 1000).append("us");
+        }
+        return sb.toString();
+    }
+}
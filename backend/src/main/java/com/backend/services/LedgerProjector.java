@@ -0,0 +1,112 @@
+package com.backend.services;
+
+import com.backend.repository.JdbcLedgerRepository;
+import com.backend.repository.LedgerJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the ledger tables caught up with the ledger journal. On start it opens the journal from the
+ * position the tables last reached, which queues whatever a crash left unapplied; a background thread
+ * then applies durable trades in batches. A batch that fails is retried until it goes in, the journal
+ * holding it meanwhile, so the database being down delays the tables but loses no trades.
+ * Starts before and stops after everything that records trades.
+ */
+@Component
+@Profile("!inmemory")
+public class LedgerProjector implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerProjector.class);
+
+    private static final long IDLE_WAIT_MS = 100;
+    private static final long RETRY_MS = 1_000;
+
+    private final LedgerJournal journal;
+    private final JdbcLedgerRepository ledger;
+    private final int batch;
+
+    private volatile boolean running = false;
+    private volatile boolean stopping = false;
+    private Thread thread;
+
+    public LedgerProjector(LedgerJournal journal, JdbcLedgerRepository ledger,
+                           @Value("${bot.ledger.projection.batch:256}") int batch) {
+        if (batch < 1) throw new IllegalArgumentException("batch must be positive");
+        this.journal = journal;
+        this.ledger = ledger;
+        this.batch = batch;
+    }
+
+    @Override
+    public void start() {
+        if (!journal.enabled()) return;
+        journal.open(ledger.projectedSeq());
+        stopping = false;
+        running = true;
+        thread = new Thread(this::run, "ledger-projection");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Applies what is already durable, then closes the journal
+    @Override
+    public void stop() {
+        if (thread == null) return;
+        stopping = true;
+        try {
+            thread.join(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        journal.close();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the default phase of the live pipeline and web server
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                List<LedgerJournal.Record> records = journal.takeDurable(batch, IDLE_WAIT_MS);
+                if (records.isEmpty()) {
+                    if (stopping) return;
+                    continue;
+                }
+                if (!apply(records)) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // False when stopping before the batch went in; it is applied again from the journal on the next start
+    private boolean apply(List<LedgerJournal.Record> records) throws InterruptedException {
+        while (true) {
+            try {
+                ledger.project(records);
+                journal.projected(records.get(records.size() - 1).seq());
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Could not project {} journaled trades, retrying", records.size(), e);
+                if (stopping) return false;
+                Thread.sleep(RETRY_MS);
+            }
+        }
+    }
+}
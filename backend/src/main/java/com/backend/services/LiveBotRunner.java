@@ -1,24 +1,95 @@
 package com.backend.services;
 
 import com.backend.dto.BotMode;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.backend.models.Candles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Runs the live session on candle closes: one strategy evaluation per closed kline, fired at the
+ * interval boundary on Binance's clock (our offset to it is re-measured periodically), plus an
+ * optional stop-loss check between closes. Both are fetched here and handed to the LivePipeline.
+ * <p>
+ * The runner keeps its own timer, so @Scheduled jobs and farm heartbeats on the application scheduler
+ * cannot hold back a close. The timer only dispatches: fetching (which can wait on the rate limiter) and
+ * publishing (which waits while the pipeline is full) run on a separate tick thread.
+ */
 @Component
 public class LiveBotRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(LiveBotRunner.class);
+
+    // How often the offset between our clock and Binance's is re-measured
+    private static final long CLOCK_SYNC_EVERY_MS = 10 * 60_000;
+
+    // Binance weeks open on Monday 00:00 UTC; the epoch was a Thursday
+    private static final long WEEK_ANCHOR_MS = Duration.ofDays(4).toMillis();
+
     private final BotEngine engine;
     private final MarketDataService market;
+    private final LivePipeline pipeline;
+    private final DepthFeed depth;
+    private final Clock clock;
+    private final TaskScheduler scheduler;
+    private final Executor ticks;
+    private final long closeDelayMs;
+    private final long riskCheckMs;
+    private final BigDecimal stopLossPct;
 
     // Live params
     private volatile BigDecimal riskPct = new BigDecimal("0.10");
 
-    public LiveBotRunner(BotEngine engine, MarketDataService market) {
+    // A risk check waiting for the tick thread; further ones are skipped rather than queued behind it
+    private final AtomicBoolean riskCheckQueued = new AtomicBoolean();
+
+    // Scheduling state, guarded by this
+    private long session = -1;
+    private ScheduledFuture<?> nextClose;
+    private ScheduledFuture<?> riskCheck;
+    private long clockOffsetMs = 0;
+    private boolean clockSynced = false;
+    private long clockSyncedAt = 0;
+
+    @Autowired
+    public LiveBotRunner(BotEngine engine, MarketDataService market, LivePipeline pipeline, DepthFeed depth, Clock clock,
+                         @Value("${bot.live.close-delay-ms:1000}") long closeDelayMs,
+                         @Value("${bot.live.risk-check-ms:0}") long riskCheckMs,
+                         @Value("${bot.live.stop-loss-pct:0.05}") BigDecimal stopLossPct) {
+        this(engine, market, pipeline, depth, clock, timer(), Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "live-tick");
+            t.setDaemon(true);
+            return t;
+        }), closeDelayMs, riskCheckMs, stopLossPct);
+    }
+
+    LiveBotRunner(BotEngine engine, MarketDataService market, LivePipeline pipeline, DepthFeed depth, Clock clock,
+                  TaskScheduler scheduler, Executor ticks, long closeDelayMs, long riskCheckMs, BigDecimal stopLossPct) {
         this.engine = engine;
         this.market = market;
+        this.pipeline = pipeline;
+        this.depth = depth;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        this.ticks = ticks;
+        this.closeDelayMs = closeDelayMs;
+        this.riskCheckMs = riskCheckMs;
+        this.stopLossPct = stopLossPct;
     }
 
     public void setRiskPct(BigDecimal riskPct) {
@@ -29,13 +100,147 @@ public class LiveBotRunner {
         this.riskPct = riskPct;
     }
 
-    // Poll every 5 seconds
-    @Scheduled(fixedDelay = 5000)
-    public void tick() {
+    // Arms the schedule for the engine's current live session, replacing any previous one
+    public synchronized void start() {
+        cancel();
         if (!engine.isRunning() || engine.getMode() != BotMode.LIVE) return;
 
-        BigDecimal price = market.latestPrice(engine.getSymbol());
+        session = engine.getSessionId();
+        depth.track(engine.getSymbol());
+        scheduleNextClose(Long.MIN_VALUE);
+        if (riskCheckMs > 0) {
+            riskCheck = scheduler.scheduleWithFixedDelay(this::queueRiskCheck, Duration.ofMillis(riskCheckMs));
+        }
+    }
+
+    void onCandleClose(long expectedSession, long closeMs) {
+        if (!isCurrent(expectedSession)) return;
+
+        // Fired early (e.g. the local clock was stepped): wait for the same boundary again
+        if (serverNow() < closeMs) {
+            synchronized (this) {
+                if (session == expectedSession) scheduleClose(closeMs);
+            }
+            return;
+        }
+
+        try {
+            TickTrace trace = TickTrace.start();
+            Candles closed = market.closedCandle(engine.getSymbol(), engine.getInterval(), closeMs);
+            trace.mark(TickTrace.Stage.FETCH);
+            if (closed == null) {
+                log.warn("No kline for {} {} closing at {}", engine.getSymbol(), engine.getInterval(), Instant.ofEpochMilli(closeMs));
+            } else {
+                OffsetDateTime ts = OffsetDateTime.ofInstant(Instant.ofEpochMilli(closeMs), ZoneOffset.UTC);
+                // Blocks while the pipeline is full
+                pipeline.publish(new LivePipeline.Tick(expectedSession, ts, closed.close(), riskPct,
+                        sessionStopLossPct(), false, depth.imbalance(engine.getSymbol()), trace));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Live tick for the candle closing at {} failed", Instant.ofEpochMilli(closeMs), e);
+        } finally {
+            synchronized (this) {
+                if (session == expectedSession && isCurrent(expectedSession)) scheduleNextClose(closeMs);
+            }
+        }
+    }
+
+    private void queueRiskCheck() {
+        if (!riskCheckQueued.compareAndSet(false, true)) return;
+        ticks.execute(() -> {
+            riskCheckQueued.set(false);
+            checkRisk();
+        });
+    }
+
+    void checkRisk() {
+        long expectedSession;
+        synchronized (this) {
+            expectedSession = session;
+        }
+        if (!isCurrent(expectedSession)) {
+            synchronized (this) {
+                if (session == expectedSession) cancel();
+            }
+            return;
+        }
+
+        try {
+            BigDecimal price = market.latestPrice(engine.getSymbol());
+            pipeline.publish(new LivePipeline.Tick(expectedSession, OffsetDateTime.now(clock), price, riskPct,
+                    sessionStopLossPct(), true, Double.NaN, TickTrace.NONE));
+        } catch (RuntimeException e) {
+            log.warn("Intra-candle risk check failed", e);
+        }
+    }
+
+    // First boundary of `interval` strictly after nowMs, on Binance's candle grid
+    static long nextBoundary(long nowMs, String interval) {
+        if ("1M".equals(interval)) {
+            OffsetDateTime now = OffsetDateTime.ofInstant(Instant.ofEpochMilli(nowMs), ZoneOffset.UTC);
+            return now.withDayOfMonth(1).toLocalDate().atStartOfDay().plusMonths(1)
+                    .toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+        long intervalMs = CandleIntervals.toMillis(interval);
+        long anchor = "1w".equals(interval) ? WEEK_ANCHOR_MS : 0;
+        return nowMs - Math.floorMod(nowMs - anchor, intervalMs) + intervalMs;
+    }
+
+    // Each close is scheduled against an absolute boundary, so late or early fires never accumulate drift
+    private void scheduleNextClose(long afterCloseMs) {
+        syncClockIfStale();
+        scheduleClose(nextBoundary(Math.max(serverNow(), afterCloseMs), engine.getInterval()));
+    }
+
+    private void scheduleClose(long closeMs) {
+        long expectedSession = session;
+        Instant fireAt = Instant.ofEpochMilli(closeMs - clockOffsetMs + closeDelayMs);
+        nextClose = scheduler.schedule(() -> ticks.execute(() -> onCandleClose(expectedSession, closeMs)), fireAt);
+    }
+
+    private void cancel() {
+        if (nextClose != null) nextClose.cancel(false);
+        if (riskCheck != null) riskCheck.cancel(false);
+        nextClose = null;
+        riskCheck = null;
+        session = -1;
+    }
+
+    private boolean isCurrent(long expectedSession) {
+        return expectedSession >= 0 && engine.isRunning() && engine.getMode() == BotMode.LIVE
+                && engine.getSessionId() == expectedSession;
+    }
+
+    private synchronized long serverNow() {
+        return clock.millis() + clockOffsetMs;
+    }
+
+    private synchronized void syncClockIfStale() {
+        long now = clock.millis();
+        if (clockSynced && now - clockSyncedAt < CLOCK_SYNC_EVERY_MS) return;
+        try {
+            long sent = clock.millis();
+            long server = market.serverTimeMs();
+            long received = clock.millis();
+            // Assume the server stamped the response halfway through the round trip
+            clockOffsetMs = server - (sent + received) / 2;
+            clockSyncedAt = received;
+            clockSynced = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not read Binance server time, keeping clock offset {} ms", clockOffsetMs, e);
+        }
+    }
+
+    private static TaskScheduler timer() {
+        ThreadPoolTaskScheduler timer = new ThreadPoolTaskScheduler();
+        timer.setThreadNamePrefix("live-timer-");
+        timer.setDaemon(true);
+        timer.initialize();
+        return timer;
+    }
 
-        engine.processLiveTick(price, OffsetDateTime.now(), riskPct);
+    // Null when the session runs without intra-candle risk checks
+    private BigDecimal sessionStopLossPct() {
+        return riskCheckMs > 0 ? stopLossPct : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package com.backend.services;
+
+import com.backend.dto.PipelineStageDTO;
+import com.backend.models.IndicatorState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Live ticks flow through three stages, each on its own thread and fed by a bounded single-producer
+ * ring: indicators, then risk/orders on the mirrored ledger, then persistence (database and tick journal).
+ * The order stage moves on to the next tick while the previous one is still being written, and the
+ * persistence stage writes whatever has queued up in one go.
+ * <p>
+ * Backpressure: when persistence falls behind its ring fills, the order stage waits for room, then the
+ * indicator stage, then publish() - so ticks are delayed, never dropped. A batch that cannot be written
+ * stops the session, since the mirrored ledger is already ahead of the database.
+ * <p>
+ * Each stage's latency in TickTrace includes the time the tick waited in that stage's ring.
+ */
+@Component
+public class LivePipeline implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LivePipeline.class);
+
+    // Upper bound on how long an idle stage sleeps before re-checking that the pipeline is still running
+    private static final long IDLE_PARK_NANOS = 100_000_000;
+
+    // A candle close, or an intra-candle risk check. stopLossPct is null when the session runs without risk checks;
+    // imbalance is the order book's when the close was fetched, NaN without one.
+    public record Tick(long session, OffsetDateTime ts, BigDecimal price, BigDecimal riskPct,
+                       BigDecimal stopLossPct, boolean riskCheck, double imbalance, TickTrace trace) {}
+
+    // header is set on a session's first tick, to open its journal
+    private record Indicated(Tick tick, BotEngine.LiveIndicators indicators, TickJournal.Header header) {}
+
+    // pending is null for a risk check that did not trade
+    private record Decided(Tick tick, BotEngine.PendingTick pending, IndicatorState checkpoint, TickJournal.Header header) {}
+
+    private final BotEngine engine;
+    private final TickJournal journal;
+    private final LatencyTracker latency;
+    private final int batch;
+
+    private final Stage<Tick> indicators;
+    private final Stage<Indicated> orders;
+    private final Stage<Decided> persistence;
+
+    // Owned by the indicator stage
+    private long journaledSession = -1;
+
+    // Owned by the persistence stage
+    private final List<Decided> unwritten = new ArrayList<>();
+
+    private volatile boolean running = false;
+
+    public LivePipeline(BotEngine engine, TickJournal journal, LatencyTracker latency,
+                        @Value("${bot.pipeline.capacity:1024}") int capacity,
+                        @Value("${bot.pipeline.batch:256}") int batch) {
+        if (batch < 1) throw new IllegalArgumentException("batch must be positive");
+        this.engine = engine;
+        this.journal = journal;
+        this.latency = latency;
+        this.batch = batch;
+        this.indicators = new Stage<>("indicators", new SpscRing<>(capacity), this::onTick);
+        this.orders = new Stage<>("orders", new SpscRing<>(capacity), this::onIndicated);
+        this.persistence = new Stage<>("persistence", new SpscRing<>(capacity), this::onDecided);
+    }
+
+    // Callers are serialized here, which keeps the ingest ring single-producer
+    public synchronized void publish(Tick tick) {
+        indicators.ring.put(tick);
+    }
+
+    public List<PipelineStageDTO> stats() {
+        return List.of(indicators.stats(), orders.stats(), persistence.stats());
+    }
+
+    private void onTick(Tick t, boolean endOfBatch) {
+        if (!engine.isLiveSession(t.session())) return;
+
+        TickJournal.Header header = null;
+        if (t.session() != journaledSession) {
+            journaledSession = t.session();
+            header = new TickJournal.Header(t.session(), engine.getSymbol(), engine.getInterval(),
+                    engine.getInitialBalance(), t.riskPct(), t.stopLossPct(), engine.liveIndicatorState());
+        }
+        BotEngine.LiveIndicators li = t.riskCheck() ? null : engine.updateLiveIndicators(t.price(), t.trace());
+        orders.ring.put(new Indicated(t, li, header));
+    }
+
+    private void onIndicated(Indicated e, boolean endOfBatch) {
+        Tick t = e.tick();
+        if (!engine.isLiveSession(t.session())) return;
+
+        BotEngine.PendingTick pending = t.riskCheck()
+                ? engine.decideStopLoss(t.price(), t.ts(), t.stopLossPct())
+                : engine.decideLiveTick(e.indicators().signal(), t.price(), t.ts(), t.riskPct(), t.imbalance(), t.trace());
+        if (pending == null && e.header() == null) return;
+        if (pending != null) engine.applyToMirror(pending);
+
+        IndicatorState checkpoint = e.indicators() == null ? null : e.indicators().checkpoint();
+        persistence.ring.put(new Decided(t, pending, checkpoint, e.header()));
+    }
+
+    // Decided ticks were traded on already, so they are written even if their session has ended since
+    private void onDecided(Decided d, boolean endOfBatch) {
+        unwritten.add(d);
+        if (endOfBatch) flush();
+    }
+
+    private void flush() {
+        List<BotEngine.PendingTick> ticks = new ArrayList<>(unwritten.size());
+        IndicatorState checkpoint = null;
+        for (Decided d : unwritten) {
+            if (d.pending() != null) ticks.add(d.pending());
+            if (d.checkpoint() != null) checkpoint = d.checkpoint();
+        }
+
+        try {
+            if (!ticks.isEmpty()) engine.writeTicks(ticks);
+        } catch (RuntimeException e) {
+            log.error("Could not persist {} live ticks, stopping the session", ticks.size(), e);
+            unwritten.clear();
+            engine.stop();
+            return;
+        }
+
+        try {
+            // Only the newest indicator state in the batch is worth keeping
+            if (checkpoint != null) engine.saveLiveCheckpoint(checkpoint);
+
+            for (Decided d : unwritten) {
+                Tick t = d.tick();
+                if (d.header() != null) journal.open(d.header());
+                if (t.riskCheck()) {
+                    if (d.pending() != null) journal.appendRiskCheck(t.ts(), t.price(), d.pending().trade());
+                } else {
+                    journal.append(t.ts(), t.price(), d.pending().trade(), t.imbalance());
+                    t.trace().mark(TickTrace.Stage.PERSISTENCE);
+                    if (t.trace() != TickTrace.NONE) latency.record(t.trace());
+                }
+            }
+        } finally {
+            unwritten.clear();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        indicators.start();
+        orders.start();
+        persistence.start();
+    }
+
+    // Stages stop upstream first, each once it has drained what the one before it handed over
+    @Override
+    public void stop() {
+        running = false;
+        indicators.stop();
+        orders.stop();
+        persistence.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private final class Stage<E> implements Runnable {
+        private final String name;
+        private final SpscRing<E> ring;
+        private final SpscRing.Handler<E> handler;
+        private Thread thread;
+        private volatile boolean stopping;
+
+        // Written by the stage thread only
+        private volatile long processed;
+        private volatile long batches;
+        private volatile int maxBatch;
+
+        Stage(String name, SpscRing<E> ring, SpscRing.Handler<E> handler) {
+            this.name = name;
+            this.ring = ring;
+            this.handler = handler;
+        }
+
+        void start() {
+            stopping = false;
+            thread = new Thread(this, "live-" + name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() {
+            if (thread == null) return;
+            stopping = true;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                int n = ring.drain(this::handle, batch);
+                if (n > 0) {
+                    processed += n;
+                    batches++;
+                    if (n > maxBatch) maxBatch = n;
+                } else if (!stopping) {
+                    ring.await(IDLE_PARK_NANOS);
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void handle(E event, boolean endOfBatch) {
+            try {
+                handler.onEvent(event, endOfBatch);
+            } catch (RuntimeException e) {
+                log.warn("Live {} stage failed on {}", name, event, e);
+            }
+        }
+
+        PipelineStageDTO stats() {
+            return new PipelineStageDTO(name, processed, batches, maxBatch, ring.size(), ring.capacity(), ring.stalls());
+        }
+    }
+}
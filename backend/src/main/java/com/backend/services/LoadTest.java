@@ -0,0 +1,211 @@
+package com.backend.services;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives GET endpoints of a running backend from `concurrency` workers and measures each request in an
+ * HdrHistogram per endpoint. Workers take the endpoints in turn. With a rate, each worker sends on a fixed
+ * schedule and latency counts from when the request was due, so a stalled server shows up in the
+ * percentiles instead of just lowering the request count; without one, workers send back to back.
+ * Requests during the warm-up are sent but not counted.
+ */
+public class LoadTest {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    public record Endpoint(String name, String path) {}
+
+    // A p99 or throughput of 0 is not checked
+    public record Slo(double p99Ms, double maxErrorRate, double minThroughput) {}
+
+    public record EndpointStats(String name, long requests, long errors, double throughput,
+                                double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs) {
+        public double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    public record Report(List<EndpointStats> endpoints, long requests, double throughput, List<String> violations) {
+        public boolean passed() {
+            return violations.isEmpty();
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final List<Endpoint> endpoints;
+    private final int concurrency;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Duration timeout;
+
+    public LoadTest(HttpClient http, String baseUrl, List<Endpoint> endpoints, int concurrency, double rate,
+                    Duration warmup, Duration duration, Duration timeout) {
+        if (endpoints.isEmpty()) throw new IllegalArgumentException("No endpoints to load");
+        if (concurrency < 1) throw new IllegalArgumentException("concurrency must be positive");
+        if (duration.isZero() || duration.isNegative()) throw new IllegalArgumentException("duration must be positive");
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.endpoints = List.copyOf(endpoints);
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.timeout = timeout;
+    }
+
+    public Report run(Slo slo) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        // Per worker; 0 sends back to back
+        long intervalNanos = rate > 0 ? (long) (1e9 * concurrency / rate) : 0;
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Worker>> done = new ArrayList<>();
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                Worker worker = new Worker(w, start + intervalNanos * w / concurrency, intervalNanos, measureFrom, end);
+                done.add(workers.submit(() -> {
+                    worker.run();
+                    return worker;
+                }));
+            }
+
+            Map<String, Histogram> latencies = new LinkedHashMap<>();
+            Map<String, long[]> errors = new LinkedHashMap<>();
+            for (Endpoint e : endpoints) {
+                latencies.putIfAbsent(e.name(), new Histogram(SIGNIFICANT_DIGITS));
+                errors.putIfAbsent(e.name(), new long[1]);
+            }
+            for (Future<Worker> f : done) {
+                Worker worker = f.get();
+                worker.latencies.forEach((name, h) -> latencies.get(name).add(h));
+                worker.errors.forEach((name, n) -> errors.get(name)[0] += n[0]);
+            }
+            return report(latencies, errors, slo);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Report report(Map<String, Histogram> latencies, Map<String, long[]> errors, Slo slo) {
+        double seconds = duration.toNanos() / 1e9;
+        List<EndpointStats> stats = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        long total = 0;
+        for (var e : latencies.entrySet()) {
+            String name = e.getKey();
+            Histogram h = e.getValue();
+            long failed = errors.get(name)[0];
+            long requests = h.getTotalCount() + failed;
+            total += requests;
+            EndpointStats s = new EndpointStats(name, requests, failed, requests / seconds,
+                    millis(h, 50), millis(h, 90), millis(h, 99), millis(h, 99.9),
+                    h.getTotalCount() == 0 ? 0 : h.getMaxValue() / 1e6);
+            stats.add(s);
+
+            if (requests == 0) violations.add(name + ": no requests completed");
+            if (slo.p99Ms() > 0 && s.p99Ms() > slo.p99Ms()) {
+                violations.add(String.format("%s: p99 %.1f ms over %.1f ms", name, s.p99Ms(), slo.p99Ms()));
+            }
+            if (s.errorRate() > slo.maxErrorRate()) {
+                violations.add(String.format("%s: error rate %.4f over %.4f", name, s.errorRate(), slo.maxErrorRate()));
+            }
+        }
+        double throughput = total / seconds;
+        if (slo.minThroughput() > 0 && throughput < slo.minThroughput()) {
+            violations.add(String.format("throughput %.1f req/s under %.1f req/s", throughput, slo.minThroughput()));
+        }
+        return new Report(stats, total, throughput, violations);
+    }
+
+    private static double millis(Histogram h, double percentile) {
+        return h.getTotalCount() == 0 ? 0 : h.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    // One worker's requests; its histograms are only touched by its own thread until it is done
+    private final class Worker {
+        private final int index;
+        private final long firstDue;
+        private final long intervalNanos;
+        private final long measureFrom;
+        private final long end;
+        private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<String, long[]> errors = new LinkedHashMap<>();
+
+        Worker(int index, long firstDue, long intervalNanos, long measureFrom, long end) {
+            this.index = index;
+            this.firstDue = firstDue;
+            this.intervalNanos = intervalNanos;
+            this.measureFrom = measureFrom;
+            this.end = end;
+            for (Endpoint e : endpoints) {
+                latencies.putIfAbsent(e.name(), new Histogram(SIGNIFICANT_DIGITS));
+                errors.putIfAbsent(e.name(), new long[1]);
+            }
+        }
+
+        void run() {
+            for (long i = 0; ; i++) {
+                long due;
+                if (intervalNanos > 0) {
+                    due = firstDue + i * intervalNanos;
+                    if (due >= end) return;
+                    for (long wait; (wait = due - System.nanoTime()) > 0 && !Thread.currentThread().isInterrupted(); ) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    due = System.nanoTime();
+                    if (due >= end) return;
+                }
+                if (Thread.currentThread().isInterrupted()) return;
+
+                Endpoint endpoint = endpoints.get((int) ((index + i) % endpoints.size()));
+                boolean ok = send(endpoint);
+                long finished = System.nanoTime();
+                if (due < measureFrom) continue;
+
+                if (ok) latencies.get(endpoint.name()).recordValue(finished - due);
+                else errors.get(endpoint.name())[0]++;
+            }
+        }
+
+        private boolean send(Endpoint endpoint) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path()))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() / 100 == 2;
+            } catch (IOException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
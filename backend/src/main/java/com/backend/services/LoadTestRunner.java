@@ -0,0 +1,144 @@
+package com.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Load-tests the dashboard endpoints of a running backend and exits, with 1 when an SLO is missed:
+// run with --spring.profiles.active=loadtest,inmemory --spring.main.web-application-type=none --bot.loadtest.base-url=...
+@Component
+@Profile("loadtest")
+public class LoadTestRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+    private final List<String> endpoints;
+    private final String mode;
+    private final String symbol;
+    private final String interval;
+    private final int concurrency;
+    private final double rate;
+    private final long warmupSeconds;
+    private final long durationSeconds;
+    private final long timeoutMs;
+    private final boolean seed;
+    private final LoadTest.Slo slo;
+
+    public LoadTestRunner(ConfigurableApplicationContext context,
+                          @Value("${bot.loadtest.base-url:http://localhost:8080}") String baseUrl,
+                          @Value("${bot.loadtest.endpoints:trades,snapshots,candles,status}") List<String> endpoints,
+                          @Value("${bot.loadtest.mode:TRAIN}") String mode,
+                          @Value("${bot.loadtest.symbol:BTCUSDT}") String symbol,
+                          @Value("${bot.loadtest.interval:1m}") String interval,
+                          @Value("${bot.loadtest.concurrency:32}") int concurrency,
+                          @Value("${bot.loadtest.rate:0}") double rate,
+                          @Value("${bot.loadtest.warmup-seconds:10}") long warmupSeconds,
+                          @Value("${bot.loadtest.duration-seconds:60}") long durationSeconds,
+                          @Value("${bot.loadtest.timeout-ms:5000}") long timeoutMs,
+                          @Value("${bot.loadtest.seed:false}") boolean seed,
+                          @Value("${bot.loadtest.slo.p99-ms:250}") double p99Ms,
+                          @Value("${bot.loadtest.slo.max-error-rate:0.001}") double maxErrorRate,
+                          @Value("${bot.loadtest.slo.min-throughput:0}") double minThroughput) {
+        this.context = context;
+        this.baseUrl = baseUrl;
+        this.endpoints = endpoints;
+        this.mode = mode;
+        this.symbol = symbol;
+        this.interval = interval;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.timeoutMs = timeoutMs;
+        this.seed = seed;
+        this.slo = new LoadTest.Slo(p99Ms, maxErrorRate, minThroughput);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode;
+        try {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofMillis(timeoutMs))
+                    .build();
+            if (seed) seed(http);
+
+            var test = new LoadTest(http, baseUrl, endpoints(), concurrency, rate,
+                    Duration.ofSeconds(warmupSeconds), Duration.ofSeconds(durationSeconds), Duration.ofMillis(timeoutMs));
+            log.info("Loading {} from {} workers{} for {} s after a {} s warm-up", baseUrl, concurrency,
+                    rate > 0 ? " at " + rate + " req/s" : "", durationSeconds, warmupSeconds);
+            var report = test.run(slo);
+
+            log.info("{} requests at {} req/s", report.requests(), rounded(report.throughput(), 1));
+            for (var s : report.endpoints()) {
+                log.info("{}: {} req, {} err, {} req/s, p50 {}, p90 {}, p99 {}, p99.9 {}, max {} ms",
+                        s.name(), s.requests(), s.errors(), rounded(s.throughput(), 1), rounded(s.p50Ms(), 2),
+                        rounded(s.p90Ms(), 2), rounded(s.p99Ms(), 2), rounded(s.p999Ms(), 2), rounded(s.maxMs(), 2));
+            }
+            for (String v : report.violations()) log.error("SLO missed: {}", v);
+            exitCode = report.passed() ? 0 : 1;
+        } catch (Exception e) {
+            log.error("Load test of {} failed", baseUrl, e);
+            exitCode = 1;
+        }
+
+        // The scheduler would otherwise keep the JVM alive
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    private List<LoadTest.Endpoint> endpoints() {
+        List<LoadTest.Endpoint> out = new ArrayList<>();
+        for (String e : endpoints) {
+            String name = e.trim();
+            out.add(new LoadTest.Endpoint(name, switch (name) {
+                case "trades" -> "/api/trades?mode=" + mode + "&symbol=" + symbol;
+                case "snapshots" -> "/api/portfolio/snapshots?mode=" + mode + "&symbol=" + symbol;
+                case "candles" -> "/api/market/candles?symbol=" + symbol + "&interval=" + interval;
+                case "status" -> "/api/bot/status";
+                case "dashboard" -> "/api/dashboard?mode=" + mode + "&symbol=" + symbol;
+                default -> throw new IllegalArgumentException("Unknown load test endpoint " + name);
+            }));
+        }
+        return out;
+    }
+
+    private static BigDecimal rounded(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    // A backtest over the latest candles, so trades and snapshots have rows to return. It is a start like any
+    // other: a session the account is running ends, which is why it is off unless asked for.
+    private void seed(HttpClient http) throws Exception {
+        String body = String.format("{\"mode\":\"TRAIN\",\"symbol\":\"%s\",\"interval\":\"%s\",\"initialBalance\":10000,\"riskPct\":1}",
+                symbol, interval);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/bot/start"))
+                .timeout(Duration.ofMinutes(5))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding backtest failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.backend.services;
 
+import com.backend.models.CandlePage;
 import com.backend.models.Candles;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -13,31 +14,121 @@ import java.util.List;
 
 @Service
 public class MarketDataService {
-    private final RestClient client = RestClient.create("https://api.binance.com");
+    // Binance request weights
+    private static final int TIME_WEIGHT = 1;
+    // Whatever the limit, up to the maximum of 1000
+    static final int KLINES_WEIGHT = 2;
 
+    private final BinanceGateway gateway;
+    private final CandleCache cache;
+    private final CandleRollupService stored;
+    private final PriceFeed prices;
+    private final int prefetchPages;
+
+    public MarketDataService(BinanceGateway gateway, CandleCache cache, CandleRollupService stored, PriceFeed prices,
+                             @Value("${bot.backtest.prefetch-pages:4}") int prefetchPages) {
+        this.gateway = gateway;
+        this.cache = cache;
+        this.stored = stored;
+        this.prices = prices;
+        this.prefetchPages = prefetchPages;
+    }
+
+    // Batched with every other symbol requested in the same moment
     public BigDecimal latestPrice(String symbol) {
-        var res = client.get()
-                .uri(uriBuilder -> uriBuilder.path("/api/v3/ticker/price").queryParam("symbol", symbol).build())
-                .retrieve()
-                .body(PriceResponse.class);
-        if (res == null) throw new IllegalStateException("No price response");
-        return new BigDecimal(res.price());
+        return prices.price(symbol);
+    }
+
+    // Binance's clock, for aligning live ticks to its candle boundaries
+    public long serverTimeMs() {
+        var res = gateway.get("/api/v3/time", BinanceGateway.params(),
+                TIME_WEIGHT, BinanceGateway.Priority.LIVE, ServerTimeResponse.class);
+        if (res == null) throw new IllegalStateException("No server time response");
+        return res.serverTime();
+    }
+
+    // The candle that closed at closeMs, or null if Binance returned none
+    public Candles closedCandle(String symbol, String interval, long closeMs) {
+        // endTime filters on open time: the newest candle opened before the close is the one that just closed
+        List<Candles> candles = fetchCandles(symbol, interval, null, closeMs - 1, 1, BinanceGateway.Priority.LIVE);
+        return candles.isEmpty() ? null : candles.get(0);
     }
 
+    // Backtest fetches; answered from the local 1m store and its rollups whenever it covers the request
     public List<Candles> candles(String symbol, String interval, Long startMs, Long endMs, int limit) {
-        var body = client.get()
-                .uri(uriBuilder -> {
-                    var b = uriBuilder.path("/api/v3/klines")
-                            .queryParam("symbol", symbol)
-                            .queryParam("interval", interval)
-                            .queryParam("limit", limit);
-                    if (startMs != null) b = b.queryParam("startTime", startMs);
-                    if (endMs != null) b = b.queryParam("endTime", endMs);
-                    return b.build();
-                })
-                .retrieve()
-                .body(Object[][].class);
+        return stored.candles(symbol, interval, startMs, endMs, limit)
+                .orElseGet(() -> candlePage(symbol, interval, startMs, endMs, limit, BinanceGateway.Priority.BACKTEST).candles());
+    }
+
+    // Every candle in [startMs, endMs] for a backtest of any length: a cursor over the local store when it
+    // covers the range, otherwise Binance page by page. Fetched ahead on another thread; close it when done.
+    public PrefetchedCandles streamCandles(String symbol, String interval, long startMs, Long endMs) {
+        CandleSource source = stored.source(symbol, interval, startMs, endMs)
+                .orElseGet(() -> page -> {
+                    long from = startMs;
+                    while (true) {
+                        List<Candles> candles = fetchCandles(symbol, interval, from, endMs, CandleSource.PAGE,
+                                BinanceGateway.Priority.BACKTEST);
+                        if (!candles.isEmpty()) page.accept(candles);
+                        if (candles.size() < CandleSource.PAGE) return;
+                        from = candles.get(candles.size() - 1).openTime().toInstant().toEpochMilli() + 1;
+                    }
+                });
+        return new PrefetchedCandles(source, prefetchPages);
+    }
+
+    // Chart requests
+    public CandlePage candlePage(String symbol, String interval, Long startMs, Long endMs, int limit) {
+        return candlePage(symbol, interval, startMs, endMs, limit, BinanceGateway.Priority.CHART);
+    }
 
+    private CandlePage candlePage(String symbol, String interval, Long startMs, Long endMs, int limit,
+                                  BinanceGateway.Priority priority) {
+        long now = System.currentTimeMillis();
+        var key = new CandleCache.Key(symbol, interval, startMs, endMs, limit);
+        var cached = cache.get(key);
+
+        if (cached != null && cached.isFresh(now)) return cached.page();
+
+        List<Candles> candles;
+        Long refreshFromMs = cached == null ? null : cached.refreshFromMs(CandleIntervals.toMillis(interval));
+        if (refreshFromMs != null) {
+            // Closed candles are kept; only re-fetch from the forming (or next) candle onwards
+            List<Candles> tail = fetchCandles(symbol, interval, refreshFromMs, endMs, limit, priority);
+            candles = mergeTail(cached.closed(), tail, startMs == null, limit);
+        } else {
+            candles = fetchCandles(symbol, interval, startMs, endMs, limit, priority);
+        }
+
+        return cache.put(key, candles, now).page();
+    }
+
+    private static List<Candles> mergeTail(List<Candles> closed, List<Candles> tail, boolean keepLatest, int limit) {
+        List<Candles> merged = new ArrayList<>(closed.size() + tail.size());
+        merged.addAll(closed);
+        merged.addAll(tail);
+        if (merged.size() <= limit) return merged;
+
+        // Without a start time Binance returns the latest candles, so the window slides forward
+        return keepLatest
+                ? merged.subList(merged.size() - limit, merged.size())
+                : merged.subList(0, limit);
+    }
+
+    private List<Candles> fetchCandles(String symbol, String interval, Long startMs, Long endMs, int limit,
+                                       BinanceGateway.Priority priority) {
+        var body = gateway.get("/api/v3/klines",
+                BinanceGateway.params(
+                        "symbol", symbol,
+                        "interval", interval,
+                        "limit", limit,
+                        "startTime", startMs,
+                        "endTime", endMs),
+                KLINES_WEIGHT, priority, Object[][].class);
+        return toCandles(body);
+    }
+
+    static List<Candles> toCandles(Object[][] body) {
         if (body == null) return List.of();
 
         List<Candles> out = new ArrayList<>(body.length);
@@ -57,4 +148,6 @@ public class MarketDataService {
     }
 
     public record PriceResponse(String symbol, String price) {}
+
+    public record ServerTimeResponse(long serverTime) {}
 }
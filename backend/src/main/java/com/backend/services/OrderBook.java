@@ -0,0 +1,285 @@
+package com.backend.services;
+
+import com.backend.models.BookFeatures;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * One symbol's order book on primitive arrays. Prices and quantities are fixed point with 8 decimals.
+ * Each side keeps its levels sorted with the best one last, so the levels that change most, near the
+ * top, sit at the end of the arrays where inserting or removing shifts few elements; finding a level is a
+ * binary search. The writer keeps the best prices and the top-N quantities current, so reading them is
+ * O(1) and allocation free, as is every update once the arrays have grown to the book's depth.
+ * <p>
+ * One writer thread; readers on any thread see a consistent top of book through optimistic reads.
+ */
+public class OrderBook {
+
+    public static final int SCALE = 8;
+    private static final long ONE = 100_000_000L;
+
+    private final int topLevels;
+    private final Side bids = new Side(true);
+    private final Side asks = new Side(false);
+    private final StampedLock lock = new StampedLock();
+
+    // Top of book, written under the write lock
+    private long updateId;
+    private long bestBid;
+    private long bestAsk;
+    private long bidTopQty;
+    private long askTopQty;
+
+    public OrderBook(int topLevels) {
+        if (topLevels < 1) throw new IllegalArgumentException("topLevels must be positive");
+        this.topLevels = topLevels;
+    }
+
+    // Empties the book, e.g. before loading a snapshot
+    public void clear(long updateId) {
+        long stamp = lock.writeLock();
+        try {
+            bids.size = 0;
+            asks.size = 0;
+            this.updateId = updateId;
+            refreshTop();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Sets a level's quantity; a quantity of 0 removes it, as in Binance depth updates
+    public void set(boolean bid, long price, long qty) {
+        if (price <= 0 || qty < 0) throw new IllegalArgumentException("Bad level " + price + " x " + qty);
+        long stamp = lock.writeLock();
+        try {
+            Side side = bid ? bids : asks;
+            if (side.set(price, qty) <= topLevels) refreshTop();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // The last update applied, by its exchange id
+    public void updated(long updateId) {
+        long stamp = lock.writeLock();
+        try {
+            this.updateId = updateId;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long updateId() {
+        long stamp = lock.tryOptimisticRead();
+        long id = updateId;
+        if (lock.validate(stamp)) return id;
+        stamp = lock.readLock();
+        try {
+            return updateId;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 0 when the side is empty
+    public long bestBid() {
+        long stamp = lock.tryOptimisticRead();
+        long v = bestBid;
+        if (lock.validate(stamp)) return v;
+        stamp = lock.readLock();
+        try {
+            return bestBid;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long bestAsk() {
+        long stamp = lock.tryOptimisticRead();
+        long v = bestAsk;
+        if (lock.validate(stamp)) return v;
+        stamp = lock.readLock();
+        try {
+            return bestAsk;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Best ask minus best bid; 0 when either side is empty
+    public long spread() {
+        long stamp = lock.tryOptimisticRead();
+        long bid = bestBid, ask = bestAsk;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bid = bestBid;
+                ask = bestAsk;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return bid == 0 || ask == 0 ? 0 : ask - bid;
+    }
+
+    /**
+     * (bid - ask) / (bid + ask) over the quantities of the top N levels of each side: +1 when only bids
+     * are resting, -1 when only asks. NaN for an empty book.
+     */
+    public double imbalance() {
+        long stamp = lock.tryOptimisticRead();
+        long bid = bidTopQty, ask = askTopQty;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bid = bidTopQty;
+                ask = askTopQty;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        long total = bid + ask;
+        return total == 0 ? Double.NaN : (double) (bid - ask) / total;
+    }
+
+    // Spread, imbalance and top-level liquidity read together, so they describe the same book
+    public BookFeatures features() {
+        long stamp = lock.tryOptimisticRead();
+        long bid = bestBid, ask = bestAsk, bidQty = bidTopQty, askQty = askTopQty;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bid = bestBid;
+                ask = bestAsk;
+                bidQty = bidTopQty;
+                askQty = askTopQty;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (bid == 0 && ask == 0) return BookFeatures.NONE;
+        long total = bidQty + askQty;
+        return new BookFeatures(bid == 0 || ask == 0 ? Double.NaN : decimal(ask - bid),
+                total == 0 ? Double.NaN : (double) (bidQty - askQty) / total, decimal(bidQty), decimal(askQty));
+    }
+
+    public int depth(boolean bid) {
+        long stamp = lock.readLock();
+        try {
+            return (bid ? bids : asks).size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // Price and quantity of the level `level` steps from the best (0 = best); {0, 0} past the end
+    public long[] level(boolean bid, int level) {
+        long stamp = lock.readLock();
+        try {
+            Side side = bid ? bids : asks;
+            int i = side.size - 1 - level;
+            if (level < 0 || i < 0) return new long[]{0, 0};
+            return new long[]{side.price(i), side.qtys[i]};
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // "123.45" to 12345000000; at most 8 decimals, no sign or exponent
+    public static long parse(CharSequence s, int from, int to) {
+        long units = 0;
+        long fraction = 0;
+        int decimals = -1;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals < 0) {
+                    units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+                } else if (decimals < SCALE) {
+                    fraction = fraction * 10 + (c - '0');
+                    decimals++;
+                } else if (c != '0') {
+                    throw new IllegalArgumentException("More than " + SCALE + " decimals: " + s.subSequence(from, to));
+                }
+            } else {
+                throw new IllegalArgumentException("Not a decimal: " + s.subSequence(from, to));
+            }
+        }
+        if (to == from) throw new IllegalArgumentException("Empty decimal");
+        for (int d = Math.max(decimals, 0); d < SCALE; d++) fraction *= 10;
+        return Math.addExact(Math.multiplyExact(units, ONE), fraction);
+    }
+
+    public static long parse(CharSequence s) {
+        return parse(s, 0, s.length());
+    }
+
+    public static double decimal(long fixed) {
+        return (double) fixed / ONE;
+    }
+
+    // Called with the write lock held
+    private void refreshTop() {
+        bestBid = bids.size == 0 ? 0 : bids.price(bids.size - 1);
+        bestAsk = asks.size == 0 ? 0 : asks.price(asks.size - 1);
+        bidTopQty = bids.topQty(topLevels);
+        askTopQty = asks.topQty(topLevels);
+    }
+
+    // Levels sorted by key ascending, best last: the key is the price for bids and minus the price for asks
+    private static final class Side {
+        private final boolean bid;
+        private long[] keys = new long[64];
+        private long[] qtys = new long[64];
+        private int size = 0;
+
+        Side(boolean bid) {
+            this.bid = bid;
+        }
+
+        long price(int i) {
+            return bid ? keys[i] : -keys[i];
+        }
+
+        // Applies the level; returns how far from the best it was (0 = best), to tell whether the top changed
+        int set(long price, long qty) {
+            long key = bid ? price : -price;
+            int i = Arrays.binarySearch(keys, 0, size, key);
+            if (i >= 0) {
+                int fromTop = size - 1 - i;
+                if (qty == 0) {
+                    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                    System.arraycopy(qtys, i + 1, qtys, i, size - i - 1);
+                    size--;
+                } else {
+                    qtys[i] = qty;
+                }
+                return fromTop;
+            }
+            // Removing a level that is not there
+            if (qty == 0) return Integer.MAX_VALUE;
+
+            int at = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                qtys = Arrays.copyOf(qtys, size * 2);
+            }
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            System.arraycopy(qtys, at, qtys, at + 1, size - at);
+            keys[at] = key;
+            qtys[at] = qty;
+            size++;
+            return size - 1 - at;
+        }
+
+        long topQty(int n) {
+            long sum = 0;
+            for (int i = size - 1; i >= Math.max(0, size - n); i--) sum += qtys[i];
+            return sum;
+        }
+    }
+}
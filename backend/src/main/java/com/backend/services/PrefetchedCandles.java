@@ -0,0 +1,109 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterates a CandleSource while a background thread fetches ahead of it, so the next pages are
+ * downloaded or read while the current one is processed. At most `depth` pages wait in between:
+ * heap use depends on the page size, not on the length of the range. Close it to stop the fetching early.
+ */
+public final class PrefetchedCandles implements Iterator<Candles>, AutoCloseable {
+
+    private static final Object END = new Object();
+
+    private record Failure(RuntimeException error) {}
+
+    // Unwinds the source when the consumer went away
+    private static final class Cancelled extends RuntimeException {
+        Cancelled() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final BlockingQueue<Object> pages;
+    private final Thread fetcher;
+
+    // Consumer side
+    private List<Candles> page = List.of();
+    private int next = 0;
+    private boolean done = false;
+
+    public PrefetchedCandles(CandleSource source, int depth) {
+        if (depth < 1) throw new IllegalArgumentException("depth must be positive");
+        this.pages = new ArrayBlockingQueue<>(depth);
+        this.fetcher = new Thread(() -> fetch(source), "candle-prefetch");
+        fetcher.setDaemon(true);
+        fetcher.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!done && next == page.size()) {
+            Object o = take();
+            if (o == END) {
+                done = true;
+            } else if (o instanceof Failure f) {
+                done = true;
+                throw f.error();
+            } else {
+                @SuppressWarnings("unchecked")
+                List<Candles> p = (List<Candles>) o;
+                page = p;
+                next = 0;
+            }
+        }
+        return !done;
+    }
+
+    @Override
+    public Candles next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        return page.get(next++);
+    }
+
+    @Override
+    public void close() {
+        done = true;
+        fetcher.interrupt();
+    }
+
+    private void fetch(CandleSource source) {
+        try {
+            source.forEachPage(p -> {
+                if (!p.isEmpty()) put(p);
+            });
+            put(END);
+        } catch (Cancelled e) {
+            // closed by the consumer
+        } catch (RuntimeException e) {
+            try {
+                put(new Failure(e));
+            } catch (Cancelled ignored) {
+                // closed by the consumer
+            }
+        }
+    }
+
+    private void put(Object o) {
+        try {
+            pages.put(o);
+        } catch (InterruptedException e) {
+            throw new Cancelled();
+        }
+    }
+
+    private Object take() {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for candles", e);
+        }
+    }
+}
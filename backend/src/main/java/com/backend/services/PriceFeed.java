@@ -0,0 +1,158 @@
+package com.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Latest prices for any number of consumers. The first request opens a window of windowMs; every symbol
+ * asked for until it closes is fetched in the same /api/v3/ticker/price?symbols=[...] call, and each
+ * caller picks its own prices out of the shared answer. However many symbols are tracked, a tick costs
+ * one request. The window delays every tick by windowMs, so it is off (0) unless several sessions or
+ * symbols poll together; without it each request goes out at once.
+ */
+@Component
+public class PriceFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceFeed.class);
+
+    // Binance request weights: one symbol, or a symbols list of any length
+    static final int SYMBOL_WEIGHT = 2;
+    static final int SYMBOLS_WEIGHT = 4;
+
+    private static final class Batch {
+        private final Set<String> symbols = new LinkedHashSet<>();
+        private final CompletableFuture<Map<String, BigDecimal>> prices = new CompletableFuture<>();
+    }
+
+    private final BinanceGateway gateway;
+    private final long windowMs;
+
+    // The batch still collecting symbols, guarded by this
+    private Batch open;
+
+    public PriceFeed(BinanceGateway gateway, @Value("${bot.prices.window-ms:0}") long windowMs) {
+        if (windowMs < 0) throw new IllegalArgumentException("windowMs cannot be negative");
+        this.gateway = gateway;
+        this.windowMs = windowMs;
+    }
+
+    public BigDecimal price(String symbol) {
+        return prices(List.of(symbol)).get(symbol);
+    }
+
+    // Prices of all the given symbols, from a single batch
+    public Map<String, BigDecimal> prices(Collection<String> symbols) {
+        if (symbols.isEmpty()) return Map.of();
+
+        Batch batch;
+        boolean leader = false;
+        synchronized (this) {
+            if (open == null) {
+                open = new Batch();
+                leader = true;
+            }
+            batch = open;
+            batch.symbols.addAll(symbols);
+        }
+
+        if (leader) fetch(batch);
+
+        Map<String, BigDecimal> all = await(batch.prices);
+        Map<String, BigDecimal> mine = new HashMap<>(symbols.size() * 2);
+        for (String s : symbols) {
+            BigDecimal price = all.get(s);
+            if (price == null) throw new IllegalStateException("No price for " + s);
+            mine.put(s, price);
+        }
+        return mine;
+    }
+
+    private void fetch(Batch batch) {
+        try {
+            if (windowMs > 0) Thread.sleep(windowMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                open = null;
+            }
+        }
+
+        try {
+            batch.prices.complete(request(List.copyOf(batch.symbols)));
+        } catch (RuntimeException e) {
+            batch.prices.completeExceptionally(e);
+        }
+    }
+
+    private Map<String, BigDecimal> request(List<String> symbols) {
+        if (symbols.size() == 1) return Map.of(symbols.get(0), single(symbols.get(0)));
+
+        MarketDataService.PriceResponse[] res;
+        try {
+            res = gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbols", symbolsParam(symbols)),
+                    SYMBOLS_WEIGHT, BinanceGateway.Priority.LIVE, MarketDataService.PriceResponse[].class);
+        } catch (RestClientResponseException e) {
+            // One unknown symbol fails the whole list; ask one by one so it fails only its own caller
+            if (e.getStatusCode().value() != 400) throw e;
+            log.warn("Batched price request for {} rejected, fetching symbols one by one", symbols);
+            return oneByOne(symbols);
+        }
+        if (res == null) throw new IllegalStateException("No price response");
+
+        Map<String, BigDecimal> prices = new HashMap<>(res.length * 2);
+        for (var p : res) prices.put(p.symbol(), new BigDecimal(p.price()));
+        return prices;
+    }
+
+    private Map<String, BigDecimal> oneByOne(List<String> symbols) {
+        Map<String, BigDecimal> prices = new HashMap<>(symbols.size() * 2);
+        for (String s : symbols) {
+            try {
+                prices.put(s, single(s));
+            } catch (RestClientResponseException e) {
+                log.warn("No price for {}: {}", s, e.getStatusCode());
+            }
+        }
+        return prices;
+    }
+
+    private BigDecimal single(String symbol) {
+        var res = gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbol", symbol),
+                SYMBOL_WEIGHT, BinanceGateway.Priority.LIVE, MarketDataService.PriceResponse.class);
+        if (res == null) throw new IllegalStateException("No price response");
+        return new BigDecimal(res.price());
+    }
+
+    // ["BTCUSDT","ETHUSDT"], as Binance expects it
+    static String symbolsParam(List<String> symbols) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < symbols.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(symbols.get(i)).append('"');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static Map<String, BigDecimal> await(CompletableFuture<Map<String, BigDecimal>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
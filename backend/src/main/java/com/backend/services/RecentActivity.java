@@ -0,0 +1,188 @@
+package com.backend.services;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through view of trades and snapshots that keeps a bounded tail of the newest rows per (account, mode, symbol)
+ * in memory. BotEngine reports every row it writes, so dashboard refreshes of a running session are
+ * answered from the tail; reads reaching further back go to the repositories.
+ * A tail is known once the engine clears it, or after a repository read that nothing raced.
+ */
+@Component
+public class RecentActivity {
+
+    private record Key(long accountId, String mode, String symbol) {}
+
+    private final TradeRepository trades;
+    private final SnapshotRepository snapshots;
+    private final int tradeCapacity;
+    private final int snapshotCapacity;
+
+    private final Map<Key, RecentRows<TradeDTO>> recentTrades = new ConcurrentHashMap<>();
+    private final Map<Key, RecentRows<SnapshotDTO>> recentSnapshots = new ConcurrentHashMap<>();
+    private final Map<Key, RunningStats> tradeStats = new ConcurrentHashMap<>();
+
+    public RecentActivity(TradeRepository trades, SnapshotRepository snapshots,
+                          @Value("${bot.recent.trades:1000}") int tradeCapacity,
+                          @Value("${bot.recent.snapshots:5000}") int snapshotCapacity) {
+        this.trades = trades;
+        this.snapshots = snapshots;
+        this.tradeCapacity = tradeCapacity;
+        this.snapshotCapacity = snapshotCapacity;
+    }
+
+    // Same contract as TradeRepository.listTrades: newest first
+    public List<TradeDTO> trades(long accountId, String mode, String symbol, int limit) {
+        if (limit <= 0) return trades.listTrades(accountId, mode, symbol, limit);
+        RecentRows<TradeDTO> tail = tradesOf(accountId, mode, symbol);
+        List<TradeDTO> hit = tail.newest(limit);
+        if (hit != null) return hit;
+
+        long writes = tail.writes();
+        List<TradeDTO> rows = trades.listTrades(accountId, mode, symbol, limit);
+        tail.seedNewest(rows, limit, writes);
+        return rows;
+    }
+
+    // Same contract as SnapshotRepository.list: oldest first
+    public List<SnapshotDTO> snapshots(long accountId, String mode, String symbol, int limit) {
+        if (limit <= 0) return snapshots.list(accountId, mode, symbol, limit);
+        RecentRows<SnapshotDTO> tail = snapshotsOf(accountId, mode, symbol);
+        List<SnapshotDTO> hit = tail.oldest(limit);
+        if (hit != null) return hit;
+
+        long writes = tail.writes();
+        List<SnapshotDTO> rows = snapshots.list(accountId, mode, symbol, limit);
+        tail.seedOldest(rows, limit, writes);
+        return rows;
+    }
+
+    // The newest snapshot, or null when there is none
+    public SnapshotDTO latestSnapshot(long accountId, String mode, String symbol) {
+        RecentRows<SnapshotDTO> tail = snapshotsOf(accountId, mode, symbol);
+        List<SnapshotDTO> hit = tail.newest(1);
+        if (hit != null) return hit.isEmpty() ? null : hit.get(0);
+
+        // Two rows, so the newest survives the seed dropping rows tied with the oldest one
+        long writes = tail.writes();
+        List<SnapshotDTO> rows = snapshots.listNewest(accountId, mode, symbol, 2);
+        tail.seedNewest(rows, 2, writes);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // Same contract as TradeRepository.stats; kept up to date in memory once read
+    public TradeStatsDTO tradeStats(long accountId, String mode, String symbol) {
+        RunningStats stats = statsOf(accountId, mode, symbol);
+        TradeStatsDTO hit = stats.get();
+        if (hit != null) return hit;
+
+        long writes = stats.writes();
+        TradeStatsDTO loaded = trades.stats(accountId, mode, symbol);
+        stats.seed(loaded, writes);
+        return loaded;
+    }
+
+    // Called after the row is stored
+
+    public void trade(long accountId, TradeDTO trade) {
+        tradesOf(accountId, trade.mode(), trade.symbol()).add(trade);
+        statsOf(accountId, trade.mode(), trade.symbol()).add(trade);
+    }
+
+    public void snapshot(long accountId, SnapshotDTO snapshot) {
+        snapshotsOf(accountId, snapshot.mode(), snapshot.symbol()).add(snapshot);
+    }
+
+    // Called after the account's rows of the pair were deleted
+    public void cleared(long accountId, String mode, String symbol) {
+        tradesOf(accountId, mode, symbol).clear();
+        snapshotsOf(accountId, mode, symbol).clear();
+        statsOf(accountId, mode, symbol).clear();
+    }
+
+    // Called after some of the account's rows of the pair were deleted
+    public void forget(long accountId, String mode, String symbol) {
+        tradesOf(accountId, mode, symbol).forget();
+        snapshotsOf(accountId, mode, symbol).forget();
+        statsOf(accountId, mode, symbol).forget();
+    }
+
+    private RecentRows<TradeDTO> tradesOf(long accountId, String mode, String symbol) {
+        return recentTrades.computeIfAbsent(new Key(accountId, mode, symbol), k -> new RecentRows<>(tradeCapacity, TradeDTO::purchasedAt, TradeDTO::id, t -> t.withId(0)));
+    }
+
+    private RecentRows<SnapshotDTO> snapshotsOf(long accountId, String mode, String symbol) {
+        return recentSnapshots.computeIfAbsent(new Key(accountId, mode, symbol), k -> new RecentRows<>(snapshotCapacity, SnapshotDTO::purchasedAt, SnapshotDTO::id, s -> s.withId(0)));
+    }
+
+    private RunningStats statsOf(long accountId, String mode, String symbol) {
+        return tradeStats.computeIfAbsent(new Key(accountId, mode, symbol), k -> new RunningStats());
+    }
+
+    // Trade totals of one pair; like RecentRows, unknown until cleared by the engine or seeded from a query
+    private static final class RunningStats {
+        private boolean known = false;
+        private long writes = 0;
+
+        private long count = 0;
+        private long wins = 0;
+        private long losses = 0;
+        private BigDecimal realized = BigDecimal.ZERO;
+        private BigDecimal fees = BigDecimal.ZERO;
+
+        synchronized long writes() {
+            return writes;
+        }
+
+        synchronized TradeStatsDTO get() {
+            return known ? new TradeStatsDTO(count, wins, losses, realized, fees) : null;
+        }
+
+        synchronized void add(TradeDTO t) {
+            writes++;
+            if (!known) return;
+            count++;
+            if (t.realizedPnl() != null) {
+                if (t.realizedPnl().signum() > 0) wins++;
+                if (t.realizedPnl().signum() < 0) losses++;
+                realized = realized.add(t.realizedPnl());
+            }
+            if (t.fee() != null) fees = fees.add(t.fee());
+        }
+
+        synchronized void forget() {
+            writes++;
+            known = false;
+        }
+
+        synchronized void clear() {
+            writes++;
+            known = true;
+            count = wins = losses = 0;
+            realized = BigDecimal.ZERO;
+            fees = BigDecimal.ZERO;
+        }
+
+        // Thrown away when a trade was reported while the query ran
+        synchronized void seed(TradeStatsDTO s, long writesBefore) {
+            if (known || writes != writesBefore) return;
+            known = true;
+            count = s.tradeCount();
+            wins = s.winningTrades();
+            losses = s.losingTrades();
+            realized = s.realizedPnl();
+            fees = s.fees();
+        }
+    }
+}
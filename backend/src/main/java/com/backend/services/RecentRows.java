@@ -0,0 +1,138 @@
+package com.backend.services;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+// The newest rows of one (mode, symbol), in timestamp order. Once known, the tail holds every stored row
+// newer than coveredAfter - or every stored row at all while it is complete.
+final class RecentRows<T> {
+
+    private final int capacity;
+    private final Function<T, OffsetDateTime> ts;
+    // 0 when the row's id is unknown: it came back from a batch insert, or from the ledger journal
+    private final ToLongFunction<T> id;
+    // The row with id 0, to compare rows whatever their ids
+    private final UnaryOperator<T> unnumbered;
+    private final ArrayDeque<T> rows = new ArrayDeque<>();
+
+    // Unknown until cleared by the engine or seeded from a query
+    private boolean known = false;
+    private boolean complete = false;
+    private OffsetDateTime coveredAfter;
+
+    // Bumped by every write, so a seed that raced one is thrown away
+    private long writes = 0;
+
+    RecentRows(int capacity, Function<T, OffsetDateTime> ts, ToLongFunction<T> id, UnaryOperator<T> unnumbered) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.ts = ts;
+        this.id = id;
+        this.unnumbered = unnumbered;
+    }
+
+    synchronized long writes() {
+        return writes;
+    }
+
+    synchronized void add(T row) {
+        writes++;
+        if (!known) return;
+        OffsetDateTime t = ts.apply(row);
+        // Older than the tail reaches: the repository has it, the tail does not need it
+        if (!complete && !t.isAfter(coveredAfter)) return;
+
+        // Rows almost always arrive in time order, so this is an append; equal timestamps keep insertion order
+        List<T> newer = new ArrayList<>();
+        while (!rows.isEmpty() && ts.apply(rows.peekLast()).isAfter(t)) newer.add(rows.pollLast());
+        if (!holdsTie(row, t)) rows.addLast(row);
+        for (int i = newer.size() - 1; i >= 0; i--) rows.addLast(newer.get(i));
+
+        while (rows.size() > capacity) evictOldest();
+    }
+
+    // The repository rows are gone too: nothing exists that the tail does not hold
+    synchronized void clear() {
+        writes++;
+        rows.clear();
+        known = true;
+        complete = true;
+        coveredAfter = null;
+    }
+
+    // Some repository rows are gone: unknown again until seeded from a query
+    synchronized void forget() {
+        writes++;
+        rows.clear();
+        known = false;
+        complete = false;
+        coveredAfter = null;
+    }
+
+    // Newest first, or null when rows the tail does not hold could be among them
+    synchronized List<T> newest(int limit) {
+        if (!known || (!complete && rows.size() < limit)) return null;
+        List<T> out = new ArrayList<>(Math.min(limit, rows.size()));
+        Iterator<T> it = rows.descendingIterator();
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    // Oldest first, which only a complete tail can answer
+    synchronized List<T> oldest(int limit) {
+        if (!known || !complete) return null;
+        List<T> out = new ArrayList<>(Math.min(limit, rows.size()));
+        Iterator<T> it = rows.iterator();
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
+    }
+
+    // Seeds an unknown tail from the repository's newest rows (newest first), read after writes() returned writesBefore
+    synchronized void seedNewest(List<T> newestFirst, int limit, long writesBefore) {
+        if (known || writes != writesBefore) return;
+        int keep = Math.min(newestFirst.size(), capacity);
+        for (int i = keep - 1; i >= 0; i--) rows.addLast(newestFirst.get(i));
+        known = true;
+        complete = newestFirst.size() < limit && keep == newestFirst.size();
+        if (!complete && !rows.isEmpty()) {
+            // Rows tied with the oldest one kept may have been cut off by the limit
+            coveredAfter = ts.apply(rows.peekFirst());
+            while (!rows.isEmpty() && !ts.apply(rows.peekFirst()).isAfter(coveredAfter)) rows.pollFirst();
+        }
+    }
+
+    // Seeds an unknown tail from the repository's oldest rows (oldest first), but only from a complete answer
+    synchronized void seedOldest(List<T> oldestFirst, int limit, long writesBefore) {
+        if (known || writes != writesBefore) return;
+        if (oldestFirst.size() >= limit || oldestFirst.size() > capacity) return;
+        rows.addAll(oldestFirst);
+        known = true;
+        complete = true;
+    }
+
+    // A seed read just after the row was stored may hold it already, with its id where the row has none
+    private boolean holdsTie(T row, OffsetDateTime t) {
+        Iterator<T> it = rows.descendingIterator();
+        while (it.hasNext()) {
+            T r = it.next();
+            if (ts.apply(r).isBefore(t)) return false;
+            long a = id.applyAsLong(r), b = id.applyAsLong(row);
+            if (a != 0 && b != 0 ? a == b : unnumbered.apply(r).equals(unnumbered.apply(row))) return true;
+        }
+        return false;
+    }
+
+    private void evictOldest() {
+        OffsetDateTime t = ts.apply(rows.pollFirst());
+        // Evict ties too, so everything left is strictly newer than coveredAfter
+        while (!rows.isEmpty() && !ts.apply(rows.peekFirst()).isAfter(t)) rows.pollFirst();
+        complete = false;
+        coveredAfter = t;
+    }
+}
@@ -0,0 +1,36 @@
+package com.backend.services;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+// Clock that only moves when told to, so replays see recorded time instead of wall time
+public class ReplayClock extends Clock {
+
+    private volatile Instant now;
+
+    public ReplayClock(Instant start) {
+        this.now = start;
+    }
+
+    public void set(Instant instant) {
+        this.now = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        if (ZoneOffset.UTC.equals(zone)) return this;
+        throw new UnsupportedOperationException("ReplayClock is UTC only");
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+}
@@ -0,0 +1,94 @@
+package com.backend.services;
+
+import com.backend.repository.AccountRepository;
+import com.backend.repository.BacktestCheckpointRepository;
+import com.backend.repository.IndicatorStateRepository;
+import com.backend.repository.LedgerRepository;
+import com.backend.repository.PositionRepository;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Replays a tick journal through a private engine instance: run with --spring.profiles.active=replay --bot.replay.file=...
+// Replayed trades and snapshots go through the configured repositories, so combine it with the
+// "inmemory" profile (or point it at a scratch database).
+@Component
+@Profile("replay")
+public class ReplayRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private final AccountRepository accounts;
+    private final PositionRepository positions;
+    private final TradeRepository trades;
+    private final SnapshotRepository snapshots;
+    private final LedgerRepository ledger;
+    private final IndicatorStateRepository indicatorStates;
+    private final BacktestCheckpointRepository checkpoints;
+    private final MarketDataService market;
+    private final BacktestResultCache backtestResults;
+    private final IndicatorSeriesCache indicatorSeries;
+    private final RecentActivity recent;
+    private final double minBuyImbalance;
+    private final ConfigurableApplicationContext context;
+    private final String file;
+
+    public ReplayRunner(AccountRepository accounts,
+                        PositionRepository positions,
+                        TradeRepository trades,
+                        SnapshotRepository snapshots,
+                        LedgerRepository ledger,
+                        IndicatorStateRepository indicatorStates,
+                        BacktestCheckpointRepository checkpoints,
+                        MarketDataService market,
+                        BacktestResultCache backtestResults,
+                        IndicatorSeriesCache indicatorSeries,
+                        RecentActivity recent,
+                        @Value("${bot.depth.min-buy-imbalance:-1}") double minBuyImbalance,
+                        ConfigurableApplicationContext context,
+                        @Value("${bot.replay.file}") String file) {
+        this.accounts = accounts;
+        this.positions = positions;
+        this.trades = trades;
+        this.snapshots = snapshots;
+        this.ledger = ledger;
+        this.indicatorStates = indicatorStates;
+        this.checkpoints = checkpoints;
+        this.market = market;
+        this.backtestResults = backtestResults;
+        this.indicatorSeries = indicatorSeries;
+        this.recent = recent;
+        this.minBuyImbalance = minBuyImbalance;
+        this.context = context;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        var replayer = new TickReplayer(clock ->
+                new BotEngine(accounts, positions, trades, snapshots, ledger, indicatorStates, checkpoints, market, backtestResults, indicatorSeries, recent, minBuyImbalance, clock));
+
+        var report = replayer.replay(Path.of(file));
+
+        log.info("Replayed {} ticks at {} ticks/s: {} recorded fills, {} replayed fills, {} mismatches",
+                report.ticks(), String.format("%.0f", report.ticksPerSecond()),
+                report.recordedFills(), report.replayedFills(), report.mismatches());
+        if (!report.matches()) {
+            log.error("Replay diverged from the recording, first mismatch at {}", report.firstMismatch());
+        }
+
+        // The scheduler would otherwise keep the JVM alive
+        int exitCode = report.matches() ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+}
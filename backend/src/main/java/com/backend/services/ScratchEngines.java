@@ -0,0 +1,124 @@
+package com.backend.services;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import com.backend.repository.AccountLocks;
+import com.backend.repository.BacktestCheckpointRepository;
+import com.backend.repository.InMemoryAccountRepository;
+import com.backend.repository.InMemoryBacktestCheckpointRepository;
+import com.backend.repository.InMemoryIndicatorStateRepository;
+import com.backend.repository.InMemoryLedgerRepository;
+import com.backend.repository.InMemoryPositionRepository;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Engines over throwaway in-memory stores, outside the application context: whatever they trade stays
+// in the engine, away from this node's ledger and live session. Only the summary is wanted, so trade and
+// snapshot rows are dropped as they are written and a run of any length holds no more than its indicators.
+final class ScratchEngines {
+
+    private ScratchEngines() {
+    }
+
+    static BotEngine create(MarketDataService market, BacktestResultCache backtestResults,
+                            IndicatorSeriesCache indicatorSeries, Clock clock) {
+        return create(new DiscardedTrades(), new DiscardedSnapshots(), new InMemoryBacktestCheckpointRepository(),
+                market, backtestResults, indicatorSeries, clock);
+    }
+
+    // The one place an in-memory engine is wired; tests pass the stores they want to look into.
+    static BotEngine create(TradeRepository trades, SnapshotRepository snapshots,
+                            BacktestCheckpointRepository checkpoints, MarketDataService market,
+                            BacktestResultCache backtestResults, IndicatorSeriesCache indicatorSeries, Clock clock) {
+        var accounts = new InMemoryAccountRepository();
+        var positions = new InMemoryPositionRepository();
+        return new BotEngine(accounts, positions, trades, snapshots,
+                new InMemoryLedgerRepository(accounts, positions, trades, snapshots, new AccountLocks(1)),
+                new InMemoryIndicatorStateRepository(clock), checkpoints, market,
+                backtestResults, indicatorSeries, new RecentActivity(trades, snapshots, 1, 1),
+                TradingStrategy.NO_MIN_BUY_IMBALANCE, clock);
+    }
+
+    private static final class DiscardedTrades implements TradeRepository {
+
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public long insertTrade(long accountId, String mode, String symbol, String transaction_type,
+                                BigDecimal qty, BigDecimal price, BigDecimal fee, BigDecimal realizedPnl,
+                                OffsetDateTime purchasedAt) {
+            return ids.incrementAndGet();
+        }
+
+        @Override
+        public void insertTrades(long accountId, List<TradeDTO> rows) {
+        }
+
+        @Override
+        public List<TradeDTO> listTrades(long accountId, String mode, String symbol, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public TradeStatsDTO stats(long accountId, String mode, String symbol) {
+            return new TradeStatsDTO(0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+        }
+
+        @Override
+        public void forEachTrade(long accountId, String mode, String symbol, Consumer<TradeDTO> sink) {
+        }
+
+        @Override
+        public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        }
+
+        @Override
+        public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        }
+    }
+
+    private static final class DiscardedSnapshots implements SnapshotRepository {
+
+        private final AtomicLong ids = new AtomicLong();
+
+        @Override
+        public long insertSnapshot(long accountId, String mode, String symbol, OffsetDateTime purchased_at,
+                                   BigDecimal cash, BigDecimal posQty, BigDecimal posValue, BigDecimal total) {
+            return ids.incrementAndGet();
+        }
+
+        @Override
+        public void insertSnapshots(long accountId, List<SnapshotDTO> rows) {
+        }
+
+        @Override
+        public List<SnapshotDTO> list(long accountId, String mode, String symbol, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public List<SnapshotDTO> listNewest(long accountId, String mode, String symbol, int limit) {
+            return List.of();
+        }
+
+        @Override
+        public void forEach(long accountId, String mode, String symbol, Consumer<SnapshotDTO> sink) {
+        }
+
+        @Override
+        public void deleteByModeAndSymbol(long accountId, String mode, String symbol) {
+        }
+
+        @Override
+        public void deleteAfter(long accountId, String mode, String symbol, OffsetDateTime after) {
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.backend.services;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single-producer/single-consumer queue over a preallocated array, after the LMAX Disruptor
+ * ring buffer: each side owns one sequence and only reads the other's, so there are no locks or CAS.
+ * Exactly one thread may offer/put and exactly one may drain/await at a time.
+ */
+final class SpscRing<E> {
+
+    // Producer backoff while the ring is full: spin briefly, then park this long per retry
+    private static final int FULL_SPINS = 100;
+    private static final long FULL_PARK_NANOS = 50_000;
+
+    // Consumer sees each batch through this; the event is the last one of the batch when endOfBatch
+    interface Handler<E> {
+        void onEvent(E event, boolean endOfBatch);
+    }
+
+    // Sequences are padded onto their own cache lines so the two sides do not false-share
+    @SuppressWarnings("unused")
+    private static class LeftPad {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    private static class Value extends LeftPad {
+        // Owner's next slot
+        volatile long value;
+        // Owner's last read of the other side's sequence; only re-read when it looks full/empty
+        long cached;
+    }
+
+    @SuppressWarnings("unused")
+    private static final class Sequence extends Value {
+        long q1, q2, q3, q4, q5, q6, q7;
+    }
+
+    private final Object[] slots;
+    private final int mask;
+    private final Sequence tail = new Sequence();
+    private final Sequence head = new Sequence();
+
+    private volatile Thread waitingConsumer;
+
+    // Written by the producer only
+    private volatile long stalls;
+
+    SpscRing(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) throw new IllegalArgumentException("capacity must be in [2, 2^30]");
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    // Approximate when read by neither side
+    int size() {
+        return (int) Math.max(0, tail.value - head.value);
+    }
+
+    // Times the producer found the ring full and had to wait
+    long stalls() {
+        return stalls;
+    }
+
+    // Producer: false when full
+    boolean offer(E e) {
+        long t = tail.value;
+        if (t - tail.cached >= slots.length) {
+            tail.cached = head.value;
+            if (t - tail.cached >= slots.length) return false;
+        }
+        slots[(int) t & mask] = e;
+        tail.value = t + 1;
+
+        Thread waiter = waitingConsumer;
+        if (waiter != null) LockSupport.unpark(waiter);
+        return true;
+    }
+
+    // Producer: waits for room, so a slow consumer slows the producer down instead of losing events
+    void put(E e) {
+        if (offer(e)) return;
+        stalls++;
+        int spins = 0;
+        while (!offer(e)) {
+            if (spins < FULL_SPINS) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new IllegalStateException("Interrupted while waiting for room in the ring");
+            }
+        }
+    }
+
+    // Consumer: hands up to max queued events to the handler, which must not throw; returns how many.
+    // Their slots are released to the producer once the whole batch has been handled.
+    @SuppressWarnings("unchecked")
+    int drain(Handler<E> handler, int max) {
+        long h = head.value;
+        long available = head.cached - h;
+        if (available <= 0) {
+            head.cached = tail.value;
+            available = head.cached - h;
+            if (available <= 0) return 0;
+        }
+
+        int n = (int) Math.min(available, max);
+        for (int i = 0; i < n; i++) {
+            int slot = (int) (h + i) & mask;
+            E e = (E) slots[slot];
+            slots[slot] = null;
+            handler.onEvent(e, i == n - 1);
+        }
+        head.value = h + n;
+        return n;
+    }
+
+    // Consumer: parks until an event is queued or maxNanos pass
+    void await(long maxNanos) {
+        waitingConsumer = Thread.currentThread();
+        // The producer publishes before it checks for a waiter, so one of us sees the other
+        if (tail.value == head.value) LockSupport.parkNanos(this, maxNanos);
+        waitingConsumer = null;
+    }
+}
@@ -0,0 +1,337 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Synthetic prices for the "exchange" profile, a local stand-in for Binance. Each symbol follows a
+ * geometric Brownian motion with Poisson-timed lognormal jumps (Merton jump diffusion), updated
+ * `updates-per-second` times a second. Trades are kept as 1s candles for `history-seconds`, from which
+ * klines of any interval are built; the history is back-filled at start so warm-ups find candles.
+ */
+@Component
+@Profile("exchange")
+public class SyntheticMarket implements SmartLifecycle {
+
+    private static final double SECONDS_PER_YEAR = 365.0 * 24 * 3600;
+    private static final long SECOND_MS = 1000;
+    private static final long WEEK_ANCHOR_MS = Duration.ofDays(4).toMillis();
+
+    // Called on the generator thread
+    public interface Listener {
+        void onTrade(String symbol, long tradeId, long timeMs, BigDecimal price, BigDecimal quantity);
+
+        // The 1s candle opened at secondMs is complete
+        void onSecond(String symbol, long secondMs);
+    }
+
+    private final Clock clock;
+    private final int updatesPerSecond;
+    private final int historySeconds;
+    private final double drift;
+    private final double volatility;
+    private final double jumpsPerSecond;
+    private final double jumpMean;
+    private final double jumpStdev;
+
+    private final Map<String, PricePath> paths = new LinkedHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = false;
+    private Thread generator;
+
+    public SyntheticMarket(Clock clock,
+                           @Value("${bot.exchange.symbols:BTCUSDT,ETHUSDT}") List<String> symbols,
+                           @Value("${bot.exchange.start-price:100}") double startPrice,
+                           @Value("${bot.exchange.updates-per-second:10}") int updatesPerSecond,
+                           @Value("${bot.exchange.history-seconds:172800}") int historySeconds,
+                           @Value("${bot.exchange.drift:0}") double drift,
+                           @Value("${bot.exchange.volatility:0.8}") double volatility,
+                           @Value("${bot.exchange.jumps-per-hour:6}") double jumpsPerHour,
+                           @Value("${bot.exchange.jump-mean:0}") double jumpMean,
+                           @Value("${bot.exchange.jump-stdev:0.01}") double jumpStdev,
+                           @Value("${bot.exchange.seed:42}") long seed) {
+        if (updatesPerSecond < 1) throw new IllegalArgumentException("updates-per-second must be positive");
+        if (historySeconds < 1) throw new IllegalArgumentException("history-seconds must be positive");
+        if (startPrice <= 0) throw new IllegalArgumentException("start-price must be positive");
+        this.clock = clock;
+        this.updatesPerSecond = updatesPerSecond;
+        this.historySeconds = historySeconds;
+        this.drift = drift;
+        this.volatility = volatility;
+        this.jumpsPerSecond = jumpsPerHour / 3600;
+        this.jumpMean = jumpMean;
+        this.jumpStdev = jumpStdev;
+
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (String s : symbols) {
+            String symbol = s.trim().toUpperCase();
+            if (!symbol.isEmpty()) paths.put(symbol, new PricePath(symbol, startPrice, historySeconds + 1, seeds.split()));
+        }
+        backfill(clock.millis());
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean hasSymbol(String symbol) {
+        return paths.containsKey(symbol);
+    }
+
+    public List<String> symbols() {
+        return List.copyOf(paths.keySet());
+    }
+
+    public BigDecimal price(String symbol) {
+        PricePath path = path(symbol);
+        synchronized (path) {
+            return decimal(path.price);
+        }
+    }
+
+    /**
+     * Binance klines semantics: with a start, the first `limit` candles opened in [startMs, endMs];
+     * otherwise the newest `limit` opened up to endMs (default now). The forming candle is included.
+     */
+    public List<Candles> klines(String symbol, String interval, Long startMs, Long endMs, int limit) {
+        long intervalMs = intervalMs(interval);
+        long anchor = "1w".equals(interval) ? WEEK_ANCHOR_MS : 0;
+        PricePath path = path(symbol);
+        long now = clock.millis();
+
+        synchronized (path) {
+            long first = path.oldestSecond();
+            long last = Math.min(path.second, endMs == null ? now : endMs);
+            if (last < first) return List.of();
+
+            long firstOpen = floor(Math.max(first, startMs == null ? first : startMs), intervalMs, anchor);
+            if (startMs != null && firstOpen < startMs) firstOpen += intervalMs;
+            long lastOpen = floor(last, intervalMs, anchor);
+
+            if (startMs == null) firstOpen = Math.max(firstOpen, lastOpen - (long) (limit - 1) * intervalMs);
+            List<Candles> out = new ArrayList<>();
+            for (long open = firstOpen; open <= lastOpen && out.size() < limit; open += intervalMs) {
+                Candles c = path.aggregate(Math.max(open, first), Math.min(open + intervalMs, path.second + SECOND_MS), open);
+                if (c != null) out.add(c);
+            }
+            return out;
+        }
+    }
+
+    // The candle of `interval` containing atMs, as it stands
+    public Candles kline(String symbol, String interval, long atMs) {
+        List<Candles> one = klines(symbol, interval, null, atMs, 1);
+        return one.isEmpty() ? null : one.get(0);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        generator = new Thread(this::run, "exchange-sim");
+        generator.setDaemon(true);
+        generator.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (generator == null) return;
+        LockSupport.unpark(generator);
+        try {
+            generator.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        generator = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        long last = System.nanoTime();
+        double owed = 0;
+        while (running) {
+            LockSupport.parkNanos(1_000_000);
+            long now = System.nanoTime();
+            owed += (now - last) * (double) updatesPerSecond / 1e9;
+            last = now;
+            // After a stall, catch up at most one second's worth
+            if (owed > updatesPerSecond) owed = updatesPerSecond;
+            int n = (int) owed;
+            if (n == 0) continue;
+            owed -= n;
+            generate(clock.millis(), n);
+        }
+    }
+
+    // n updates of every symbol, stamped timeMs
+    void generate(long timeMs, int n) {
+        double dt = 1.0 / updatesPerSecond;
+        for (PricePath path : paths.values()) {
+            long closedSecond = -1;
+            long[] ids = new long[n];
+            double[] prices = new double[n];
+            double[] quantities = new double[n];
+            synchronized (path) {
+                long second = timeMs - Math.floorMod(timeMs, SECOND_MS);
+                if (second > path.second) {
+                    closedSecond = path.second;
+                    path.roll(second);
+                }
+                for (int i = 0; i < n; i++) {
+                    path.step(dt);
+                    ids[i] = path.tradeId;
+                    prices[i] = path.price;
+                    quantities[i] = path.lastQuantity;
+                }
+            }
+            for (Listener l : listeners) {
+                if (closedSecond >= 0) l.onSecond(path.symbol, closedSecond);
+                for (int i = 0; i < n; i++) {
+                    l.onTrade(path.symbol, ids[i], timeMs, decimal(prices[i]), decimal(quantities[i]));
+                }
+            }
+        }
+    }
+
+    // One step per second of history, ending with the second before nowMs
+    void backfill(long nowMs) {
+        long current = nowMs - Math.floorMod(nowMs, SECOND_MS);
+        for (PricePath path : paths.values()) {
+            synchronized (path) {
+                path.second = current - (long) historySeconds * SECOND_MS;
+                path.roll(path.second);
+                for (int i = 0; i < historySeconds; i++) {
+                    path.step(1.0);
+                    path.roll(path.second + SECOND_MS);
+                }
+            }
+        }
+    }
+
+    private PricePath path(String symbol) {
+        PricePath path = paths.get(symbol);
+        if (path == null) throw new IllegalArgumentException("Unknown symbol " + symbol);
+        return path;
+    }
+
+    public static long intervalMs(String interval) {
+        if ("1M".equals(interval)) throw new IllegalArgumentException("Monthly klines are not simulated");
+        return CandleIntervals.toMillis(interval);
+    }
+
+    private static long floor(long t, long intervalMs, long anchor) {
+        return t - Math.floorMod(t - anchor, intervalMs);
+    }
+
+    private static BigDecimal decimal(double v) {
+        return BigDecimal.valueOf(v).setScale(8, RoundingMode.HALF_UP);
+    }
+
+    // One symbol: its price process and a ring of 1s candles. Guarded by itself.
+    private final class PricePath {
+        private final String symbol;
+        private final SplittableRandom random;
+        private double price;
+        private long tradeId = 0;
+        private double lastQuantity;
+
+        // Open time of the forming second, and the ring its candle lives in
+        private long second;
+        private final long[] seconds;
+        private final double[] open;
+        private final double[] high;
+        private final double[] low;
+        private final double[] close;
+        private final double[] volume;
+
+        PricePath(String symbol, double startPrice, int capacity, SplittableRandom random) {
+            this.symbol = symbol;
+            this.random = random;
+            this.price = startPrice;
+            this.seconds = new long[capacity];
+            this.open = new double[capacity];
+            this.high = new double[capacity];
+            this.low = new double[capacity];
+            this.close = new double[capacity];
+            this.volume = new double[capacity];
+            Arrays.fill(seconds, Long.MIN_VALUE);
+        }
+
+        // Opens the candle of `next` at the current price
+        void roll(long next) {
+            second = next;
+            int i = slot(next);
+            seconds[i] = next;
+            open[i] = high[i] = low[i] = close[i] = price;
+            volume[i] = 0;
+        }
+
+        // Advances the price by dt seconds and books a trade at it
+        void step(double dt) {
+            double sigma = volatility / Math.sqrt(SECONDS_PER_YEAR);
+            double mu = drift / SECONDS_PER_YEAR;
+            double logReturn = (mu - sigma * sigma / 2) * dt + sigma * Math.sqrt(dt) * random.nextGaussian();
+            if (random.nextDouble() < jumpsPerSecond * dt) logReturn += jumpMean + jumpStdev * random.nextGaussian();
+            price *= Math.exp(logReturn);
+
+            tradeId++;
+            lastQuantity = -Math.log(1 - random.nextDouble()) * 0.01;
+            int i = slot(second);
+            high[i] = Math.max(high[i], price);
+            low[i] = Math.min(low[i], price);
+            close[i] = price;
+            volume[i] += lastQuantity;
+        }
+
+        long oldestSecond() {
+            return second - (long) (seconds.length - 1) * SECOND_MS;
+        }
+
+        // OHLCV of the 1s candles in [fromMs, toMs), labelled openMs; null if none are held
+        Candles aggregate(long fromMs, long toMs, long openMs) {
+            double o = 0, h = Double.NEGATIVE_INFINITY, l = Double.POSITIVE_INFINITY, c = 0, v = 0;
+            boolean any = false;
+            for (long s = fromMs - Math.floorMod(fromMs, SECOND_MS); s < toMs; s += SECOND_MS) {
+                int i = slot(s);
+                if (seconds[i] != s) continue;
+                if (!any) o = open[i];
+                any = true;
+                h = Math.max(h, high[i]);
+                l = Math.min(l, low[i]);
+                c = close[i];
+                v += volume[i];
+            }
+            if (!any) return null;
+            return new Candles(OffsetDateTime.ofInstant(Instant.ofEpochMilli(openMs), ZoneOffset.UTC),
+                    decimal(o), decimal(h), decimal(l), decimal(c), decimal(v));
+        }
+
+        private int slot(long secondMs) {
+            return (int) Math.floorMod(secondMs / SECOND_MS, (long) seconds.length);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.backend.services;
+
+import com.backend.dto.TradeDTO;
+import com.backend.models.Fill;
+import com.backend.models.IndicatorState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only binary journal of live ticks, one file per session.
+ * A file starts with a header (session, symbol, interval, balance, risk, stop loss and the
+ * indicator state the session started from) followed by one record per tick:
+ * flags, timestamp in epoch micros, price, the fill quantity when the tick traded and the order book
+ * imbalance when there was a book.
+ * Ticks are candle closes, plus intra-candle risk checks that traded (flagged as such).
+ */
+@Component
+public class TickJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(TickJournal.class);
+
+    private static final int MAGIC = 0x54434b4a; // "TCKJ"
+    // Version 2 added the stop loss to the header, version 3 the order book imbalance of candle closes;
+    // older files are still readable
+    private static final int VERSION = 3;
+
+    private static final byte NO_FILL = 0;
+    private static final byte BUY = 1;
+    private static final byte SELL = 2;
+    private static final byte SIDE_MASK = 0x0f;
+    private static final byte RISK_CHECK = 0x10;
+    private static final byte BOOK = 0x20;
+
+    // Marks a decimal whose unscaled value does not fit in a long
+    private static final byte WIDE_DECIMAL = Byte.MIN_VALUE;
+
+    private final Path dir;
+    private final boolean enabled;
+
+    private DataOutputStream out;
+    private long sessionId = -1;
+
+    // stopLossPct is null when the session ran without the intra-candle risk check
+    public record Header(long sessionId, String symbol, String interval,
+                         BigDecimal initialBalance, BigDecimal riskPct, BigDecimal stopLossPct, IndicatorState seed) {}
+
+    // imbalance is NaN when the tick had no order book
+    public record Entry(OffsetDateTime ts, BigDecimal price, Fill fill, boolean riskCheck, double imbalance) {}
+
+    public TickJournal(@Value("${bot.journal.dir:journal}") String dir,
+                       @Value("${bot.journal.enabled:true}") boolean enabled) {
+        this.dir = Path.of(dir);
+        this.enabled = enabled;
+    }
+
+    public synchronized long currentSession() {
+        return sessionId;
+    }
+
+    public synchronized void open(Header header) {
+        close();
+        sessionId = header.sessionId();
+        if (!enabled) return;
+        try {
+            Files.createDirectories(dir);
+            Path file = dir.resolve(header.sessionId() + "-" + header.symbol() + "-" + header.interval() + ".ticks");
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            writeHeader(out, header);
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Could not open tick journal for session {}, journaling disabled for it", sessionId, e);
+            out = null;
+        }
+    }
+
+    public void append(OffsetDateTime ts, BigDecimal price, TradeDTO trade) {
+        append(ts, price, trade, Double.NaN);
+    }
+
+    public void append(OffsetDateTime ts, BigDecimal price, TradeDTO trade, double imbalance) {
+        append(ts, price, trade, false, imbalance);
+    }
+
+    public void appendRiskCheck(OffsetDateTime ts, BigDecimal price, TradeDTO trade) {
+        append(ts, price, trade, true, Double.NaN);
+    }
+
+    private synchronized void append(OffsetDateTime ts, BigDecimal price, TradeDTO trade, boolean riskCheck, double imbalance) {
+        if (out == null) return;
+        try {
+            Fill fill = trade == null ? null : new Fill(trade.side(), trade.quantity(), trade.price(), trade.purchasedAt());
+            writeEntry(out, new Entry(ts, price, fill, riskCheck, imbalance));
+            out.flush();
+        } catch (IOException e) {
+            log.warn("Tick journal write failed for session {}, journaling disabled for it", sessionId, e);
+            close();
+        }
+    }
+
+    public synchronized void close() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Could not close tick journal for session {}", sessionId, e);
+        }
+        out = null;
+    }
+
+    public static Reader read(Path file) throws IOException {
+        return new Reader(new DataInputStream(new BufferedInputStream(Files.newInputStream(file))));
+    }
+
+    public static class Reader implements AutoCloseable {
+        private final DataInputStream in;
+        private final Header header;
+
+        private Reader(DataInputStream in) throws IOException {
+            this.in = in;
+            this.header = readHeader(in);
+        }
+
+        public Header header() {
+            return header;
+        }
+
+        // Next tick, or null at the end of the journal (a torn last record counts as the end)
+        public Entry next() throws IOException {
+            try {
+                return readEntry(in);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, Header h) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(h.sessionId());
+        out.writeUTF(h.symbol());
+        out.writeUTF(h.interval());
+        writeDecimal(out, h.initialBalance());
+        writeDecimal(out, h.riskPct());
+        writeNullableDecimal(out, h.stopLossPct());
+
+        List<BigDecimal> closes = h.seed().closes();
+        out.writeInt(closes.size());
+        for (BigDecimal c : closes) writeDecimal(out, c);
+        writeNullableDecimal(out, h.seed().prevFast());
+        writeNullableDecimal(out, h.seed().prevSlow());
+    }
+
+    private static Header readHeader(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a tick journal");
+        int version = in.readShort();
+        if (version < 1 || version > VERSION) throw new IOException("Unsupported tick journal version " + version);
+
+        long sessionId = in.readLong();
+        String symbol = in.readUTF();
+        String interval = in.readUTF();
+        BigDecimal initialBalance = readDecimal(in);
+        BigDecimal riskPct = readDecimal(in);
+        BigDecimal stopLossPct = version >= 2 ? readNullableDecimal(in) : null;
+
+        int n = in.readInt();
+        List<BigDecimal> closes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) closes.add(readDecimal(in));
+        BigDecimal prevFast = readNullableDecimal(in);
+        BigDecimal prevSlow = readNullableDecimal(in);
+
+        OffsetDateTime started = OffsetDateTime.ofInstant(Instant.ofEpochMilli(sessionId), ZoneOffset.UTC);
+        return new Header(sessionId, symbol, interval, initialBalance, riskPct, stopLossPct,
+                new IndicatorState(closes, prevFast, prevSlow, started));
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry e) throws IOException {
+        byte flags = e.fill() == null ? NO_FILL : "BUY".equals(e.fill().side()) ? BUY : SELL;
+        if (e.riskCheck()) flags |= RISK_CHECK;
+        if (!Double.isNaN(e.imbalance())) flags |= BOOK;
+        out.writeByte(flags);
+        out.writeLong(ChronoUnit.MICROS.between(Instant.EPOCH, e.ts().toInstant()));
+        writeDecimal(out, e.price());
+        if (e.fill() != null) writeDecimal(out, e.fill().quantity());
+        if ((flags & BOOK) != 0) out.writeDouble(e.imbalance());
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        byte flags = in.readByte();
+        long micros = in.readLong();
+        BigDecimal price = readDecimal(in);
+        OffsetDateTime ts = OffsetDateTime.ofInstant(Instant.EPOCH.plus(micros, ChronoUnit.MICROS), ZoneOffset.UTC);
+
+        byte side = (byte) (flags & SIDE_MASK);
+        Fill fill = null;
+        if (side != NO_FILL) {
+            BigDecimal quantity = readDecimal(in);
+            fill = new Fill(side == BUY ? "BUY" : "SELL", quantity, price, ts);
+        }
+        double imbalance = (flags & BOOK) != 0 ? in.readDouble() : Double.NaN;
+        return new Entry(ts, price, fill, (flags & RISK_CHECK) != 0, imbalance);
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal v) throws IOException {
+        BigInteger unscaled = v.unscaledValue();
+        if (unscaled.bitLength() < 64 && v.scale() > WIDE_DECIMAL && v.scale() <= Byte.MAX_VALUE) {
+            out.writeByte(v.scale());
+            out.writeLong(unscaled.longValue());
+        } else {
+            out.writeByte(WIDE_DECIMAL);
+            out.writeUTF(v.toString());
+        }
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        byte scale = in.readByte();
+        if (scale == WIDE_DECIMAL) return new BigDecimal(in.readUTF());
+        return BigDecimal.valueOf(in.readLong(), scale);
+    }
+
+    private static void writeNullableDecimal(DataOutputStream out, BigDecimal v) throws IOException {
+        out.writeBoolean(v != null);
+        if (v != null) writeDecimal(out, v);
+    }
+
+    private static BigDecimal readNullableDecimal(DataInputStream in) throws IOException {
+        return in.readBoolean() ? readDecimal(in) : null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.backend.services;
+
+import com.backend.dto.TradeDTO;
+import com.backend.models.Fill;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Drives BotEngine.processLiveTick from a recorded journal as fast as possible
+public class TickReplayer {
+
+    public record Report(long ticks, long recordedFills, long replayedFills, long mismatches,
+                         double ticksPerSecond, String firstMismatch) {
+
+        public boolean matches() {
+            return mismatches == 0;
+        }
+    }
+
+    private final Function<ReplayClock, BotEngine> engineFactory;
+
+    // The factory must build the engine on the given clock so it sees recorded time
+    public TickReplayer(Function<ReplayClock, BotEngine> engineFactory) {
+        this.engineFactory = engineFactory;
+    }
+
+    public Report replay(Path journalFile) throws IOException {
+        try (var reader = TickJournal.read(journalFile)) {
+            var header = reader.header();
+            ReplayClock clock = new ReplayClock(header.seed().updatedAt().toInstant());
+            BotEngine engine = engineFactory.apply(clock);
+            engine.startLive(header.symbol(), header.interval(), header.initialBalance(), header.seed());
+
+            long ticks = 0, recordedFills = 0, replayedFills = 0, mismatches = 0;
+            String firstMismatch = null;
+
+            long started = System.nanoTime();
+            TickJournal.Entry e;
+            while ((e = reader.next()) != null) {
+                clock.set(e.ts().toInstant());
+                TradeDTO replayed = e.riskCheck()
+                        ? engine.checkStopLoss(e.price(), e.ts(), header.stopLossPct())
+                        : engine.processLiveTick(e.price(), e.ts(), header.riskPct(), e.imbalance(), TickTrace.NONE);
+
+                ticks++;
+                if (e.fill() != null) recordedFills++;
+                if (replayed != null) replayedFills++;
+
+                if (!sameFill(e.fill(), replayed)) {
+                    mismatches++;
+                    if (firstMismatch == null) {
+                        firstMismatch = "tick " + ticks + " at " + e.ts() + ": recorded " + e.fill() + ", replayed " + replayed;
+                    }
+                }
+            }
+            long elapsedNs = Math.max(1, System.nanoTime() - started);
+            engine.stop();
+
+            return new Report(ticks, recordedFills, replayedFills, mismatches,
+                    ticks * 1_000_000_000.0 / elapsedNs, firstMismatch);
+        }
+    }
+
+    private static boolean sameFill(Fill recorded, TradeDTO replayed) {
+        if (recorded == null || replayed == null) return recorded == null && replayed == null;
+        return Objects.equals(recorded.side(), replayed.side())
+                && recorded.quantity().compareTo(replayed.quantity()) == 0
+                && recorded.price().compareTo(replayed.price()) == 0
+                && recorded.ts().isEqual(replayed.purchasedAt());
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.services;
+
+// Per-tick stage timings: each mark charges the time since the previous mark to that stage
+public class TickTrace {
+
+    public enum Stage { FETCH, INDICATORS, SIGNAL, LEDGER, PERSISTENCE }
+
+    // For callers that are not measured (replays, tests)
+    public static final TickTrace NONE = new TickTrace(false);
+
+    private final boolean enabled;
+    private final long startNanos;
+    private long lastNanos;
+    private final long[] stageNanos = new long[Stage.values().length];
+
+    private TickTrace(boolean enabled) {
+        this.enabled = enabled;
+        this.startNanos = enabled ? System.nanoTime() : 0;
+        this.lastNanos = startNanos;
+    }
+
+    public static TickTrace start() {
+        return new TickTrace(true);
+    }
+
+    public void mark(Stage stage) {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        stageNanos[stage.ordinal()] += now - lastNanos;
+        lastNanos = now;
+    }
+
+    public long nanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    // Start to last mark
+    public long totalNanos() {
+        return lastNanos - startNanos;
+    }
+}
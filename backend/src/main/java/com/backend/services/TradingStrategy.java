@@ -5,6 +5,10 @@ import java.math.RoundingMode;
 import java.util.List;
 
 public class TradingStrategy {
+
+    // Imbalance is never below -1, so this threshold lets every buy through
+    public static final double NO_MIN_BUY_IMBALANCE = -1.0;
+
     public static BigDecimal simpleMovingAverage(List<BigDecimal> values) {
         if (values.isEmpty()) return BigDecimal.ZERO;
         BigDecimal sum = BigDecimal.ZERO;
@@ -24,6 +28,11 @@ public class TradingStrategy {
             else losses = losses.add(diff.abs());
         }
 
+        return relativeStrengthIndex(gains, losses, period);
+    }
+
+    // From the summed gains and losses of the last `period` close-to-close moves
+    public static BigDecimal relativeStrengthIndex(BigDecimal gains, BigDecimal losses, int period) {
         BigDecimal avgGain = gains.divide(BigDecimal.valueOf(period), 8, RoundingMode.HALF_UP);
         BigDecimal avgLoss = losses.divide(BigDecimal.valueOf(period), 8, RoundingMode.HALF_UP);
 
@@ -35,4 +44,9 @@ public class TradingStrategy {
         );
         return relativeStrengthIndex;
     }
-}
\ No newline at end of file
+
+    // Whether resting depth supports a buy; NaN (no book) never stands in the way
+    public static boolean bookSupportsBuy(double imbalance, double minBuyImbalance) {
+        return Double.isNaN(imbalance) || imbalance >= minBuyImbalance;
+    }
+}
@@ -0,0 +1,23 @@
+package com.backend;
+
+import com.backend.repository.AccountRepository;
+import com.backend.repository.InMemoryAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest
+@ActiveProfiles("inmemory")
+class InMemoryProfileTests {
+
+    @Autowired
+    private AccountRepository accounts;
+
+    @Test
+    void contextLoadsWithoutDatabase() {
+        assertInstanceOf(InMemoryAccountRepository.class, accounts);
+    }
+}
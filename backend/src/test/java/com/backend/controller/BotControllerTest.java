@@ -1,9 +1,15 @@
 package com.backend.controller;
 
 import com.backend.dto.BotMode;
+import com.backend.dto.LatencyStatsDTO;
+import com.backend.dto.PipelineStageDTO;
 import com.backend.dto.StartBotRequest;
+import com.backend.repository.AccountRepository;
+import com.backend.services.AccountBusyException;
 import com.backend.services.BotEngine;
+import com.backend.services.LatencyTracker;
 import com.backend.services.LiveBotRunner;
+import com.backend.services.LivePipeline;
 import com.backend.services.MarketDataService;
 import com.backend.models.Candles;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +25,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,6 +42,15 @@ class BotControllerTest {
     @Mock
     private LiveBotRunner liveRunner;
 
+    @Mock
+    private LatencyTracker latency;
+
+    @Mock
+    private LivePipeline pipeline;
+
+    @Mock
+    private AccountRepository accounts;
+
     @InjectMocks
     private BotController controller;
 
@@ -48,14 +64,44 @@ class BotControllerTest {
 
     @Test
     void pauseShouldStopEngine() {
-        controller.pause();
+        controller.pause(null);
         verify(engine, times(1)).stop();
     }
 
+    @Test
+    void pauseOfAnAccountShouldStopOnlyItsSession() {
+        when(accounts.resolve(7L)).thenReturn(7L);
+        controller.pause(7L);
+        verify(engine).stop(7L);
+        verify(engine, never()).stop();
+    }
+
+    @Test
+    void startWhileAnotherAccountRunsShouldBeRefused() {
+        StartBotRequest req = mock(StartBotRequest.class);
+        when(req.mode()).thenReturn(BotMode.LIVE);
+        when(req.accountId()).thenReturn(7L);
+        when(accounts.resolve(7L)).thenReturn(7L);
+        when(engine.claim(7L)).thenThrow(new AccountBusyException(1L));
+
+        assertThrows(AccountBusyException.class, () -> controller.start(req));
+        verify(engine, never()).startLive(anyLong(), any(), any(), any());
+        verify(liveRunner, never()).start();
+        assertEquals(409, controller.conflict(new AccountBusyException(1L)).getStatusCode().value());
+    }
+
     @Test
     void resetShouldDelegateToEngine() {
-        controller.reset(BotMode.TRAIN, "BTCUSD");
-        verify(engine, times(1)).reset(BotMode.TRAIN, "BTCUSD");
+        when(accounts.resolve(null)).thenReturn(1L);
+        controller.reset(null, BotMode.TRAIN, "BTCUSD");
+        verify(engine, times(1)).reset(1L, BotMode.TRAIN, "BTCUSD");
+    }
+
+    @Test
+    void resetOfAnotherAccountShouldReachOnlyThatAccount() {
+        when(accounts.resolve(7L)).thenReturn(7L);
+        controller.reset(7L, BotMode.LIVE, "BTCUSD");
+        verify(engine).reset(7L, BotMode.LIVE, "BTCUSD");
     }
 
     @Test
@@ -64,6 +110,7 @@ class BotControllerTest {
         when(engine.getMode()).thenReturn(BotMode.LIVE);
         when(engine.getSymbol()).thenReturn("ETHUSD");
         when(engine.getInterval()).thenReturn("1m");
+        when(engine.getAccountId()).thenReturn(3L);
 
         var status = controller.status();
 
@@ -75,11 +122,28 @@ class BotControllerTest {
         assertEquals(BotMode.LIVE, status.mode());
         assertEquals("ETHUSD", status.symbol());
         assertEquals("1m", status.interval());
+        assertEquals(3L, status.accountId());
         assertTrue(status.running());
     }
 
     @Test
-    void startInTrainModeShouldFetchCandlesAndRunBacktest() {
+    void latencyShouldDelegateToTracker() {
+        Map<String, LatencyStatsDTO> stats = Map.of("TOTAL", new LatencyStatsDTO(3, 10, 20, 30, 40));
+        when(latency.snapshot()).thenReturn(stats);
+
+        assertSame(stats, controller.latency());
+    }
+
+    @Test
+    void pipelineShouldDelegateToStageStats() {
+        List<PipelineStageDTO> stats = List.of(new PipelineStageDTO("persistence", 5, 2, 4, 0, 1024, 1));
+        when(pipeline.stats()).thenReturn(stats);
+
+        assertSame(stats, controller.pipeline());
+    }
+
+    @Test
+    void startInTrainModeShouldStreamTheRangeIntoBacktest() {
         StartBotRequest req = mock(StartBotRequest.class);
         when(req.mode()).thenReturn(BotMode.TRAIN);
         when(req.symbol()).thenReturn("BTCUSD");
@@ -88,24 +152,24 @@ class BotControllerTest {
         when(req.endTime()).thenReturn("2025-01-02T00:00:00Z");
         when(req.initialBalance()).thenReturn(1000.0);
         when(req.riskPct()).thenReturn(1.5);
+        when(req.accountId()).thenReturn(2L);
+        when(accounts.resolve(2L)).thenReturn(2L);
 
         long expectedStart = OffsetDateTime.parse("2025-01-01T00:00:00Z").toInstant().toEpochMilli();
         long expectedEnd = OffsetDateTime.parse("2025-01-02T00:00:00Z").toInstant().toEpochMilli();
 
-        when(market.candles(eq("BTCUSD"), eq("5m"), eq(expectedStart), eq(expectedEnd), eq(1000)))
-                .thenReturn(Collections.emptyList());
-
         controller.start(req);
 
-        verify(market).candles(eq("BTCUSD"), eq("5m"), eq(expectedStart), eq(expectedEnd), eq(1000));
-        verify(engine).runBacktest(
-                eq("BTCUSD"),
-                eq("5m"),
-                candlesCaptor.capture(),
-                eq(BigDecimal.valueOf(1000.0)),
-                eq(BigDecimal.valueOf(1.5))
+        verify(engine).rangeBacktest(
+                2L,
+                "BTCUSD",
+                "5m",
+                expectedStart,
+                expectedEnd,
+                BigDecimal.valueOf(1000.0),
+                BigDecimal.valueOf(1.5)
         );
-        assertEquals(Collections.emptyList(), candlesCaptor.getValue());
+        verify(market, never()).candles(anyString(), anyString(), any(), any(), anyInt());
     }
 
     @Test
@@ -118,6 +182,8 @@ class BotControllerTest {
         when(req.endTime()).thenReturn(null);
         when(req.initialBalance()).thenReturn(200.0);
         when(req.riskPct()).thenReturn(0.75);
+        when(req.accountId()).thenReturn(null);
+        when(accounts.resolve(null)).thenReturn(1L);
 
         when(market.candles(eq("BTCUSD"), eq("1h"), isNull(), isNull(), eq(1000)))
                 .thenReturn(Collections.emptyList());
@@ -125,7 +191,10 @@ class BotControllerTest {
         controller.start(req);
 
         verify(market).candles(eq("BTCUSD"), eq("1h"), isNull(), isNull(), eq(1000));
+        verify(engine).claim(1L);
+        verify(engine).release(anyLong());
         verify(engine).runBacktest(
+                eq(1L),
                 eq("BTCUSD"),
                 eq("1h"),
                 candlesCaptor.capture(),
@@ -143,11 +212,14 @@ class BotControllerTest {
         when(req.interval()).thenReturn("1m");
         when(req.initialBalance()).thenReturn(500.0);
         when(req.riskPct()).thenReturn(2.25);
+        when(req.accountId()).thenReturn(null);
+        when(accounts.resolve(null)).thenReturn(1L);
 
         controller.start(req);
 
-        verify(engine).startLive(eq("ETHUSD"), eq("1m"), eq(BigDecimal.valueOf(500.0)));
+        verify(engine).startLive(eq(1L), eq("ETHUSD"), eq("1m"), eq(BigDecimal.valueOf(500.0)));
         verify(liveRunner).setRiskPct(eq(BigDecimal.valueOf(2.25)));
+        verify(liveRunner).start();
     }
 
     @Test
@@ -157,6 +229,6 @@ class BotControllerTest {
         when(req.startTime()).thenReturn("not-a-date");
 
         assertThrows(IllegalArgumentException.class, () -> controller.start(req));
-        verify(engine).stop();
+        verify(engine, never()).claim(anyLong());
     }
 }
\ No newline at end of file
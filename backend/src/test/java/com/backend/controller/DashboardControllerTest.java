@@ -0,0 +1,132 @@
+package com.backend.controller;
+
+import com.backend.dto.BotMode;
+import com.backend.dto.DashboardDTO;
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import com.backend.repository.InMemoryAccountRepository;
+import com.backend.repository.InMemorySnapshotRepository;
+import com.backend.repository.InMemoryTradeRepository;
+import com.backend.services.BotEngine;
+import com.backend.services.RecentActivity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardControllerTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private final BotEngine engine = mock(BotEngine.class);
+    private final RecentActivity recent = new RecentActivity(new InMemoryTradeRepository(), new InMemorySnapshotRepository(), 100, 100);
+    private final InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+    private final DashboardController controller = new DashboardController(engine, recent, accounts);
+
+    @BeforeEach
+    void session() {
+        when(engine.isRunning()).thenReturn(true);
+        when(engine.getMode()).thenReturn(BotMode.LIVE);
+        when(engine.getSymbol()).thenReturn("BTCUSDT");
+        when(engine.getInterval()).thenReturn("1m");
+        when(engine.getAccountId()).thenReturn(1L);
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+    }
+
+    private void trade(long id, int minute, String realized) {
+        recent.trade(1L, new TradeDTO(id, "LIVE", "BTCUSDT", "SELL", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO,
+                new BigDecimal(realized), T0.plusMinutes(minute)));
+        snapshot(id, minute);
+    }
+
+    private void snapshot(long id, int minute) {
+        recent.snapshot(1L, new SnapshotDTO(id, "LIVE", "BTCUSDT", T0.plusMinutes(minute), BigDecimal.TEN, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.valueOf(100 + id)));
+    }
+
+    private static List<Long> ids(DashboardDTO d) {
+        return d.trades().stream().map(TradeDTO::id).toList();
+    }
+
+    @Test
+    void firstPollHasTheNewestTradesAndACursor() {
+        trade(1, 1, "1");
+        trade(2, 2, "-1");
+
+        DashboardDTO d = controller.dashboard(null, "LIVE", "BTCUSDT", null, 300);
+
+        assertTrue(d.status().running());
+        assertEquals(List.of(2L, 1L), ids(d));
+        assertFalse(d.tradesTruncated());
+        assertEquals(T0.plusMinutes(2).toInstant().toEpochMilli(), d.tradeCursorMs());
+        assertEquals(BigDecimal.valueOf(102), d.latestSnapshot().totalValue());
+        assertEquals(new TradeStatsDTO(2, 1, 1, BigDecimal.ZERO, BigDecimal.ZERO), d.tradeStats());
+    }
+
+    @Test
+    void laterPollsOnlyCarryTradesFromTheCursorOn() {
+        trade(1, 1, "1");
+        Long cursor = controller.dashboard(null, "LIVE", "BTCUSDT", null, 300).tradeCursorMs();
+
+        // The cursor's millisecond is sent again, and nothing older
+        DashboardDTO unchanged = controller.dashboard(null, "LIVE", "BTCUSDT", cursor, 300);
+        assertEquals(List.of(1L), ids(unchanged));
+        assertEquals(cursor, unchanged.tradeCursorMs());
+
+        trade(2, 2, "1");
+        trade(3, 3, "1");
+        DashboardDTO next = controller.dashboard(null, "LIVE", "BTCUSDT", cursor, 300);
+        assertEquals(List.of(3L, 2L, 1L), ids(next));
+        assertEquals(3, next.tradeStats().tradeCount());
+    }
+
+    @Test
+    void aTradeInTheCursorsMillisecondAfterThePollIsNotLost() {
+        trade(1, 1, "1");
+        Long cursor = controller.dashboard(null, "LIVE", "BTCUSDT", null, 300).tradeCursorMs();
+
+        trade(2, 1, "1");
+        DashboardDTO next = controller.dashboard(null, "LIVE", "BTCUSDT", cursor, 300);
+
+        assertEquals(List.of(2L, 1L), ids(next));
+        assertEquals(cursor, next.tradeCursorMs());
+    }
+
+    @Test
+    void anotherAccountsSessionShowsAsIdle() {
+        long other = accounts.createAccount(BigDecimal.TEN);
+
+        DashboardDTO d = controller.dashboard(other, "LIVE", "BTCUSDT", null, 300);
+
+        assertFalse(d.status().running());
+        assertNull(d.status().mode());
+        assertEquals(other, d.status().accountId());
+    }
+
+    @Test
+    void moreNewTradesThanTheLimitAreFlaggedTruncated() {
+        trade(1, 1, "1");
+        Long cursor = controller.dashboard(null, "LIVE", "BTCUSDT", null, 2).tradeCursorMs();
+        for (int i = 2; i <= 5; i++) trade(i, i, "1");
+
+        DashboardDTO d = controller.dashboard(null, "LIVE", "BTCUSDT", cursor, 2);
+
+        assertTrue(d.tradesTruncated());
+        assertEquals(List.of(5L, 4L), ids(d));
+    }
+
+    @Test
+    void emptyPairHasNoSnapshotOrCursor() {
+        DashboardDTO d = controller.dashboard(null, "TRAIN", "ETHUSDT", null, 300);
+
+        assertNull(d.latestSnapshot());
+        assertNull(d.tradeCursorMs());
+        assertEquals(0, d.tradeStats().tradeCount());
+    }
+}
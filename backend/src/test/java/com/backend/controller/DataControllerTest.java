@@ -2,14 +2,20 @@ package com.backend.controller;
 
 import com.backend.dto.SnapshotDTO;
 import com.backend.dto.TradeDTO;
+import com.backend.models.CandlePage;
 import com.backend.models.Candles;
+import com.backend.repository.InMemoryAccountRepository;
 import com.backend.repository.SnapshotRepository;
 import com.backend.repository.TradeRepository;
 import com.backend.services.MarketDataService;
+import com.backend.services.RecentActivity;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
 
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,39 +25,76 @@ import static org.mockito.Mockito.*;
 class DataControllerTest {
 
     @Test
-    void tradesDelegatesToRepository() {
+    void tradesGoToTheRepositoryUntilTheTailIsKnown() {
         TradeRepository trades = mock(TradeRepository.class);
         SnapshotRepository snapshots = mock(SnapshotRepository.class);
         MarketDataService market = mock(MarketDataService.class);
 
         List<TradeDTO> expected = List.of(mock(TradeDTO.class));
-        when(trades.listTrades("modeA", "SYM", 500)).thenReturn(expected);
+        when(trades.listTrades(1L, "modeA", "SYM", 500)).thenReturn(expected);
 
-        DataController controller = new DataController(trades, snapshots, market);
-        List<TradeDTO> actual = controller.trades("modeA", "SYM", 500);
+        DataController controller = new DataController(new RecentActivity(trades, snapshots, 1000, 5000), market, new InMemoryAccountRepository());
+        List<TradeDTO> actual = controller.trades(null, "modeA", "SYM", 500);
 
         assertSame(expected, actual);
-        verify(trades).listTrades("modeA", "SYM", 500);
+        verify(trades).listTrades(1L, "modeA", "SYM", 500);
         verifyNoMoreInteractions(trades, snapshots, market);
     }
 
     @Test
-    void snapshotsDelegatesToRepository() {
+    void snapshotsGoToTheRepositoryUntilTheTailIsKnown() {
         TradeRepository trades = mock(TradeRepository.class);
         SnapshotRepository snapshots = mock(SnapshotRepository.class);
         MarketDataService market = mock(MarketDataService.class);
 
         List<SnapshotDTO> expected = List.of(mock(SnapshotDTO.class));
-        when(snapshots.list("modeB", "ASSET", 2000)).thenReturn(expected);
+        when(snapshots.list(1L, "modeB", "ASSET", 2000)).thenReturn(expected);
 
-        DataController controller = new DataController(trades, snapshots, market);
-        List<SnapshotDTO> actual = controller.snapshots("modeB", "ASSET", 2000);
+        DataController controller = new DataController(new RecentActivity(trades, snapshots, 1000, 5000), market, new InMemoryAccountRepository());
+        List<SnapshotDTO> actual = controller.snapshots(null, "modeB", "ASSET", 2000);
 
         assertSame(expected, actual);
-        verify(snapshots).list("modeB", "ASSET", 2000);
+        verify(snapshots).list(1L, "modeB", "ASSET", 2000);
         verifyNoMoreInteractions(trades, snapshots, market);
     }
 
+    @Test
+    void tradesOfAClearedPairComeFromMemory() {
+        TradeRepository trades = mock(TradeRepository.class);
+        SnapshotRepository snapshots = mock(SnapshotRepository.class);
+        RecentActivity recent = new RecentActivity(trades, snapshots, 1000, 5000);
+        TradeDTO trade = new TradeDTO(7, "LIVE", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN,
+                BigDecimal.ZERO, BigDecimal.ZERO, OffsetDateTime.parse("2026-01-01T00:00:00Z"));
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+        recent.trade(1L, trade);
+
+        DataController controller = new DataController(recent, mock(MarketDataService.class), new InMemoryAccountRepository());
+
+        assertEquals(List.of(trade), controller.trades(null, "LIVE", "BTCUSDT", 500));
+        verifyNoInteractions(trades, snapshots);
+    }
+
+    @Test
+    void tradesAreScopedToTheAccount() {
+        TradeRepository trades = mock(TradeRepository.class);
+        SnapshotRepository snapshots = mock(SnapshotRepository.class);
+        InMemoryAccountRepository accounts = new InMemoryAccountRepository();
+        long other = accounts.createAccount(BigDecimal.TEN);
+        RecentActivity recent = new RecentActivity(trades, snapshots, 1000, 5000);
+        TradeDTO trade = new TradeDTO(7, "LIVE", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN,
+                BigDecimal.ZERO, BigDecimal.ZERO, OffsetDateTime.parse("2026-01-01T00:00:00Z"));
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+        recent.cleared(other, "LIVE", "BTCUSDT");
+        recent.trade(other, trade);
+
+        DataController controller = new DataController(recent, mock(MarketDataService.class), accounts);
+
+        assertEquals(List.of(trade), controller.trades(other, "LIVE", "BTCUSDT", 500));
+        assertEquals(List.of(), controller.trades(null, "LIVE", "BTCUSDT", 500));
+        assertThrows(IllegalArgumentException.class, () -> controller.trades(99L, "LIVE", "BTCUSDT", 500));
+        verifyNoInteractions(trades, snapshots);
+    }
+
     @Test
     void candlesForwardsParametersAndClampsLimit() {
         TradeRepository trades = mock(TradeRepository.class);
@@ -59,14 +102,15 @@ class DataControllerTest {
         MarketDataService market = mock(MarketDataService.class);
 
         List<Candles> expected = List.of(mock(Candles.class));
-        when(market.candles("BTCUSDT", "1m", null, null, 1000)).thenReturn(expected);
+        when(market.candlePage("BTCUSDT", "1m", null, null, 1000))
+                .thenReturn(new CandlePage(expected, "\"abc-1\"", 1_600_000_000_000L));
 
-        DataController controller = new DataController(trades, snapshots, market);
-        List<Candles> actual = controller.candles("BTCUSDT", "1m", null, null, 2000);
+        DataController controller = new DataController(new RecentActivity(trades, snapshots, 1000, 5000), market, new InMemoryAccountRepository());
+        ResponseEntity<List<Candles>> actual = controller.candles("BTCUSDT", "1m", null, null, 2000);
 
-        assertSame(expected, actual);
+        assertSame(expected, actual.getBody());
         // verify limit was clamped to 1000
-        verify(market).candles(eq("BTCUSDT"), eq("1m"), isNull(), isNull(), eq(1000));
+        verify(market).candlePage(eq("BTCUSDT"), eq("1m"), isNull(), isNull(), eq(1000));
     }
 
     @Test
@@ -78,12 +122,30 @@ class DataControllerTest {
         long start = 1_600_000_000L;
         long end = 1_600_000_500L;
         List<Candles> expected = List.of(mock(Candles.class));
-        when(market.candles("ETHUSDT", "5m", start, end, 300)).thenReturn(expected);
+        when(market.candlePage("ETHUSDT", "5m", start, end, 300))
+                .thenReturn(new CandlePage(expected, "\"abc-1\"", 1_600_000_000_000L));
 
-        DataController controller = new DataController(trades, snapshots, market);
-        List<Candles> actual = controller.candles("ETHUSDT", "5m", start, end, 300);
+        DataController controller = new DataController(new RecentActivity(trades, snapshots, 1000, 5000), market, new InMemoryAccountRepository());
+        ResponseEntity<List<Candles>> actual = controller.candles("ETHUSDT", "5m", start, end, 300);
 
-        assertSame(expected, actual);
-        verify(market).candles("ETHUSDT", "5m", start, end, 300);
+        assertSame(expected, actual.getBody());
+        verify(market).candlePage("ETHUSDT", "5m", start, end, 300);
+    }
+
+    @Test
+    void candlesCarryValidators() {
+        TradeRepository trades = mock(TradeRepository.class);
+        SnapshotRepository snapshots = mock(SnapshotRepository.class);
+        MarketDataService market = mock(MarketDataService.class);
+
+        when(market.candlePage("BTCUSDT", "1h", null, null, 500))
+                .thenReturn(new CandlePage(List.of(), "\"abc-0\"", 1_600_000_000_000L));
+
+        DataController controller = new DataController(new RecentActivity(trades, snapshots, 1000, 5000), market, new InMemoryAccountRepository());
+        ResponseEntity<List<Candles>> actual = controller.candles("BTCUSDT", "1h", null, null, 500);
+
+        assertEquals("\"abc-0\"", actual.getHeaders().getETag());
+        assertEquals(1_600_000_000_000L, actual.getHeaders().getLastModified());
+        assertEquals("no-cache", actual.getHeaders().getCacheControl());
     }
 }
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.backend.controller;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.repository.InMemoryAccountRepository;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ExportControllerTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private final TradeRepository trades = mock(TradeRepository.class);
+    private final SnapshotRepository snapshots = mock(SnapshotRepository.class);
+    private final ExportController controller = new ExportController(trades, snapshots, new InMemoryAccountRepository());
+
+    private static String render(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tradesStreamAsCsv() throws Exception {
+        doAnswer(inv -> {
+            Consumer<TradeDTO> sink = inv.getArgument(3);
+            sink.accept(new TradeDTO(1L, "TRAIN", "BTCUSDT", "BUY",
+                    new BigDecimal("0.50000000"), new BigDecimal("1E+2"), BigDecimal.ZERO, null, T0));
+            return null;
+        }).when(trades).forEachTrade(eq(1L), eq("TRAIN"), eq("BTCUSDT"), any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = controller.trades(null, "TRAIN", "BTCUSDT");
+
+        assertEquals("attachment; filename=\"trades-TRAIN-BTCUSDT.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("id,mode,symbol,side,quantity,price,fee,realized_pnl,purchased_at\r\n"
+                        + "1,TRAIN,BTCUSDT,BUY,0.50000000,100,0,,2026-01-01T00:00Z\r\n",
+                render(response));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotsStreamAsCsv() throws Exception {
+        doAnswer(inv -> {
+            Consumer<SnapshotDTO> sink = inv.getArgument(3);
+            sink.accept(new SnapshotDTO(2L, "LIVE", "A,B", T0,
+                    BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.TEN));
+            return null;
+        }).when(snapshots).forEach(eq(1L), eq("LIVE"), eq("A,B"), any(Consumer.class));
+
+        String csv = render(controller.snapshots(null, "LIVE", "A,B"));
+
+        assertTrue(csv.startsWith("id,mode,symbol,purchased_at,cash_balance,position_qty,position_value,total_value\r\n"));
+        assertTrue(csv.endsWith("2,LIVE,\"A,B\",2026-01-01T00:00Z,10,0,0,10\r\n"));
+    }
+}
@@ -0,0 +1,70 @@
+package com.backend.controller;
+
+import com.backend.models.Candles;
+import com.backend.services.MarketDataService;
+import com.backend.services.SyntheticMarket;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SyntheticExchangeControllerTest {
+
+    private final SyntheticMarket market = mock(SyntheticMarket.class);
+    private final SyntheticExchangeController controller = new SyntheticExchangeController(market,
+            Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void klinesComeBackAsBinanceRows() {
+        OffsetDateTime open = OffsetDateTime.parse("2026-01-01T00:05:00Z");
+        when(market.klines("BTCUSDT", "5m", null, null, 2)).thenReturn(List.of(new Candles(open,
+                new BigDecimal("100.5"), new BigDecimal("101"), new BigDecimal("99"), new BigDecimal("100"), new BigDecimal("3"))));
+
+        List<Object[]> rows = controller.klines("BTCUSDT", "5m", null, null, 2);
+
+        assertEquals(1, rows.size());
+        Object[] row = rows.get(0);
+        assertEquals(12, row.length);
+        assertEquals(open.toInstant().toEpochMilli(), row[0]);
+        assertEquals("100.5", row[1]);
+        assertEquals("101", row[2]);
+        assertEquals("99", row[3]);
+        assertEquals("100", row[4]);
+        assertEquals("3", row[5]);
+        assertEquals(open.toInstant().toEpochMilli() + 300_000 - 1, row[6]);
+    }
+
+    @Test
+    void tickerAnswersOneSymbolOrAList() {
+        when(market.price("BTCUSDT")).thenReturn(new BigDecimal("101.25000000"));
+        when(market.price("ETHUSDT")).thenReturn(new BigDecimal("99.00000000"));
+
+        assertEquals(new MarketDataService.PriceResponse("BTCUSDT", "101.25000000"), controller.price("BTCUSDT", null));
+        assertEquals(List.of(new MarketDataService.PriceResponse("BTCUSDT", "101.25000000"),
+                        new MarketDataService.PriceResponse("ETHUSDT", "99.00000000")),
+                controller.price(null, "[\"BTCUSDT\",\"ETHUSDT\"]"));
+    }
+
+    @Test
+    void rejectionsUseBinanceErrorCodes() {
+        assertThrows(IllegalArgumentException.class, () -> controller.klines("BTCUSDT", "1m", null, null, 1001));
+
+        ResponseEntity<Map<String, Object>> res = controller.rejected(new IllegalArgumentException("Unknown symbol X"));
+        assertEquals(400, res.getStatusCode().value());
+        assertEquals(-1121, res.getBody().get("code"));
+    }
+
+    @Test
+    void serverTimeComesFromTheClock() {
+        assertEquals(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli(), controller.time().serverTime());
+    }
+}
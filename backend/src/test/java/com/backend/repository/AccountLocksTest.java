@@ -0,0 +1,89 @@
+package com.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLocksTest {
+
+    @Test
+    void stripesAreAPowerOfTwo() {
+        assertEquals(1, new AccountLocks(1).stripes());
+        assertEquals(64, new AccountLocks(64).stripes());
+        assertEquals(128, new AccountLocks(100).stripes());
+        assertThrows(IllegalArgumentException.class, () -> new AccountLocks(0));
+    }
+
+    @Test
+    void sequentialIdsSpreadOverStripes() {
+        AccountLocks locks = new AccountLocks(16);
+        int[] perStripe = new int[16];
+        for (long id = 1; id <= 1600; id++) perStripe[locks.stripe(id)]++;
+        for (int n : perStripe) assertTrue(n > 50 && n < 150, "uneven stripes: " + n);
+    }
+
+    @Test
+    void differentAccountsRunInParallel() throws Exception {
+        AccountLocks locks = new AccountLocks(64);
+        long a = 1, b = 2;
+        assertNotEquals(locks.stripe(a), locks.stripe(b));
+
+        CountDownLatch bothInside = new CountDownLatch(2);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (long id : new long[]{a, b}) {
+                // Each waits inside its lock for the other: only possible if they do not exclude each other
+                results.add(pool.submit(() -> locks.withAccount(id, () -> {
+                    bothInside.countDown();
+                    try {
+                        return bothInside.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })));
+            }
+            for (Future<Boolean> r : results) assertTrue(r.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void oneAccountIsSerialized() throws Exception {
+        AccountLocks locks = new AccountLocks(64);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        int[] counter = {0};
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                done.add(pool.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        locks.withAccount(42L, () -> {
+                            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            counter[0]++;
+                            inside.decrementAndGet();
+                        });
+                    }
+                }));
+            }
+            for (Future<?> f : done) f.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, maxInside.get());
+        assertEquals(80_000, counter[0]);
+    }
+}
@@ -13,12 +13,12 @@ import static org.mockito.Mockito.*;
 public class AccountRepositoryTest {
 
     private JdbcTemplate jdbc;
-    private AccountRepository repo;
+    private JdbcAccountRepository repo;
 
     @BeforeEach
     void setUp() {
         jdbc = mock(JdbcTemplate.class);
-        repo = new AccountRepository(jdbc);
+        repo = new JdbcAccountRepository(jdbc);
     }
 
     @Test
@@ -44,6 +44,23 @@ public class AccountRepositoryTest {
         verify(jdbc).queryForObject("SELECT cash_balance FROM accounts WHERE id=?", BigDecimal.class, accountId);
     }
 
+    @Test
+    void createAccount_returnsGeneratedId() {
+        BigDecimal cash = new BigDecimal("500");
+        when(jdbc.queryForObject(anyString(), eq(Long.class), any(Object[].class))).thenReturn(8L);
+
+        assertEquals(8L, repo.createAccount(cash));
+        verify(jdbc).queryForObject("INSERT INTO accounts (cash_balance) VALUES (?) RETURNING id", Long.class, cash);
+    }
+
+    @Test
+    void resolve_rejectsUnknownAccount() {
+        when(jdbc.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> repo.resolve(9L));
+        verify(jdbc).queryForObject("SELECT EXISTS (SELECT 1 FROM accounts WHERE id=?)", Boolean.class, 9L);
+    }
+
     @Test
     void setCash_callsUpdate() {
         long accountId = 5L;
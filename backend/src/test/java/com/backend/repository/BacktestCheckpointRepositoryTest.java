@@ -0,0 +1,89 @@
+package com.backend.repository;
+
+import com.backend.models.BacktestCheckpoint;
+import com.backend.models.PositionRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BacktestCheckpointRepositoryTest {
+
+    private static BacktestCheckpoint checkpoint() {
+        return new BacktestCheckpoint("1m", 1_000L, new BigDecimal("1000"), new BigDecimal("0.5"), "SMA_CROSS_RSI",
+                61_000L, List.of(new BigDecimal("1.5"), new BigDecimal("2")), new BigDecimal("1.75"), new BigDecimal("1.6"),
+                new BigDecimal("900"), new PositionRow(new BigDecimal("0.1"), new BigDecimal("1000")),
+                new BigDecimal("-3"), 4, new BigDecimal("1010"), new BigDecimal("0.02"), new BigDecimal("999"));
+    }
+
+    @Test
+    void find_mapsSavedCheckpoint() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ResultSet rs = mock(ResultSet.class);
+        Array closes = mock(Array.class);
+        BacktestCheckpoint expected = checkpoint();
+        when(rs.next()).thenReturn(true);
+        when(rs.getString("time_interval")).thenReturn("1m");
+        when(rs.getLong("start_ms")).thenReturn(1_000L);
+        when(rs.getBigDecimal("initial_balance")).thenReturn(expected.initialBalance());
+        when(rs.getBigDecimal("risk_pct")).thenReturn(expected.riskPct());
+        when(rs.getString("strategy")).thenReturn(expected.strategy());
+        when(rs.getLong("last_open_ms")).thenReturn(61_000L);
+        when(rs.getArray("closes")).thenReturn(closes);
+        when(closes.getArray()).thenReturn(expected.closes().toArray(new BigDecimal[0]));
+        when(rs.getBigDecimal("prev_fast")).thenReturn(expected.prevFast());
+        when(rs.getBigDecimal("prev_slow")).thenReturn(expected.prevSlow());
+        when(rs.getBigDecimal("cash_balance")).thenReturn(expected.cash());
+        when(rs.getBigDecimal("position_qty")).thenReturn(expected.position().quantity());
+        when(rs.getBigDecimal("position_avg_entry")).thenReturn(expected.position().avgEntry());
+        when(rs.getBigDecimal("realized_pnl")).thenReturn(expected.realizedPnl());
+        when(rs.getInt("trade_count")).thenReturn(4);
+        when(rs.getBigDecimal("peak_value")).thenReturn(expected.peakValue());
+        when(rs.getBigDecimal("max_drawdown")).thenReturn(expected.maxDrawdown());
+        when(rs.getBigDecimal("last_value")).thenReturn(expected.lastValue());
+
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), anyLong(), anyString()))
+                .thenAnswer(invocation -> {
+                    ResultSetExtractor<?> extractor = invocation.getArgument(1);
+                    return extractor.extractData(rs);
+                });
+
+        Optional<BacktestCheckpoint> found = new JdbcBacktestCheckpointRepository(jdbc).find(1L, "BTCUSDT");
+
+        assertEquals(Optional.of(expected), found);
+    }
+
+    @Test
+    void save_passesClosesAsArrayLiteral() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+        new JdbcBacktestCheckpointRepository(jdbc).save(1L, "BTCUSDT", checkpoint());
+
+        verify(jdbc).update(contains("ON CONFLICT (account_id, symbol)"), eq(1L), eq("BTCUSDT"), eq("1m"), eq(1_000L),
+                any(), any(), eq("SMA_CROSS_RSI"), eq(61_000L), eq("{1.5,2}"),
+                any(), any(), any(), any(), any(), any(), eq(4), any(), any(), any());
+    }
+
+    @Test
+    void inMemory_keepsOneCheckpointPerAccountAndSymbol() {
+        var repo = new InMemoryBacktestCheckpointRepository();
+        repo.save(1L, "BTCUSDT", checkpoint());
+        repo.save(2L, "BTCUSDT", checkpoint());
+
+        repo.delete(1L, "BTCUSDT");
+
+        assertTrue(repo.find(1L, "BTCUSDT").isEmpty());
+        assertEquals(Optional.of(checkpoint()), repo.find(2L, "BTCUSDT"));
+    }
+}
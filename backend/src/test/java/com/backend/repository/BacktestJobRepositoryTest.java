@@ -0,0 +1,54 @@
+package com.backend.repository;
+
+import com.backend.models.BacktestTask;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BacktestJobRepositoryTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void claim_skipsLockedRowsAndExpiredLastAttempts() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        BacktestTask task = new BacktestTask(5L, 1L, "BTCUSDT", "1h", null, null, BigDecimal.TEN, BigDecimal.ONE, 1);
+        when(jdbc.query(contains("lease_until < NOW() AND attempts < ?"), any(RowMapper.class), eq("w1"), eq(30000L), eq(3)))
+                .thenReturn(List.of(task));
+
+        Optional<BacktestTask> claimed = new JdbcBacktestJobRepository(jdbc).claim("w1", 30000, 3);
+
+        assertEquals(Optional.of(task), claimed);
+    }
+
+    @Test
+    void heartbeat_isFalseOnceTheLeaseIsLost() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        when(jdbc.update(anyString(), eq(30000L), eq(5L), eq("w1"))).thenReturn(0);
+
+        assertFalse(new JdbcBacktestJobRepository(jdbc).heartbeat(5L, "w1", 30000));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createJob_batchesTasksUnderOneJob() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        BacktestTask task = new BacktestTask(0, 0, "BTCUSDT", "1h", null, null, BigDecimal.TEN, BigDecimal.ONE, 0);
+        when(jdbc.queryForObject("INSERT INTO backtest_jobs DEFAULT VALUES RETURNING id", Long.class)).thenReturn(9L);
+
+        long job = new JdbcBacktestJobRepository(jdbc).createJob(List.of(task, task));
+
+        assertEquals(9L, job);
+        verify(jdbc).batchUpdate(anyString(), eq(List.of(task, task)), eq(1000), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
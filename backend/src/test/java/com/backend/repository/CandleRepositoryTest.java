@@ -0,0 +1,84 @@
+package com.backend.repository;
+
+import com.backend.models.CandleSpan;
+import com.backend.models.Candles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CandleRepositoryTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void upsertCandles_batchesRows() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Candles c = new Candles(OffsetDateTime.parse("2026-01-01T00:00:00Z"),
+                BigDecimal.ONE, BigDecimal.TWO, BigDecimal.ONE, BigDecimal.TWO, BigDecimal.TEN);
+
+        new JdbcCandleRepository(jdbc).upsertCandles("BTCUSDT", "1m", List.of(c, c));
+
+        verify(jdbc).batchUpdate(contains("ON CONFLICT (symbol, time_interval, open_time)"), eq(List.of(c, c)), eq(1000),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void span_isEmptyWithoutRows() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getObject("first_open", OffsetDateTime.class)).thenReturn(null);
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), eq("BTCUSDT"), eq("1m")))
+                .thenAnswer(invocation -> ((ResultSetExtractor<?>) invocation.getArgument(1)).extractData(rs));
+
+        Optional<CandleSpan> span = new JdbcCandleRepository(jdbc).span("BTCUSDT", "1m");
+
+        assertTrue(span.isEmpty());
+    }
+
+    @Test
+    void copyRow_writesTabSeparatedCopyText() {
+        KlineCursor row = new KlineCursor() {
+            @Override
+            public boolean next() {
+                return true;
+            }
+
+            @Override
+            public long openTimeMs() {
+                return 1767225600000L;
+            }
+
+            @Override
+            public int copyDecimal(int column, byte[] dest, int pos) {
+                byte[] text = ("1." + column).getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(text, 0, dest, pos, text.length);
+                return pos + text.length;
+            }
+
+            @Override
+            public BigDecimal decimal(int column) {
+                return new BigDecimal("1." + column);
+            }
+        };
+        byte[] buf = new byte[64];
+
+        int end = JdbcCandleRepository.copyRow(row, buf, 0);
+
+        assertEquals("1767225600000\t1.0\t1.1\t1.2\t1.3\t1.4\n", new String(buf, 0, end, StandardCharsets.US_ASCII));
+    }
+}
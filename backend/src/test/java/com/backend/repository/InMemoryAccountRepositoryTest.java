@@ -0,0 +1,57 @@
+package com.backend.repository;
+
+import com.backend.dto.AccountDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryAccountRepositoryTest {
+
+    private final InMemoryAccountRepository repo = new InMemoryAccountRepository();
+
+    @Test
+    void startsWithDefaultAccount() {
+        long id = repo.getDefaultAccountId();
+
+        assertEquals(0, new BigDecimal("10000").compareTo(repo.getCash(id)));
+    }
+
+    @Test
+    void setCash_updatesBalance() {
+        long id = repo.getDefaultAccountId();
+
+        repo.setCash(id, new BigDecimal("250.00"));
+
+        assertEquals(new BigDecimal("250.00"), repo.getCash(id));
+    }
+
+    @Test
+    void createAccount_addsAnAccountAfterTheDefault() {
+        long id = repo.createAccount(new BigDecimal("500"));
+
+        assertTrue(id > repo.getDefaultAccountId());
+        assertTrue(repo.exists(id));
+        assertEquals(new BigDecimal("500"), repo.getCash(id));
+        assertEquals(List.of(repo.getDefaultAccountId(), id), repo.listAccounts().stream().map(AccountDTO::id).toList());
+    }
+
+    @Test
+    void resolve_defaultsAndRejectsUnknownAccounts() {
+        long id = repo.createAccount(BigDecimal.ONE);
+
+        assertEquals(repo.getDefaultAccountId(), repo.resolve(null));
+        assertEquals(id, repo.resolve(id));
+        assertThrows(IllegalArgumentException.class, () -> repo.resolve(99L));
+    }
+
+    @Test
+    void unknownAccount_behavesLikeMissingRow() {
+        repo.setCash(99L, BigDecimal.ONE);
+
+        assertThrows(EmptyResultDataAccessException.class, () -> repo.getCash(99L));
+    }
+}
@@ -0,0 +1,89 @@
+package com.backend.repository;
+
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import com.backend.services.ReplayClock;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryBacktestJobRepositoryTest {
+
+    private final ReplayClock clock = new ReplayClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final InMemoryBacktestJobRepository repo = new InMemoryBacktestJobRepository(clock);
+
+    private static BacktestTask task(String symbol) {
+        return new BacktestTask(0, 0, symbol, "1h", null, null, BigDecimal.TEN, new BigDecimal("0.1"), 0);
+    }
+
+    private static BacktestSummary summary(String returnPct) {
+        return new BacktestSummary(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.TEN, BigDecimal.ZERO, 0, new BigDecimal(returnPct), BigDecimal.ZERO);
+    }
+
+    @Test
+    void claimsHandOutEachTaskOnce() {
+        long job = repo.createJob(List.of(task("A"), task("B")));
+
+        BacktestTask first = repo.claim("w1", 1000, 3).orElseThrow();
+        BacktestTask second = repo.claim("w2", 1000, 3).orElseThrow();
+
+        assertEquals("A", first.symbol());
+        assertEquals("B", second.symbol());
+        assertEquals(job, first.jobId());
+        assertEquals(1, first.attempts());
+        assertTrue(repo.claim("w3", 1000, 3).isEmpty());
+    }
+
+    @Test
+    void expiredLeaseIsReclaimedAndTheOldWorkerLosesIt() {
+        repo.createJob(List.of(task("A")));
+        BacktestTask claimed = repo.claim("crashed", 1000, 3).orElseThrow();
+
+        clock.set(Instant.parse("2026-01-01T00:00:00.500Z"));
+        assertTrue(repo.heartbeat(claimed.id(), "crashed", 1000));
+        assertTrue(repo.claim("w2", 1000, 3).isEmpty());
+
+        clock.set(Instant.parse("2026-01-01T00:00:02Z"));
+        BacktestTask reclaimed = repo.claim("w2", 1000, 3).orElseThrow();
+        assertEquals(2, reclaimed.attempts());
+
+        assertFalse(repo.heartbeat(claimed.id(), "crashed", 1000));
+        assertFalse(repo.complete(claimed.id(), "crashed", summary("1")));
+        assertTrue(repo.complete(claimed.id(), "w2", summary("1")));
+    }
+
+    @Test
+    void failuresRetryUntilMaxAttempts() {
+        long job = repo.createJob(List.of(task("A")));
+
+        BacktestTask t = repo.claim("w1", 1000, 3).orElseThrow();
+        repo.fail(t.id(), "w1", "boom", 2);
+        assertEquals(BacktestTaskStatus.PENDING, repo.tasks(job).get(0).status());
+
+        t = repo.claim("w1", 1000, 3).orElseThrow();
+        repo.fail(t.id(), "w1", "boom again", 2);
+
+        BacktestTaskDTO failed = repo.tasks(job).get(0);
+        assertEquals(BacktestTaskStatus.FAILED, failed.status());
+        assertEquals("boom again", failed.error());
+        assertTrue(repo.claim("w1", 1000, 3).isEmpty());
+    }
+
+    @Test
+    void expiredLastAttemptsAreFailed() {
+        long job = repo.createJob(List.of(task("A")));
+        repo.claim("crashed", 1000, 3);
+        clock.set(Instant.parse("2026-01-01T00:00:02Z"));
+
+        assertTrue(repo.claim("w2", 1000, 1).isEmpty());
+        assertEquals(1, repo.failExpired(1));
+        assertEquals(BacktestTaskStatus.FAILED, repo.tasks(job).get(0).status());
+    }
+}
@@ -0,0 +1,37 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.models.TickIds;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLedgerRepositoryTest {
+
+    private static final OffsetDateTime TS = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void recordTrade_appliesEveryPart() {
+        var accounts = new InMemoryAccountRepository();
+        var positions = new InMemoryPositionRepository();
+        var trades = new InMemoryTradeRepository();
+        var snapshots = new InMemorySnapshotRepository();
+        var ledger = new InMemoryLedgerRepository(accounts, positions, trades, snapshots, new AccountLocks(1));
+        long accountId = accounts.getDefaultAccountId();
+
+        TickIds ids = ledger.recordTrade(accountId, BigDecimal.valueOf(90),
+                new PositionRow(BigDecimal.ONE, BigDecimal.TEN),
+                new TradeDTO(0L, "LIVE", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, TS),
+                new SnapshotDTO(0L, "LIVE", "BTCUSDT", TS, BigDecimal.valueOf(90), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(100)));
+
+        assertEquals(BigDecimal.valueOf(90), accounts.getCash(accountId));
+        assertEquals(BigDecimal.ONE, positions.getPosition(accountId, "BTCUSDT").quantity());
+        assertEquals(ids.tradeId(), trades.listTrades(1L, "LIVE", "BTCUSDT", 1).get(0).id());
+        assertEquals(ids.snapshotId(), snapshots.list(1L, "LIVE", "BTCUSDT", 1).get(0).id());
+    }
+}
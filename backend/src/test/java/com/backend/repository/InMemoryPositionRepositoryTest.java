@@ -0,0 +1,32 @@
+package com.backend.repository;
+
+import com.backend.models.PositionRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryPositionRepositoryTest {
+
+    private final InMemoryPositionRepository repo = new InMemoryPositionRepository();
+
+    @Test
+    void getPosition_returnsZeroWhenNotExists() {
+        PositionRow row = repo.getPosition(123L, "BTCUSD");
+
+        assertEquals(BigDecimal.ZERO, row.quantity());
+        assertEquals(BigDecimal.ZERO, row.avgEntry());
+    }
+
+    @Test
+    void upsertPosition_insertsThenReplaces() {
+        repo.upsertPosition(1L, "BTCUSD", new BigDecimal("3"), new BigDecimal("5.5"));
+        repo.upsertPosition(1L, "BTCUSD", new BigDecimal("2.5"), new BigDecimal("10.75"));
+
+        PositionRow row = repo.getPosition(1L, "BTCUSD");
+        assertEquals(new BigDecimal("2.5"), row.quantity());
+        assertEquals(new BigDecimal("10.75"), row.avgEntry());
+        assertEquals(BigDecimal.ZERO, repo.getPosition(2L, "BTCUSD").quantity());
+    }
+}
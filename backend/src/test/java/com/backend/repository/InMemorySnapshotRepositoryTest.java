@@ -0,0 +1,56 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySnapshotRepositoryTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2024-01-01T00:00:00Z");
+
+    private final InMemorySnapshotRepository repo = new InMemorySnapshotRepository();
+
+    private long insert(long accountId, OffsetDateTime ts, String total) {
+        return repo.insertSnapshot(accountId, "TEST", "BTCUSD", ts,
+                BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal(total));
+    }
+
+    @Test
+    void list_oldestFirstWithLimit() {
+        insert(1L, T0.plusSeconds(5), "2");
+        insert(1L, T0, "1");
+        insert(1L, T0.plusSeconds(10), "3");
+
+        List<SnapshotDTO> result = repo.list(1L, "TEST", "BTCUSD", 2);
+
+        assertEquals(2, result.size());
+        assertEquals(new BigDecimal("1"), result.get(0).totalValue());
+        assertEquals(new BigDecimal("2"), result.get(1).totalValue());
+    }
+
+    @Test
+    void insertSnapshots_reinsertsRowsWithNewIds() {
+        SnapshotDTO dto = new SnapshotDTO(42L, "TEST", "BTCUSD", T0,
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE);
+
+        repo.insertSnapshots(1L, List.of(dto));
+
+        List<SnapshotDTO> result = repo.list(1L, "TEST", "BTCUSD", 10);
+        assertEquals(1, result.size());
+        assertNotEquals(42L, result.get(0).id());
+    }
+
+    @Test
+    void deleteByModeAndSymbol_removesRows() {
+        insert(2L, T0, "1");
+
+        repo.deleteByModeAndSymbol(2L, "TEST", "BTCUSD");
+
+        assertTrue(repo.list(1L, "TEST", "BTCUSD", 10).isEmpty());
+    }
+}
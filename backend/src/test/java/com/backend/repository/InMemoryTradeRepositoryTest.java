@@ -0,0 +1,90 @@
+package com.backend.repository;
+
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTradeRepositoryTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private final InMemoryTradeRepository repo = new InMemoryTradeRepository();
+
+    private long insert(long accountId, String mode, OffsetDateTime ts) {
+        return repo.insertTrade(accountId, mode, "BTCUSDT", "BUY",
+                BigDecimal.ONE, BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.ZERO, ts);
+    }
+
+    @Test
+    void insertTrade_returnsIncreasingIds() {
+        long a = insert(1L, "LIVE", T0);
+        long b = insert(1L, "LIVE", T0.plusSeconds(5));
+
+        assertTrue(b > a);
+    }
+
+    @Test
+    void listTrades_newestFirstWithLimit() {
+        insert(1L, "LIVE", T0.plusSeconds(10));
+        insert(1L, "LIVE", T0);
+        insert(1L, "LIVE", T0.plusSeconds(5));
+        insert(1L, "TRAIN", T0.plusSeconds(20));
+
+        List<TradeDTO> result = repo.listTrades(1L, "LIVE", "BTCUSDT", 2);
+
+        assertEquals(2, result.size());
+        assertEquals(T0.plusSeconds(10), result.get(0).purchasedAt());
+        assertEquals(T0.plusSeconds(5), result.get(1).purchasedAt());
+    }
+
+    @Test
+    void insertTrades_reinsertsRows() {
+        TradeDTO dto = new TradeDTO(0L, "TRAIN", "BTCUSDT", "SELL",
+                BigDecimal.ONE, BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.TEN, T0);
+
+        repo.insertTrades(1L, List.of(dto, dto));
+
+        List<TradeDTO> result = repo.listTrades(1L, "TRAIN", "BTCUSDT", 10);
+        assertEquals(2, result.size());
+        assertEquals(BigDecimal.TEN, result.get(0).realizedPnl());
+    }
+
+    @Test
+    void deleteByModeAndSymbol_onlyTouchesThatAccount() {
+        insert(1L, "TEST", T0);
+        insert(2L, "TEST", T0);
+
+        repo.deleteByModeAndSymbol(1L, "TEST", "BTCUSDT");
+
+        assertEquals(0, repo.listTrades(1L, "TEST", "BTCUSDT", 10).size());
+        assertEquals(1, repo.listTrades(2L, "TEST", "BTCUSDT", 10).size());
+    }
+
+    @Test
+    void listTrades_seesOnlyThatAccount() {
+        insert(1L, "LIVE", T0);
+        insert(2L, "LIVE", T0.plusSeconds(5));
+        insert(2L, "LIVE", T0.plusSeconds(10));
+
+        assertEquals(List.of(T0), repo.listTrades(1L, "LIVE", "BTCUSDT", 10).stream().map(TradeDTO::purchasedAt).toList());
+        assertEquals(2, repo.listTrades(2L, "LIVE", "BTCUSDT", 10).size());
+        assertTrue(repo.listTrades(3L, "LIVE", "BTCUSDT", 10).isEmpty());
+    }
+
+    @Test
+    void stats_totalsThePairOnly() {
+        repo.insertTrade(1L, "LIVE", "BTCUSDT", "SELL", BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("0.1"), new BigDecimal("5"), T0);
+        repo.insertTrade(1L, "LIVE", "BTCUSDT", "SELL", BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("0.1"), new BigDecimal("-2"), T0.plusSeconds(1));
+        insert(1L, "LIVE", T0.plusSeconds(2));
+        insert(1L, "TRAIN", T0.plusSeconds(3));
+
+        assertEquals(new TradeStatsDTO(3, 1, 1, new BigDecimal("3"), new BigDecimal("0.2")), repo.stats(1L, "LIVE", "BTCUSDT"));
+        assertEquals(new TradeStatsDTO(0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO), repo.stats(2L, "LIVE", "BTCUSDT"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.backend.repository;
+
+import com.backend.models.IndicatorState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndicatorStateRepositoryTest {
+
+    @Test
+    void find_mapsSavedState() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ResultSet rs = mock(ResultSet.class);
+        Array closes = mock(Array.class);
+        OffsetDateTime updated = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        when(rs.next()).thenReturn(true);
+        when(rs.getArray("closes")).thenReturn(closes);
+        when(closes.getArray()).thenReturn(new BigDecimal[]{new BigDecimal("1.5"), new BigDecimal("2.5")});
+        when(rs.getBigDecimal("prev_fast")).thenReturn(new BigDecimal("2"));
+        when(rs.getBigDecimal("prev_slow")).thenReturn(new BigDecimal("1"));
+        when(rs.getObject("updated_at", OffsetDateTime.class)).thenReturn(updated);
+
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), anyLong(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    ResultSetExtractor<?> extractor = invocation.getArgument(1);
+                    return extractor.extractData(rs);
+                });
+
+        Optional<IndicatorState> state = new JdbcIndicatorStateRepository(jdbc).find(1L, "BTCUSDT", "1m");
+
+        assertTrue(state.isPresent());
+        assertEquals(List.of(new BigDecimal("1.5"), new BigDecimal("2.5")), state.get().closes());
+        assertEquals(new BigDecimal("2"), state.get().prevFast());
+        assertEquals(updated, state.get().updatedAt());
+    }
+
+    @Test
+    void find_returnsEmptyWhenMissing() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(false);
+
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), anyLong(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    ResultSetExtractor<?> extractor = invocation.getArgument(1);
+                    return extractor.extractData(rs);
+                });
+
+        assertTrue(new JdbcIndicatorStateRepository(jdbc).find(1L, "BTCUSDT", "1m").isEmpty());
+    }
+
+    @Test
+    void save_passesClosesAsArrayLiteral() {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+
+        new JdbcIndicatorStateRepository(jdbc).save(1L, "BTCUSDT", "1m",
+                List.of(new BigDecimal("1.50000000"), new BigDecimal("2")), null, null);
+
+        verify(jdbc).update(anyString(), eq(1L), eq("BTCUSDT"), eq("1m"), eq("{1.50000000,2}"), isNull(), isNull());
+    }
+}
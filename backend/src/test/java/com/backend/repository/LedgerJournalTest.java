@@ -0,0 +1,192 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerJournalTest {
+
+    private static final OffsetDateTime TS = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private final List<LedgerJournal> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(LedgerJournal::close);
+    }
+
+    private LedgerJournal journal(long segmentBytes, long projectedSeq) {
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, segmentBytes, 1_000);
+        journal.open(projectedSeq);
+        opened.add(journal);
+        return journal;
+    }
+
+    private static long record(LedgerJournal journal, int i) {
+        BigDecimal price = BigDecimal.valueOf(100 + i);
+        TradeDTO trade = new TradeDTO(0, "LIVE", "BTCUSDT", i % 2 == 0 ? "BUY" : "SELL",
+                new BigDecimal("0.12345678"), price, new BigDecimal("0.0123"), BigDecimal.ZERO, TS.plusMinutes(i));
+        SnapshotDTO snapshot = new SnapshotDTO(0, "LIVE", "BTCUSDT", TS.plusMinutes(i),
+                BigDecimal.valueOf(90), new BigDecimal("0.12345678"), price, BigDecimal.valueOf(190 + i));
+        return journal.append(1L, BigDecimal.valueOf(90), new PositionRow(new BigDecimal("0.12345678"), price), trade, snapshot);
+    }
+
+    private static List<Long> seqs(List<LedgerJournal.Record> records) {
+        return records.stream().map(LedgerJournal.Record::seq).toList();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("local"))) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size());
+            return all.get(0);
+        }
+    }
+
+    @Test
+    void recordsRoundTripAndUnprojectedOnesComeBackOnReopen() throws Exception {
+        LedgerJournal journal = journal(1 << 20, 0);
+        for (int i = 0; i < 3; i++) record(journal, i);
+        journal.sync(3);
+
+        List<LedgerJournal.Record> durable = journal.takeDurable(10, 0);
+        assertEquals(List.of(1L, 2L, 3L), seqs(durable));
+        LedgerJournal.Record r = durable.get(1);
+        assertEquals("SELL", r.trade().side());
+        assertEquals(new BigDecimal("0.12345678"), r.trade().quantity());
+        assertEquals(TS.plusMinutes(1).toInstant(), r.trade().purchasedAt().toInstant());
+        assertEquals(BigDecimal.valueOf(191), r.snapshot().totalValue());
+        journal.projected(1);
+        journal.close();
+
+        LedgerJournal reopened = journal(1 << 20, 1);
+        assertEquals(List.of(2L, 3L), seqs(reopened.takeDurable(10, 0)));
+        assertEquals(4, record(reopened, 3));
+    }
+
+    @Test
+    void nodesSharingADirectoryKeepSeparateJournals() throws Exception {
+        LedgerJournal local = journal(1 << 20, 0);
+        record(local, 0);
+        local.sync(1);
+
+        LedgerJournal other = new LedgerJournal(dir.toString(), "other", true, 1 << 20, 1_000);
+        other.open(0);
+        opened.add(other);
+
+        assertTrue(other.takeDurable(10, 0).isEmpty());
+        assertEquals(1, record(other, 0));
+        assertTrue(Files.isDirectory(dir.resolve("other")));
+    }
+
+    @Test
+    void appendedButNotSyncedRecordsAreNotDurable() throws Exception {
+        LedgerJournal journal = journal(1 << 20, 0);
+        record(journal, 0);
+
+        assertTrue(journal.takeDurable(10, 0).isEmpty());
+        journal.close();
+        assertTrue(journal(1 << 20, 0).takeDurable(10, 0).isEmpty());
+    }
+
+    @Test
+    void tornTailIsCutOffOnOpen() throws Exception {
+        LedgerJournal journal = journal(1 << 20, 0);
+        record(journal, 0);
+        record(journal, 1);
+        journal.sync(2);
+        journal.close();
+
+        Path segment = onlySegment();
+        long intact = Files.size(segment);
+        // Half of a frame header, as if the process died mid-write
+        Files.write(segment, new byte[]{0, 0, 1}, StandardOpenOption.APPEND);
+
+        LedgerJournal reopened = journal(1 << 20, 0);
+        assertEquals(List.of(1L, 2L), seqs(reopened.takeDurable(10, 0)));
+        assertEquals(intact, Files.size(segment));
+        assertEquals(3, record(reopened, 2));
+    }
+
+    @Test
+    void recordFailingItsChecksumEndsTheJournal() throws Exception {
+        LedgerJournal journal = journal(1 << 20, 0);
+        record(journal, 0);
+        record(journal, 1);
+        journal.sync(2);
+        journal.close();
+
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 3] ^= 0x5a;
+        Files.write(segment, bytes);
+
+        assertEquals(List.of(1L), seqs(journal(1 << 20, 0).takeDurable(10, 0)));
+    }
+
+    @Test
+    void concurrentWritersShareFsyncs() throws Exception {
+        LedgerJournal journal = journal(1 << 20, 0);
+        int threads = 8, perThread = 200;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            done.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) journal.sync(record(journal, i));
+            }));
+        }
+        for (Future<?> f : done) f.get();
+        pool.shutdown();
+
+        assertEquals(threads * perThread, journal.takeDurable(Integer.MAX_VALUE, 0).size());
+        assertTrue(journal.fsyncs() < threads * perThread, "fsyncs: " + journal.fsyncs());
+    }
+
+    @Test
+    void segmentsRollAndAreDeletedOnceProjected() throws Exception {
+        LedgerJournal journal = journal(200, 0);
+        for (int i = 0; i < 5; i++) journal.sync(record(journal, i));
+        assertTrue(journal.segmentCount() > 1);
+
+        journal.projected(3);
+        journal.close();
+        assertEquals(List.of(4L, 5L), seqs(journal(200, 3).takeDurable(10, 0)));
+
+        opened.get(1).projected(5);
+        assertEquals(1, opened.get(1).segmentCount());
+    }
+
+    @Test
+    void waitingForTheProjectionTimesOutWhenItFallsBehind() {
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 50);
+        assertThrows(IllegalStateException.class, () -> record(journal, 0));
+        journal.open(0);
+        opened.add(journal);
+        journal.sync(record(journal, 0));
+
+        assertThrows(IllegalStateException.class, journal::awaitProjected);
+        journal.projected(1);
+        journal.awaitProjected();
+    }
+}
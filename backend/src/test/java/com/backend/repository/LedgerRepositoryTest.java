@@ -0,0 +1,126 @@
+package com.backend.repository;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.models.TickIds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerRepositoryTest {
+
+    private static final OffsetDateTime TS = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    JdbcTemplate jdbc;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordTrade_isOneStatement() {
+        when(jdbc.queryForObject(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(new TickIds(7L, 9L));
+
+        TradeDTO trade = new TradeDTO(0L, "LIVE", "BTCUSDT", "BUY",
+                BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, TS);
+        SnapshotDTO snapshot = new SnapshotDTO(0L, "LIVE", "BTCUSDT", TS,
+                BigDecimal.valueOf(90), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(100));
+
+        TickIds ids = new JdbcLedgerRepository(jdbc, new LedgerJournal("unused", "local", false, 1 << 20, 0), new AccountLocks(4)).recordTrade(1L, BigDecimal.valueOf(90),
+                new PositionRow(BigDecimal.ONE, BigDecimal.TEN), trade, snapshot);
+
+        assertEquals(7L, ids.tradeId());
+        assertEquals(9L, ids.snapshotId());
+        verify(jdbc, times(1)).queryForObject(contains("WITH cash AS"), any(RowMapper.class), any(Object[].class));
+        verifyNoMoreInteractions(jdbc);
+    }
+
+    @Test
+    void recordTrade_withJournalIsDurableBeforeTheDatabaseSeesIt(@TempDir Path dir) throws Exception {
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 1_000);
+        journal.open(0);
+        TradeDTO trade = new TradeDTO(0L, "LIVE", "BTCUSDT", "BUY",
+                BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, TS);
+        SnapshotDTO snapshot = new SnapshotDTO(0L, "LIVE", "BTCUSDT", TS,
+                BigDecimal.valueOf(90), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(100));
+
+        TickIds ids = new JdbcLedgerRepository(jdbc, journal, new AccountLocks(4)).recordTrade(1L, BigDecimal.valueOf(90),
+                new PositionRow(BigDecimal.ONE, BigDecimal.TEN), trade, snapshot);
+
+        assertEquals(new TickIds(0, 0), ids);
+        verifyNoInteractions(jdbc);
+        List<LedgerJournal.Record> durable = journal.takeDurable(10, 0);
+        assertEquals(1, durable.size());
+        assertEquals(BigDecimal.valueOf(90), durable.get(0).cash());
+        journal.close();
+    }
+
+    private static List<LedgerJournal.Record> journaled(long... seqs) {
+        TradeDTO trade = new TradeDTO(0L, "LIVE", "BTCUSDT", "BUY",
+                BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, TS);
+        SnapshotDTO snapshot = new SnapshotDTO(0L, "LIVE", "BTCUSDT", TS,
+                BigDecimal.valueOf(90), BigDecimal.ONE, BigDecimal.TEN, BigDecimal.valueOf(100));
+        return Arrays.stream(seqs)
+                .mapToObj(seq -> new LedgerJournal.Record(seq, 1L, BigDecimal.valueOf(90), new PositionRow(BigDecimal.ONE, BigDecimal.TEN), trade, snapshot))
+                .toList();
+    }
+
+    private JdbcLedgerRepository projecting(long storedSeq) {
+        when(jdbc.queryForObject(contains("FOR UPDATE"), eq(Long.class), eq("node-a"))).thenReturn(storedSeq);
+        return new JdbcLedgerRepository(jdbc, new LedgerJournal("unused", "node-a", false, 1 << 20, 0), new AccountLocks(4));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void project_batchesTradesPastTheNodesPositionOnly() {
+        List<LedgerJournal.Record> records = journaled(3, 4, 5);
+        when(jdbc.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 1}});
+
+        projecting(3).project(records);
+
+        verify(jdbc).batchUpdate(contains("UPDATE ledger_projection SET seq=? WHERE journal=? AND seq < ?"),
+                eq(records.subList(1, 3)), eq(2), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void project_skipsABatchTheTablesAlreadyHold() {
+        projecting(5).project(journaled(4, 5));
+
+        verify(jdbc, never()).batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void project_failsWhenThePositionMovedUnderIt() {
+        when(jdbc.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][]{{1, 0}});
+
+        assertThrows(IllegalStateException.class, () -> projecting(0).project(journaled(1, 2)));
+    }
+
+    @Test
+    void projectedSeq_startsTheNodesRow() {
+        when(jdbc.queryForObject(anyString(), eq(Long.class), eq("node-a"))).thenReturn(0L);
+
+        assertEquals(0, new JdbcLedgerRepository(jdbc, new LedgerJournal("unused", "node-a", false, 1 << 20, 0), new AccountLocks(4)).projectedSeq());
+
+        verify(jdbc).update(contains("ON CONFLICT (journal) DO NOTHING"), eq("node-a"));
+    }
+}
@@ -30,7 +30,7 @@ public class PositionRepositoryTest {
                     return extractor.extractData(rs);
                 });
 
-        PositionRepository repo = new PositionRepository(jdbc);
+        JdbcPositionRepository repo = new JdbcPositionRepository(jdbc);
         PositionRow row = repo.getPosition(123L, "BTCUSD");
 
         assertEquals(new BigDecimal("2.5"), row.quantity());
@@ -49,7 +49,7 @@ public class PositionRepositoryTest {
                     return extractor.extractData(rs);
                 });
 
-        PositionRepository repo = new PositionRepository(jdbc);
+        JdbcPositionRepository repo = new JdbcPositionRepository(jdbc);
         PositionRow row = repo.getPosition(123L, "BTCUSD");
 
         assertEquals(BigDecimal.ZERO, row.quantity());
@@ -59,7 +59,7 @@ public class PositionRepositoryTest {
     @Test
     void upsertPosition_callsUpdateWithExpectedParams() {
         JdbcTemplate jdbc = mock(JdbcTemplate.class);
-        PositionRepository repo = new PositionRepository(jdbc);
+        JdbcPositionRepository repo = new JdbcPositionRepository(jdbc);
 
         BigDecimal qty = new BigDecimal("3");
         BigDecimal avg = new BigDecimal("5.5");
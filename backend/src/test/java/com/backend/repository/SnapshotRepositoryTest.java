@@ -21,8 +21,8 @@ class SnapshotRepositoryTest {
     @Mock
     JdbcTemplate jdbc;
 
-    SnapshotRepository repo() {
-        return new SnapshotRepository(jdbc);
+    JdbcSnapshotRepository repo() {
+        return new JdbcSnapshotRepository(jdbc);
     }
 
     @Test
@@ -47,7 +47,7 @@ class SnapshotRepositoryTest {
 
         when(jdbc.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of(dto));
 
-        List<SnapshotDTO> result = repo().list("TEST", "BTCUSD", 10);
+        List<SnapshotDTO> result = repo().list(1L, "TEST", "BTCUSD", 10);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -55,10 +55,31 @@ class SnapshotRepositoryTest {
         verify(jdbc).query(anyString(), any(RowMapper.class), any(Object[].class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertSnapshots_batchesRows() {
+        SnapshotDTO dto = new SnapshotDTO(1L, "TRAIN", "BTCUSD",
+                OffsetDateTime.parse("2024-01-01T00:00:00Z"),
+                BigDecimal.ONE, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ONE);
+
+        repo().insertSnapshots(2L, List.of(dto));
+
+        verify(jdbc).batchUpdate(anyString(), eq(List.of(dto)), eq(1000),
+                any(org.springframework.jdbc.core.ParameterizedPreparedStatementSetter.class));
+    }
+
     @Test
     void deleteByModeAndSymbol_callsUpdate() {
         repo().deleteByModeAndSymbol(2L, "TEST", "BTCUSD");
         verify(jdbc).update(eq("DELETE FROM portfolio_snapshots WHERE account_id=? AND mode=? AND symbol=?"),
                 eq(2L), eq("TEST"), eq("BTCUSD"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteAfter_keepsRowsUpToTheTimestamp() {
+        OffsetDateTime after = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        repo().deleteAfter(2L, "TRAIN", "BTCUSD", after);
+        verify(jdbc).update(eq("DELETE FROM portfolio_snapshots WHERE account_id=? AND mode=? AND symbol=? AND purchased_at > ?"),
+                eq(2L), eq("TRAIN"), eq("BTCUSD"), eq(after));
+    }
+}
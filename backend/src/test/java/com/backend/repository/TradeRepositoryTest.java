@@ -4,11 +4,18 @@ import com.backend.dto.TradeDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
 import java.time.OffsetDateTime;
 import java.util.List;
 
@@ -22,11 +29,11 @@ public class TradeRepositoryTest {
     @Mock
     private JdbcTemplate jdbc;
 
-    private TradeRepository repo;
+    private JdbcTradeRepository repo;
 
     @BeforeEach
     void setUp() {
-        repo = new TradeRepository(jdbc);
+        repo = new JdbcTradeRepository(jdbc);
     }
 
     @Test
@@ -49,17 +56,77 @@ public class TradeRepositoryTest {
         when(jdbc.query(anyString(), any(org.springframework.jdbc.core.RowMapper.class), any(Object[].class)))
                 .thenReturn(List.of(dto));
 
-        List<TradeDTO> result = repo.listTrades("TEST", "BTCUSDT", 10);
+        List<TradeDTO> result = repo.listTrades(1L, "TEST", "BTCUSDT", 10);
 
         assertEquals(1, result.size());
         assertEquals("BTCUSDT", result.get(0).symbol());
         verify(jdbc, times(1)).query(anyString(), any(org.springframework.jdbc.core.RowMapper.class), any(Object[].class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void insertTrades_batchesRows() {
+        TradeDTO dto = new TradeDTO(1L, "TRAIN", "BTCUSDT", "BUY",
+                BigDecimal.ONE, BigDecimal.valueOf(100), BigDecimal.ZERO, BigDecimal.ZERO,
+                OffsetDateTime.now());
+
+        repo.insertTrades(3L, List.of(dto, dto));
+
+        verify(jdbc).batchUpdate(anyString(), eq(List.of(dto, dto)), eq(1000),
+                any(org.springframework.jdbc.core.ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void forEachTrade_streamsFromForwardOnlyCursor() throws Exception {
+        repo.forEachTrade(1L, "TRAIN", "BTCUSDT", t -> {});
+
+        ArgumentCaptor<PreparedStatementCreator> psc = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        verify(jdbc).query(psc.capture(), handler.capture());
+
+        Connection con = mock(Connection.class);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        when(con.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY))).thenReturn(ps);
+        psc.getValue().createPreparedStatement(con);
+
+        verify(ps).setFetchSize(JdbcTradeRepository.EXPORT_FETCH_SIZE);
+        verify(ps).setLong(1, 1L);
+        verify(ps).setString(2, "TRAIN");
+        verify(ps).setString(3, "BTCUSDT");
+    }
+
+    @Test
+    void forEachTrade_mapsEachRowToTheSink() throws Exception {
+        List<TradeDTO> seen = new ArrayList<>();
+        repo.forEachTrade(1L, "TRAIN", "BTCUSDT", seen::add);
+
+        ArgumentCaptor<RowCallbackHandler> handler = ArgumentCaptor.forClass(RowCallbackHandler.class);
+        verify(jdbc).query(any(PreparedStatementCreator.class), handler.capture());
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(7L);
+        when(rs.getString(anyString())).thenAnswer(inv -> inv.getArgument(0).equals("symbol") ? "BTCUSDT" : null);
+        when(rs.getBigDecimal(anyString())).thenAnswer(inv -> inv.getArgument(0).equals("price") ? BigDecimal.TEN : null);
+        handler.getValue().processRow(rs);
+
+        assertEquals(1, seen.size());
+        assertEquals(7L, seen.get(0).id());
+        assertEquals(BigDecimal.TEN, seen.get(0).price());
+    }
+
     @Test
     void deleteByModeAndSymbol_callsUpdate() {
         repo.deleteByModeAndSymbol(1L, "TEST", "BTCUSDT");
 
         verify(jdbc, times(1)).update("DELETE FROM trades WHERE account_id=? AND mode=? AND symbol=?", 1L, "TEST", "BTCUSDT");
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteAfter_keepsRowsUpToTheTimestamp() {
+        OffsetDateTime after = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        repo.deleteAfter(1L, "TRAIN", "BTCUSDT", after);
+
+        verify(jdbc).update("DELETE FROM trades WHERE account_id=? AND mode=? AND symbol=? AND purchased_at > ?",
+                1L, "TRAIN", "BTCUSDT", after);
+    }
+}
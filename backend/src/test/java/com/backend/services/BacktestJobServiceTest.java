@@ -0,0 +1,131 @@
+package com.backend.services;
+
+import com.backend.dto.BacktestJobDTO;
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import com.backend.models.Candles;
+import com.backend.repository.BacktestJobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BacktestJobServiceTest {
+
+    private static BacktestSummary summary(String returnPct) {
+        return new BacktestSummary(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.TEN, BigDecimal.ZERO, 0, new BigDecimal(returnPct), BigDecimal.ZERO);
+    }
+
+    private static BacktestTaskDTO task(long id, BacktestTaskStatus status, BacktestSummary summary) {
+        return new BacktestTaskDTO(id, "BTCUSDT", "1h", BigDecimal.ONE, status, null, 1, summary, null);
+    }
+
+    @Test
+    void sweepExpandsToEveryCombination() {
+        List<BacktestTask> tasks = BacktestJobService.expand(List.of("BTCUSDT", "ETHUSDT"), List.of("1h", "4h"),
+                List.of(new BigDecimal("0.1"), new BigDecimal("0.2"), new BigDecimal("0.5")), BigDecimal.TEN, 1L, 2L);
+
+        assertEquals(12, tasks.size());
+        assertEquals(12, tasks.stream().map(t -> t.symbol() + t.interval() + t.riskPct()).distinct().count());
+        assertThrows(IllegalArgumentException.class, () -> BacktestJobService.expand(List.of("BTCUSDT"), List.of("7m"),
+                List.of(BigDecimal.ONE), BigDecimal.TEN, null, null));
+        assertThrows(IllegalArgumentException.class, () -> BacktestJobService.expand(List.of("BTCUSDT"), List.of("1h"),
+                List.of(new BigDecimal("1.5")), BigDecimal.TEN, null, null));
+    }
+
+    @Test
+    void aggregateCountsStatusesAndRanksByReturn() {
+        BacktestJobDTO job = BacktestJobService.aggregate(3L, List.of(
+                task(1, BacktestTaskStatus.DONE, summary("-2")),
+                task(2, BacktestTaskStatus.RUNNING, null),
+                task(3, BacktestTaskStatus.DONE, summary("7.5")),
+                task(4, BacktestTaskStatus.FAILED, null)));
+
+        assertEquals(4, job.total());
+        assertEquals(2, job.done());
+        assertEquals(1, job.running());
+        assertEquals(1, job.failed());
+        assertEquals(3L, job.best().id());
+        assertEquals(List.of(3L, 1L, 2L, 4L), job.tasks().stream().map(BacktestTaskDTO::id).toList());
+    }
+
+    @Test
+    void runComputesTheSummaryOnAPrivateEngine() {
+        MarketDataService market = mock(MarketDataService.class);
+        List<Candles> candles = new ArrayList<>();
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 200; i++) {
+            BigDecimal p = BigDecimal.valueOf(100 + 10 * Math.sin(i / 8.0)).setScale(2, java.math.RoundingMode.HALF_UP);
+            candles.add(new Candles(t0.plusHours(i), p, p, p, p, BigDecimal.ONE));
+        }
+        when(market.candles(eq("BTCUSDT"), eq("1h"), isNull(), isNull(), eq(1000))).thenReturn(candles);
+
+        BacktestJobService service = new BacktestJobService(mock(BacktestJobRepository.class), market,
+                new BacktestResultCache(), new IndicatorSeriesCache(1_000_000), Clock.systemUTC());
+        BacktestSummary summary = service.run(new BacktestTask(1, 1, "BTCUSDT", "1h", null, null,
+                new BigDecimal("1000"), new BigDecimal("0.5"), 1));
+
+        assertEquals(new BigDecimal("1000"), summary.initialBalance());
+        assertNotNull(summary.returnPct());
+        assertTrue(summary.finalValue().signum() > 0);
+        verify(market).candles("BTCUSDT", "1h", null, null, 1000);
+    }
+
+    @Test
+    void aTaskWithAStartStreamsItsWholeRange() {
+        MarketDataService market = mock(MarketDataService.class);
+        List<Candles> candles = new ArrayList<>();
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 2500; i++) {
+            BigDecimal p = BigDecimal.valueOf(100 + 10 * Math.sin(i / 8.0)).setScale(2, java.math.RoundingMode.HALF_UP);
+            candles.add(new Candles(t0.plusHours(i), p, p, p, p, BigDecimal.ONE));
+        }
+        AtomicInteger served = new AtomicInteger();
+        long start = t0.toInstant().toEpochMilli();
+        CandleSource counted = page -> CandleSource.of(candles).forEachPage(p -> {
+            served.addAndGet(p.size());
+            page.accept(p);
+        });
+        when(market.streamCandles("BTCUSDT", "1h", start, null)).thenReturn(new PrefetchedCandles(counted, 2));
+
+        BacktestJobService service = new BacktestJobService(mock(BacktestJobRepository.class), market,
+                new BacktestResultCache(), new IndicatorSeriesCache(1_000_000), Clock.systemUTC());
+        BacktestSummary summary = service.run(new BacktestTask(1, 1, "BTCUSDT", "1h", start, null,
+                new BigDecimal("1000"), new BigDecimal("0.5"), 1));
+
+        assertEquals(2500, served.get());
+        assertEquals(ScratchEngines.create(market, new BacktestResultCache(), new IndicatorSeriesCache(0), Clock.systemUTC())
+                .runBacktest("BTCUSDT", "1h", candles, new BigDecimal("1000"), new BigDecimal("0.5")).summary(), summary);
+        verify(market, never()).candles(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void anAbandonedStreamedTaskStopsBetweenCandles() {
+        MarketDataService market = mock(MarketDataService.class);
+        OffsetDateTime t0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+        List<Candles> candles = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            candles.add(new Candles(t0.plusHours(i), BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ONE));
+        }
+        long start = t0.toInstant().toEpochMilli();
+        when(market.streamCandles("BTCUSDT", "1h", start, null)).thenReturn(new PrefetchedCandles(CandleSource.of(candles), 2));
+        BacktestJobService service = new BacktestJobService(mock(BacktestJobRepository.class), market,
+                new BacktestResultCache(), new IndicatorSeriesCache(0), Clock.systemUTC());
+        AtomicInteger checks = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> service.run(new BacktestTask(1, 1, "BTCUSDT", "1h", start, null,
+                new BigDecimal("1000"), new BigDecimal("0.5"), 1), () -> checks.incrementAndGet() > 10));
+        assertEquals(11, checks.get());
+    }
+}
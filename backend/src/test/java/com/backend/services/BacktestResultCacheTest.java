@@ -0,0 +1,46 @@
+package com.backend.services;
+
+import com.backend.models.BacktestResult;
+import com.backend.models.BacktestSummary;
+import com.backend.models.Candles;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktestResultCacheTest {
+
+    private static final List<Candles> CANDLES = List.of(
+            new Candles(OffsetDateTime.parse("2026-01-01T00:00:00Z"),
+                    new BigDecimal("1"), new BigDecimal("2"), new BigDecimal("0.5"), new BigDecimal("1.5"), BigDecimal.TEN));
+
+    private static BacktestResult emptyResult() {
+        BigDecimal b = new BigDecimal("1000");
+        return new BacktestResult(List.of(), List.of(),
+                new BacktestSummary(b, b, BigDecimal.ZERO, BigDecimal.ZERO, b, BigDecimal.ZERO, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    @Test
+    void keyIgnoresNumericFormattingButNotInputs() {
+        String a = BacktestResultCache.key("BTCUSDT", "1m", new BigDecimal("1000.0"), new BigDecimal("0.10"), "s", CANDLES);
+        String b = BacktestResultCache.key("BTCUSDT", "1m", new BigDecimal("1000"), new BigDecimal("0.1"), "s", CANDLES);
+        String c = BacktestResultCache.key("BTCUSDT", "1m", new BigDecimal("1000"), new BigDecimal("0.2"), "s", CANDLES);
+        String d = BacktestResultCache.key("BTCUSDT", "1m", new BigDecimal("1000"), new BigDecimal("0.1"), "s", List.of());
+
+        assertEquals(a, b);
+        assertNotEquals(b, c);
+        assertNotEquals(b, d);
+    }
+
+    @Test
+    void entriesExpireByAge() {
+        BacktestResultCache cache = new BacktestResultCache();
+        cache.put("k", emptyResult(), 0);
+
+        assertNotNull(cache.get("k", 60_000));
+        assertNull(cache.get("k", 7 * 3_600_000L));
+    }
+}
@@ -0,0 +1,117 @@
+package com.backend.services;
+
+import com.backend.dto.BacktestTaskDTO;
+import com.backend.dto.BacktestTaskStatus;
+import com.backend.models.BacktestSummary;
+import com.backend.models.BacktestTask;
+import com.backend.repository.BacktestJobRepository;
+import com.backend.repository.InMemoryBacktestJobRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BacktestWorkerTest {
+
+    @Test
+    void severalNodesDrainAJobRunningEachTaskOnce() throws Exception {
+        InMemoryBacktestJobRepository jobs = new InMemoryBacktestJobRepository(Clock.systemUTC());
+        List<BacktestTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            tasks.add(new BacktestTask(0, 0, "SYM" + i, "1h", null, null, BigDecimal.TEN, BigDecimal.ONE, 0));
+        }
+        long job = jobs.createJob(tasks);
+
+        Set<Long> ran = ConcurrentHashMap.newKeySet();
+        BacktestJobService service = mock(BacktestJobService.class);
+        when(service.run(any(), any())).thenAnswer(inv -> {
+            BacktestTask t = inv.getArgument(0);
+            assertTrue(ran.add(t.id()), "task " + t.id() + " ran twice");
+            Thread.sleep(2);
+            return new BacktestSummary(BigDecimal.TEN, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO,
+                    BigDecimal.TEN, BigDecimal.ZERO, 0, BigDecimal.valueOf(t.id()), BigDecimal.ZERO);
+        });
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        // Two "nodes" with three threads each, sharing one job table
+        BacktestWorker a = new BacktestWorker(jobs, service, scheduler, 3, 30_000, 10, 3);
+        BacktestWorker b = new BacktestWorker(jobs, service, scheduler, 3, 30_000, 10, 3);
+        try {
+            a.start();
+            b.start();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (a.completed() + b.completed() < tasks.size() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        } finally {
+            a.stop();
+            b.stop();
+            scheduler.shutdown();
+        }
+
+        assertEquals(40, ran.size());
+        assertTrue(a.completed() > 0 && b.completed() > 0);
+        assertTrue(jobs.tasks(job).stream().map(BacktestTaskDTO::status).allMatch(s -> s == BacktestTaskStatus.DONE));
+    }
+
+    @Test
+    void aLostLeaseAbandonsTheRun() {
+        InMemoryBacktestJobRepository jobs = new InMemoryBacktestJobRepository(Clock.systemUTC());
+        long job = jobs.createJob(List.of(new BacktestTask(0, 0, "BTCUSDT", "1h", null, null, BigDecimal.TEN, BigDecimal.ONE, 0)));
+        BacktestTask claimed = jobs.claim("w1", 30_000, 3).orElseThrow();
+        // Another worker took the task over, so the next heartbeat is refused
+        BacktestJobRepository table = spy(jobs);
+        doReturn(false).when(table).heartbeat(anyLong(), anyString(), anyLong());
+        BacktestJobService service = mock(BacktestJobService.class);
+        when(service.run(any(), any())).thenAnswer(inv -> {
+            BooleanSupplier abandoned = inv.getArgument(1);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!abandoned.getAsBoolean() && System.currentTimeMillis() < deadline) Thread.sleep(1);
+            throw new IllegalStateException("Backtest task " + claimed.id() + " was abandoned");
+        });
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+
+        try {
+            new BacktestWorker(table, service, scheduler, 1, 30, 10, 3).execute("w1", claimed);
+        } finally {
+            scheduler.shutdown();
+        }
+
+        verify(table, never()).fail(anyLong(), anyString(), anyString(), anyInt());
+        verify(table, never()).complete(anyLong(), anyString(), any());
+        assertEquals(BacktestTaskStatus.RUNNING, jobs.tasks(job).get(0).status());
+    }
+
+    @Test
+    void failedRunIsReleasedForRetry() {
+        InMemoryBacktestJobRepository jobs = new InMemoryBacktestJobRepository(Clock.systemUTC());
+        long job = jobs.createJob(List.of(new BacktestTask(0, 0, "BTCUSDT", "1h", null, null, BigDecimal.TEN, BigDecimal.ONE, 0)));
+        BacktestJobService service = mock(BacktestJobService.class);
+        when(service.run(any(), any())).thenThrow(new IllegalStateException("No klines"));
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+
+        try {
+            BacktestWorker worker = new BacktestWorker(jobs, service, scheduler, 1, 30_000, 10, 3);
+            worker.execute("w1", jobs.claim("w1", 30_000, 3).orElseThrow());
+        } finally {
+            scheduler.shutdown();
+        }
+
+        BacktestTaskDTO task = jobs.tasks(job).get(0);
+        assertEquals(BacktestTaskStatus.PENDING, task.status());
+        assertTrue(task.error().contains("No klines"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.backend.services;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinanceGatewayTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private volatile String usedWeight = "1";
+    private volatile long delayMs = 0;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/api/v3/ticker/price", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"symbol\":\"BTCUSDT\",\"price\":\"42000.50\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("X-MBX-USED-WEIGHT-1M", usedWeight);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    private BinanceGateway gateway(int weightLimit) {
+        return new BinanceGateway("http://127.0.0.1:" + server.getAddress().getPort(), weightLimit);
+    }
+
+    @Test
+    void parsesResponseAndTracksUsedWeight() {
+        usedWeight = "37";
+        BinanceGateway gateway = gateway(6000);
+
+        var res = gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbol", "BTCUSDT"),
+                2, BinanceGateway.Priority.LIVE, MarketDataService.PriceResponse.class);
+
+        assertEquals("42000.50", res.price());
+        assertTrue(gateway.usedWeight() >= 37);
+    }
+
+    @Test
+    void coalescesIdenticalInFlightRequests() throws Exception {
+        delayMs = 300;
+        BinanceGateway gateway = gateway(6000);
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<MarketDataService.PriceResponse>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Callable<MarketDataService.PriceResponse> call = () -> {
+                start.await();
+                return gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbol", "BTCUSDT"),
+                        2, BinanceGateway.Priority.CHART, MarketDataService.PriceResponse.class);
+            };
+            results.add(pool.submit(call));
+        }
+        start.countDown();
+
+        for (var r : results) assertEquals("42000.50", r.get().price());
+        assertEquals(1, hits.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void requestsOfDifferentPrioritiesAreNotShared() throws Exception {
+        delayMs = 300;
+        BinanceGateway gateway = gateway(6000);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<MarketDataService.PriceResponse>> results = new ArrayList<>();
+        for (var priority : List.of(BinanceGateway.Priority.CHART, BinanceGateway.Priority.LIVE)) {
+            Callable<MarketDataService.PriceResponse> call = () -> {
+                start.await();
+                return gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbol", "BTCUSDT"),
+                        2, priority, MarketDataService.PriceResponse.class);
+            };
+            results.add(pool.submit(call));
+        }
+        start.countDown();
+
+        for (var r : results) assertEquals("42000.50", r.get().price());
+        assertEquals(2, hits.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void lowPriorityYieldsHeadroomToLive() {
+        usedWeight = "80";
+        BinanceGateway gateway = gateway(100);
+
+        gateway.get("/api/v3/ticker/price", BinanceGateway.params("symbol", "BTCUSDT"),
+                2, BinanceGateway.Priority.LIVE, MarketDataService.PriceResponse.class);
+
+        assertFalse(gateway.fits(2, BinanceGateway.Priority.CHART));
+        assertTrue(gateway.fits(2, BinanceGateway.Priority.BACKTEST));
+        assertTrue(gateway.fits(2, BinanceGateway.Priority.LIVE));
+    }
+}
@@ -0,0 +1,56 @@
+package com.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BotEngineSessionTest {
+
+    private static BotEngine engine() {
+        return ScratchEngines.create(mock(MarketDataService.class), new BacktestResultCache(), new IndicatorSeriesCache(0),
+                new ReplayClock(Instant.parse("2026-01-01T00:00:00Z")));
+    }
+
+    @Test
+    void anotherAccountCannotTakeOverARunningSession() {
+        BotEngine engine = engine();
+        engine.claim(1L);
+        engine.startLive(1L, "BTCUSDT", "1m", new BigDecimal("1000"));
+
+        assertThrows(AccountBusyException.class, () -> engine.claim(2L));
+        assertThrows(AccountBusyException.class, () -> engine.stop(2L));
+        assertTrue(engine.isRunning());
+        assertEquals(1L, engine.getAccountId());
+
+        engine.stop(1L);
+        assertFalse(engine.isRunning());
+        engine.claim(2L);
+    }
+
+    @Test
+    void theOwnerRestartingKeepsTheEngineUntilItsLastClaimEnds() {
+        BotEngine engine = engine();
+        long first = engine.claim(1L);
+        long second = engine.claim(1L);
+
+        // The first run ending must not free the engine while the second still runs
+        engine.release(first);
+        assertThrows(AccountBusyException.class, () -> engine.claim(2L));
+
+        engine.release(second);
+        engine.claim(2L);
+    }
+
+    @Test
+    void aClaimStillStartingBlocksOtherAccounts() {
+        BotEngine engine = engine();
+        engine.claim(1L);
+
+        assertFalse(engine.isRunning());
+        assertThrows(AccountBusyException.class, () -> engine.claim(2L));
+    }
+}
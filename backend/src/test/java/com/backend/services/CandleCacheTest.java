@@ -0,0 +1,106 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleCacheTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_700_000_040_000L - (1_700_000_040_000L % MINUTE);
+
+    private static Candles candle(long openMs, String close) {
+        BigDecimal c = new BigDecimal(close);
+        return new Candles(OffsetDateTime.ofInstant(Instant.ofEpochMilli(openMs), ZoneOffset.UTC), c, c, c, c, BigDecimal.ONE);
+    }
+
+    @Test
+    void closedOnlyEntryNeverExpires() {
+        var key = new CandleCache.Key("BTCUSDT", "1m", T0, T0 + 2 * MINUTE, 2);
+        var entry = CandleCache.toEntry(key, List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), T0 + 10 * MINUTE);
+
+        assertNull(entry.forming());
+        assertTrue(entry.isFresh(Long.MAX_VALUE - 1));
+        assertEquals(T0 + 2 * MINUTE, entry.page().lastModifiedMs());
+    }
+
+    @Test
+    void formingCandleExpiresBeforeItCloses() {
+        var key = new CandleCache.Key("BTCUSDT", "1m", null, null, 2);
+        long now = T0 + MINUTE + 30_000;
+        var entry = CandleCache.toEntry(key, List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), now);
+
+        assertNotNull(entry.forming());
+        assertEquals(1, entry.closed().size());
+        assertTrue(entry.isFresh(now));
+        assertFalse(entry.isFresh(T0 + 2 * MINUTE));
+    }
+
+    @Test
+    void latestCandlesExpireAfterOneIntervalEvenWhenAllAreClosed() {
+        var key = new CandleCache.Key("BTCUSDT", "1m", null, null, 2);
+        long now = T0 + 2 * MINUTE;
+        var entry = CandleCache.toEntry(key, List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), now);
+
+        assertNull(entry.forming());
+        assertEquals(2, entry.closed().size());
+        assertTrue(entry.isFresh(now + MINUTE - 1));
+        assertFalse(entry.isFresh(now + MINUTE));
+        assertEquals(T0 + 2 * MINUTE, entry.refreshFromMs(MINUTE));
+    }
+
+    @Test
+    void aShortPageFromAStartTimeExpiresButAFullOneDoesNot() {
+        long now = T0 + 10 * MINUTE;
+        var shortPage = CandleCache.toEntry(new CandleCache.Key("BTCUSDT", "1m", T0, null, 3),
+                List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), now);
+        var fullPage = CandleCache.toEntry(new CandleCache.Key("BTCUSDT", "1m", T0, null, 2),
+                List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), now);
+
+        assertFalse(shortPage.isFresh(now + MINUTE));
+        assertTrue(fullPage.isFresh(Long.MAX_VALUE - 1));
+    }
+
+    @Test
+    void aWindowEndingInTheFutureExpiresAfterOneIntervalEvenWhenEmpty() {
+        long now = T0 + 2 * MINUTE;
+        var key = new CandleCache.Key("BTCUSDT", "1m", T0, T0 + 10 * MINUTE, 5);
+        var shortPage = CandleCache.toEntry(key, List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), now);
+        var empty = CandleCache.toEntry(new CandleCache.Key("BTCUSDT", "1m", now, T0 + 10 * MINUTE, 5), List.of(), now);
+
+        assertNull(shortPage.forming());
+        assertTrue(shortPage.isFresh(now + MINUTE - 1));
+        assertFalse(shortPage.isFresh(now + MINUTE));
+        assertFalse(empty.isFresh(now + MINUTE));
+    }
+
+    @Test
+    void etagChangesWithContent() {
+        var key = new CandleCache.Key("BTCUSDT", "1m", T0, null, 1);
+        var a = CandleCache.toEntry(key, List.of(candle(T0, "1")), T0 + 5 * MINUTE);
+        var b = CandleCache.toEntry(key, List.of(candle(T0, "1")), T0 + 6 * MINUTE);
+        var c = CandleCache.toEntry(key, List.of(candle(T0, "2")), T0 + 5 * MINUTE);
+
+        assertEquals(a.page().etag(), b.page().etag());
+        assertNotEquals(a.page().etag(), c.page().etag());
+    }
+
+    @Test
+    void putReplacesAndTracksSize() {
+        CandleCache cache = new CandleCache();
+        var key = new CandleCache.Key("BTCUSDT", "1m", T0, null, 2);
+
+        cache.put(key, List.of(candle(T0, "1")), T0 + 5 * MINUTE);
+        cache.put(key, List.of(candle(T0, "1"), candle(T0 + MINUTE, "2")), T0 + 5 * MINUTE);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.get(key).page().candles().size());
+    }
+}
@@ -0,0 +1,205 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import com.backend.repository.InMemoryCandleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CandleRollupServiceTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final OffsetDateTime DAY_START = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private final InMemoryCandleRepository repo = new InMemoryCandleRepository();
+    private final BinanceGateway gateway = mock(BinanceGateway.class);
+    private final ReplayClock clock = new ReplayClock(Instant.parse("2026-01-02T00:12:30Z"));
+    private CandleRollupService service;
+
+    // 1m candle i minutes after DAY_START: open = close = i, high = i + 0.5, low = i - 0.5, volume 1
+    private static Object[] kline(long openMs) {
+        long i = (openMs - DAY_START.toInstant().toEpochMilli()) / MINUTE;
+        return new Object[]{openMs, i + "", (i + 0.5) + "", (i - 0.5) + "", i + "", "1"};
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(gateway.get(eq("/api/v3/klines"), anyMap(), anyInt(), any(), eq(Object[][].class))).thenAnswer(inv -> {
+            Map<String, Object> params = inv.getArgument(1);
+            long start = (Long) params.get("startTime");
+            long end = (Long) params.get("endTime");
+            int limit = (Integer) params.get("limit");
+            List<Object[]> rows = new ArrayList<>();
+            for (long t = start; t <= end && rows.size() < limit; t += MINUTE) rows.add(kline(t));
+            return rows.toArray(new Object[0][]);
+        });
+        service = new CandleRollupService(repo, gateway, clock, List.of("BTCUSDT"), 1);
+    }
+
+    @Test
+    void rollupAggregatesOhlcvAndDropsTheOpenBucket() {
+        List<Candles> minutes = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            long t = DAY_START.toInstant().toEpochMilli() + i * MINUTE;
+            Object[] k = kline(t);
+            minutes.add(new Candles(DAY_START.plusMinutes(i), new BigDecimal((String) k[1]), new BigDecimal((String) k[2]),
+                    new BigDecimal((String) k[3]), new BigDecimal((String) k[4]), BigDecimal.ONE));
+        }
+
+        List<Candles> fives = CandleRollupService.rollup(minutes,
+                5 * MINUTE, DAY_START.plusMinutes(12).toInstant().toEpochMilli());
+
+        assertEquals(2, fives.size());
+        Candles second = fives.get(1);
+        assertEquals(DAY_START.plusMinutes(5), second.openTime());
+        assertEquals(0, new BigDecimal("5").compareTo(second.open()));
+        assertEquals(0, new BigDecimal("9.5").compareTo(second.high()));
+        assertEquals(0, new BigDecimal("4.5").compareTo(second.low()));
+        assertEquals(0, new BigDecimal("9").compareTo(second.close()));
+        assertEquals(0, new BigDecimal("5").compareTo(second.volume()));
+    }
+
+    @Test
+    void rollupSkipsBucketsMissingMinutes() {
+        List<Candles> minutes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            if (i == 7) continue;
+            BigDecimal p = BigDecimal.valueOf(i);
+            minutes.add(new Candles(DAY_START.plusMinutes(i), p, p, p, p, BigDecimal.ONE));
+        }
+
+        List<Candles> fives = CandleRollupService.rollup(minutes, 5 * MINUTE, DAY_START.plusMinutes(10).toInstant().toEpochMilli());
+
+        assertEquals(List.of(DAY_START), fives.stream().map(Candles::openTime).toList());
+    }
+
+    @Test
+    void syncBackfillsFromMidnightAndRollsUpClosedBuckets() {
+        int stored = service.sync("BTCUSDT");
+
+        // 2026-01-01T00:00 up to (excluding) the forming 2026-01-02T00:12 minute
+        assertEquals(24 * 60 + 12, stored);
+        verify(gateway, times(2)).get(eq("/api/v3/klines"), anyMap(), anyInt(), eq(BinanceGateway.Priority.BACKTEST), eq(Object[][].class));
+
+        List<Candles> days = repo.latest("BTCUSDT", "1d", DAY_START.plusDays(5), 10);
+        assertEquals(1, days.size());
+        assertEquals(0, new BigDecimal("1439").compareTo(days.get(0).close()));
+        assertEquals(0, new BigDecimal("1440").compareTo(days.get(0).volume()));
+
+        assertEquals(24, repo.range("BTCUSDT", "1h", DAY_START, DAY_START.plusDays(1), 100).size());
+        // 00:00 and 00:05 of the second day are closed, 00:10 is not
+        assertEquals(2, repo.range("BTCUSDT", "5m", DAY_START.plusDays(1), DAY_START.plusDays(2), 100).size());
+    }
+
+    @Test
+    void syncOnlyFetchesNewMinutesAndCompletesTheOpenBucket() {
+        service.sync("BTCUSDT");
+        clock.set(Instant.parse("2026-01-02T00:15:10Z"));
+
+        assertEquals(3, service.sync("BTCUSDT"));
+        List<Candles> fives = repo.range("BTCUSDT", "5m", DAY_START.plusDays(1), DAY_START.plusDays(2), 100);
+        assertEquals(3, fives.size());
+        assertEquals(0, new BigDecimal("5").compareTo(fives.get(2).volume()));
+    }
+
+    @Test
+    void servesCoveredRequestsLocally() {
+        service.sync("BTCUSDT");
+
+        Optional<List<Candles>> latest = service.candles("BTCUSDT", "1h", null, null, 5);
+        assertTrue(latest.isPresent());
+        assertEquals(5, latest.get().size());
+        assertEquals(DAY_START.plusHours(23), latest.get().get(4).openTime());
+
+        long from = DAY_START.plusHours(2).toInstant().toEpochMilli();
+        long to = DAY_START.plusHours(3).toInstant().toEpochMilli();
+        Optional<List<Candles>> window = service.candles("BTCUSDT", "15m", from, to, 1000);
+        // endTime is inclusive of the open time, as on Binance
+        assertEquals(5, window.orElseThrow().size());
+    }
+
+    @Test
+    void fallsBackWhenTheStoreDoesNotCover() {
+        service.sync("BTCUSDT");
+
+        assertTrue(service.candles("ETHUSDT", "1h", null, null, 5).isEmpty());
+        assertTrue(service.candles("BTCUSDT", "3m", null, null, 5).isEmpty());
+        assertTrue(service.candles("BTCUSDT", "1h", DAY_START.minusDays(1).toInstant().toEpochMilli(), null, 5).isEmpty());
+
+        // The store is a day behind once the sync stops
+        clock.set(Instant.parse("2026-01-03T00:12:30Z"));
+        assertTrue(service.candles("BTCUSDT", "1h", null, null, 5).isEmpty());
+    }
+
+    @Test
+    void aStoreBehindTheNewestClosedCandleFallsBack() {
+        service.sync("BTCUSDT");
+
+        // Two minutes without a sync: the 1m window would end two candles short
+        clock.set(Instant.parse("2026-01-02T00:14:30Z"));
+        assertTrue(service.candles("BTCUSDT", "1m", null, null, 60).isEmpty());
+        assertTrue(service.candles("BTCUSDT", "1h", null, null, 5).isPresent());
+
+        // A day without one leaves out the day that closed at midnight
+        clock.set(Instant.parse("2026-01-03T00:00:30Z"));
+        assertTrue(service.candles("BTCUSDT", "1d", null, null, 2).isEmpty());
+    }
+
+    @Test
+    void streamsCoveredRangesOffTheStore() {
+        service.sync("BTCUSDT");
+
+        long from = DAY_START.plusHours(2).toInstant().toEpochMilli();
+        long to = DAY_START.plusHours(20).toInstant().toEpochMilli();
+        List<Candles> streamed = new ArrayList<>();
+        List<Integer> pages = new ArrayList<>();
+        service.source("BTCUSDT", "1m", from, to).orElseThrow().forEachPage(page -> {
+            pages.add(page.size());
+            streamed.addAll(page);
+        });
+
+        assertEquals(18 * 60 + 1, streamed.size());
+        assertEquals(List.of(1000, 81), pages);
+        assertEquals(DAY_START.plusHours(2), streamed.get(0).openTime());
+        assertTrue(service.source("ETHUSDT", "1m", from, to).isEmpty());
+    }
+
+    @Test
+    void anInteriorGapFallsBackToBinanceUntilSyncRefetchesIt() {
+        long dayStart = DAY_START.toInstant().toEpochMilli();
+        long gapFrom = DAY_START.plusHours(10).toInstant().toEpochMilli();
+        long gapTo = DAY_START.plusHours(11).toInstant().toEpochMilli();
+        long storedUntil = DAY_START.plusDays(1).plusMinutes(12).toInstant().toEpochMilli();
+        List<Object[]> rows = new ArrayList<>();
+        for (long t = dayStart; t < storedUntil; t += MINUTE) {
+            if (t < gapFrom || t >= gapTo) rows.add(kline(t));
+        }
+        repo.upsertCandles("BTCUSDT", "1m", MarketDataService.toCandles(rows.toArray(new Object[0][])));
+        service.rollUp("BTCUSDT", dayStart, storedUntil);
+
+        long from = DAY_START.plusHours(9).toInstant().toEpochMilli();
+        long to = DAY_START.plusHours(12).toInstant().toEpochMilli();
+        assertTrue(service.candles("BTCUSDT", "1h", from, to, 1000).isEmpty());
+        assertTrue(service.source("BTCUSDT", "1m", from, to).isEmpty());
+        // The newest hours do not reach back to the gap
+        assertTrue(service.candles("BTCUSDT", "1m", null, null, 60).isPresent());
+
+        assertEquals(60, service.sync("BTCUSDT"));
+
+        assertEquals(4, service.candles("BTCUSDT", "1h", from, to, 1000).orElseThrow().size());
+        assertEquals(1, repo.range("BTCUSDT", "1d", DAY_START, DAY_START.plusDays(1), 10).size());
+        assertEquals(0, service.sync("BTCUSDT"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.backend.services;
+
+import com.backend.models.BookFeatures;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepthFeedTest {
+
+    private static final DepthFeed.DepthResponse SNAPSHOT = new DepthFeed.DepthResponse(100,
+            List.of(List.of("100.00", "2.0"), List.of("99.50", "1.0")),
+            List.of(List.of("100.50", "1.0"), List.of("101.00", "4.0")));
+
+    private static String event(long first, long last, String bids, String asks) {
+        return "{\"e\":\"depthUpdate\",\"E\":1,\"s\":\"BTCUSDT\",\"U\":" + first + ",\"u\":" + last
+                + ",\"b\":[" + bids + "],\"a\":[" + asks + "]}";
+    }
+
+    private static DepthFeed.Sync sync(AtomicInteger loads) {
+        return new DepthFeed.Sync("BTCUSDT", new OrderBook(10), symbol -> {
+            loads.incrementAndGet();
+            return SNAPSHOT;
+        }, Runnable::run);
+    }
+
+    @Test
+    void appliesUpdatesAfterTheSnapshotAndDropsOlderOnes() {
+        AtomicInteger loads = new AtomicInteger();
+        DepthFeed.Sync sync = sync(loads);
+
+        // Covered by the snapshot: dropped, but the snapshot is loaded
+        sync.onEvent(event(90, 100, "[\"100.00\",\"50\"]", ""));
+        assertEquals(1, loads.get());
+        assertFalse(sync.synced());
+        assertEquals(OrderBook.parse("2"), sync.book().level(true, 0)[1]);
+
+        // First update straddling the snapshot id
+        sync.onEvent(event(95, 105, "[\"100.00\",\"0\"], [\"99.75\",\"3.5\"]", "[\"100.25\",\"1\"]"));
+        assertTrue(sync.synced());
+        assertEquals(105, sync.book().updateId());
+        assertEquals(OrderBook.parse("99.75"), sync.book().bestBid());
+        assertEquals(OrderBook.parse("100.25"), sync.book().bestAsk());
+        assertEquals(2, sync.book().depth(true));
+
+        sync.onEvent(event(106, 107, "", "[\"100.25\",\"0\"]"));
+        assertEquals(OrderBook.parse("100.50"), sync.book().bestAsk());
+        assertEquals((4.5 - 5.0) / 9.5, sync.book().imbalance(), 1e-12);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aGapReloadsTheSnapshot() {
+        AtomicInteger loads = new AtomicInteger();
+        DepthFeed.Sync sync = sync(loads);
+        sync.onEvent(event(101, 101, "", ""));
+        assertTrue(sync.synced());
+
+        // 102 was missed
+        sync.onEvent(event(103, 104, "[\"100.00\",\"9\"]", ""));
+        assertFalse(sync.synced());
+        assertEquals(OrderBook.parse("2.0"), sync.book().level(true, 0)[1]);
+
+        // The next event reloads; this stub's snapshot is older than the stream, so it still has a gap
+        sync.onEvent(event(105, 105, "", ""));
+        assertEquals(2, loads.get());
+        assertFalse(sync.synced());
+    }
+
+    @Test
+    void eventsBeforeTheSnapshotArrivesAreBufferedAndApplied() {
+        AtomicInteger loads = new AtomicInteger();
+        List<Runnable> pending = new ArrayList<>();
+        DepthFeed.Sync sync = new DepthFeed.Sync("BTCUSDT", new OrderBook(10), symbol -> {
+            loads.incrementAndGet();
+            return SNAPSHOT;
+        }, pending::add);
+
+        sync.onEvent(event(99, 101, "[\"99.75\",\"3\"]", ""));
+        sync.onEvent(event(102, 102, "", "[\"100.25\",\"1\"]"));
+        assertFalse(sync.synced());
+        assertEquals(1, pending.size());
+
+        pending.get(0).run();
+        sync.onEvent(event(103, 103, "", ""));
+
+        assertTrue(sync.synced());
+        assertEquals(103, sync.book().updateId());
+        assertEquals(OrderBook.parse("100.00"), sync.book().bestBid());
+        assertEquals(OrderBook.parse("100.25"), sync.book().bestAsk());
+        assertEquals(3, sync.book().depth(true));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void aResyncFromAnotherThreadTakesEffectOnTheNextEvent() {
+        DepthFeed.Sync sync = sync(new AtomicInteger());
+        sync.onEvent(event(101, 101, "", ""));
+        assertTrue(sync.synced());
+
+        sync.requestResync();
+        assertFalse(sync.synced());
+        sync.onEvent(event(102, 102, "", ""));
+        // Reloaded, and this stub's snapshot is older than the stream
+        assertFalse(sync.synced());
+    }
+
+    @Test
+    void malformedEventsAreRejected() {
+        DepthFeed.Sync sync = sync(new AtomicInteger());
+        assertThrows(IllegalArgumentException.class, () -> sync.onEvent("{\"e\":\"depthUpdate\"}"));
+        assertThrows(IllegalArgumentException.class, () -> sync.onEvent(event(101, 101, "[\"100.00\"", "")));
+    }
+
+    @Test
+    void loadsTheSnapshotThroughTheGatewayOffTheEventThread() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v3/depth", exchange -> {
+            assertEquals("symbol=BTCUSDT&limit=100", exchange.getRequestURI().getRawQuery());
+            byte[] body = "{\"lastUpdateId\":100,\"bids\":[[\"100.00\",\"2.0\"]],\"asks\":[[\"100.50\",\"6.0\"]]}"
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        try {
+            DepthFeed feed = new DepthFeed(new BinanceGateway("http://127.0.0.1:" + server.getAddress().getPort(), 6000),
+                    "ws://unused", true, 100, 10);
+            DepthFeed.Sync sync = feed.sync("BTCUSDT");
+            sync.onEvent(event(101, 101, "", ""));
+            // The snapshot is still on its way; events keep coming and are buffered meanwhile
+            for (long id = 102; !sync.synced() && id < 300; id++) {
+                Thread.sleep(20);
+                sync.onEvent(event(id, id, "", ""));
+            }
+
+            assertTrue(sync.synced());
+            assertEquals(-0.5, sync.book().imbalance(), 1e-12);
+            // Not tracked, so the feed itself has no book for it
+            assertTrue(Double.isNaN(feed.imbalance("BTCUSDT")));
+            assertEquals(BookFeatures.NONE, feed.features("BTCUSDT"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void snapshotWeightFollowsTheLimit() {
+        assertEquals(5, DepthFeed.weight(100));
+        assertEquals(25, DepthFeed.weight(500));
+        assertEquals(50, DepthFeed.weight(1000));
+        assertEquals(250, DepthFeed.weight(5000));
+    }
+}
@@ -0,0 +1,137 @@
+package com.backend.services;
+
+import com.backend.models.BacktestSummary;
+import com.backend.models.Candles;
+import com.backend.repository.InMemoryBacktestCheckpointRepository;
+import com.backend.repository.InMemorySnapshotRepository;
+import com.backend.repository.InMemoryTradeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.backend.services.IndicatorSeriesCache.Indicator.RSI;
+import static com.backend.services.IndicatorSeriesCache.Indicator.SMA;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndicatorSeriesCacheTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private static List<Candles> randomWalk(int n, long seed) {
+        Random random = new Random(seed);
+        List<Candles> candles = new ArrayList<>(n);
+        double p = 100;
+        for (int i = 0; i < n; i++) {
+            p *= 1 + random.nextGaussian() * 0.01;
+            BigDecimal price = BigDecimal.valueOf(p).setScale(2, RoundingMode.HALF_UP);
+            candles.add(new Candles(T0.plusMinutes(i), price, price, price, price, BigDecimal.ONE));
+        }
+        return candles;
+    }
+
+    private static List<BigDecimal> closes(List<Candles> candles, int to) {
+        return candles.subList(0, to).stream().map(Candles::close).toList();
+    }
+
+    private static void assertMatchesStrategy(IndicatorSeriesCache.Series sma, IndicatorSeriesCache.Series rsi,
+                                              List<Candles> candles) {
+        for (int i = 0; i < candles.size(); i++) {
+            List<BigDecimal> closes = closes(candles, i + 1);
+            if (i >= 11) {
+                BigDecimal expected = TradingStrategy.simpleMovingAverage(closes.subList(closes.size() - 12, closes.size()));
+                assertEquals(expected, sma.get(i), "SMA at " + i);
+            } else {
+                assertNull(sma.get(i));
+            }
+            if (i >= 14) {
+                assertEquals(0, TradingStrategy.relativeStrengthIndex(closes, 14).compareTo(rsi.get(i)), "RSI at " + i);
+            }
+        }
+    }
+
+    @Test
+    void seriesEqualTheStrategyAtEveryIndex() {
+        IndicatorSeriesCache cache = new IndicatorSeriesCache(1_000_000);
+        List<Candles> candles = randomWalk(400, 1);
+
+        assertMatchesStrategy(cache.series("BTCUSDT", "1m", SMA, 12, candles),
+                cache.series("BTCUSDT", "1m", RSI, 14, candles), candles);
+    }
+
+    @Test
+    void appendedCandlesExtendTheSeriesAndEarlierViewsStayValid() {
+        IndicatorSeriesCache cache = new IndicatorSeriesCache(1_000_000);
+        List<Candles> candles = randomWalk(600, 2);
+
+        IndicatorSeriesCache.Series first = cache.series("BTCUSDT", "1m", SMA, 12, candles.subList(0, 300));
+        BigDecimal before = first.get(299);
+        IndicatorSeriesCache.Series extended = cache.series("BTCUSDT", "1m", SMA, 12, candles);
+
+        assertEquals(300, first.length());
+        assertEquals(before, first.get(299));
+        assertEquals(600, extended.length());
+        assertEquals(before, extended.get(299));
+        assertMatchesStrategy(extended, cache.series("BTCUSDT", "1m", RSI, 14, candles), candles);
+
+        // A shorter run over the same start is a prefix
+        assertEquals(before, cache.series("BTCUSDT", "1m", SMA, 12, candles.subList(0, 300)).get(299));
+    }
+
+    @Test
+    void changedCandlesAreRecomputedFromWhereTheyDiffer() {
+        IndicatorSeriesCache cache = new IndicatorSeriesCache(1_000_000);
+        List<Candles> candles = randomWalk(300, 3);
+        IndicatorSeriesCache.Series original = cache.series("BTCUSDT", "1m", SMA, 12, candles);
+
+        List<Candles> revised = new ArrayList<>(candles);
+        Candles c = revised.get(200);
+        BigDecimal close = c.close().add(BigDecimal.TEN);
+        revised.set(200, new Candles(c.openTime(), c.open(), c.high(), c.low(), close, c.volume()));
+        IndicatorSeriesCache.Series series = cache.series("BTCUSDT", "1m", SMA, 12, revised);
+
+        assertEquals(original.get(199), series.get(199));
+        assertNotEquals(original.get(200), series.get(200));
+        assertMatchesStrategy(series, cache.series("BTCUSDT", "1m", RSI, 14, revised), revised);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSeriesBeyondTheBound() {
+        IndicatorSeriesCache cache = new IndicatorSeriesCache(1000);
+
+        cache.series("BTCUSDT", "1m", SMA, 12, randomWalk(600, 4));
+        cache.series("ETHUSDT", "1m", SMA, 12, randomWalk(600, 5));
+
+        assertEquals(600, cache.size());
+        assertNull(new IndicatorSeriesCache(0).series("BTCUSDT", "1m", SMA, 12, randomWalk(10, 6)));
+    }
+
+    @Test
+    void cachedBacktestsMatchUncachedOnes() {
+        List<Candles> candles = randomWalk(3000, 42);
+        IndicatorSeriesCache shared = new IndicatorSeriesCache(1_000_000);
+
+        for (String risk : List.of("0.5", "0.25")) {
+            BacktestSummary uncached = engine(new IndicatorSeriesCache(0)).runBacktest("BTCUSDT", "1m", candles,
+                    new BigDecimal("1000"), new BigDecimal(risk)).summary();
+            BacktestSummary cached = engine(shared).runBacktest("BTCUSDT", "1m", candles,
+                    new BigDecimal("1000"), new BigDecimal(risk)).summary();
+
+            assertTrue(uncached.tradeCount() > 0);
+            assertEquals(uncached, cached);
+        }
+    }
+
+    private static BotEngine engine(IndicatorSeriesCache indicatorSeries) {
+        var clock = new ReplayClock(Instant.parse("2026-01-01T00:00:00Z"));
+        return ScratchEngines.create(new InMemoryTradeRepository(), new InMemorySnapshotRepository(),
+                new InMemoryBacktestCheckpointRepository(), mock(MarketDataService.class), new BacktestResultCache(),
+                indicatorSeries, clock);
+    }
+}
@@ -0,0 +1,70 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import com.backend.repository.InMemoryCandleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KlineArchiveImporterTest {
+
+    private static final Path KLINES = Path.of("src/test/resources/klines");
+    private static final OffsetDateTime FROM = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    private static final OffsetDateTime TO = OffsetDateTime.parse("2026-01-03T00:00:00Z");
+
+    private final InMemoryCandleRepository repo = new InMemoryCandleRepository();
+    private final CandleRollupService rollups = new CandleRollupService(repo, mock(BinanceGateway.class),
+            new ReplayClock(Instant.parse("2026-01-03T00:00:00Z")), List.of("BTCUSDT"), 1);
+    private final KlineArchiveImporter importer = new KlineArchiveImporter(repo, rollups);
+
+    @Test
+    void importsArchiveAndRollsUpOneMinuteCandles() throws Exception {
+        KlineArchiveImporter.Result result = importer.importFile(KLINES.resolve("BTCUSDT-1m-2026-01-01.zip"));
+
+        assertEquals("BTCUSDT", result.symbol());
+        assertEquals("1m", result.interval());
+        assertEquals(10, result.rows());
+        assertTrue(result.rowsPerSecond() > 0);
+
+        List<Candles> base = repo.range("BTCUSDT", "1m", FROM, TO, 100);
+        assertEquals(10, base.size());
+        assertEquals(0, new BigDecimal("101").compareTo(base.get(0).close()));
+
+        // 00:00-00:05 and 00:05-00:10 are closed
+        List<Candles> fiveMinutes = repo.range("BTCUSDT", "5m", FROM, TO, 100);
+        assertEquals(2, fiveMinutes.size());
+        assertEquals(0, new BigDecimal("100").compareTo(fiveMinutes.get(0).open()));
+        assertEquals(0, new BigDecimal("105").compareTo(fiveMinutes.get(0).close()));
+        assertEquals(0, new BigDecimal("7.5").compareTo(fiveMinutes.get(0).volume()));
+    }
+
+    @Test
+    void reimportIsIdempotent() throws Exception {
+        Path archive = KLINES.resolve("BTCUSDT-1m-2026-01-01.zip");
+        importer.importFile(archive);
+        importer.importFile(archive);
+
+        assertEquals(10, repo.range("BTCUSDT", "1m", FROM, TO, 100).size());
+        assertEquals(2, repo.range("BTCUSDT", "5m", FROM, TO, 100).size());
+    }
+
+    @Test
+    void importsEveryArchiveInDirectory() throws Exception {
+        List<KlineArchiveImporter.Result> results = importer.importPath(KLINES);
+
+        assertEquals(List.of("BTCUSDT", "ETHUSDT"), results.stream().map(KlineArchiveImporter.Result::symbol).toList());
+        assertEquals(5, repo.range("ETHUSDT", "1m", FROM, TO, 100).size());
+    }
+
+    @Test
+    void rejectsUnrecognisedFileNames() {
+        assertThrows(IllegalArgumentException.class, () -> importer.importFile(Path.of("candles.zip")));
+    }
+}
@@ -0,0 +1,80 @@
+package com.backend.services;
+
+import com.backend.repository.KlineCursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlineArchiveReaderTest {
+
+    private static final Path KLINES = Path.of("src/test/resources/klines");
+    private static final long DAY_START_MS = 1767225600000L;
+
+    private static KlineArchiveReader reader(String csv) {
+        return new KlineArchiveReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void readsZipArchiveWithoutExtracting() throws Exception {
+        try (KlineArchiveReader r = KlineArchiveReader.open(KLINES.resolve("BTCUSDT-1m-2026-01-01.zip"))) {
+            int n = 0;
+            while (r.next()) {
+                assertEquals(DAY_START_MS + n * 60_000L, r.openTimeMs());
+                assertEquals(0, new BigDecimal(100 + n).compareTo(r.decimal(KlineCursor.OPEN)));
+                assertEquals(0, new BigDecimal("1.5").compareTo(r.decimal(KlineCursor.VOLUME)));
+                n++;
+            }
+            assertEquals(10, n);
+            assertEquals(DAY_START_MS, r.firstOpenTimeMs());
+            assertEquals(DAY_START_MS + 9 * 60_000L, r.lastOpenTimeMs());
+        }
+    }
+
+    @Test
+    void skipsHeaderAndConvertsMicrosecondTimestamps() throws Exception {
+        try (KlineArchiveReader r = KlineArchiveReader.open(KLINES.resolve("ETHUSDT-1m-2026-01-02.csv"))) {
+            assertTrue(r.next());
+            assertEquals(DAY_START_MS + 86_400_000L, r.openTimeMs());
+            assertEquals(0, new BigDecimal("1541").compareTo(r.decimal(KlineCursor.CLOSE)));
+            int n = 1;
+            while (r.next()) n++;
+            assertEquals(5, n);
+        }
+    }
+
+    @Test
+    void copiesDecimalTextVerbatim() {
+        KlineArchiveReader r = reader("1000,1.10,2.20,0.50,1.90,7.000\n");
+        assertTrue(r.next());
+        byte[] dest = new byte[16];
+        int end = r.copyDecimal(KlineCursor.HIGH, dest, 2);
+        assertEquals("2.20", new String(dest, 2, end - 2, StandardCharsets.US_ASCII));
+        assertFalse(r.next());
+    }
+
+    @Test
+    void handlesLastLineWithoutNewlineAndBlankLines() {
+        KlineArchiveReader r = reader("1000,1,2,0,1,7\n\n2000,1,2,0,1,7");
+        assertTrue(r.next());
+        assertTrue(r.next());
+        assertEquals(2000, r.openTimeMs());
+        assertFalse(r.next());
+    }
+
+    @Test
+    void rejectsMalformedRows() {
+        KlineArchiveReader shortRow = reader("1000,1,2,0,1,7\n2000,1,2\n");
+        assertTrue(shortRow.next());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, shortRow::next);
+        assertTrue(e.getMessage().contains("line 2"));
+
+        // Anything but plain digits would be passed straight into COPY
+        assertThrows(IllegalArgumentException.class, () -> reader("1000,1,2\t9,0,1,7\n").next());
+        assertThrows(IllegalArgumentException.class, () -> reader("1000,1,2,-1,1,7\n").next());
+    }
+}
@@ -0,0 +1,55 @@
+package com.backend.services;
+
+import com.backend.dto.LatencyStatsDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyTrackerTest {
+
+    @Test
+    void reportsEveryStageAndTotalInMicros() throws Exception {
+        LatencyTracker tracker = new LatencyTracker(0);
+
+        for (int i = 0; i < 5; i++) {
+            TickTrace trace = TickTrace.start();
+            Thread.sleep(2);
+            trace.mark(TickTrace.Stage.FETCH);
+            trace.mark(TickTrace.Stage.PERSISTENCE);
+            tracker.record(trace);
+        }
+
+        Map<String, LatencyStatsDTO> stats = tracker.snapshot();
+        assertEquals(List.of("FETCH", "INDICATORS", "SIGNAL", "LEDGER", "PERSISTENCE", "TOTAL"), List.copyOf(stats.keySet()));
+        assertEquals(5, stats.get("FETCH").count());
+        assertTrue(stats.get("FETCH").p50() >= 2000);
+        assertTrue(stats.get("TOTAL").max() >= stats.get("FETCH").max());
+        assertEquals(0, stats.get("SIGNAL").max());
+    }
+
+    @Test
+    void snapshotsAccumulateUntilReset() {
+        LatencyTracker tracker = new LatencyTracker(0);
+        TickTrace trace = TickTrace.start();
+        trace.mark(TickTrace.Stage.FETCH);
+
+        tracker.record(trace);
+        tracker.snapshot();
+        tracker.record(trace);
+
+        assertEquals(2, tracker.snapshot().get("TOTAL").count());
+
+        tracker.reset();
+        assertEquals(0, tracker.snapshot().get("TOTAL").count());
+    }
+
+    @Test
+    void untracedTicksAreFree() {
+        TickTrace.NONE.mark(TickTrace.Stage.FETCH);
+
+        assertEquals(0, TickTrace.NONE.totalNanos());
+    }
+}
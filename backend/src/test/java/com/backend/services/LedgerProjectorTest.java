@@ -0,0 +1,98 @@
+package com.backend.services;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.PositionRow;
+import com.backend.repository.JdbcLedgerRepository;
+import com.backend.repository.LedgerJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class LedgerProjectorTest {
+
+    private static final OffsetDateTime TS = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    private static long record(LedgerJournal journal, int i) {
+        TradeDTO trade = new TradeDTO(0, "LIVE", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.valueOf(100 + i),
+                BigDecimal.ZERO, BigDecimal.ZERO, TS.plusMinutes(i));
+        SnapshotDTO snapshot = new SnapshotDTO(0, "LIVE", "BTCUSDT", TS.plusMinutes(i), BigDecimal.TEN,
+                BigDecimal.ONE, BigDecimal.valueOf(100 + i), BigDecimal.valueOf(110 + i));
+        return journal.append(1L, BigDecimal.TEN, new PositionRow(BigDecimal.ONE, BigDecimal.TEN), trade, snapshot);
+    }
+
+    // Stands in for the tables: remembers what was projected, optionally failing the first attempts
+    private static JdbcLedgerRepository tables(long projectedSeq, List<Long> applied, int failures) {
+        JdbcLedgerRepository ledger = mock(JdbcLedgerRepository.class);
+        when(ledger.projectedSeq()).thenReturn(projectedSeq);
+        int[] left = {failures};
+        doAnswer(inv -> {
+            if (left[0]-- > 0) throw new DataAccessResourceFailureException("database down");
+            List<LedgerJournal.Record> records = inv.getArgument(0);
+            records.forEach(r -> applied.add(r.seq()));
+            return null;
+        }).when(ledger).project(anyList());
+        return ledger;
+    }
+
+    @Test
+    void tradesReachTheTablesAfterTheyAreDurable() {
+        List<Long> applied = new CopyOnWriteArrayList<>();
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 5_000);
+        LedgerProjector projector = new LedgerProjector(journal, tables(0, applied, 0), 256);
+        projector.start();
+
+        for (int i = 0; i < 10; i++) journal.sync(record(journal, i));
+        journal.awaitProjected();
+        projector.stop();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), applied);
+    }
+
+    @Test
+    void startReplaysWhatACrashLeftUnprojected() {
+        LedgerJournal crashed = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 5_000);
+        crashed.open(0);
+        for (int i = 0; i < 5; i++) crashed.sync(record(crashed, i));
+        crashed.close();
+
+        // The tables had reached seq 3 before the crash
+        List<Long> applied = new CopyOnWriteArrayList<>();
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 5_000);
+        LedgerProjector projector = new LedgerProjector(journal, tables(3, applied, 0), 256);
+        projector.start();
+        journal.awaitProjected();
+        projector.stop();
+
+        assertEquals(List.of(4L, 5L), applied);
+    }
+
+    @Test
+    void failedBatchesAreRetriedUntilTheyGoIn() {
+        List<Long> applied = new CopyOnWriteArrayList<>();
+        JdbcLedgerRepository ledger = tables(0, applied, 1);
+        LedgerJournal journal = new LedgerJournal(dir.toString(), "local", true, 1 << 20, 5_000);
+        LedgerProjector projector = new LedgerProjector(journal, ledger, 256);
+        projector.start();
+
+        journal.sync(record(journal, 0));
+        journal.awaitProjected();
+        projector.stop();
+
+        assertEquals(List.of(1L), applied);
+        verify(ledger, times(2)).project(anyList());
+    }
+}
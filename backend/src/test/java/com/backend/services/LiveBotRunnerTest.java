@@ -0,0 +1,160 @@
+package com.backend.services;
+
+import com.backend.dto.BotMode;
+import com.backend.models.Candles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LiveBotRunnerTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final Instant CLOSE = Instant.parse("2026-01-05T10:00:00Z");
+
+    private final BotEngine engine = mock(BotEngine.class);
+    private final MarketDataService market = mock(MarketDataService.class);
+    private final LivePipeline pipeline = mock(LivePipeline.class);
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    private final DepthFeed depth = new DepthFeed(null, "ws://unused", false, 1000, 10);
+    private final ReplayClock clock = new ReplayClock(CLOSE.minusSeconds(600));
+
+    private LiveBotRunner runner(long riskCheckMs) {
+        return new LiveBotRunner(engine, market, pipeline, depth, clock, scheduler, Runnable::run, 1000, riskCheckMs, new BigDecimal("0.05"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(engine.isRunning()).thenReturn(true);
+        when(engine.getMode()).thenReturn(BotMode.LIVE);
+        when(engine.getSessionId()).thenReturn(7L);
+        when(engine.getSymbol()).thenReturn("BTCUSDT");
+        when(engine.getInterval()).thenReturn("1h");
+        when(market.serverTimeMs()).thenAnswer(inv -> clock.millis());
+    }
+
+    private LivePipeline.Tick published() {
+        ArgumentCaptor<LivePipeline.Tick> tick = ArgumentCaptor.forClass(LivePipeline.Tick.class);
+        verify(pipeline).publish(tick.capture());
+        return tick.getValue();
+    }
+
+    private Instant scheduledAt() {
+        ArgumentCaptor<Instant> at = ArgumentCaptor.forClass(Instant.class);
+        verify(scheduler, atLeastOnce()).schedule(any(Runnable.class), at.capture());
+        return at.getValue();
+    }
+
+    @Test
+    void boundariesFollowBinanceCandleGrid() {
+        long t = Instant.parse("2026-01-07T13:20:00Z").toEpochMilli();
+
+        assertEquals(Instant.parse("2026-01-07T14:00:00Z").toEpochMilli(), LiveBotRunner.nextBoundary(t, "1h"));
+        assertEquals(Instant.parse("2026-01-07T16:00:00Z").toEpochMilli(), LiveBotRunner.nextBoundary(t, "4h"));
+        // 2026-01-12 is a Monday
+        assertEquals(Instant.parse("2026-01-12T00:00:00Z").toEpochMilli(), LiveBotRunner.nextBoundary(t, "1w"));
+        assertEquals(Instant.parse("2026-02-01T00:00:00Z").toEpochMilli(), LiveBotRunner.nextBoundary(t, "1M"));
+        // Exactly on a boundary means the next one
+        assertEquals(t + 5 * 60_000, LiveBotRunner.nextBoundary(t, "5m"));
+    }
+
+    @Test
+    void startFiresAfterTheNextCloseOnServerTime() {
+        // Our clock runs 3s behind Binance
+        when(market.serverTimeMs()).thenAnswer(inv -> clock.millis() + 3000);
+
+        runner(0).start();
+
+        assertEquals(CLOSE.minusMillis(3000).plusMillis(1000), scheduledAt());
+        verify(scheduler, never()).scheduleWithFixedDelay(any(Runnable.class), any(Duration.class));
+    }
+
+    @Test
+    void closeEvaluatesTheClosedCandleOnceAndSchedulesTheNext() {
+        LiveBotRunner runner = runner(0);
+        runner.start();
+        clock.set(CLOSE.plusMillis(1000));
+        BigDecimal close = new BigDecimal("42000");
+        when(market.closedCandle("BTCUSDT", "1h", CLOSE.toEpochMilli()))
+                .thenReturn(new Candles(OffsetDateTime.parse("2026-01-05T09:00:00Z"), close, close, close, close, BigDecimal.ONE));
+
+        runner.onCandleClose(7L, CLOSE.toEpochMilli());
+
+        LivePipeline.Tick tick = published();
+        assertEquals(7L, tick.session());
+        assertEquals(OffsetDateTime.parse("2026-01-05T10:00:00Z"), tick.ts());
+        assertEquals(close, tick.price());
+        assertFalse(tick.riskCheck());
+        assertNull(tick.stopLossPct());
+        assertEquals(CLOSE.plusMillis(HOUR + 1000), scheduledAt());
+    }
+
+    @Test
+    void earlyFireWaitsForTheSameClose() {
+        LiveBotRunner runner = runner(0);
+        runner.start();
+        clock.set(CLOSE.minusMillis(200));
+
+        runner.onCandleClose(7L, CLOSE.toEpochMilli());
+
+        verify(market, never()).closedCandle(anyString(), anyString(), anyLong());
+        verify(scheduler, times(2)).schedule(any(Runnable.class), eq(CLOSE.plusMillis(1000)));
+    }
+
+    @Test
+    void stoppedSessionIsNotEvaluatedOrRescheduled() {
+        LiveBotRunner runner = runner(0);
+        runner.start();
+        when(engine.isRunning()).thenReturn(false);
+
+        runner.onCandleClose(7L, CLOSE.toEpochMilli());
+
+        verify(market, never()).closedCandle(anyString(), anyString(), anyLong());
+        verify(scheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void theTimerOnlyHandsTheCloseToTheTickThread() {
+        List<Runnable> queued = new ArrayList<>();
+        new LiveBotRunner(engine, market, pipeline, depth, clock, scheduler, queued::add, 1000, 0, new BigDecimal("0.05"))
+                .start();
+        ArgumentCaptor<Runnable> fire = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(fire.capture(), any(Instant.class));
+        clock.set(CLOSE.plusMillis(1000));
+
+        fire.getValue().run();
+
+        verify(market, never()).closedCandle(anyString(), anyString(), anyLong());
+        assertEquals(1, queued.size());
+        queued.get(0).run();
+        verify(market).closedCandle("BTCUSDT", "1h", CLOSE.toEpochMilli());
+    }
+
+    @Test
+    void riskCheckPublishesTheLatestPrice() {
+        LiveBotRunner runner = runner(5000);
+        runner.start();
+        verify(scheduler).scheduleWithFixedDelay(any(Runnable.class), eq(Duration.ofMillis(5000)));
+
+        BigDecimal price = new BigDecimal("39000");
+        when(market.latestPrice("BTCUSDT")).thenReturn(price);
+
+        runner.checkRisk();
+
+        LivePipeline.Tick tick = published();
+        assertTrue(tick.riskCheck());
+        assertEquals(price, tick.price());
+        assertEquals(new BigDecimal("0.05"), tick.stopLossPct());
+    }
+}
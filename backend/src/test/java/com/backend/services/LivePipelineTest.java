@@ -0,0 +1,173 @@
+package com.backend.services;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.models.IndicatorState;
+import com.backend.repository.InMemoryBacktestCheckpointRepository;
+import com.backend.repository.InMemorySnapshotRepository;
+import com.backend.repository.InMemoryTradeRepository;
+import com.backend.repository.SnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class LivePipelineTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    private static final BigDecimal RISK = new BigDecimal("0.5");
+
+    private final ReplayClock clock = new ReplayClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final List<LivePipeline> started = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        started.forEach(LivePipeline::stop);
+    }
+
+    private record Node(BotEngine engine, InMemoryTradeRepository trades) {}
+
+    private Node node(SnapshotRepository snapshots) {
+        var trades = new InMemoryTradeRepository();
+        var engine = ScratchEngines.create(trades, snapshots, new InMemoryBacktestCheckpointRepository(),
+                mock(MarketDataService.class), new BacktestResultCache(), new IndicatorSeriesCache(0), clock);
+        engine.startLive("BTCUSDT", "1m", new BigDecimal("1000"), new IndicatorState(List.of(), null, null, T0));
+        return new Node(engine, trades);
+    }
+
+    private LivePipeline pipeline(BotEngine engine, int capacity, int batch) {
+        LivePipeline pipeline = new LivePipeline(engine, new TickJournal("unused", false), new LatencyTracker(0), capacity, batch);
+        pipeline.start();
+        started.add(pipeline);
+        return pipeline;
+    }
+
+    private static List<BigDecimal> randomWalk(int n) {
+        Random random = new Random(42);
+        List<BigDecimal> prices = new ArrayList<>(n);
+        double p = 100;
+        for (int i = 0; i < n; i++) {
+            p *= 1 + random.nextGaussian() * 0.01;
+            prices.add(BigDecimal.valueOf(p).setScale(2, RoundingMode.HALF_UP));
+        }
+        return prices;
+    }
+
+    private static LivePipeline.Tick tick(BotEngine engine, int i, BigDecimal price) {
+        return new LivePipeline.Tick(engine.getSessionId(), T0.plusMinutes(i), price, RISK, null, false, Double.NaN, TickTrace.start());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+
+    private static long persisted(LivePipeline pipeline) {
+        return pipeline.stats().get(2).processed();
+    }
+
+    @Test
+    void stagedTicksTradeExactlyLikeInlineTicks() throws Exception {
+        List<BigDecimal> prices = randomWalk(600);
+
+        Node inline = node(new InMemorySnapshotRepository());
+        for (int i = 0; i < prices.size(); i++) inline.engine().processLiveTick(prices.get(i), T0.plusMinutes(i), RISK);
+
+        InMemorySnapshotRepository stagedSnapshots = new InMemorySnapshotRepository();
+        Node staged = node(stagedSnapshots);
+        LivePipeline pipeline = pipeline(staged.engine(), 16, 8);
+        for (int i = 0; i < prices.size(); i++) pipeline.publish(tick(staged.engine(), i, prices.get(i)));
+        await(() -> persisted(pipeline) == prices.size());
+
+        List<TradeDTO> expected = inline.trades().listTrades(1L, "LIVE", "BTCUSDT", 1000);
+        List<TradeDTO> actual = staged.trades().listTrades(1L, "LIVE", "BTCUSDT", 1000);
+        assertFalse(expected.isEmpty());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).side(), actual.get(i).side());
+            assertEquals(0, expected.get(i).quantity().compareTo(actual.get(i).quantity()));
+            assertEquals(expected.get(i).purchasedAt(), actual.get(i).purchasedAt());
+        }
+        assertEquals(prices.size(), stagedSnapshots.list(1L, "LIVE", "BTCUSDT", 1000).size());
+    }
+
+    @Test
+    void slowPersistenceBacksUpToThePublisherWithoutLosingTicks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        InMemorySnapshotRepository snapshots = new InMemorySnapshotRepository() {
+            @Override
+            public void insertSnapshots(long accountId, List<SnapshotDTO> rows) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.insertSnapshots(accountId, rows);
+            }
+        };
+        Node node = node(snapshots);
+        LivePipeline pipeline = pipeline(node.engine(), 2, 4);
+
+        int n = 20;
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < n; i++) pipeline.publish(tick(node.engine(), i, new BigDecimal("100")));
+        });
+        publisher.start();
+
+        // Every ring is full and the publisher is stuck behind them
+        await(() -> pipeline.stats().stream().allMatch(s -> s.queued() == s.capacity()));
+        assertTrue(publisher.isAlive());
+        assertTrue(pipeline.stats().get(2).stalls() > 0);
+
+        release.countDown();
+        publisher.join(10_000);
+        await(() -> persisted(pipeline) == n);
+        assertEquals(n, snapshots.list(1L, "LIVE", "BTCUSDT", 100).size());
+        assertTrue(pipeline.stats().get(2).maxBatch() > 1);
+    }
+
+    @Test
+    void failedWriteStopsTheSession() throws Exception {
+        InMemorySnapshotRepository snapshots = new InMemorySnapshotRepository() {
+            @Override
+            public void insertSnapshots(long accountId, List<SnapshotDTO> rows) {
+                throw new IllegalStateException("database down");
+            }
+        };
+        Node node = node(snapshots);
+        LivePipeline pipeline = pipeline(node.engine(), 4, 4);
+
+        pipeline.publish(tick(node.engine(), 0, new BigDecimal("100")));
+
+        await(() -> !node.engine().isRunning());
+    }
+
+    @Test
+    void ticksOfAnEndedSessionAreDropped() throws Exception {
+        Node node = node(new InMemorySnapshotRepository());
+        LivePipeline pipeline = pipeline(node.engine(), 4, 4);
+        long stale = node.engine().getSessionId() - 1;
+
+        pipeline.publish(new LivePipeline.Tick(stale, OffsetDateTime.now(ZoneOffset.UTC), BigDecimal.TEN, RISK, null, false, Double.NaN, TickTrace.NONE));
+        pipeline.publish(tick(node.engine(), 0, BigDecimal.TEN));
+
+        await(() -> persisted(pipeline) == 1);
+        assertEquals(2, pipeline.stats().get(0).processed());
+        assertEquals(1, pipeline.stats().get(1).processed());
+    }
+}
@@ -0,0 +1,102 @@
+package com.backend.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadTestTest {
+
+    private static final LoadTest.Slo LENIENT = new LoadTest.Slo(0, 0, 0);
+
+    private final ExecutorService handlers = Executors.newFixedThreadPool(8);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(handlers);
+        server.createContext("/ok", exchange -> respond(exchange, 200));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.createContext("/broken", exchange -> respond(exchange, 500));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private LoadTest load(List<LoadTest.Endpoint> endpoints, int concurrency, double rate, long durationMs) {
+        return new LoadTest(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/", endpoints, concurrency, rate,
+                Duration.ZERO, Duration.ofMillis(durationMs), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void reportsEveryEndpointAndPassesWithinTheSlos() throws InterruptedException {
+        var report = load(List.of(new LoadTest.Endpoint("ok", "/ok"), new LoadTest.Endpoint("slow", "/slow")), 4, 0, 500)
+                .run(new LoadTest.Slo(5_000, 0, 1));
+
+        assertTrue(report.passed(), report.violations().toString());
+        assertEquals(List.of("ok", "slow"), report.endpoints().stream().map(LoadTest.EndpointStats::name).toList());
+        var slow = report.endpoints().get(1);
+        assertTrue(slow.requests() > 0);
+        assertEquals(0, slow.errors());
+        assertTrue(slow.p50Ms() >= 20, "p50 " + slow.p50Ms());
+        assertTrue(slow.maxMs() >= slow.p99Ms());
+    }
+
+    @Test
+    void missedSlosFailTheRun() throws InterruptedException {
+        var report = load(List.of(new LoadTest.Endpoint("slow", "/slow"), new LoadTest.Endpoint("broken", "/broken")), 2, 0, 300)
+                .run(new LoadTest.Slo(5, 0.001, 1_000_000));
+
+        assertFalse(report.passed());
+        assertEquals(1.0, report.endpoints().get(1).errorRate());
+        assertTrue(report.violations().stream().anyMatch(v -> v.startsWith("slow: p99")), report.violations().toString());
+        assertTrue(report.violations().stream().anyMatch(v -> v.startsWith("broken: error rate")), report.violations().toString());
+        assertTrue(report.violations().stream().anyMatch(v -> v.startsWith("throughput")), report.violations().toString());
+    }
+
+    @Test
+    void aRateSpacesTheRequests() throws InterruptedException {
+        var report = load(List.of(new LoadTest.Endpoint("ok", "/ok")), 2, 100, 500).run(LENIENT);
+
+        // 50 due in the window, give or take the edges
+        assertTrue(report.requests() >= 40 && report.requests() <= 52, "requests " + report.requests());
+    }
+
+    @Test
+    void emptyEndpointsAndNoWorkersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> load(List.of(), 1, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> load(List.of(new LoadTest.Endpoint("ok", "/ok")), 0, 0, 100));
+    }
+}
@@ -0,0 +1,121 @@
+package com.backend.services;
+
+import com.backend.models.BookFeatures;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private static long units(String decimal) {
+        return OrderBook.parse(decimal);
+    }
+
+    @Test
+    void bestLevelsAndSpreadFollowUpdates() {
+        OrderBook book = new OrderBook(2);
+        book.set(true, units("99.5"), units("1"));
+        book.set(true, units("100"), units("2"));
+        book.set(false, units("101"), units("3"));
+        book.set(false, units("100.5"), units("1"));
+
+        assertEquals(units("100"), book.bestBid());
+        assertEquals(units("100.5"), book.bestAsk());
+        assertEquals(units("0.5"), book.spread());
+
+        // A quantity of 0 removes the level
+        book.set(true, units("100"), 0);
+        book.set(false, units("100.5"), 0);
+        assertEquals(units("99.5"), book.bestBid());
+        assertEquals(units("101"), book.bestAsk());
+        assertEquals(1, book.depth(true));
+
+        book.clear(7);
+        assertEquals(0, book.bestBid());
+        assertEquals(0, book.spread());
+        assertTrue(Double.isNaN(book.imbalance()));
+        assertEquals(7, book.updateId());
+    }
+
+    @Test
+    void imbalanceCoversOnlyTheTopLevels() {
+        OrderBook book = new OrderBook(2);
+        book.set(true, units("100"), units("3"));
+        book.set(true, units("99"), units("1"));
+        // Third bid level: outside the top 2
+        book.set(true, units("98"), units("100"));
+        book.set(false, units("101"), units("1"));
+        book.set(false, units("102"), units("1"));
+
+        assertEquals((4.0 - 2.0) / 6.0, book.imbalance(), 1e-12);
+
+        // Removing a top bid pulls the third level in
+        book.set(true, units("100"), 0);
+        assertEquals((101.0 - 2.0) / 103.0, book.imbalance(), 1e-12);
+
+        book.set(true, units("99"), 0);
+        book.set(true, units("98"), 0);
+        assertEquals(-1.0, book.imbalance());
+    }
+
+    @Test
+    void featuresDescribeTheTopOfTheBook() {
+        OrderBook book = new OrderBook(2);
+        assertEquals(BookFeatures.NONE, book.features());
+
+        book.set(true, units("100"), units("3"));
+        book.set(true, units("99"), units("1"));
+        book.set(true, units("98"), units("100"));
+        book.set(false, units("100.5"), units("1.5"));
+        book.set(false, units("102"), units("0.5"));
+
+        assertEquals(new BookFeatures(0.5, (4.0 - 2.0) / 6.0, 4.0, 2.0), book.features());
+
+        // One-sided: no spread, but the resting side still counts
+        book.set(false, units("100.5"), 0);
+        book.set(false, units("102"), 0);
+        BookFeatures bidsOnly = book.features();
+        assertTrue(Double.isNaN(bidsOnly.spread()));
+        assertEquals(1.0, bidsOnly.imbalance());
+        assertEquals(0.0, bidsOnly.askLiquidity());
+    }
+
+    @Test
+    void matchesASortedMapUnderRandomUpdates() {
+        OrderBook book = new OrderBook(5);
+        TreeMap<Long, Long> bids = new TreeMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            long price = 1_000 + random.nextInt(500);
+            long qty = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(1_000);
+            book.set(true, price, qty);
+            if (qty == 0) bids.remove(price);
+            else bids.put(price, qty);
+
+            assertEquals(bids.isEmpty() ? 0 : bids.lastKey(), book.bestBid());
+            assertEquals(bids.isEmpty() ? Double.NaN : 1.0, book.imbalance());
+            if (i % 1000 == 0) {
+                int level = 0;
+                for (var e : bids.descendingMap().entrySet()) {
+                    assertArrayEquals(new long[]{e.getKey(), e.getValue()}, book.level(true, level++));
+                }
+                assertEquals(bids.size(), book.depth(true));
+            }
+        }
+    }
+
+    @Test
+    void parsesFixedPointDecimals() {
+        assertEquals(12_345_000_000L, OrderBook.parse("123.45"));
+        assertEquals(100_000_000L, OrderBook.parse("1"));
+        assertEquals(1L, OrderBook.parse("0.00000001"));
+        assertEquals(42_000_000L, OrderBook.parse("0.420000000"));
+        assertThrows(IllegalArgumentException.class, () -> OrderBook.parse("0.000000001"));
+        assertThrows(IllegalArgumentException.class, () -> OrderBook.parse("-1"));
+        assertThrows(IllegalArgumentException.class, () -> OrderBook.parse(""));
+    }
+}
@@ -0,0 +1,125 @@
+package com.backend.services;
+
+import com.backend.models.BacktestSummary;
+import com.backend.models.Candles;
+import com.backend.repository.InMemoryBacktestCheckpointRepository;
+import com.backend.repository.InMemorySnapshotRepository;
+import com.backend.repository.InMemoryTradeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PrefetchedCandlesTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private static List<Candles> randomWalk(int n) {
+        Random random = new Random(42);
+        List<Candles> candles = new ArrayList<>(n);
+        double p = 100;
+        for (int i = 0; i < n; i++) {
+            p *= 1 + random.nextGaussian() * 0.01;
+            BigDecimal price = BigDecimal.valueOf(p).setScale(2, RoundingMode.HALF_UP);
+            candles.add(new Candles(T0.plusMinutes(i), price, price, price, price, BigDecimal.ONE));
+        }
+        return candles;
+    }
+
+    private static BotEngine engine() {
+        var clock = new ReplayClock(Instant.parse("2026-01-01T00:00:00Z"));
+        return ScratchEngines.create(new InMemoryTradeRepository(), new InMemorySnapshotRepository(),
+                new InMemoryBacktestCheckpointRepository(), mock(MarketDataService.class), new BacktestResultCache(),
+                new IndicatorSeriesCache(0), clock);
+    }
+
+    @Test
+    void iteratesEveryPageInOrder() {
+        List<Candles> candles = randomWalk(2500);
+
+        List<Candles> seen = new ArrayList<>();
+        try (PrefetchedCandles it = new PrefetchedCandles(CandleSource.of(candles), 2)) {
+            it.forEachRemaining(seen::add);
+        }
+
+        assertEquals(candles, seen);
+    }
+
+    @Test
+    void sourceFailureReachesTheConsumerAfterEarlierPages() {
+        List<Candles> page = randomWalk(3);
+        CandleSource failing = sink -> {
+            sink.accept(page);
+            throw new IllegalStateException("Binance down");
+        };
+
+        try (PrefetchedCandles it = new PrefetchedCandles(failing, 4)) {
+            for (int i = 0; i < 3; i++) assertEquals(page.get(i), it.next());
+            IllegalStateException e = assertThrows(IllegalStateException.class, it::hasNext);
+            assertEquals("Binance down", e.getMessage());
+        }
+    }
+
+    @Test
+    void fetchesAheadOnlyUpToTheDepthAndStopsOnClose() throws Exception {
+        List<Candles> page = randomWalk(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicInteger produced = new AtomicInteger();
+        CandleSource endless = sink -> {
+            try {
+                while (true) {
+                    sink.accept(page);
+                    produced.incrementAndGet();
+                }
+            } finally {
+                finished.countDown();
+            }
+        };
+
+        PrefetchedCandles it = new PrefetchedCandles(endless, 3);
+        it.next();
+        Thread.sleep(100);
+        // One page taken, three waiting, one blocked on the full queue
+        assertTrue(produced.get() <= 4, "produced " + produced.get());
+
+        it.close();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void readsLocalArchives() {
+        List<Candles> seen = new ArrayList<>();
+        try (PrefetchedCandles it = new PrefetchedCandles(CandleSource.archive(Path.of("src/test/resources/klines/BTCUSDT-1m-2026-01-01.zip")), 1)) {
+            it.forEachRemaining(seen::add);
+        }
+        assertEquals(10, seen.size());
+        assertEquals(T0, seen.get(0).openTime());
+    }
+
+    @Test
+    void streamedBacktestMatchesTheMaterializedOne() {
+        List<Candles> candles = randomWalk(3000);
+
+        BacktestSummary materialized = engine().runBacktest("BTCUSDT", "1m", candles,
+                new BigDecimal("1000"), new BigDecimal("0.5")).summary();
+        BacktestSummary streamed;
+        try (PrefetchedCandles it = new PrefetchedCandles(CandleSource.of(candles), 2)) {
+            streamed = engine().streamBacktest("BTCUSDT", "1m", it, new BigDecimal("1000"), new BigDecimal("0.5"));
+        }
+
+        assertTrue(materialized.tradeCount() > 0);
+        assertEquals(materialized, streamed);
+    }
+}
@@ -0,0 +1,131 @@
+package com.backend.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceFeedTest {
+
+    private HttpServer server;
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+
+    // Price of a symbol = its length * 1000, so every symbol gets a distinct answer; BADUSDT does not exist
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/api/v3/ticker/price", exchange -> {
+            String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery(), StandardCharsets.UTF_8);
+            queries.add(query);
+            if (query.startsWith("symbols=")) {
+                String[] symbols = query.substring("symbols=".length()).replaceAll("[\\[\\]\"]", "").split(",");
+                if (List.of(symbols).contains("BADUSDT")) {
+                    respond(exchange, 400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+                    return;
+                }
+                List<String> rows = new ArrayList<>();
+                for (String s : symbols) rows.add(price(s));
+                respond(exchange, 200, "[" + String.join(",", rows) + "]");
+            } else {
+                String symbol = query.substring("symbol=".length());
+                if (symbol.equals("BADUSDT")) respond(exchange, 400, "{\"code\":-1121,\"msg\":\"Invalid symbol.\"}");
+                else respond(exchange, 200, price(symbol));
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    private static String price(String symbol) {
+        return "{\"symbol\":\"" + symbol + "\",\"price\":\"" + symbol.length() * 1000 + ".00\"}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private PriceFeed feed(long windowMs) {
+        return new PriceFeed(new BinanceGateway("http://127.0.0.1:" + server.getAddress().getPort(), 6000), windowMs);
+    }
+
+    @Test
+    void concurrentConsumersShareOneBatchedRequest() throws Exception {
+        PriceFeed feed = feed(300);
+        List<String> symbols = List.of("BTCUSDT", "ETHUSDT", "DOGEUSDT", "SOLUSDT", "AVAXUSDT", "PEPEUSDT");
+        ExecutorService pool = Executors.newFixedThreadPool(symbols.size());
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<BigDecimal>> results = new ArrayList<>();
+        for (String s : symbols) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return feed.price(s);
+            }));
+        }
+        start.countDown();
+
+        for (int i = 0; i < symbols.size(); i++) {
+            assertEquals(0, new BigDecimal(symbols.get(i).length() * 1000).compareTo(results.get(i).get()));
+        }
+        assertEquals(1, queries.size());
+        assertTrue(queries.get(0).startsWith("symbols=["));
+        pool.shutdown();
+    }
+
+    @Test
+    void singleSymbolUsesTheCheaperEndpoint() {
+        assertEquals(0, new BigDecimal("7000").compareTo(feed(0).price("BTCUSDT")));
+        assertEquals(List.of("symbol=BTCUSDT"), queries);
+    }
+
+    @Test
+    void pricesOfSeveralSymbolsComeFromOneCall() {
+        Map<String, BigDecimal> prices = feed(0).prices(List.of("BTCUSDT", "DOGEUSDT"));
+
+        assertEquals(0, new BigDecimal("7000").compareTo(prices.get("BTCUSDT")));
+        assertEquals(0, new BigDecimal("8000").compareTo(prices.get("DOGEUSDT")));
+        assertEquals(1, queries.size());
+    }
+
+    @Test
+    void rejectedBatchFallsBackToOneRequestPerSymbol() {
+        PriceFeed feed = feed(0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> feed.prices(List.of("BTCUSDT", "BADUSDT")));
+        assertTrue(e.getMessage().contains("BADUSDT"));
+        // The batch, then each symbol on its own
+        assertEquals(3, queries.size());
+    }
+
+    @Test
+    void symbolsParamIsAJsonArray() {
+        assertEquals("[\"BTCUSDT\",\"ETHUSDT\"]", PriceFeed.symbolsParam(List.of("BTCUSDT", "ETHUSDT")));
+    }
+}
@@ -0,0 +1,168 @@
+package com.backend.services;
+
+import com.backend.dto.BotMode;
+import com.backend.dto.TradeDTO;
+import com.backend.models.BacktestCheckpoint;
+import com.backend.models.BacktestSummary;
+import com.backend.models.Candles;
+import com.backend.repository.InMemoryBacktestCheckpointRepository;
+import com.backend.repository.InMemorySnapshotRepository;
+import com.backend.repository.InMemoryTradeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RangeBacktestTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+    private static final long MINUTE_MS = 60_000;
+    private static final BigDecimal BALANCE = new BigDecimal("1000");
+    private static final BigDecimal RISK = new BigDecimal("0.5");
+
+    private static List<Candles> randomWalk(int n) {
+        Random random = new Random(7);
+        List<Candles> candles = new ArrayList<>(n);
+        double p = 100;
+        for (int i = 0; i < n; i++) {
+            p *= 1 + random.nextGaussian() * 0.01;
+            BigDecimal price = BigDecimal.valueOf(p).setScale(2, RoundingMode.HALF_UP);
+            candles.add(new Candles(T0.plusMinutes(i), price, price, price, price, BigDecimal.ONE));
+        }
+        return candles;
+    }
+
+    // An engine over in-memory stores, streaming `candles` and counting how many it hands out
+    private static final class Fixture {
+        final ReplayClock clock;
+        final InMemoryTradeRepository trades = new InMemoryTradeRepository();
+        final InMemoryBacktestCheckpointRepository checkpoints = new InMemoryBacktestCheckpointRepository();
+        final AtomicInteger served = new AtomicInteger();
+        // When set, the next stream fails after handing out this many candles
+        Integer failAfter;
+        final BotEngine engine;
+
+        Fixture(List<Candles> candles, OffsetDateTime now) {
+            clock = new ReplayClock(now.toInstant());
+            MarketDataService market = mock(MarketDataService.class);
+            when(market.streamCandles(eq("BTCUSDT"), eq("1m"), anyLong(), any())).thenAnswer(invocation -> {
+                long start = invocation.getArgument(2);
+                Long end = invocation.getArgument(3);
+                List<Candles> range = candles.stream()
+                        .filter(c -> {
+                            long open = c.openTime().toInstant().toEpochMilli();
+                            return open >= start && (end == null || open <= end);
+                        })
+                        .peek(c -> served.incrementAndGet())
+                        .toList();
+                Integer fail = failAfter;
+                failAfter = null;
+                if (fail != null) {
+                    return new PrefetchedCandles(page -> {
+                        page.accept(range.subList(0, fail));
+                        throw new IllegalStateException("Binance went away");
+                    }, 2);
+                }
+                return new PrefetchedCandles(CandleSource.of(range), 2);
+            });
+            engine = ScratchEngines.create(trades, new InMemorySnapshotRepository(), checkpoints, market,
+                    new BacktestResultCache(), new IndicatorSeriesCache(0), clock);
+        }
+
+        BacktestSummary range(int minutes, BigDecimal risk) {
+            long start = T0.toInstant().toEpochMilli();
+            return engine.rangeBacktest(1L, "BTCUSDT", "1m", start, start + (minutes - 1) * MINUTE_MS, BALANCE, risk);
+        }
+    }
+
+    @Test
+    void extendingARangeProcessesOnlyTheNewCandlesAndMatchesAFullRun() {
+        List<Candles> candles = randomWalk(3000);
+        OffsetDateTime later = T0.plusDays(7);
+
+        Fixture extended = new Fixture(candles, later);
+        extended.range(2000, RISK);
+        extended.served.set(0);
+        BacktestSummary resumed = extended.range(3000, RISK);
+        assertEquals(1000, extended.served.get());
+
+        Fixture full = new Fixture(candles, later);
+        BacktestSummary fresh = full.range(3000, RISK);
+
+        assertTrue(fresh.tradeCount() > 0);
+        assertEquals(fresh, resumed);
+        assertEquals(full.trades.listTrades(1L, "TRAIN", "BTCUSDT", 10_000),
+                extended.trades.listTrades(1L, "TRAIN", "BTCUSDT", 10_000));
+    }
+
+    @Test
+    void aRunThatFailedPastItsCheckpointIsRedoneWithoutDuplicates() {
+        List<Candles> candles = randomWalk(3000);
+        OffsetDateTime later = T0.plusDays(7);
+
+        Fixture failed = new Fixture(candles, later);
+        failed.range(2000, RISK);
+        failed.failAfter = 600;
+        assertThrows(IllegalStateException.class, () -> failed.range(3000, RISK));
+        BacktestSummary resumed = failed.range(3000, RISK);
+
+        Fixture full = new Fixture(candles, later);
+        BacktestSummary fresh = full.range(3000, RISK);
+
+        assertEquals(fresh, resumed);
+        assertEquals(full.trades.listTrades(1L, "TRAIN", "BTCUSDT", 10_000).stream().map(RangeBacktestTest::withoutId).toList(),
+                failed.trades.listTrades(1L, "TRAIN", "BTCUSDT", 10_000).stream().map(RangeBacktestTest::withoutId).toList());
+    }
+
+    private static TradeDTO withoutId(TradeDTO t) {
+        return new TradeDTO(0, t.mode(), t.symbol(), t.side(), t.quantity(), t.price(), t.fee(), t.realizedPnl(), t.purchasedAt());
+    }
+
+    @Test
+    void otherParametersRunTheRangeFromTheStart() {
+        List<Candles> candles = randomWalk(500);
+        Fixture f = new Fixture(candles, T0.plusDays(7));
+        f.range(300, RISK);
+
+        f.served.set(0);
+        f.range(500, new BigDecimal("0.25"));
+
+        assertEquals(500, f.served.get());
+    }
+
+    @Test
+    void theFormingCandleIsLeftOutOfTheCheckpoint() {
+        List<Candles> candles = randomWalk(100);
+        // Halfway through the last candle
+        Fixture f = new Fixture(candles, T0.plusMinutes(99).plusSeconds(30));
+
+        f.range(100, RISK);
+
+        BacktestCheckpoint checkpoint = f.checkpoints.find(1L, "BTCUSDT").orElseThrow();
+        assertEquals(T0.plusMinutes(98).toInstant().toEpochMilli(), checkpoint.lastOpenMs());
+        assertEquals(28, checkpoint.closes().size());
+    }
+
+    @Test
+    void resettingTheModeDropsTheCheckpoint() {
+        Fixture f = new Fixture(randomWalk(100), T0.plusDays(1));
+        f.range(100, RISK);
+        assertTrue(f.checkpoints.find(1L, "BTCUSDT").isPresent());
+
+        f.engine.reset(1L, BotMode.TRAIN, "BTCUSDT");
+
+        assertTrue(f.checkpoints.find(1L, "BTCUSDT").isEmpty());
+    }
+}
@@ -0,0 +1,179 @@
+package com.backend.services;
+
+import com.backend.dto.SnapshotDTO;
+import com.backend.dto.TradeDTO;
+import com.backend.dto.TradeStatsDTO;
+import com.backend.repository.SnapshotRepository;
+import com.backend.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecentActivityTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.parse("2026-01-01T00:00:00Z");
+
+    private final TradeRepository trades = mock(TradeRepository.class);
+    private final SnapshotRepository snapshots = mock(SnapshotRepository.class);
+    private final RecentActivity recent = new RecentActivity(trades, snapshots, 3, 3);
+
+    private static TradeDTO trade(long id, int minute) {
+        return new TradeDTO(id, "LIVE", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO,
+                T0.plusMinutes(minute));
+    }
+
+    private static SnapshotDTO snapshot(long id, int minute) {
+        return new SnapshotDTO(id, "LIVE", "BTCUSDT", T0.plusMinutes(minute), BigDecimal.TEN, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.TEN);
+    }
+
+    private static List<Long> ids(List<TradeDTO> rows) {
+        return rows.stream().map(TradeDTO::id).toList();
+    }
+
+    @Test
+    void clearedPairIsServedFromMemory() {
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+        recent.trade(1L, trade(1, 0));
+        recent.trade(1L, trade(2, 1));
+        recent.snapshot(1L, snapshot(1, 0));
+        recent.snapshot(1L, snapshot(2, 1));
+
+        assertEquals(List.of(2L, 1L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 500)));
+        assertEquals(List.of(1L, 2L), recent.snapshots(1L, "LIVE", "BTCUSDT", 2000).stream().map(SnapshotDTO::id).toList());
+        verifyNoInteractions(trades, snapshots);
+    }
+
+    @Test
+    void evictedTailStillServesTheNewestRows() {
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+        for (int i = 1; i <= 5; i++) {
+            recent.trade(1L, trade(i, i));
+            recent.snapshot(1L, snapshot(i, i));
+        }
+
+        assertEquals(List.of(5L, 4L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 2)));
+        verifyNoInteractions(trades);
+
+        // Further back than the tail reaches, and oldest-first reads, need the repository
+        recent.trades(1L, "LIVE", "BTCUSDT", 4);
+        verify(trades).listTrades(1L, "LIVE", "BTCUSDT", 4);
+        recent.snapshots(1L, "LIVE", "BTCUSDT", 2);
+        verify(snapshots).list(1L, "LIVE", "BTCUSDT", 2);
+    }
+
+    @Test
+    void firstReadSeedsTheTailAndLaterWritesExtendIt() {
+        when(trades.listTrades(1L, "LIVE", "BTCUSDT", 2)).thenReturn(List.of(trade(9, 9), trade(8, 8)));
+
+        assertEquals(List.of(9L, 8L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 2)));
+        recent.trade(1L, trade(10, 10));
+        // Seeded just before the write was reported: the row is not held twice
+        recent.trade(1L, trade(10, 10));
+
+        assertEquals(List.of(10L, 9L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 2)));
+        verify(trades, times(1)).listTrades(anyLong(), anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void aJournaledRowWithoutAnIdIsNotHeldTwice() {
+        when(trades.listTrades(1L, "LIVE", "BTCUSDT", 2)).thenReturn(List.of(trade(9, 9), trade(8, 8)));
+
+        recent.trades(1L, "LIVE", "BTCUSDT", 2);
+        // Projected and seeded with its id before the engine reported it, id unknown
+        recent.trade(1L, trade(0, 9));
+        recent.trade(1L, trade(0, 10));
+
+        assertEquals(List.of(0L, 9L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 2)));
+        verify(trades, times(1)).listTrades(anyLong(), anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void writeRacingTheFirstReadKeepsTheTailUnknown() {
+        when(trades.listTrades(1L, "LIVE", "BTCUSDT", 500)).thenAnswer(inv -> {
+            recent.trade(1L, trade(2, 2));
+            return List.of(trade(1, 1));
+        });
+
+        assertEquals(List.of(1L), ids(recent.trades(1L, "LIVE", "BTCUSDT", 500)));
+        recent.trades(1L, "LIVE", "BTCUSDT", 500);
+
+        verify(trades, times(2)).listTrades(1L, "LIVE", "BTCUSDT", 500);
+    }
+
+    @Test
+    void lateRowsAreKeptInTimeOrder() {
+        recent.cleared(1L, "TRAIN", "BTCUSDT");
+        TradeDTO late = new TradeDTO(3, "TRAIN", "BTCUSDT", "SELL", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO,
+                BigDecimal.ZERO, T0.plusMinutes(1));
+        recent.trade(1L, new TradeDTO(1, "TRAIN", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, T0));
+        recent.trade(1L, new TradeDTO(2, "TRAIN", "BTCUSDT", "BUY", BigDecimal.ONE, BigDecimal.TEN, BigDecimal.ZERO, BigDecimal.ZERO, T0.plusMinutes(2)));
+        recent.trade(1L, late);
+
+        assertEquals(List.of(2L, 3L, 1L), ids(recent.trades(1L, "TRAIN", "BTCUSDT", 10)));
+    }
+
+    private static TradeDTO sell(long id, int minute, String realized) {
+        return new TradeDTO(id, "LIVE", "BTCUSDT", "SELL", BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("0.01"),
+                new BigDecimal(realized), T0.plusMinutes(minute));
+    }
+
+    @Test
+    void tradeStatsAreQueriedOnceThenKeptInMemory() {
+        when(trades.stats(1L, "LIVE", "BTCUSDT")).thenReturn(
+                new TradeStatsDTO(4, 1, 1, new BigDecimal("2"), new BigDecimal("0.04")));
+
+        recent.tradeStats(1L, "LIVE", "BTCUSDT");
+        recent.trade(1L, sell(5, 5, "3"));
+        recent.trade(1L, sell(6, 6, "-1"));
+
+        assertEquals(new TradeStatsDTO(6, 2, 2, new BigDecimal("4"), new BigDecimal("0.06")),
+                recent.tradeStats(1L, "LIVE", "BTCUSDT"));
+        verify(trades, times(1)).stats(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void tradeStatsSeedThatRacedATradeIsNotKept() {
+        when(trades.stats(1L, "LIVE", "BTCUSDT")).thenAnswer(invocation -> {
+            // Reported while the aggregate ran: the result may or may not count it
+            recent.trade(1L, sell(1, 1, "1"));
+            return new TradeStatsDTO(0, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO);
+        });
+
+        recent.tradeStats(1L, "LIVE", "BTCUSDT");
+        recent.tradeStats(1L, "LIVE", "BTCUSDT");
+
+        verify(trades, times(2)).stats(1L, "LIVE", "BTCUSDT");
+    }
+
+    @Test
+    void clearedPairHasZeroStatsAndItsLatestSnapshotInMemory() {
+        recent.cleared(1L, "LIVE", "BTCUSDT");
+        assertNull(recent.latestSnapshot(1L, "LIVE", "BTCUSDT"));
+
+        recent.trade(1L, sell(1, 1, "-2"));
+        recent.snapshot(1L, snapshot(1, 1));
+        recent.snapshot(1L, snapshot(2, 2));
+
+        assertEquals(new TradeStatsDTO(1, 0, 1, new BigDecimal("-2"), new BigDecimal("0.01")),
+                recent.tradeStats(1L, "LIVE", "BTCUSDT"));
+        assertEquals(2L, recent.latestSnapshot(1L, "LIVE", "BTCUSDT").id());
+        verifyNoInteractions(trades, snapshots);
+    }
+
+    @Test
+    void latestSnapshotIsQueriedOnceThenFollowsWrites() {
+        when(snapshots.listNewest(1L, "LIVE", "BTCUSDT", 2)).thenReturn(List.of(snapshot(9, 9), snapshot(8, 8)));
+
+        assertEquals(9L, recent.latestSnapshot(1L, "LIVE", "BTCUSDT").id());
+        recent.snapshot(1L, snapshot(10, 10));
+
+        assertEquals(10L, recent.latestSnapshot(1L, "LIVE", "BTCUSDT").id());
+        verify(snapshots, times(1)).listNewest(anyLong(), anyString(), anyString(), anyInt());
+    }
+}
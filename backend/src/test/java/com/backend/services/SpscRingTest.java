@@ -0,0 +1,66 @@
+package com.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpscRingTest {
+
+    @Test
+    void capacityRoundsUpAndFullRingRefusesOffers() {
+        SpscRing<Integer> ring = new SpscRing<>(3);
+        assertEquals(4, ring.capacity());
+
+        for (int i = 0; i < 4; i++) assertTrue(ring.offer(i));
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+    }
+
+    @Test
+    void drainsInOrderInBoundedBatchesAcrossTheWrap() {
+        SpscRing<Integer> ring = new SpscRing<>(4);
+        List<Integer> seen = new ArrayList<>();
+        List<Boolean> ends = new ArrayList<>();
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 3; i++) ring.offer(round * 3 + i);
+            assertEquals(2, ring.drain((e, end) -> { seen.add(e); ends.add(end); }, 2));
+            assertEquals(1, ring.drain((e, end) -> { seen.add(e); ends.add(end); }, 2));
+        }
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), seen);
+        assertEquals(List.of(false, true, true, false, true, true, false, true, true), ends);
+        assertEquals(0, ring.drain((e, end) -> seen.add(e), 2));
+    }
+
+    @Test
+    void producerWaitsForAConsumerThatFallsBehind() throws Exception {
+        SpscRing<Long> ring = new SpscRing<>(8);
+        int n = 200_000;
+        long[] sum = {0};
+        long[] count = {0};
+        long[] last = {-1};
+
+        Thread consumer = new Thread(() -> {
+            while (count[0] < n) {
+                int drained = ring.drain((e, end) -> {
+                    assertEquals(last[0] + 1, e);
+                    last[0] = e;
+                    sum[0] += e;
+                    count[0]++;
+                }, 3);
+                if (drained == 0) ring.await(1_000_000);
+            }
+        });
+        consumer.start();
+        for (long i = 0; i < n; i++) ring.put(i);
+        consumer.join(10_000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals((long) n * (n - 1) / 2, sum[0]);
+        assertTrue(ring.stalls() > 0);
+    }
+}
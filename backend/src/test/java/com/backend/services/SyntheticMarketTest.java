@@ -0,0 +1,114 @@
+package com.backend.services;
+
+import com.backend.models.Candles;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticMarketTest {
+
+    // 10 minutes of history behind 00:10:00.500
+    private static final Instant NOW = Instant.parse("2026-01-01T00:10:00.500Z");
+
+    private static SyntheticMarket market(int updatesPerSecond) {
+        return new SyntheticMarket(Clock.fixed(NOW, ZoneOffset.UTC), List.of("BTCUSDT", "ETHUSDT"),
+                100, updatesPerSecond, 600, 0, 0.8, 6, 0, 0.01, 42);
+    }
+
+    private static long ms(Candles c) {
+        return c.openTime().toInstant().toEpochMilli();
+    }
+
+    @Test
+    void backfilledHistoryGivesAlignedConsistentKlines() {
+        SyntheticMarket market = market(10);
+
+        List<Candles> klines = market.klines("BTCUSDT", "1m", null, null, 500);
+
+        // 00:00 to 00:09 from history, plus the forming 00:10 candle
+        assertEquals(11, klines.size());
+        assertEquals(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli(), ms(klines.get(0)));
+        for (int i = 0; i < klines.size(); i++) {
+            Candles c = klines.get(i);
+            if (i > 0) assertEquals(60_000, ms(c) - ms(klines.get(i - 1)));
+            assertTrue(c.high().compareTo(c.low()) >= 0);
+            assertTrue(c.high().compareTo(c.open().max(c.close())) >= 0);
+            assertTrue(c.low().compareTo(c.open().min(c.close())) <= 0);
+            assertTrue(c.close().signum() > 0);
+        }
+        // Consecutive candles chain: each opens where the last closed
+        assertEquals(klines.get(3).close(), klines.get(4).open());
+        assertEquals(market.price("BTCUSDT"), klines.get(10).close());
+    }
+
+    @Test
+    void startTimeAndLimitFollowBinance() {
+        SyntheticMarket market = market(10);
+        long start = Instant.parse("2026-01-01T00:02:30Z").toEpochMilli();
+
+        List<Candles> fromStart = market.klines("BTCUSDT", "1m", start, null, 3);
+        assertEquals(3, fromStart.size());
+        // The first candle opened at or after startTime
+        assertEquals(Instant.parse("2026-01-01T00:03:00Z").toEpochMilli(), ms(fromStart.get(0)));
+
+        List<Candles> newest = market.klines("BTCUSDT", "5m", null, null, 1);
+        assertEquals(Instant.parse("2026-01-01T00:10:00Z").toEpochMilli(), ms(newest.get(0)));
+
+        // A 5m candle covers the 1m candles inside it
+        List<Candles> minutes = market.klines("BTCUSDT", "1m", Instant.parse("2026-01-01T00:05:00Z").toEpochMilli(), null, 5);
+        Candles five = market.kline("BTCUSDT", "5m", Instant.parse("2026-01-01T00:07:00Z").toEpochMilli());
+        assertEquals(minutes.get(0).open(), five.open());
+        assertEquals(minutes.get(4).close(), five.close());
+        assertEquals(minutes.stream().map(Candles::high).reduce(BigDecimal::max).orElseThrow(), five.high());
+    }
+
+    @Test
+    void generatedUpdatesReachListenersAndMoveThePrice() {
+        SyntheticMarket market = market(1000);
+        List<BigDecimal> btc = new ArrayList<>();
+        List<Long> seconds = new ArrayList<>();
+        market.addListener(new SyntheticMarket.Listener() {
+            @Override
+            public void onTrade(String symbol, long tradeId, long timeMs, BigDecimal price, BigDecimal quantity) {
+                if (symbol.equals("BTCUSDT")) btc.add(price);
+                assertTrue(quantity.signum() > 0);
+            }
+
+            @Override
+            public void onSecond(String symbol, long secondMs) {
+                if (symbol.equals("BTCUSDT")) seconds.add(secondMs);
+            }
+        });
+
+        long now = NOW.toEpochMilli();
+        market.generate(now, 500);
+        market.generate(now + 1000, 500);
+
+        assertEquals(1000, btc.size());
+        assertEquals(btc.get(999), market.price("BTCUSDT"));
+        assertTrue(btc.stream().distinct().count() > 1);
+        // Moving into the next second seals the one before
+        assertEquals(List.of(Instant.parse("2026-01-01T00:10:00Z").toEpochMilli()), seconds);
+    }
+
+    @Test
+    void sameSeedGivesTheSamePath() {
+        assertEquals(market(10).klines("ETHUSDT", "1m", null, null, 20),
+                market(10).klines("ETHUSDT", "1m", null, null, 20));
+    }
+
+    @Test
+    void unknownSymbolsAndMonthlyKlinesAreRejected() {
+        SyntheticMarket market = market(10);
+
+        assertThrows(IllegalArgumentException.class, () -> market.price("DOGEUSDT"));
+        assertThrows(IllegalArgumentException.class, () -> market.klines("BTCUSDT", "1M", null, null, 10));
+    }
+}
@@ -0,0 +1,86 @@
+package com.backend.services;
+
+import com.backend.dto.TradeDTO;
+import com.backend.models.IndicatorState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TickJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsHeaderTicksAndFills() throws IOException {
+        TickJournal journal = new TickJournal(dir.toString(), true);
+        var seed = new IndicatorState(List.of(new BigDecimal("100.5"), new BigDecimal("101.25")),
+                new BigDecimal("100.9"), null, OffsetDateTime.parse("2026-01-01T00:00:00Z"));
+        OffsetDateTime t1 = OffsetDateTime.parse("2026-01-01T00:00:05.123456Z");
+        OffsetDateTime t2 = OffsetDateTime.parse("2026-01-01T00:00:10Z");
+
+        journal.open(new TickJournal.Header(1767225600000L, "BTCUSDT", "1m",
+                new BigDecimal("10000"), new BigDecimal("0.10"), new BigDecimal("0.05"), seed));
+        journal.append(t1, new BigDecimal("42000.01000000"), null);
+        journal.append(t2, new BigDecimal("42001.5"), new TradeDTO(7L, "LIVE", "BTCUSDT", "BUY",
+                new BigDecimal("0.02380868"), new BigDecimal("42001.5"), BigDecimal.ZERO, BigDecimal.ZERO, t2), 0.25);
+        OffsetDateTime t3 = OffsetDateTime.parse("2026-01-01T00:00:12Z");
+        journal.appendRiskCheck(t3, new BigDecimal("39000"), new TradeDTO(8L, "LIVE", "BTCUSDT", "SELL",
+                new BigDecimal("0.02380868"), new BigDecimal("39000"), BigDecimal.ZERO, BigDecimal.ZERO, t3));
+        journal.close();
+
+        Path file;
+        try (var files = Files.list(dir)) {
+            file = files.findFirst().orElseThrow();
+        }
+
+        try (var reader = TickJournal.read(file)) {
+            var header = reader.header();
+            assertEquals("BTCUSDT", header.symbol());
+            assertEquals(new BigDecimal("0.10"), header.riskPct());
+            assertEquals(new BigDecimal("0.05"), header.stopLossPct());
+            assertEquals(seed.closes(), header.seed().closes());
+            assertEquals(new BigDecimal("100.9"), header.seed().prevFast());
+            assertNull(header.seed().prevSlow());
+
+            var first = reader.next();
+            assertEquals(t1, first.ts());
+            assertEquals(new BigDecimal("42000.01000000"), first.price());
+            assertNull(first.fill());
+            assertTrue(Double.isNaN(first.imbalance()));
+
+            var second = reader.next();
+            assertEquals("BUY", second.fill().side());
+            assertEquals(new BigDecimal("0.02380868"), second.fill().quantity());
+            assertFalse(second.riskCheck());
+            assertEquals(0.25, second.imbalance());
+
+            var third = reader.next();
+            assertTrue(third.riskCheck());
+            assertEquals("SELL", third.fill().side());
+
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void disabledJournalWritesNothing() throws IOException {
+        TickJournal journal = new TickJournal(dir.toString(), false);
+        journal.open(new TickJournal.Header(1L, "BTCUSDT", "1m", BigDecimal.ONE, BigDecimal.ONE, null,
+                new IndicatorState(List.of(), null, null, OffsetDateTime.parse("2026-01-01T00:00:00Z"))));
+        journal.append(OffsetDateTime.parse("2026-01-01T00:00:00Z"), BigDecimal.ONE, null);
+
+        assertEquals(1L, journal.currentSession());
+        try (var files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
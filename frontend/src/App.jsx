@@ -1,5 +1,5 @@
-import { useEffect, useMemo, useState } from "react";
-import { getStatus, startBot, pauseBot, resetBot, getTrades, getSnapshots, getCandles } from "./api";
+import { useEffect, useMemo, useRef, useState } from "react";
+import { getDashboard, startBot, pauseBot, resetBot, getSnapshots, getCandles } from "./api";
 import {
   LineChart,
   Line,
@@ -40,20 +40,41 @@ export default function App() {
   const [snaps, setSnaps] = useState([]);
   const [error, setError] = useState("");
 
-  async function refreshAll() {
+  // Trades are polled as a delta after this cursor; null reloads them
+  const tradeCursor = useRef(null);
+
+  // A full refresh reloads the equity curve and trades; polls only merge what is new
+  async function refreshAll(full = true) {
     setError("");
     try {
-      const [st, csRaw, trRaw, ssRaw] = await Promise.all([
-        getStatus(),
+      const since = full ? null : tradeCursor.current;
+      const [dash, csRaw, ssRaw] = await Promise.all([
+        getDashboard(mode, symbol, since, 300),
         getCandles(symbol, interval, 500),
-        getTrades(mode, symbol, 300),
-        getSnapshots(mode, symbol, 2000),
+        full ? getSnapshots(mode, symbol, 2000) : Promise.resolve(null),
       ]);
 
-      setStatus(st);
+      setStatus(dash.status);
       setCandles(Array.isArray(csRaw) ? csRaw : []);
-      setTrades(Array.isArray(trRaw) ? trRaw : []);
-      setSnaps(Array.isArray(ssRaw) ? ssRaw : []);
+
+      const newTrades = Array.isArray(dash.trades) ? dash.trades : [];
+      if (since == null || dash.tradesTruncated) setTrades(newTrades);
+      // The cursor's millisecond comes back whole, so the rows already shown from it are replaced
+      else if (newTrades.length > 0) {
+        setTrades((prev) => [...newTrades, ...prev.filter((t) => Date.parse(t.purchasedAt) < since)].slice(0, 300));
+      }
+      tradeCursor.current = dash.tradeCursorMs;
+
+      if (ssRaw) {
+        setSnaps(Array.isArray(ssRaw) ? ssRaw : []);
+      } else if (dash.latestSnapshot) {
+        const latest = dash.latestSnapshot;
+        setSnaps((prev) => {
+          const last = prev[prev.length - 1];
+          if (last && Date.parse(last.purchasedAt) >= Date.parse(latest.purchasedAt)) return prev;
+          return [...prev, latest].slice(-2000);
+        });
+      }
     } catch (e) {
       setError(String(e?.message ?? e));
     }
@@ -61,7 +82,7 @@ export default function App() {
 
   useEffect(() => {
     refreshAll();
-    const id = window.setInterval(() => refreshAll(), 4000);
+    const id = window.setInterval(() => refreshAll(false), 4000);
     return () => window.clearInterval(id);
 
   }, [mode, symbol, interval]);
@@ -336,7 +357,7 @@ export default function App() {
                 {trades.map((t) => {
                   const when = t.executedAt ?? t.purchased_at ?? t.ts;
                   return (
-                    <tr key={t.id ?? `${t.side}-${when}-${t.price}`}>
+                    <tr key={t.id || `${t.side}-${when}-${t.price}`}>
                       <td>{when ? new Date(when).toLocaleString() : ""}</td>
                       <td>
                         <b>{t.side}</b>
@@ -27,6 +27,14 @@ export async function resetBot(mode, symbol) {
     if (!r.ok) throw new Error("reset failed");
 }
 
+// Status, newest equity point, trades from sinceMs on (all recent ones without it) and trade totals in one call
+export async function getDashboard(mode, symbol, sinceMs, limit = 300) {
+    const since = sinceMs == null ? "" : `&sinceMs=${sinceMs}`;
+    const r = await fetch(`${API}/api/dashboard?mode=${mode}&symbol=${symbol}&limit=${limit}${since}`);
+    if (!r.ok) throw new Error("dashboard failed");
+    return r.json();
+}
+
 export async function getTrades(mode, symbol, limit = 200) {
     const r = await fetch(`${API}/api/trades?mode=${mode}&symbol=${symbol}&limit=${limit}`);
     if (!r.ok) throw new Error("trades failed");